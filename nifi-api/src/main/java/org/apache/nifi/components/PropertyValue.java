@@ -324,6 +324,53 @@ public interface PropertyValue {
      */
     PropertyValue evaluateAttributeExpressions(FlowFile flowFile, AttributeValueDecorator decorator) throws ProcessException;
 
+    /**
+     * <p>
+     * Replaces values in the Property Value using the NiFi Expression Language
+     * and returns the resulting String. This is equivalent to calling
+     * <code>evaluateAttributeExpressions(flowFile).getValue()</code> but allows
+     * implementations to avoid creating an intermediate PropertyValue, which is
+     * significant for components that evaluate properties for every FlowFile.
+     * </p>
+     *
+     * @param flowFile to evaluate attributes of. It's flow file properties and
+     * then flow file attributes will take precedence over any underlying
+     * variable registry.
+     * @return the value of the property after Expression Language evaluation
+     *
+     * @throws ProcessException if the Expression cannot be compiled or
+     * evaluating the Expression against the given attributes causes an
+     * Exception to be thrown
+     */
+    default String evaluateAttributeExpressionsAsString(FlowFile flowFile) throws ProcessException {
+        return evaluateAttributeExpressions(flowFile).getValue();
+    }
+
+    /**
+     * <p>
+     * Replaces values in the Property Value using the NiFi Expression Language
+     * and returns the resulting String. This is equivalent to calling
+     * <code>evaluateAttributeExpressions(flowFile, additionalAttributes).getValue()</code>
+     * but allows implementations to avoid creating an intermediate PropertyValue.
+     * </p>
+     *
+     * @param flowFile to evaluate attributes of. It's flow file properties and
+     * then flow file attributes will take precedence over any underlying
+     * variable registry.
+     * @param additionalAttributes a Map of additional attributes that the
+     * Expression can reference. These attributes will take precedence over any
+     * conflicting attributes in the provided flowfile or any underlying
+     * variable registry.
+     * @return the value of the property after Expression Language evaluation
+     *
+     * @throws ProcessException if the Expression cannot be compiled or
+     * evaluating the Expression against the given attributes causes an
+     * Exception to be thrown
+     */
+    default String evaluateAttributeExpressionsAsString(FlowFile flowFile, Map<String, String> additionalAttributes) throws ProcessException {
+        return evaluateAttributeExpressions(flowFile, additionalAttributes).getValue();
+    }
+
     /**
      * <p>
      * Indicates whether the value of the property uses Expression Language.
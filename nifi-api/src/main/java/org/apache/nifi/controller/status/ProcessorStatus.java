@@ -39,6 +39,7 @@ public class ProcessorStatus implements Cloneable {
     private long bytesWritten;
     private int invocations;
     private long processingNanos;
+    private long taskWaitNanos;
     private int flowFilesRemoved;
     private long averageLineageDuration;
     private int activeThreadCount;
@@ -161,6 +162,14 @@ public class ProcessorStatus implements Cloneable {
         this.processingNanos = processingNanos;
     }
 
+    public long getTaskWaitNanos() {
+        return taskWaitNanos;
+    }
+
+    public void setTaskWaitNanos(final long taskWaitNanos) {
+        this.taskWaitNanos = taskWaitNanos;
+    }
+
     public long getAverageLineageDuration(final TimeUnit timeUnit) {
         return TimeUnit.MILLISECONDS.convert(averageLineageDuration, timeUnit);
     }
@@ -261,6 +270,7 @@ public class ProcessorStatus implements Cloneable {
         clonedObj.outputBytes = outputBytes;
         clonedObj.outputCount = outputCount;
         clonedObj.processingNanos = processingNanos;
+        clonedObj.taskWaitNanos = taskWaitNanos;
         clonedObj.averageLineageDuration = averageLineageDuration;
         clonedObj.flowFilesRemoved = flowFilesRemoved;
         clonedObj.runStatus = runStatus;
@@ -301,6 +311,8 @@ public class ProcessorStatus implements Cloneable {
         builder.append(invocations);
         builder.append(", processingNanos=");
         builder.append(processingNanos);
+        builder.append(", taskWaitNanos=");
+        builder.append(taskWaitNanos);
         builder.append(", activeThreadCount=");
         builder.append(activeThreadCount);
         builder.append(", terminatedThreadCount=");
@@ -32,6 +32,8 @@ import org.apache.nifi.provenance.ProvenanceReporter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
@@ -866,6 +868,39 @@ public interface ProcessSession {
      */
     void exportTo(FlowFile flowFile, OutputStream destination);
 
+    /**
+     * Writes the content of the given FlowFile to the given destination channel.
+     * When the content is stored in a file, the framework may transfer it
+     * directly from the file to the channel (for example, from the content
+     * repository to a socket) without copying it through the Java heap. When
+     * that is not possible, such as when the content is encrypted or held in
+     * memory, the content is copied as it would be by
+     * {@link #exportTo(FlowFile, OutputStream)}. The channel is not closed.
+     *
+     * @param flowFile to export the content of
+     * @param destination the channel to export the content to, which must be
+     * in blocking mode
+     * @throws IllegalStateException if detected that this method is being
+     * called from within a callback of another method in this session and for
+     * the given FlowFile(s)
+     * @throws FlowFileHandlingException if the given FlowFile is already
+     * transferred or removed or doesn't belong to this session. Automatic
+     * rollback will occur.
+     * @throws MissingFlowFileException if the given FlowFile content cannot be
+     * found. The FlowFile should no longer be reference, will be internally
+     * destroyed, and the session is automatically rolled back and what is left
+     * of the FlowFile is destroyed.
+     * @throws FlowFileAccessException if some IO problem occurs accessing
+     * FlowFile content
+     * @throws IllegalArgumentException if the destination is a
+     * non-blocking channel
+     * @throws ProcessException if an IOException is thrown while writing to
+     * the channel
+     */
+    default void exportTo(FlowFile flowFile, WritableByteChannel destination) {
+        exportTo(flowFile, Channels.newOutputStream(destination));
+    }
+
     /**
      * Returns a ProvenanceReporter that is tied to this ProcessSession.
      *
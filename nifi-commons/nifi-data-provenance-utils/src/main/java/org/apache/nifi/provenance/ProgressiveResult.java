@@ -24,8 +24,23 @@ import java.util.Collection;
  */
 public interface ProgressiveResult {
 
+    /**
+     * Adds the given records to the result and marks one step of the computation as complete
+     *
+     * @param records the records that were found by the step
+     * @param totalHitCount the total number of hits that the step found, which may be more than the number of records
+     */
     void update(Collection<ProvenanceEventRecord> records, long totalHitCount);
 
+    /**
+     * Adds the given records to the result without marking a step of the computation as complete. This allows a step that
+     * finds many records to make them available as they are read, rather than only once the step is done. The step must
+     * still call {@link #update(Collection, long)} when it completes.
+     *
+     * @param records the records that have been found so far by a step
+     */
+    void addRecords(Collection<ProvenanceEventRecord> records);
+
     void setError(String error);
 
     long getTotalHitCount();
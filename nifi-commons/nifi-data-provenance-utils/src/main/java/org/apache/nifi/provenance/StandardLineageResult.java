@@ -34,6 +34,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -48,7 +49,9 @@ public class StandardLineageResult implements ComputeLineageResult, ProgressiveR
     private static final Logger logger = LoggerFactory.getLogger(StandardLineageResult.class);
 
     private final Collection<String> flowFileUuids;
-    private final Set<ProvenanceEventRecord> relevantRecords = new HashSet<>();
+    // Keyed by Event ID, rather than relying on the events' equals(), because the same event may be found by more than one step, such as when it is
+    // indexed while the events that are not yet indexed are being searched, and placeholders for unauthorized events are not equal to one another.
+    private final Set<ProvenanceEventRecord> relevantRecords = new TreeSet<>(Comparator.comparingLong(ProvenanceEventRecord::getEventId));
     private final Set<LineageNode> nodes = new HashSet<>();
     private final Set<LineageEdge> edges = new HashSet<>();
     private final int numSteps;
@@ -190,6 +193,17 @@ public class StandardLineageResult implements ComputeLineageResult, ProgressiveR
         }
     }
 
+    @Override
+    public void addRecords(final Collection<ProvenanceEventRecord> records) {
+        writeLock.lock();
+        try {
+            relevantRecords.addAll(records);
+            updateExpiration();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     /**
      * Computes the lineage from the relevant Provenance Event Records. This
      * method must be called with the write lock held and is only going to be
@@ -159,27 +159,14 @@ public class StandardQueryResult implements QueryResult, ProgressiveResult {
 
         writeLock.lock();
         try {
+            // Count the hits of the step even if the result is already finished, as it is once addRecords has obtained the maximum number of results
+            hitCount += totalHits;
+
             if (isFinished()) {
                 return;
             }
 
-            this.matchingRecords.addAll(newEvents);
-            hitCount += totalHits;
-
-            // If we've added more records than the query's max, then remove the trailing elements.
-            // We do this, rather than avoiding the addition of the elements because we want to choose
-            // the events with the largest ID.
-            if (matchingRecords.size() > query.getMaxResults()) {
-                final Iterator<ProvenanceEventRecord> itr = matchingRecords.iterator();
-                for (int i = 0; i < query.getMaxResults(); i++) {
-                    itr.next();
-                }
-
-                while (itr.hasNext()) {
-                    itr.next();
-                    itr.remove();
-                }
-            }
+            addMatchingRecords(newEvents);
 
             numCompletedSteps++;
             updateExpiration();
@@ -209,6 +196,65 @@ public class StandardQueryResult implements QueryResult, ProgressiveResult {
         }
     }
 
+    @Override
+    public void addRecords(final Collection<ProvenanceEventRecord> newEvents) {
+        if (newEvents.isEmpty()) {
+            return;
+        }
+
+        boolean queryComplete = false;
+
+        writeLock.lock();
+        try {
+            if (isFinished()) {
+                return;
+            }
+
+            addMatchingRecords(newEvents);
+            updateExpiration();
+
+            if (this.matchingRecords.size() >= query.getMaxResults()) {
+                final long searchNanos = System.nanoTime() - creationNanos;
+                queryTime = TimeUnit.MILLISECONDS.convert(searchNanos, TimeUnit.NANOSECONDS);
+                queryComplete = true;
+
+                logger.info("Completed {} comprised of {} steps in {} millis. Read {} events from Event Files. "
+                        + "Only completed {} steps because the maximum number of results was reached.",
+                    query, numSteps, queryTime, matchingRecords.size(), numCompletedSteps);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (queryComplete) {
+            synchronized (completionMonitor) {
+                completionMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Must be called with write lock!
+     */
+    private void addMatchingRecords(final Collection<ProvenanceEventRecord> newEvents) {
+        this.matchingRecords.addAll(newEvents);
+
+        // If we've added more records than the query's max, then remove the trailing elements.
+        // We do this, rather than avoiding the addition of the elements because we want to choose
+        // the events with the largest ID.
+        if (matchingRecords.size() > query.getMaxResults()) {
+            final Iterator<ProvenanceEventRecord> itr = matchingRecords.iterator();
+            for (int i = 0; i < query.getMaxResults(); i++) {
+                itr.next();
+            }
+
+            while (itr.hasNext()) {
+                itr.next();
+                itr.remove();
+            }
+        }
+    }
+
     @Override
     public boolean awaitCompletion(final long time, final TimeUnit unit) throws InterruptedException {
         final long finishTime = System.currentTimeMillis() + unit.toMillis(time);
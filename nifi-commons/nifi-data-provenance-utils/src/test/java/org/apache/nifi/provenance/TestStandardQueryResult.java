@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import org.apache.nifi.provenance.search.Query;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestStandardQueryResult {
+
+    @Test
+    public void testHitCountKeptWhenMaxResultsReachedByAddRecords() {
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.setMaxResults(10);
+        final StandardQueryResult result = new StandardQueryResult(query, 2);
+
+        // The first step reads more events than the max results, which finishes the result before the step completes
+        result.addRecords(createEvents(0, 15));
+        assertTrue(result.isFinished());
+        result.update(Collections.emptyList(), 15L);
+
+        // The second step completes after the result is finished
+        result.update(Collections.emptyList(), 7L);
+
+        assertTrue(result.isFinished());
+        assertEquals(10, result.getTotalHitCount());
+        assertEquals(10, result.getMatchingEvents().size());
+
+        // The events with the largest IDs are kept
+        assertEquals(14L, result.getMatchingEvents().get(0).getEventId());
+        assertEquals(5L, result.getMatchingEvents().get(9).getEventId());
+    }
+
+    @Test
+    public void testTotalHitCountWithFewerEventsThanMaxResults() {
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.setMaxResults(10);
+        final StandardQueryResult result = new StandardQueryResult(query, 1);
+
+        result.addRecords(createEvents(0, 4));
+        assertFalse(result.isFinished());
+        result.update(Collections.emptyList(), 4L);
+
+        assertTrue(result.isFinished());
+        assertEquals(4, result.getTotalHitCount());
+        assertEquals(100, result.getPercentComplete());
+    }
+
+    private List<ProvenanceEventRecord> createEvents(final long firstEventId, final int count) {
+        final List<ProvenanceEventRecord> events = new ArrayList<>(count);
+        for (long eventId = firstEventId; eventId < firstEventId + count; eventId++) {
+            events.add(new StandardProvenanceEventRecord.Builder()
+                .setEventId(eventId)
+                .setEventType(ProvenanceEventType.CREATE)
+                .setEventTime(System.currentTimeMillis())
+                .setComponentId("1234")
+                .setComponentType("Unit Test")
+                .setFlowFileUUID(UUID.randomUUID().toString())
+                .setCurrentContentClaim(null, null, null, null, 0L)
+                .build());
+        }
+
+        return events;
+    }
+}
@@ -18,17 +18,27 @@
 package org.apache.nifi.attribute.expression.language;
 
 import org.antlr.runtime.tree.Tree;
+import org.apache.nifi.attribute.expression.language.compile.EvaluatorSpecializer;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
 import org.apache.nifi.expression.AttributeValueDecorator;
 
 import java.util.Set;
+import java.util.function.Function;
 
 public class CompiledExpression implements Expression {
+    // Number of evaluations after which the Expression is specialized. Expressions that are evaluated only a few times are not worth the cost.
+    static final int SPECIALIZATION_THRESHOLD = 100;
+
     private final Evaluator<?> rootEvaluator;
     private final Tree tree;
     private final String expression;
     private final Set<Evaluator<?>> allEvaluators;
 
+    // The evaluation count is intentionally not thread-safe: it only needs to tell whether the Expression is hot, not how many times it was evaluated.
+    private int evaluationCount = 0;
+    private volatile boolean specializationAttempted = false;
+    private volatile Function<EvaluationContext, String> specialized;
+
     public CompiledExpression(final String expression, final Evaluator<?> rootEvaluator, final Tree tree, final Set<Evaluator<?>> allEvaluators) {
         this.rootEvaluator = rootEvaluator;
         this.tree = tree;
@@ -54,6 +64,31 @@ public class CompiledExpression implements Expression {
 
     @Override
     public String evaluate(final EvaluationContext evaluationContext, final AttributeValueDecorator decorator) {
-        return Query.evaluateExpression(tree, rootEvaluator, expression, evaluationContext, decorator);
+        final Function<EvaluationContext, String> specializedFunction = getSpecialized();
+        if (specializedFunction == null) {
+            return Query.evaluateExpression(tree, rootEvaluator, expression, evaluationContext, decorator);
+        }
+
+        final String value = specializedFunction.apply(evaluationContext);
+        if (value == null) {
+            return null;
+        }
+
+        return decorator == null ? value : decorator.decorate(value);
+    }
+
+    private Function<EvaluationContext, String> getSpecialized() {
+        if (specializationAttempted) {
+            return specialized;
+        }
+
+        if (++evaluationCount < SPECIALIZATION_THRESHOLD) {
+            return null;
+        }
+
+        // Multiple threads may specialize the Expression concurrently. This is harmless, as they produce equivalent functions.
+        specialized = EvaluatorSpecializer.specialize(rootEvaluator, allEvaluators);
+        specializationAttempted = true;
+        return specialized;
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language;
+
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.parameter.Parameter;
+import org.apache.nifi.parameter.ParameterLookup;
+import org.apache.nifi.registry.VariableRegistry;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * An EvaluationContext that is confined to a single thread and reused for many evaluations, so that evaluating a property against each
+ * FlowFile does not require creating a new {@link ValueLookup} and {@link StandardEvaluationContext} every time.
+ * </p>
+ *
+ * <p>
+ * A context is obtained by calling {@link #acquire(VariableRegistry, FlowFile, Map, Map, ParameterLookup)} and must be released, by calling
+ * {@link #release()}, once the evaluation completes so that it no longer references the FlowFile and can be acquired again. If the thread
+ * acquires a context while it still holds one, such as when an evaluation causes another property to be evaluated, a new context is created.
+ * </p>
+ */
+final class ReusableEvaluationContext implements EvaluationContext {
+    private static final ThreadLocal<ReusableEvaluationContext> THREAD_CONTEXT = ThreadLocal.withInitial(ReusableEvaluationContext::new);
+
+    private final ValueLookup valueLookup = new ValueLookup(null, null);
+    private final EvaluatorState evaluatorState = new EvaluatorState();
+    private Map<String, String> stateMap;
+    private ParameterLookup parameterLookup;
+    private boolean inUse = false;
+
+    private ReusableEvaluationContext() {
+    }
+
+    static ReusableEvaluationContext acquire(final VariableRegistry registry, final FlowFile flowFile, final Map<String, String> additionalAttributes,
+                                             final Map<String, String> stateMap, final ParameterLookup parameterLookup) {
+        ReusableEvaluationContext context = THREAD_CONTEXT.get();
+        if (context.inUse) {
+            context = new ReusableEvaluationContext();
+        }
+
+        context.inUse = true;
+        context.valueLookup.reset(registry, flowFile, additionalAttributes);
+        context.stateMap = stateMap;
+        context.parameterLookup = parameterLookup;
+        return context;
+    }
+
+    void release() {
+        valueLookup.reset(null, null, null);
+        evaluatorState.clear();
+        stateMap = null;
+        parameterLookup = null;
+        inUse = false;
+    }
+
+    @Override
+    public String getExpressionValue(final String name) {
+        return valueLookup.get(name);
+    }
+
+    @Override
+    public Set<String> getExpressionKeys() {
+        return valueLookup.getKeysAddressableByMultiMatch();
+    }
+
+    @Override
+    public String getState(final String key) {
+        return stateMap.get(key);
+    }
+
+    @Override
+    public Parameter getParameter(final String parameterName) {
+        return parameterLookup.getParameter(parameterName).orElse(null);
+    }
+
+    @Override
+    public EvaluatorState getEvaluatorState() {
+        return evaluatorState;
+    }
+}
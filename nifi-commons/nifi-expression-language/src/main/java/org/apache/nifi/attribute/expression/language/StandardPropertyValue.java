@@ -160,13 +160,33 @@ public class StandardPropertyValue implements PropertyValue {
             return this;
         }
 
-        final ValueLookup lookup = new ValueLookup(variableRegistry, flowFile, additionalAttributes);
-        final EvaluationContext evaluationContext = new StandardEvaluationContext(lookup, stateValues, parameterLookup);
-        final String evaluated = preparedQuery.evaluateExpressions(evaluationContext, decorator);
-
+        final String evaluated = evaluate(flowFile, additionalAttributes, decorator, stateValues);
         return new StandardPropertyValue(evaluated, serviceLookup, parameterLookup, new EmptyPreparedQuery(evaluated), null);
     }
 
+    @Override
+    public String evaluateAttributeExpressionsAsString(final FlowFile flowFile) throws ProcessException {
+        return evaluateAttributeExpressionsAsString(flowFile, null);
+    }
+
+    @Override
+    public String evaluateAttributeExpressionsAsString(final FlowFile flowFile, final Map<String, String> additionalAttributes) throws ProcessException {
+        if (rawValue == null || preparedQuery == null) {
+            return rawValue;
+        }
+
+        return evaluate(flowFile, additionalAttributes, null, null);
+    }
+
+    private String evaluate(final FlowFile flowFile, final Map<String, String> additionalAttributes, final AttributeValueDecorator decorator, final Map<String, String> stateValues) {
+        final ReusableEvaluationContext evaluationContext = ReusableEvaluationContext.acquire(variableRegistry, flowFile, additionalAttributes, stateValues, parameterLookup);
+        try {
+            return preparedQuery.evaluateExpressions(evaluationContext, decorator);
+        } finally {
+            evaluationContext.release();
+        }
+    }
+
     @Override
     public String toString() {
         return rawValue;
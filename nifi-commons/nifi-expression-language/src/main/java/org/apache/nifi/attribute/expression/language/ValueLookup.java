@@ -37,7 +37,21 @@ import java.util.Set;
 final class ValueLookup implements Map<String, String> {
 
     private final List<Map<String, String>> maps = new ArrayList<>();
-    private final VariableRegistry registry;
+    private VariableRegistry registry;
+    private FlowFile flowFile;
+
+    /**
+     * Constructs a ValueLookup where values are looked up first based on
+     * flowfile properties, then flowfile attributes, then based on the
+     * provided variable registry.
+     *
+     * @param registry the variable registry to lookup from; may be null
+     * @param flowFile the flowFile to pull attributes from; may be null
+     */
+    ValueLookup(final VariableRegistry registry, final FlowFile flowFile) {
+        this.flowFile = flowFile;
+        this.registry = registry == null ? VariableRegistry.EMPTY_REGISTRY : registry;
+    }
 
     /**
      * Constructs a ValueLookup where values are looked up first based any
@@ -58,14 +72,64 @@ final class ValueLookup implements Map<String, String> {
             }
         }
 
-        if (flowFile != null) {
-            maps.add(ValueLookup.extractFlowFileProperties(flowFile));
-            maps.add(flowFile.getAttributes());
+        this.flowFile = flowFile;
+        this.registry = registry == null ? VariableRegistry.EMPTY_REGISTRY : registry;
+    }
+
+    /**
+     * Points this lookup at a different FlowFile and set of additional attributes, so that a single lookup can be reused by one thread
+     * for many evaluations rather than creating a new lookup for each of them.
+     *
+     * @param registry the variable registry to lookup from; may be null
+     * @param flowFile the flowFile to pull attributes from; may be null
+     * @param additionalMap the map to pull values from; may be null or empty
+     */
+    void reset(final VariableRegistry registry, final FlowFile flowFile, final Map<String, String> additionalMap) {
+        maps.clear();
+        if (additionalMap != null && !additionalMap.isEmpty()) {
+            maps.add(additionalMap);
         }
 
+        this.flowFile = flowFile;
         this.registry = registry == null ? VariableRegistry.EMPTY_REGISTRY : registry;
     }
 
+    /**
+     * @return the additional maps followed by the FlowFile's properties and attributes, in order of precedence
+     */
+    private List<Map<String, String>> getAllMaps() {
+        if (flowFile == null) {
+            return maps;
+        }
+
+        final List<Map<String, String>> allMaps = new ArrayList<>(maps);
+        allMaps.add(ValueLookup.extractFlowFileProperties(flowFile));
+        allMaps.add(flowFile.getAttributes());
+        return allMaps;
+    }
+
+    /**
+     * Returns the value of the FlowFile property with the given name without creating the Map of all FlowFile properties
+     */
+    private static String getFlowFileProperty(final FlowFile flowFile, final String name) {
+        switch (name) {
+            case "flowFileId":
+                return String.valueOf(flowFile.getId());
+            case "fileSize":
+                return String.valueOf(flowFile.getSize());
+            case "entryDate":
+                return String.valueOf(flowFile.getEntryDate());
+            case "lineageStartDate":
+                return String.valueOf(flowFile.getLineageStartDate());
+            case "lastQueueDate":
+                return String.valueOf(flowFile.getLastQueueDate());
+            case "queueDateIndex":
+                return String.valueOf(flowFile.getQueueDateIndex());
+            default:
+                return null;
+        }
+    }
+
     static final Map<String, String> extractFlowFileProperties(final FlowFile flowFile) {
         final Map<String, String> flowFileProps = new HashMap<>();
         flowFileProps.put("flowFileId", String.valueOf(flowFile.getId()));
@@ -84,7 +148,7 @@ final class ValueLookup implements Map<String, String> {
 
     @Override
     public boolean isEmpty() {
-        for (final Map<String, String> map : maps) {
+        for (final Map<String, String> map : getAllMaps()) {
             if (!map.isEmpty()) {
                 return false;
             }
@@ -97,7 +161,7 @@ final class ValueLookup implements Map<String, String> {
         if (key == null) {
             return false;
         }
-        if (maps.stream().anyMatch((map) -> (map.containsKey(key)))) {
+        if (getAllMaps().stream().anyMatch((map) -> (map.containsKey(key)))) {
             return true;
         }
         return registry.getVariableKey(key.toString()) != null;
@@ -119,13 +183,27 @@ final class ValueLookup implements Map<String, String> {
             return null;
         }
 
-        for (final Map<String, String> map : maps) {
-            final String val = map.get(key.toString());
+        final String name = key.toString();
+        for (int i = 0; i < maps.size(); i++) {
+            final String val = maps.get(i).get(name);
             if (val != null) {
                 return val;
             }
         }
-        return registry.getVariableValue(key.toString());
+
+        if (flowFile != null) {
+            final String property = getFlowFileProperty(flowFile, name);
+            if (property != null) {
+                return property;
+            }
+
+            final String attribute = flowFile.getAttributes().get(name);
+            if (attribute != null) {
+                return attribute;
+            }
+        }
+
+        return registry.getVariableValue(name);
     }
 
     @Override
@@ -150,7 +228,7 @@ final class ValueLookup implements Map<String, String> {
 
     public Set<String> getKeysAddressableByMultiMatch() {
         final Set<String> keys = new HashSet<>();
-        for (final Map<String, String> map : maps) {
+        for (final Map<String, String> map : getAllMaps()) {
             keys.addAll(map.keySet());
         }
         return keys;
@@ -182,7 +260,7 @@ final class ValueLookup implements Map<String, String> {
             newMap.put(entry.getKey().getName(), entry.getValue());
         }
         //put attribute maps in reverse order
-        final List<Map<String,String>> listOfMaps = new ArrayList<>(maps);
+        final List<Map<String,String>> listOfMaps = new ArrayList<>(getAllMaps());
         Collections.reverse(listOfMaps);
         for(final Map<String,String> map : listOfMaps){
             for(final Map.Entry<String, String> entry : map.entrySet()){
@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.EvaluationContext;
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.AndEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.AppendEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ContainsEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.EndsWithEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.EqualsEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.EqualsIgnoreCaseEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.IfElseEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.IsEmptyEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.IsNullEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.NotEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.NotNullEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.OrEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.PrependEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ReplaceEmptyEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ReplaceNullEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.StartsWithEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ToLowerEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.ToUpperEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.functions.TrimEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.reduce.ReduceEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.AttributeEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.IteratingEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.selection.MappingEvaluator;
+import org.apache.nifi.expression.AttributeExpression.ResultType;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * A second compilation tier for the Expression Language. The {@link ExpressionCompiler} turns an Expression into a tree of {@link Evaluator}s,
+ * each of which wraps its result in a new {@link org.apache.nifi.attribute.expression.language.evaluation.QueryResult QueryResult}, boxing
+ * boolean results along the way. This class turns such a tree into a tree of functions that return Strings and primitive booleans directly.
+ * Evaluating the functions avoids the QueryResult that each Evaluator allocates for its result, the boxing of boolean results, and the dispatch
+ * through the generic Evaluator interface, which must then unwrap and cast each child's result.
+ * </p>
+ *
+ * <p>
+ * Only the most commonly used functions, such as attribute references, string literals, comparisons and boolean logic, are specialized. Any
+ * other String-typed subtree is evaluated by its Evaluator, so that the Evaluators remain the fallback for all functions. Expressions that
+ * iterate over multiple attributes are not specialized at all, as their Evaluators keep per-evaluation state.
+ * </p>
+ */
+public final class EvaluatorSpecializer {
+
+    private EvaluatorSpecializer() {
+    }
+
+    /**
+     * Specializes the given Evaluator tree
+     *
+     * @param rootEvaluator the root of the Evaluator tree
+     * @param allEvaluators all of the Evaluators in the tree
+     * @return a function that evaluates the Expression to its String value, or <code>null</code> if the Expression cannot be specialized
+     */
+    public static Function<EvaluationContext, String> specialize(final Evaluator<?> rootEvaluator, final Collection<Evaluator<?>> allEvaluators) {
+        for (final Evaluator<?> evaluator : allEvaluators) {
+            if (evaluator instanceof IteratingEvaluator || evaluator instanceof MappingEvaluator || evaluator instanceof ReduceEvaluator) {
+                return null;
+            }
+        }
+
+        if (rootEvaluator.getResultType() == ResultType.BOOLEAN) {
+            final Predicate<EvaluationContext> predicate = specializeBoolean(rootEvaluator);
+            if (predicate == null) {
+                return null;
+            }
+
+            return context -> predicate.test(context) ? "true" : "false";
+        }
+
+        if (rootEvaluator.getResultType() == ResultType.STRING) {
+            return specializeString(rootEvaluator, false);
+        }
+
+        return null;
+    }
+
+    /**
+     * @param evaluator a String-typed Evaluator
+     * @param allowFallback whether or not an Evaluator that cannot be specialized should be evaluated as-is
+     * @return a function that returns the Evaluator's value, or <code>null</code> if the Evaluator cannot be specialized and fallback is not allowed
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<EvaluationContext, String> specializeString(final Evaluator<?> evaluator, final boolean allowFallback) {
+        if (evaluator instanceof StringLiteralEvaluator) {
+            final String value = ((StringLiteralEvaluator) evaluator).getValue();
+            return context -> value;
+        }
+
+        if (evaluator instanceof AttributeEvaluator) {
+            final Evaluator<String> nameEvaluator = ((AttributeEvaluator) evaluator).getNameEvaluator();
+            if (nameEvaluator instanceof StringLiteralEvaluator) {
+                final String attributeName = ((StringLiteralEvaluator) nameEvaluator).getValue();
+                return context -> context.getExpressionValue(attributeName);
+            }
+
+            final Function<EvaluationContext, String> name = specializeString(nameEvaluator, true);
+            return context -> context.getExpressionValue(name.apply(context));
+        }
+
+        if (evaluator instanceof ToUpperEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            return context -> {
+                final String value = subject.apply(context);
+                return value == null ? null : value.toUpperCase();
+            };
+        }
+
+        if (evaluator instanceof ToLowerEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            return context -> {
+                final String value = subject.apply(context);
+                return value == null ? null : value.toLowerCase();
+            };
+        }
+
+        if (evaluator instanceof TrimEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            return context -> {
+                final String value = subject.apply(context);
+                return value == null ? null : value.trim();
+            };
+        }
+
+        if (evaluator instanceof AppendEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> append = specializeString(((AppendEvaluator) evaluator).getAppendEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                final String appendValue = append.apply(context);
+                return (subjectValue == null ? "" : subjectValue) + (appendValue == null ? "" : appendValue);
+            };
+        }
+
+        if (evaluator instanceof PrependEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> prepend = specializeString(((PrependEvaluator) evaluator).getPrependEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                final String prependValue = prepend.apply(context);
+                return (prependValue == null ? "" : prependValue) + (subjectValue == null ? "" : subjectValue);
+            };
+        }
+
+        if (evaluator instanceof ReplaceNullEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> replacement = specializeString(((ReplaceNullEvaluator) evaluator).getReplacementEvaluator(), true);
+            return context -> {
+                final String value = subject.apply(context);
+                return value == null ? replacement.apply(context) : value;
+            };
+        }
+
+        if (evaluator instanceof ReplaceEmptyEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> replacement = specializeString(((ReplaceEmptyEvaluator) evaluator).getReplacementEvaluator(), true);
+            return context -> {
+                final String value = subject.apply(context);
+                return isEmpty(value) ? replacement.apply(context) : value;
+            };
+        }
+
+        if (evaluator instanceof IfElseEvaluator) {
+            final IfElseEvaluator ifElseEvaluator = (IfElseEvaluator) evaluator;
+            final Predicate<EvaluationContext> condition = specializeBoolean(ifElseEvaluator.getSubjectEvaluator());
+            if (condition != null) {
+                final Function<EvaluationContext, String> trueValue = specializeString(ifElseEvaluator.getTrueEvaluator(), true);
+                final Function<EvaluationContext, String> falseValue = specializeString(ifElseEvaluator.getFalseEvaluator(), true);
+                return context -> condition.test(context) ? trueValue.apply(context) : falseValue.apply(context);
+            }
+        }
+
+        if (!allowFallback) {
+            return null;
+        }
+
+        final Evaluator<String> fallback = (Evaluator<String>) evaluator;
+        return context -> fallback.evaluate(context).getValue();
+    }
+
+    /**
+     * Boolean Evaluators are only specialized if they can never produce a <code>null</code> value, so that the result can be represented as a
+     * primitive boolean. For the same reason, a Boolean-typed Evaluator that cannot be specialized is not evaluated as-is.
+     *
+     * @param evaluator a Boolean-typed Evaluator
+     * @return a predicate that returns the Evaluator's value, or <code>null</code> if the Evaluator cannot be specialized
+     */
+    private static Predicate<EvaluationContext> specializeBoolean(final Evaluator<?> evaluator) {
+        if (evaluator instanceof AndEvaluator) {
+            final Predicate<EvaluationContext> subject = specializeBoolean(evaluator.getSubjectEvaluator());
+            final Predicate<EvaluationContext> rhs = specializeBoolean(((AndEvaluator) evaluator).getRhsEvaluator());
+            return subject == null || rhs == null ? null : subject.and(rhs);
+        }
+
+        if (evaluator instanceof OrEvaluator) {
+            final Predicate<EvaluationContext> subject = specializeBoolean(evaluator.getSubjectEvaluator());
+            final Predicate<EvaluationContext> rhs = specializeBoolean(((OrEvaluator) evaluator).getRhsEvaluator());
+            return subject == null || rhs == null ? null : subject.or(rhs);
+        }
+
+        if (evaluator instanceof NotEvaluator) {
+            final Predicate<EvaluationContext> subject = specializeBoolean(evaluator.getSubjectEvaluator());
+            return subject == null ? null : subject.negate();
+        }
+
+        // The remaining functions are specialized only for String subjects and arguments; other types are compared as the Evaluators do.
+        if (!isString(evaluator.getSubjectEvaluator())) {
+            return null;
+        }
+
+        if (evaluator instanceof IsNullEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            return context -> subject.apply(context) == null;
+        }
+
+        if (evaluator instanceof NotNullEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            return context -> subject.apply(context) != null;
+        }
+
+        if (evaluator instanceof IsEmptyEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            return context -> isEmpty(subject.apply(context));
+        }
+
+        if (evaluator instanceof EqualsEvaluator && isString(((EqualsEvaluator) evaluator).getCompareToEvaluator())) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> compareTo = specializeString(((EqualsEvaluator) evaluator).getCompareToEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                if (subjectValue == null) {
+                    return false;
+                }
+
+                final String compareToValue = compareTo.apply(context);
+                return subjectValue.equals(compareToValue);
+            };
+        }
+
+        if (evaluator instanceof EqualsIgnoreCaseEvaluator && isString(((EqualsIgnoreCaseEvaluator) evaluator).getCompareToEvaluator())) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> compareTo = specializeString(((EqualsIgnoreCaseEvaluator) evaluator).getCompareToEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                if (subjectValue == null) {
+                    return false;
+                }
+
+                final String compareToValue = compareTo.apply(context);
+                return subjectValue.equalsIgnoreCase(compareToValue);
+            };
+        }
+
+        if (evaluator instanceof StartsWithEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> search = specializeString(((StartsWithEvaluator) evaluator).getSearchEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                if (subjectValue == null) {
+                    return false;
+                }
+
+                final String searchValue = search.apply(context);
+                return searchValue != null && subjectValue.startsWith(searchValue);
+            };
+        }
+
+        if (evaluator instanceof EndsWithEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> search = specializeString(((EndsWithEvaluator) evaluator).getSearchEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                if (subjectValue == null) {
+                    return false;
+                }
+
+                final String searchValue = search.apply(context);
+                return searchValue != null && subjectValue.endsWith(searchValue);
+            };
+        }
+
+        if (evaluator instanceof ContainsEvaluator) {
+            final Function<EvaluationContext, String> subject = specializeString(evaluator.getSubjectEvaluator(), true);
+            final Function<EvaluationContext, String> search = specializeString(((ContainsEvaluator) evaluator).getSearchEvaluator(), true);
+            return context -> {
+                final String subjectValue = subject.apply(context);
+                if (subjectValue == null) {
+                    return false;
+                }
+
+                final String searchValue = search.apply(context);
+                return searchValue != null && subjectValue.contains(searchValue);
+            };
+        }
+
+        return null;
+    }
+
+    private static boolean isString(final Evaluator<?> evaluator) {
+        return evaluator != null && evaluator.getResultType() == ResultType.STRING;
+    }
+
+    private static boolean isEmpty(final String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -120,6 +120,12 @@ import org.apache.nifi.attribute.expression.language.evaluation.literals.Decimal
 import org.apache.nifi.attribute.expression.language.evaluation.literals.StringLiteralEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.literals.ToLiteralEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.literals.WholeNumberLiteralEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedBooleanEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedDateEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedDecimalEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedNumberEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedStringEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedWholeNumberEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.reduce.CountEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.reduce.JoinEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.reduce.ReduceEvaluator;
@@ -141,8 +147,11 @@ import org.apache.nifi.flowfile.FlowFile;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.apache.nifi.attribute.expression.language.antlr.AttributeExpressionParser.ALL_ATTRIBUTES;
@@ -252,6 +261,29 @@ import static org.apache.nifi.attribute.expression.language.antlr.AttributeExpre
 
 public class ExpressionCompiler {
     private final Set<Evaluator<?>> evaluators = new HashSet<>();
+    private final Map<Evaluator<?>, Dependency> dependencies = new HashMap<>();
+
+    /**
+     * What the value of an Evaluator depends on, in increasing order of volatility. The value of a function depends on whatever
+     * the function itself, its subject, or any of its arguments depend on, whichever is the most volatile.
+     */
+    private enum Dependency {
+        /**
+         * The value never changes, such as for a literal or a function of literals
+         */
+        NONE,
+
+        /**
+         * The value depends only on the current time, such as for the now() function
+         */
+        TIME,
+
+        /**
+         * The value depends on the Evaluation Context, such as FlowFile attributes, variables, parameters, or state,
+         * or is intentionally different every time, such as for the random() function
+         */
+        CONTEXT
+    }
 
     public CompiledExpression compile(final String expression) {
         try {
@@ -265,11 +297,13 @@ public class ExpressionCompiler {
 
             final Evaluator<?> evaluator = buildEvaluator(tree);
             verifyMappingEvaluatorReduced(evaluator);
+            final Evaluator<?> rootEvaluator = memoize(evaluator);
 
             final Set<Evaluator<?>> allEvaluators = new HashSet<>(evaluators);
             this.evaluators.clear();
+            this.dependencies.clear();
 
-            return new CompiledExpression(expression, evaluator, tree, allEvaluators);
+            return new CompiledExpression(expression, rootEvaluator, tree, allEvaluators);
         } catch (final AttributeExpressionLanguageParsingException e) {
             throw e;
         } catch (final Exception e) {
@@ -453,7 +487,99 @@ public class ExpressionCompiler {
         for (int i = 1; i < functionTree.getChildCount(); i++) {
             argEvaluators.add(buildEvaluator(functionTree.getChild(i)));
         }
-        return buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+
+        final Dependency dependency = getFunctionDependency(functionNameTree, subjectEvaluator, argEvaluators);
+        if (dependency == Dependency.CONTEXT) {
+            // The function has to be evaluated every time, but its subject or arguments may not. E.g., in ${filename:append(${now():format('yyyy')})}
+            // the formatted date needs to be computed only once per millisecond rather than once per FlowFile.
+            final Evaluator<?> memoizedSubject = memoize(subjectEvaluator);
+            final List<Evaluator<?>> memoizedArgs = new ArrayList<>(argEvaluators.size());
+            for (final Evaluator<?> argEvaluator : argEvaluators) {
+                memoizedArgs.add(memoize(argEvaluator));
+            }
+
+            return buildFunctionEvaluator(functionNameTree, memoizedSubject, memoizedArgs);
+        }
+
+        final Evaluator<?> functionEvaluator = buildFunctionEvaluator(functionNameTree, subjectEvaluator, argEvaluators);
+        dependencies.put(functionEvaluator, dependency);
+        return functionEvaluator;
+    }
+
+    private Dependency getFunctionDependency(final Tree functionNameTree, final Evaluator<?> subjectEvaluator, final List<Evaluator<?>> argEvaluators) {
+        switch (functionNameTree.getType()) {
+            case EVALUATE_EL_STRING:
+            case REPEAT:
+            case MATH:
+            case JOIN:
+            case COUNT:
+                // These functions evaluate against the Evaluation Context, iterate over multiple attributes, or are random
+                return Dependency.CONTEXT;
+        }
+
+        Dependency dependency = getDependency(subjectEvaluator);
+        for (final Evaluator<?> argEvaluator : argEvaluators) {
+            final Dependency argDependency = getDependency(argEvaluator);
+            if (argDependency.compareTo(dependency) > 0) {
+                dependency = argDependency;
+            }
+        }
+
+        return dependency;
+    }
+
+    private Dependency getDependency(final Evaluator<?> evaluator) {
+        final Dependency dependency = dependencies.get(evaluator);
+        if (dependency != null) {
+            return dependency;
+        }
+
+        if (isConstantLeaf(evaluator)) {
+            return Dependency.NONE;
+        }
+        if (evaluator instanceof NowEvaluator) {
+            return Dependency.TIME;
+        }
+
+        return Dependency.CONTEXT;
+    }
+
+    private boolean isConstantLeaf(final Evaluator<?> evaluator) {
+        return evaluator instanceof StringLiteralEvaluator || evaluator instanceof WholeNumberLiteralEvaluator || evaluator instanceof DecimalLiteralEvaluator
+            || evaluator instanceof BooleanLiteralEvaluator || evaluator instanceof HostnameEvaluator || evaluator instanceof IPEvaluator;
+    }
+
+    /**
+     * Wraps the given Evaluator so that it is evaluated only once, or once per millisecond if it depends on the current time, if its value
+     * does not depend on the Evaluation Context. Evaluators whose values are already constant, such as literals, are returned as-is.
+     *
+     * @param evaluator the evaluator to memoize
+     * @return an Evaluator that produces the same results as the given Evaluator
+     */
+    @SuppressWarnings("unchecked")
+    private Evaluator<?> memoize(final Evaluator<?> evaluator) {
+        final Dependency dependency = getDependency(evaluator);
+        if (dependency == Dependency.CONTEXT || isConstantLeaf(evaluator)) {
+            return evaluator;
+        }
+
+        final boolean timeDependent = dependency == Dependency.TIME;
+        switch (evaluator.getResultType()) {
+            case STRING:
+                return addToken(new MemoizedStringEvaluator((Evaluator<String>) evaluator, timeDependent), evaluator.getToken());
+            case BOOLEAN:
+                return addToken(new MemoizedBooleanEvaluator((Evaluator<Boolean>) evaluator, timeDependent), evaluator.getToken());
+            case DATE:
+                return addToken(new MemoizedDateEvaluator((Evaluator<Date>) evaluator, timeDependent), evaluator.getToken());
+            case WHOLE_NUMBER:
+                return addToken(new MemoizedWholeNumberEvaluator((Evaluator<Long>) evaluator, timeDependent), evaluator.getToken());
+            case DECIMAL:
+                return addToken(new MemoizedDecimalEvaluator((Evaluator<Double>) evaluator, timeDependent), evaluator.getToken());
+            case NUMBER:
+                return addToken(new MemoizedNumberEvaluator((Evaluator<Number>) evaluator, timeDependent), evaluator.getToken());
+            default:
+                return evaluator;
+        }
     }
 
     private List<Evaluator<?>> verifyArgCount(final List<Evaluator<?>> args, final int count, final String functionName) {
@@ -1096,7 +1222,7 @@ public class ExpressionCompiler {
                 if (childEvaluator instanceof MultiAttributeEvaluator) {
                     return childEvaluator;
                 }
-                final AttributeEvaluator eval = new AttributeEvaluator(toStringEvaluator(childEvaluator));
+                final AttributeEvaluator eval = new AttributeEvaluator(toStringEvaluator(memoize(childEvaluator)));
                 evaluators.add(eval);
                 return eval;
             }
@@ -1172,7 +1298,9 @@ public class ExpressionCompiler {
             }
             case TO_LITERAL: {
                 final Evaluator<?> argEvaluator = buildEvaluator(tree.getChild(0));
-                return addToken(new ToLiteralEvaluator(argEvaluator), "toLiteral");
+                final Evaluator<?> literalEvaluator = addToken(new ToLiteralEvaluator(argEvaluator), "toLiteral");
+                dependencies.put(literalEvaluator, getDependency(argEvaluator));
+                return literalEvaluator;
             }
             case IP: {
                 try {
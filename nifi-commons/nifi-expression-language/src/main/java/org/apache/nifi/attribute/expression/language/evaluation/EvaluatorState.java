@@ -50,4 +50,11 @@ public class EvaluatorState {
         statePerEvaluator.put(evaluator, state);
     }
 
+    /**
+     * Removes the state of all Evaluators, so that this EvaluatorState can be reused for another evaluation
+     */
+    public void clear() {
+        statePerEvaluator.clear();
+    }
+
 }
@@ -67,4 +67,7 @@ public class AndEvaluator extends BooleanEvaluator {
         return subjectEvaluator;
     }
 
+    public Evaluator<Boolean> getRhsEvaluator() {
+        return rhsEvaluator;
+    }
 }
@@ -48,4 +48,7 @@ public class EndsWithEvaluator extends BooleanEvaluator {
         return subject;
     }
 
+    public Evaluator<String> getSearchEvaluator() {
+        return search;
+    }
 }
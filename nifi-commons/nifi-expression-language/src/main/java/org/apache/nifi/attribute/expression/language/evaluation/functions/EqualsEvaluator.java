@@ -86,4 +86,7 @@ public class EqualsEvaluator extends BooleanEvaluator {
         return subject;
     }
 
+    public Evaluator<?> getCompareToEvaluator() {
+        return compareTo;
+    }
 }
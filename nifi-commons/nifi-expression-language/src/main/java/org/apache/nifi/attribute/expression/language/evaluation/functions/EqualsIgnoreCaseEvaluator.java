@@ -56,4 +56,7 @@ public class EqualsIgnoreCaseEvaluator extends BooleanEvaluator {
         return subject;
     }
 
+    public Evaluator<?> getCompareToEvaluator() {
+        return compareTo;
+    }
 }
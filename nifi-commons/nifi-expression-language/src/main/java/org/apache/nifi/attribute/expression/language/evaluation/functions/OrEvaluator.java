@@ -67,4 +67,7 @@ public class OrEvaluator extends BooleanEvaluator {
         return subjectEvaluator;
     }
 
+    public Evaluator<Boolean> getRhsEvaluator() {
+        return rhsEvaluator;
+    }
 }
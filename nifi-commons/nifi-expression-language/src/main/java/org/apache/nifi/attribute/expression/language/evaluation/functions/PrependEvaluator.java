@@ -46,4 +46,7 @@ public class PrependEvaluator extends StringEvaluator {
         return subject;
     }
 
+    public Evaluator<String> getPrependEvaluator() {
+        return prependEvaluator;
+    }
 }
@@ -43,4 +43,7 @@ public class ReplaceNullEvaluator extends StringEvaluator {
         return subject;
     }
 
+    public Evaluator<String> getReplacementEvaluator() {
+        return resultEvaluator;
+    }
 }
@@ -73,4 +73,7 @@ public class StringLiteralEvaluator extends StringEvaluator {
         return null;
     }
 
+    public String getValue() {
+        return value;
+    }
 }
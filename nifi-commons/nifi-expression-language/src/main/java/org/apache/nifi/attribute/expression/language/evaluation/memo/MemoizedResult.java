@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.evaluation.memo;
+
+import org.apache.nifi.attribute.expression.language.EvaluationContext;
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
+
+/**
+ * <p>
+ * Holds the result of an Evaluator whose value does not depend on the {@link EvaluationContext}, such as an Evaluator that references no
+ * FlowFile attributes, variables, parameters or state, so that the Evaluator needs to be evaluated only once rather than for every FlowFile.
+ * </p>
+ *
+ * <p>
+ * If the value depends on the current time, as it does for the <code>now()</code> function, the result is only reused for as long as the
+ * current time, in milliseconds, does not change. As the Expression Language represents dates with millisecond precision, this does not change
+ * the results that are produced.
+ * </p>
+ *
+ * @param <T> the type of the result
+ */
+public final class MemoizedResult<T> {
+    private final Evaluator<T> evaluator;
+    private final boolean timeDependent;
+    private volatile Entry<T> entry;
+
+    public MemoizedResult(final Evaluator<T> evaluator, final boolean timeDependent) {
+        this.evaluator = evaluator;
+        this.timeDependent = timeDependent;
+    }
+
+    public QueryResult<T> getResult(final EvaluationContext evaluationContext) {
+        final long timestamp = timeDependent ? System.currentTimeMillis() : 0L;
+        final Entry<T> current = entry;
+        if (current != null && current.timestamp == timestamp) {
+            return current.result;
+        }
+
+        // Concurrent threads may each evaluate the Evaluator. As they produce equivalent results, it does not matter whose result is kept.
+        final QueryResult<T> result = evaluator.evaluate(evaluationContext);
+        entry = new Entry<>(result, timestamp);
+        return result;
+    }
+
+    public Evaluator<T> getEvaluator() {
+        return evaluator;
+    }
+
+    private static final class Entry<T> {
+        private final QueryResult<T> result;
+        private final long timestamp;
+
+        private Entry(final QueryResult<T> result, final long timestamp) {
+            this.result = result;
+            this.timestamp = timestamp;
+        }
+    }
+}
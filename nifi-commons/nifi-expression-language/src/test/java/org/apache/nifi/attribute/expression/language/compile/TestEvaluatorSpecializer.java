@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.CompiledExpression;
+import org.apache.nifi.attribute.expression.language.EvaluationContext;
+import org.apache.nifi.attribute.expression.language.StandardEvaluationContext;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TestEvaluatorSpecializer {
+
+    @Test
+    public void testSpecializedMatchesInterpreted() {
+        final List<String> expressions = Arrays.asList(
+            "${filename}",
+            "${missing}",
+            "${filename:toUpper():append('.bak')}",
+            "${missing:prepend('x'):append('y')}",
+            "${missing:replaceNull('default')}",
+            "${blank:replaceEmpty('empty')}",
+            "${filename:trim():toLower()}",
+            "${filename:startsWith('He')}",
+            "${filename:endsWith('txt')}",
+            "${filename:contains('llo')}",
+            "${missing:startsWith('He')}",
+            "${filename:equals('Hello.txt')}",
+            "${filename:equalsIgnoreCase('hello.TXT')}",
+            "${filename:equals(${other})}",
+            "${missing:isNull():and(${filename:notNull()})}",
+            "${blank:isEmpty():or(${filename:isEmpty()})}",
+            "${filename:contains('zzz'):not()}",
+            "${filename:startsWith('He'):ifElse('yes', 'no')}",
+            "${${pointer}}",
+            "${filename:substringBefore('.'):toUpper()}",
+            "${filename:length():equals(9)}");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "Hello.txt");
+        attributes.put("other", "Hello.txt");
+        attributes.put("blank", "   ");
+        attributes.put("pointer", "filename");
+
+        for (final String expression : expressions) {
+            final CompiledExpression compiled = new ExpressionCompiler().compile(expression);
+            final Function<EvaluationContext, String> specialized = EvaluatorSpecializer.specialize(compiled.getRootEvaluator(), compiled.getAllEvaluators());
+            if (specialized == null) {
+                continue;
+            }
+
+            final Object interpretedValue = compiled.getRootEvaluator().evaluate(createContext(attributes)).getValue();
+            final String interpreted = interpretedValue == null ? null : interpretedValue.toString();
+            assertEquals(expression, interpreted, specialized.apply(createContext(attributes)));
+        }
+    }
+
+    @Test
+    public void testCommonExpressionsSpecialized() {
+        assertSpecialized("${filename}");
+        assertSpecialized("${filename:toUpper():append('.bak')}");
+        assertSpecialized("${filename:startsWith('He'):and(${filename:endsWith('txt')})}");
+        assertSpecialized("${filename:substringBefore('.'):toUpper()}");
+    }
+
+    @Test
+    public void testUnsupportedExpressionsNotSpecialized() {
+        // Non-String results and iterating functions are left to the Evaluators
+        assertNotSpecialized("${filename:length()}");
+        assertNotSpecialized("${anyAttribute('filename', 'other'):equals('Hello.txt')}");
+        assertNotSpecialized("${allMatchingAttributes('.*'):join(',')}");
+        // Boolean functions whose arguments are not Strings may produce null, so they cannot be represented as primitive booleans
+        assertNotSpecialized("${filename:length():equals(9):and(${filename:isEmpty()})}");
+    }
+
+    @Test
+    public void testHotExpressionUsesSpecialization() {
+        final CompiledExpression compiled = new ExpressionCompiler().compile("${filename:toUpper()}");
+        final EvaluationContext context = createContext(Collections.singletonMap("filename", "abc"));
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("ABC", compiled.evaluate(context, null));
+            assertEquals("[ABC]", compiled.evaluate(context, value -> "[" + value + "]"));
+        }
+
+        assertNull(new ExpressionCompiler().compile("${missing}").evaluate(context, value -> "[" + value + "]"));
+    }
+
+    private void assertSpecialized(final String expression) {
+        final CompiledExpression compiled = new ExpressionCompiler().compile(expression);
+        assertNotNull(expression, EvaluatorSpecializer.specialize(compiled.getRootEvaluator(), compiled.getAllEvaluators()));
+    }
+
+    private void assertNotSpecialized(final String expression) {
+        final CompiledExpression compiled = new ExpressionCompiler().compile(expression);
+        assertNull(expression, EvaluatorSpecializer.specialize(compiled.getRootEvaluator(), compiled.getAllEvaluators()));
+    }
+
+    private EvaluationContext createContext(final Map<String, String> attributes) {
+        return new StandardEvaluationContext(attributes);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.compile;
+
+import org.apache.nifi.attribute.expression.language.CompiledExpression;
+import org.apache.nifi.attribute.expression.language.StandardEvaluationContext;
+import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedStringEvaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.memo.MemoizedWholeNumberEvaluator;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestExpressionCompiler {
+
+    @Test
+    public void testConstantExpressionMemoized() {
+        final CompiledExpression expression = compile("${literal('abc'):toUpper():append('-'):append(${hostname():isEmpty()})}");
+        assertTrue(expression.getRootEvaluator() instanceof MemoizedStringEvaluator);
+        assertEquals("ABC-false", evaluate(expression, "ignored"));
+        assertEquals("ABC-false", evaluate(expression, "other"));
+    }
+
+    @Test
+    public void testAttributeDependentExpressionNotMemoized() {
+        assertNotMemoized("${filename:toUpper()}");
+        assertNotMemoized("${literal('file'):append(${filename})}");
+        assertNotMemoized("${#{param}:toUpper()}");
+        assertNotMemoized("${literal('${filename}'):evaluateELString()}");
+    }
+
+    @Test
+    public void testRandomExpressionNotMemoized() {
+        assertNotMemoized("${UUID():toUpper()}");
+        assertNotMemoized("${random():mod(10)}");
+        assertNotMemoized("${nextInt():plus(1)}");
+        assertNotMemoized("${literal('a'):repeat(1, 5)}");
+
+        final CompiledExpression expression = compile("${UUID():toUpper()}");
+        assertNotEquals(evaluate(expression, "a"), evaluate(expression, "a"));
+    }
+
+    @Test
+    public void testConstantSubexpressionOfAttributeDependentExpression() {
+        final CompiledExpression expression = compile("${filename:append(${literal('.'):append('txt'):toUpper()})}");
+        assertFalse(expression.getRootEvaluator() instanceof MemoizedStringEvaluator);
+        assertTrue(expression.getAllEvaluators().stream().anyMatch(evaluator -> evaluator instanceof MemoizedStringEvaluator));
+
+        assertEquals("hello.TXT", evaluate(expression, "hello"));
+        assertEquals("world.TXT", evaluate(expression, "world"));
+    }
+
+    @Test
+    public void testTimeDependentExpressionRefreshed() throws InterruptedException {
+        final CompiledExpression expression = compile("${now():toNumber()}");
+        final Evaluator<?> rootEvaluator = expression.getRootEvaluator();
+        assertTrue(rootEvaluator instanceof MemoizedWholeNumberEvaluator);
+
+        final long first = Long.parseLong(evaluate(expression, "a"));
+        Thread.sleep(5L);
+        final long second = Long.parseLong(evaluate(expression, "a"));
+        assertTrue(second > first);
+    }
+
+    private void assertNotMemoized(final String expression) {
+        final CompiledExpression compiled = compile(expression);
+        assertFalse(expression, compiled.getRootEvaluator().getClass().getSimpleName().startsWith("Memoized"));
+    }
+
+    private CompiledExpression compile(final String expression) {
+        return new ExpressionCompiler().compile(expression);
+    }
+
+    private String evaluate(final CompiledExpression expression, final String filename) {
+        return expression.evaluate(new StandardEvaluationContext(Collections.singletonMap("filename", filename)), null);
+    }
+}
@@ -82,7 +82,11 @@ public abstract class NiFiProperties {
     public static final String TEMPLATE_DIRECTORY = "nifi.templates.directory";
     public static final String ADMINISTRATIVE_YIELD_DURATION = "nifi.administrative.yield.duration";
     public static final String BORED_YIELD_DURATION = "nifi.bored.yield.duration";
+    public static final String BORED_YIELD_WAKE_ON_QUEUE_EVENT = "nifi.bored.yield.wake.on.queue.event";
     public static final String PROCESSOR_SCHEDULING_TIMEOUT = "nifi.processor.scheduling.timeout";
+    public static final String ADAPTIVE_RUN_DURATION_ENABLED = "nifi.processor.adaptive.run.duration.enabled";
+    public static final String ADAPTIVE_RUN_DURATION_TARGET_LATENCY = "nifi.processor.adaptive.run.duration.target.latency";
+    public static final String IO_BOUND_PROCESSOR_MAX_THREADS = "nifi.processor.io.bound.max.threads";
     public static final String BACKPRESSURE_COUNT = "nifi.queue.backpressure.count";
     public static final String BACKPRESSURE_SIZE = "nifi.queue.backpressure.size";
 
@@ -96,6 +100,8 @@ public abstract class NiFiProperties {
     public static final String CONTENT_ARCHIVE_BACK_PRESSURE_PERCENTAGE = "nifi.content.repository.archive.backpressure.percentage";
     public static final String CONTENT_ARCHIVE_ENABLED = "nifi.content.repository.archive.enabled";
     public static final String CONTENT_ARCHIVE_CLEANUP_FREQUENCY = "nifi.content.repository.archive.cleanup.frequency";
+    public static final String CONTENT_REPOSITORY_MAPPED_READ_ENABLED = "nifi.content.repository.mapped.read.enabled";
+    public static final String CONTENT_REPOSITORY_MAPPED_READ_MAX_SIZE = "nifi.content.repository.mapped.read.max.size";
     public static final String CONTENT_VIEWER_URL = "nifi.content.viewer.url";
     public static final String CONTENT_REPOSITORY_ENCRYPTION_KEY = "nifi.content.repository.encryption.key";
     public static final String CONTENT_REPOSITORY_ENCRYPTION_KEY_ID = "nifi.content.repository.encryption.key.id";
@@ -106,14 +112,20 @@ public abstract class NiFiProperties {
     public static final String FLOWFILE_REPOSITORY_IMPLEMENTATION = "nifi.flowfile.repository.implementation";
     public static final String FLOWFILE_REPOSITORY_WAL_IMPLEMENTATION = "nifi.flowfile.repository.wal.implementation";
     public static final String FLOWFILE_REPOSITORY_ALWAYS_SYNC = "nifi.flowfile.repository.always.sync";
+    public static final String FLOWFILE_REPOSITORY_GROUP_COMMIT_ENABLED = "nifi.flowfile.repository.group.commit.enabled";
+    public static final String FLOWFILE_REPOSITORY_GROUP_COMMIT_WINDOW = "nifi.flowfile.repository.group.commit.window";
     public static final String FLOWFILE_REPOSITORY_DIRECTORY = "nifi.flowfile.repository.directory";
     public static final String FLOWFILE_REPOSITORY_CHECKPOINT_INTERVAL = "nifi.flowfile.repository.checkpoint.interval";
+    public static final String FLOWFILE_REPOSITORY_CHECKPOINT_INCREMENTAL = "nifi.flowfile.repository.checkpoint.incremental";
     public static final String FLOWFILE_REPOSITORY_ENCRYPTION_KEY = "nifi.flowfile.repository.encryption.key";
     public static final String FLOWFILE_REPOSITORY_ENCRYPTION_KEY_ID = "nifi.flowfile.repository.encryption.key.id";
     public static final String FLOWFILE_REPOSITORY_ENCRYPTION_KEY_PROVIDER_IMPLEMENTATION_CLASS = "nifi.flowfile.repository.encryption.key.provider.implementation";
     public static final String FLOWFILE_REPOSITORY_ENCRYPTION_KEY_PROVIDER_LOCATION = "nifi.flowfile.repository.encryption.key.provider.location";
     public static final String FLOWFILE_SWAP_MANAGER_IMPLEMENTATION = "nifi.swap.manager.implementation";
     public static final String QUEUE_SWAP_THRESHOLD = "nifi.queue.swap.threshold";
+    public static final String QUEUE_CONCURRENT_FIFO_ENABLED = "nifi.queue.concurrent.fifo.enabled";
+    public static final String SWAP_IO_THREADS = "nifi.swap.io.threads";
+    public static final String SWAP_COMPRESSION_ENABLED = "nifi.swap.compression.enabled";
 
     // provenance properties
     public static final String PROVENANCE_REPO_IMPLEMENTATION_CLASS = "nifi.provenance.repository.implementation";
@@ -299,14 +311,19 @@ public abstract class NiFiProperties {
     public static final String DEFAULT_NAR_LIBRARY_DIR = "./lib";
     public static final String DEFAULT_NAR_LIBRARY_AUTOLOAD_DIR = "./extensions";
     public static final String DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL = "20 secs";
+    public static final String DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_WINDOW = "0 millis";
     public static final int DEFAULT_MAX_FLOWFILES_PER_CLAIM = 100;
     public static final String DEFAULT_MAX_APPENDABLE_CLAIM_SIZE = "1 MB";
+    public static final String DEFAULT_CONTENT_REPOSITORY_MAPPED_READ_MAX_SIZE = "512 MB";
     public static final int DEFAULT_QUEUE_SWAP_THRESHOLD = 20000;
+    public static final int DEFAULT_SWAP_IO_THREADS = 2;
     public static final long DEFAULT_BACKPRESSURE_COUNT = 10_000L;
     public static final String DEFAULT_BACKPRESSURE_SIZE = "1 GB";
     public static final String DEFAULT_ADMINISTRATIVE_YIELD_DURATION = "30 sec";
     public static final String DEFAULT_COMPONENT_STATUS_SNAPSHOT_FREQUENCY = "5 mins";
     public static final String DEFAULT_BORED_YIELD_DURATION = "10 millis";
+    public static final String DEFAULT_ADAPTIVE_RUN_DURATION_TARGET_LATENCY = "25 millis";
+    public static final int DEFAULT_IO_BOUND_PROCESSOR_MAX_THREADS = 100;
     public static final String DEFAULT_ZOOKEEPER_CONNECT_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_SESSION_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_ROOT_NODE = "/nifi";
@@ -427,6 +444,30 @@ public abstract class NiFiProperties {
         }
     }
 
+    /**
+     * @return whether or not connections that are not configured with any prioritizers other than First In, First Out
+     * should allow FlowFiles to be added to and polled from the queue concurrently
+     */
+    public boolean isQueueConcurrentFifoEnabled() {
+        return Boolean.parseBoolean(getProperty(QUEUE_CONCURRENT_FIFO_ENABLED, "false"));
+    }
+
+    /**
+     * @return the number of background threads used to write and prefetch swap files, or 0 if swap files should be
+     * written and read by the thread that swaps FlowFiles out or in
+     */
+    public int getSwapIoThreads() {
+        final Integer threads = getIntegerProperty(SWAP_IO_THREADS, DEFAULT_SWAP_IO_THREADS);
+        return threads == null || threads < 0 ? DEFAULT_SWAP_IO_THREADS : threads;
+    }
+
+    /**
+     * @return whether or not the FlowFiles in swap files should be compressed
+     */
+    public boolean isSwapCompressionEnabled() {
+        return Boolean.parseBoolean(getProperty(SWAP_COMPRESSION_ENABLED, "false"));
+    }
+
     public Integer getIntegerProperty(final String propertyName, final Integer defaultValue) {
         final String value = getProperty(propertyName);
         if (value == null || value.trim().isEmpty()) {
@@ -561,6 +602,28 @@ public abstract class NiFiProperties {
         return getProperty(FLOWFILE_REPOSITORY_CHECKPOINT_INTERVAL, DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL);
     }
 
+    /**
+     * @return whether or not the FlowFile Repository should write only the partitions of its snapshot that have changed at each checkpoint
+     */
+    public boolean isFlowFileRepositoryCheckpointIncremental() {
+        return Boolean.parseBoolean(getProperty(FLOWFILE_REPOSITORY_CHECKPOINT_INCREMENTAL, "false"));
+    }
+
+    /**
+     * @return whether or not the FlowFile Repository should group updates that are synced to disk concurrently, so that they are
+     * written and synced together
+     */
+    public boolean isFlowFileRepositoryGroupCommitEnabled() {
+        return Boolean.parseBoolean(getProperty(FLOWFILE_REPOSITORY_GROUP_COMMIT_ENABLED, "false"));
+    }
+
+    /**
+     * @return how long the FlowFile Repository waits for more updates to join a group before syncing it to disk
+     */
+    public String getFlowFileRepositoryGroupCommitWindow() {
+        return getProperty(FLOWFILE_REPOSITORY_GROUP_COMMIT_WINDOW, DEFAULT_FLOWFILE_REPOSITORY_GROUP_COMMIT_WINDOW);
+    }
+
     /**
      * @return the restore directory or null if not configured
      */
@@ -1394,6 +1457,20 @@ public abstract class NiFiProperties {
         return getProperty(MAX_APPENDABLE_CLAIM_SIZE, DEFAULT_MAX_APPENDABLE_CLAIM_SIZE);
     }
 
+    /**
+     * @return whether or not the content repository should read content claims through memory-mapped files
+     */
+    public boolean isContentRepositoryMappedReadEnabled() {
+        return Boolean.parseBoolean(getProperty(CONTENT_REPOSITORY_MAPPED_READ_ENABLED, "false"));
+    }
+
+    /**
+     * @return the maximum total size of the content repository files that may be memory-mapped at any one time
+     */
+    public String getContentRepositoryMappedReadMaxSize() {
+        return getProperty(CONTENT_REPOSITORY_MAPPED_READ_MAX_SIZE, DEFAULT_CONTENT_REPOSITORY_MAPPED_READ_MAX_SIZE);
+    }
+
     public String getProperty(final String key, final String defaultValue) {
         final String value = getProperty(key);
         return (value == null || value.trim().isEmpty()) ? defaultValue : value;
@@ -1403,6 +1480,37 @@ public abstract class NiFiProperties {
         return getProperty(BORED_YIELD_DURATION, DEFAULT_BORED_YIELD_DURATION);
     }
 
+    /**
+     * @return whether or not a Timer Driven component that has no work to do should be woken before the bored yield duration elapses
+     * when a FlowFile is added to one of its incoming connections
+     */
+    public boolean isBoredYieldWakeOnQueueEvent() {
+        return Boolean.parseBoolean(getProperty(BORED_YIELD_WAKE_ON_QUEUE_EVENT, "false"));
+    }
+
+    /**
+     * @return whether or not the Run Duration of Processors that support batching and whose Run Duration is not configured should be determined
+     * at runtime
+     */
+    public boolean isAdaptiveRunDurationEnabled() {
+        return Boolean.parseBoolean(getProperty(ADAPTIVE_RUN_DURATION_ENABLED, "false"));
+    }
+
+    /**
+     * @return the latency that an adaptive Run Duration should not exceed
+     */
+    public String getAdaptiveRunDurationTargetLatency() {
+        return getProperty(ADAPTIVE_RUN_DURATION_TARGET_LATENCY, DEFAULT_ADAPTIVE_RUN_DURATION_TARGET_LATENCY);
+    }
+
+    /**
+     * @return the maximum number of threads used to invoke Timer Driven Processors that are annotated as I/O-bound
+     */
+    public int getIOBoundProcessorMaxThreads() {
+        final Integer threads = getIntegerProperty(IO_BOUND_PROCESSOR_MAX_THREADS, DEFAULT_IO_BOUND_PROCESSOR_MAX_THREADS);
+        return threads == null || threads < 1 ? DEFAULT_IO_BOUND_PROCESSOR_MAX_THREADS : threads;
+    }
+
     public File getStateManagementConfigFile() {
         return new File(getProperty(STATE_MANAGEMENT_CONFIG_FILE, DEFAULT_STATE_MANAGEMENT_CONFIG_FILE));
     }
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Map;
 
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSet;
 
 public abstract class AbstractRecordSetWriter implements RecordSetWriter {
@@ -60,6 +61,17 @@ public abstract class AbstractRecordSetWriter implements RecordSetWriter {
         return WriteResult.of(++recordCount, attributes);
     }
 
+    @Override
+    public final WriteResult write(final RecordBatch batch) throws IOException {
+        if (batch.isEmpty()) {
+            return WriteResult.of(recordCount, Collections.emptyMap());
+        }
+
+        final Map<String, String> attributes = writeBatch(batch);
+        recordCount += batch.size();
+        return WriteResult.of(recordCount, attributes);
+    }
+
     protected OutputStream getOutputStream() {
         return out;
     }
@@ -118,4 +130,21 @@ public abstract class AbstractRecordSetWriter implements RecordSetWriter {
     }
 
     protected abstract Map<String, String> writeRecord(Record record) throws IOException;
+
+    /**
+     * Writes all rows of the given batch. By default, each row is written via {@link #writeRecord(Record)}. Subclasses that are able to write
+     * the batch's column vectors directly should override this method. The record count is updated once the batch has been written.
+     *
+     * @param batch the batch to write, which holds at least one row
+     * @return a Map of key/value pairs that should be added to the FlowFile as attributes
+     * @throws IOException if unable to write to the underlying stream
+     */
+    protected Map<String, String> writeBatch(final RecordBatch batch) throws IOException {
+        Map<String, String> attributes = Collections.emptyMap();
+        for (int row = 0; row < batch.size(); row++) {
+            attributes = writeRecord(batch.getRecord(row));
+        }
+
+        return attributes;
+    }
 }
@@ -18,6 +18,7 @@
 package org.apache.nifi.serialization;
 
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.RecordSet;
 
@@ -70,6 +71,50 @@ public interface RecordReader extends Closeable {
      */
     Record nextRecord(boolean coerceTypes, boolean dropUnknownFields) throws IOException, MalformedRecordException;
 
+    /**
+     * Clears the given batch and fills it with as many of the next records in the stream as it can hold. Types will be coerced and any unknown
+     * fields will be dropped.
+     *
+     * @param batch the batch to fill, whose schema must be the schema returned by {@link #getSchema()}
+     * @return the number of records read into the batch, or 0 if no more records are available
+     *
+     * @throws IOException if unable to read from the underlying data
+     * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse a record
+     * @throws SchemaValidationException if a Record contains a field that violates the schema and cannot be coerced into the appropriate field type.
+     */
+    default int nextBatch(final RecordBatch batch) throws IOException, MalformedRecordException {
+        return nextBatch(batch, true, false);
+    }
+
+    /**
+     * Clears the given batch and fills it with as many of the next records in the stream as it can hold, coercing types and dropping
+     * unknown fields as described in {@link #nextRecord(boolean, boolean)}. By default, this reads one Record at a time and adds it to the
+     * batch. Readers that are able to parse their data directly into the batch's column vectors should override this method.
+     *
+     * @param batch the batch to fill, whose schema must be the schema returned by {@link #getSchema()}
+     * @param coerceTypes whether or not fields should be validated against the schema and coerced when necessary
+     * @param dropUnknownFields whether or not fields that are not present in the schema should be dropped
+     *
+     * @return the number of records read into the batch, or 0 if no more records are available
+     * @throws IOException if unable to read from the underlying data
+     * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse a record, or a Record contains a field
+     *             that violates the schema and cannot be coerced into the appropriate field type.
+     */
+    default int nextBatch(final RecordBatch batch, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        batch.clear();
+
+        while (!batch.isFull()) {
+            final Record record = nextRecord(coerceTypes, dropUnknownFields);
+            if (record == null) {
+                break;
+            }
+
+            batch.addRecord(record);
+        }
+
+        return batch.size();
+    }
+
     /**
      * @return a RecordSchema that is appropriate for the records in the stream
      * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse the underlying data
@@ -21,6 +21,7 @@ import java.io.Closeable;
 import java.io.IOException;
 
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 
 public interface RecordWriter extends Closeable {
     /**
@@ -32,6 +33,23 @@ public interface RecordWriter extends Closeable {
      */
     WriteResult write(Record record) throws IOException;
 
+    /**
+     * Writes all rows of the given batch to the underlying stream. By default, each row is written as a Record. Writers that are able to
+     * write the batch's column vectors directly should override this method.
+     *
+     * @param batch the batch to write
+     * @return the results of writing the data
+     * @throws IOException if unable to write to the underlying stream
+     */
+    default WriteResult write(final RecordBatch batch) throws IOException {
+        WriteResult result = WriteResult.EMPTY;
+        for (int row = 0; row < batch.size(); row++) {
+            result = write(batch.getRecord(row));
+        }
+
+        return result;
+    }
+
     /**
      * @return the MIME Type that the Record Writer produces. This will be added to FlowFiles using
      *         the mime.type attribute.
@@ -0,0 +1,568 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.MapDataType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+import org.apache.nifi.serialization.record.util.IllegalTypeConversionException;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A Record that stores its values in an array that is indexed by the position of each field in the Record's schema, rather than in a Map that
+ * is keyed by field name as {@link MapRecord} does. This avoids creating a Map and an entry for every field of every Record, which makes up
+ * much of the memory used by Record Readers, and allows a field's value to be found with a single lookup of its index in the schema.
+ * </p>
+ *
+ * <p>
+ * As with {@link MapRecord}, a field may have no value at all, which is different from having a <code>null</code> value, for instance
+ * when writing with a Null Suppression strategy of "Suppress Missing Values". A <code>null</code> element in the array indicates that the field
+ * has no value, while {@link #NULL_VALUE} indicates that the field was given a <code>null</code> value. Values for fields that are not part of
+ * the schema are kept separately, in the order in which they were given.
+ * </p>
+ */
+public class ArrayRecord implements Record {
+
+    /**
+     * An element of the values array that indicates that the field was explicitly given a <code>null</code> value
+     */
+    public static final Object NULL_VALUE = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+
+    private RecordSchema schema;
+    private Object[] values;
+    private Map<String, Object> unknownValues;
+    private Optional<SerializedForm> serializedForm;
+    private final boolean checkTypes;
+    private final boolean dropUnknownFields;
+    private Set<RecordField> inactiveFields = null;
+
+    public ArrayRecord(final RecordSchema schema, final Object[] values) {
+        this(schema, values, null, null, false, false);
+    }
+
+    /**
+     * @param schema the schema of the Record
+     * @param values the values of the Record, indexed by field position in the schema. The array is used by the Record rather than copied.
+     * @param unknownValues the values of fields that are not part of the schema, or <code>null</code> if there are none
+     * @param serializedForm the serialized form of the Record, or <code>null</code> if not available
+     * @param checkTypes whether or not to check that the values are compatible with the schema
+     * @param dropUnknownFields whether or not to ignore values of fields that are not part of the schema
+     */
+    public ArrayRecord(final RecordSchema schema, final Object[] values, final Map<String, Object> unknownValues, final SerializedForm serializedForm,
+                       final boolean checkTypes, final boolean dropUnknownFields) {
+        Objects.requireNonNull(values);
+        this.schema = Objects.requireNonNull(schema);
+
+        if (values.length != schema.getFieldCount()) {
+            throw new IllegalArgumentException("Record has " + values.length + " values but its schema has " + schema.getFieldCount() + " fields");
+        }
+
+        this.values = values;
+        this.unknownValues = dropUnknownFields || unknownValues == null || unknownValues.isEmpty() ? null : unknownValues;
+        this.serializedForm = Optional.ofNullable(serializedForm);
+        this.checkTypes = checkTypes;
+        this.dropUnknownFields = dropUnknownFields;
+
+        if (checkTypes) {
+            checkTypes();
+        }
+    }
+
+    private void checkTypes() {
+        for (int i = 0; i < values.length; i++) {
+            checkType(schema.getField(i), unwrap(values[i]));
+        }
+    }
+
+    static void checkType(final RecordField field, final Object value) {
+        if (value == null) {
+            if (field.isNullable() || field.getDefaultValue() != null) {
+                return;
+            }
+
+            throw new SchemaValidationException("Field " + field.getFieldName() + " cannot be null");
+        }
+
+        if (!DataTypeUtils.isCompatibleDataType(value, field.getDataType())) {
+            throw new SchemaValidationException("Field " + field.getFieldName() + " has a value of " + value
+                + ", which cannot be coerced into the appropriate data type of " + field.getDataType());
+        }
+    }
+
+    /**
+     * @return the array that holds the values of this Record, using {@link #NULL_VALUE} for fields whose value is <code>null</code>
+     */
+    Object[] getRawValues() {
+        return values;
+    }
+
+    /**
+     * @return the values of fields that are not part of the schema, or <code>null</code> if there are none
+     */
+    Map<String, Object> getUnknownValues() {
+        return unknownValues;
+    }
+
+    private static Object unwrap(final Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private static Object wrap(final Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    @Override
+    public boolean isDropUnknownFields() {
+        return dropUnknownFields;
+    }
+
+    @Override
+    public boolean isTypeChecked() {
+        return checkTypes;
+    }
+
+    @Override
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] getValues() {
+        final Object[] result = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            final Object value = unwrap(values[i]);
+            result[i] = value == null ? schema.getField(i).getDefaultValue() : value;
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object getValue(final String fieldName) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index >= 0) {
+            final Object value = unwrap(values[index]);
+            return value == null ? getValue(schema.getField(index)) : value;
+        }
+
+        if (dropUnknownFields || unknownValues == null) {
+            return null;
+        }
+
+        return unknownValues.get(fieldName);
+    }
+
+    @Override
+    public Object getValue(final RecordField field) {
+        final Object explicitValue = getExplicitValue(field);
+        if (explicitValue != null) {
+            return explicitValue;
+        }
+
+        final Object defaultValue = field.getDefaultValue();
+        if (defaultValue != null) {
+            return defaultValue;
+        }
+
+        // The given field may come from a different schema, such as a writer's schema, and have no default value while this Record's field does.
+        final int index = getIndex(field);
+        return index < 0 ? null : schema.getField(index).getDefaultValue();
+    }
+
+    private Object getExplicitValue(final RecordField field) {
+        Object value = getExplicitValue(field.getFieldName());
+        if (value != null) {
+            return value;
+        }
+
+        for (final String alias : field.getAliases()) {
+            value = getExplicitValue(alias);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    private Object getExplicitValue(final String fieldName) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index >= 0) {
+            return unwrap(values[index]);
+        }
+
+        return unknownValues == null ? null : unknownValues.get(fieldName);
+    }
+
+    private int getIndex(final RecordField field) {
+        final int index = schema.getFieldIndex(field.getFieldName());
+        if (index >= 0) {
+            return index;
+        }
+
+        for (final String alias : field.getAliases()) {
+            final int aliasIndex = schema.getFieldIndex(alias);
+            if (aliasIndex >= 0) {
+                return aliasIndex;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public String getAsString(final String fieldName) {
+        final Optional<DataType> dataTypeOption = schema.getDataType(fieldName);
+        if (dataTypeOption.isPresent()) {
+            return convertToString(getValue(fieldName), dataTypeOption.get().getFormat());
+        }
+
+        return DataTypeUtils.toString(getValue(fieldName), (Supplier<DateFormat>) null);
+    }
+
+    @Override
+    public String getAsString(final String fieldName, final String format) {
+        return convertToString(getValue(fieldName), format);
+    }
+
+    @Override
+    public String getAsString(final RecordField field, final String format) {
+        return convertToString(getValue(field), format);
+    }
+
+    private String convertToString(final Object value, final String format) {
+        if (value == null) {
+            return null;
+        }
+
+        return DataTypeUtils.toString(value, format);
+    }
+
+    @Override
+    public Long getAsLong(final String fieldName) {
+        return DataTypeUtils.toLong(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Integer getAsInt(final String fieldName) {
+        return DataTypeUtils.toInteger(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Double getAsDouble(final String fieldName) {
+        return DataTypeUtils.toDouble(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Float getAsFloat(final String fieldName) {
+        return DataTypeUtils.toFloat(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Record getAsRecord(final String fieldName, final RecordSchema schema) {
+        return DataTypeUtils.toRecord(getValue(fieldName), schema, fieldName);
+    }
+
+    @Override
+    public Boolean getAsBoolean(final String fieldName) {
+        return DataTypeUtils.toBoolean(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Date getAsDate(final String fieldName, final String format) {
+        return DataTypeUtils.toDate(getValue(fieldName), () -> DataTypeUtils.getDateFormat(format), fieldName);
+    }
+
+    @Override
+    public Object[] getAsArray(final String fieldName) {
+        return DataTypeUtils.toArray(getValue(fieldName), fieldName, null, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Optional<SerializedForm> getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public void setValue(final RecordField field, final Object value) {
+        final boolean existingField = setValueAndGetIndex(field.getFieldName(), value) >= 0;
+
+        if (!existingField) {
+            if (inactiveFields == null) {
+                inactiveFields = new LinkedHashSet<>();
+            }
+
+            inactiveFields.add(field);
+        }
+    }
+
+    @Override
+    public void setValue(final String fieldName, final Object value) {
+        final boolean existingField = setValueAndGetIndex(fieldName, value) >= 0;
+
+        if (!existingField) {
+            if (inactiveFields == null) {
+                inactiveFields = new LinkedHashSet<>();
+            }
+
+            final DataType inferredDataType = DataTypeUtils.inferDataType(value, RecordFieldType.STRING.getDataType());
+            final RecordField field = new RecordField(fieldName, inferredDataType);
+            inactiveFields.add(field);
+        }
+    }
+
+    private int setValueAndGetIndex(final String fieldName, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            if (dropUnknownFields) {
+                return index;
+            }
+
+            if (unknownValues == null) {
+                unknownValues = new LinkedHashMap<>();
+            }
+
+            final Object previousValue = unknownValues.put(fieldName, value);
+            if (!Objects.equals(value, previousValue)) {
+                serializedForm = Optional.empty();
+            }
+
+            return index;
+        }
+
+        final Object coerced = isTypeChecked() ? DataTypeUtils.convertType(value, schema.getField(index).getDataType(), fieldName) : value;
+        final Object previousValue = values[index];
+        values[index] = wrap(coerced);
+        if (previousValue == null || !Objects.equals(coerced, unwrap(previousValue))) {
+            serializedForm = Optional.empty();
+        }
+
+        return index;
+    }
+
+    @Override
+    public void setArrayValue(final String fieldName, final int arrayIndex, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            return;
+        }
+
+        final DataType dataType = schema.getField(index).getDataType();
+        if (dataType.getFieldType() != RecordFieldType.ARRAY) {
+            throw new IllegalTypeConversionException("Cannot set the value of an array index on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an ARRAY type");
+        }
+
+        final Object arrayObject = unwrap(values[index]);
+        if (!(arrayObject instanceof Object[])) {
+            return;
+        }
+
+        final Object[] array = (Object[]) arrayObject;
+        if (arrayIndex >= array.length) {
+            return;
+        }
+
+        final DataType elementType = ((ArrayDataType) dataType).getElementType();
+        final Object coerced = DataTypeUtils.convertType(value, elementType, fieldName);
+
+        if (!Objects.equals(coerced, array[arrayIndex])) {
+            array[arrayIndex] = coerced;
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setMapValue(final String fieldName, final String mapKey, final Object value) {
+        final int index = schema.getFieldIndex(fieldName);
+        if (index < 0) {
+            return;
+        }
+
+        final DataType dataType = schema.getField(index).getDataType();
+        if (dataType.getFieldType() != RecordFieldType.MAP) {
+            throw new IllegalTypeConversionException("Cannot set the value of map entry on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an MAP type");
+        }
+
+        Object mapObject = unwrap(values[index]);
+        if (mapObject == null) {
+            mapObject = new HashMap<String, Object>();
+        }
+        if (!(mapObject instanceof Map)) {
+            return;
+        }
+
+        final Map<String, Object> map = (Map<String, Object>) mapObject;
+        final DataType valueDataType = ((MapDataType) dataType).getValueType();
+        final Object coerced = DataTypeUtils.convertType(value, valueDataType, fieldName);
+
+        final Object replaced = map.put(mapKey, coerced);
+        if (replaced == null || !replaced.equals(coerced)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void incorporateSchema(final RecordSchema other) {
+        setSchema(DataTypeUtils.merge(this.schema, other));
+    }
+
+    @Override
+    public void incorporateInactiveFields() {
+        final List<RecordField> updatedFields = new ArrayList<>();
+
+        boolean fieldUpdated = false;
+        for (final RecordField field : schema.getFields()) {
+            final RecordField updated = MapRecord.getUpdatedRecordField(this, field);
+            if (!updated.equals(field)) {
+                fieldUpdated = true;
+            }
+
+            updatedFields.add(updated);
+        }
+
+        if (!fieldUpdated && (inactiveFields == null || inactiveFields.isEmpty())) {
+            return;
+        }
+
+        if (inactiveFields != null) {
+            for (final RecordField field : inactiveFields) {
+                if (!updatedFields.contains(field)) {
+                    updatedFields.add(field);
+                }
+            }
+        }
+
+        setSchema(new SimpleRecordSchema(updatedFields));
+    }
+
+    /**
+     * Replaces the schema of this Record, moving each value to the position of its field in the new schema. Values of fields that were
+     * not part of the old schema but are part of the new one are moved from the unknown values into the array.
+     */
+    private void setSchema(final RecordSchema updatedSchema) {
+        final Object[] updatedValues = new Object[updatedSchema.getFieldCount()];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+
+            final int updatedIndex = updatedSchema.getFieldIndex(schema.getField(i).getFieldName());
+            if (updatedIndex >= 0) {
+                updatedValues[updatedIndex] = values[i];
+            }
+        }
+
+        if (unknownValues != null) {
+            unknownValues.entrySet().removeIf(entry -> {
+                final int updatedIndex = updatedSchema.getFieldIndex(entry.getKey());
+                if (updatedIndex < 0) {
+                    return false;
+                }
+
+                if (updatedValues[updatedIndex] == null) {
+                    updatedValues[updatedIndex] = wrap(entry.getValue());
+                }
+                return true;
+            });
+        }
+
+        this.schema = updatedSchema;
+        this.values = updatedValues;
+    }
+
+    @Override
+    public Set<String> getRawFieldNames() {
+        final Set<String> fieldNames = new LinkedHashSet<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                fieldNames.add(schema.getField(i).getFieldName());
+            }
+        }
+
+        if (unknownValues != null) {
+            fieldNames.addAll(unknownValues.keySet());
+        }
+
+        return fieldNames;
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        final Map<String, Object> map = new LinkedHashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                map.put(schema.getField(i).getFieldName(), unwrap(values[i]));
+            }
+        }
+
+        if (unknownValues != null) {
+            map.putAll(unknownValues);
+        }
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 + 41 * toMap().hashCode() + 7 * schema.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof Record)) {
+            return false;
+        }
+        final Record other = (Record) obj;
+        return schema.equals(other.getSchema()) && toMap().equals(other.toMap());
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayRecord[" + toMap() + "]";
+    }
+}
@@ -293,11 +293,11 @@ public class MapRecord implements Record {
         if (obj == null) {
             return false;
         }
-        if (!(obj instanceof MapRecord)) {
+        if (!(obj instanceof Record)) {
             return false;
         }
-        final MapRecord other = (MapRecord) obj;
-        return schema.equals(other.schema) && values.equals(other.values);
+        final Record other = (Record) obj;
+        return schema.equals(other.getSchema()) && values.equals(other.toMap());
     }
 
     @Override
@@ -455,7 +455,7 @@ public class MapRecord implements Record {
 
         boolean fieldUpdated = false;
         for (final RecordField field : schema.getFields()) {
-            final RecordField updated = getUpdatedRecordField(field);
+            final RecordField updated = getUpdatedRecordField(this, field);
             if (!updated.equals(field)) {
                 fieldUpdated = true;
             }
@@ -478,7 +478,10 @@ public class MapRecord implements Record {
         this.schema = new SimpleRecordSchema(updatedFields);
     }
 
-    private RecordField getUpdatedRecordField(final RecordField field) {
+    /**
+     * Returns the given field of the given Record, updated to account for the inactive fields of any child Records
+     */
+    static RecordField getUpdatedRecordField(final Record record, final RecordField field) {
         final DataType dataType = field.getDataType();
         final RecordFieldType fieldType = dataType.getFieldType();
 
@@ -486,7 +489,7 @@ public class MapRecord implements Record {
             return field;
         }
 
-        final Object value = getValue(field);
+        final Object value = record.getValue(field);
         if (value == null) {
             return field;
         }
@@ -517,9 +520,9 @@ public class MapRecord implements Record {
                         continue;
                     }
 
-                    final Record record = (Record) element;
-                    record.incorporateInactiveFields();
-                    mergedSchema = DataTypeUtils.merge(mergedSchema, record.getSchema());
+                    final Record elementRecord = (Record) element;
+                    elementRecord.incorporateInactiveFields();
+                    mergedSchema = DataTypeUtils.merge(mergedSchema, elementRecord.getSchema());
                 }
 
                 final DataType mergedRecordType = RecordFieldType.RECORD.getRecordDataType(mergedSchema);
@@ -565,7 +568,7 @@ public class MapRecord implements Record {
         return field;
     }
 
-    private boolean isSimpleType(final RecordFieldType fieldType) {
+    private static boolean isSimpleType(final RecordFieldType fieldType) {
         switch (fieldType) {
             case ARRAY:
             case RECORD:
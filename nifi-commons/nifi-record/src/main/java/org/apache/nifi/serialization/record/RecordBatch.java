@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * <p>
+ * A batch of up to a fixed number of rows that all share the same schema. Rather than holding a {@link Record} per row, the values are held in
+ * one column vector per field of the schema, so that a reader can fill a batch and a writer can convert and write its values one field at a time,
+ * without creating a Record object, or looking up fields by name, for every row. A batch is meant to be reused: it is {@link #clear() cleared}
+ * and filled again for each group of rows.
+ * </p>
+ *
+ * <p>
+ * As with {@link ArrayRecord}, an element of a column vector is <code>null</code> if the row has no value at all for the field, and
+ * {@link ArrayRecord#NULL_VALUE} if the row was given a <code>null</code> value for it. Values of fields that are not part of the schema are
+ * kept separately for each row.
+ * </p>
+ *
+ * <p>
+ * PLEASE NOTE: This class is still considered 'unstable' and may change in a non-backward-compatible
+ * manner between minor or incremental releases of NiFi.
+ * </p>
+ */
+public class RecordBatch {
+    private final RecordSchema schema;
+    private final int capacity;
+    private final Object[][] columns;
+    private List<Map<String, Object>> unknownValues;
+    private SerializedForm[] serializedForms;
+    private int size = 0;
+
+    public RecordBatch(final RecordSchema schema, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of a Record Batch must be positive but was " + capacity);
+        }
+
+        this.schema = Objects.requireNonNull(schema);
+        this.capacity = capacity;
+        this.columns = new Object[schema.getFieldCount()][capacity];
+    }
+
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Removes all rows from the batch so that it can be filled again
+     */
+    public void clear() {
+        for (final Object[] column : columns) {
+            Arrays.fill(column, 0, size, null);
+        }
+
+        if (unknownValues != null) {
+            for (int row = 0; row < size; row++) {
+                unknownValues.set(row, null);
+            }
+        }
+        if (serializedForms != null) {
+            Arrays.fill(serializedForms, 0, size, null);
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Adds an empty row to the batch, whose values can then be set via {@link #setValue(int, int, Object)}
+     *
+     * @return the index of the new row
+     * @throws IllegalStateException if the batch is full
+     */
+    public int addRow() {
+        if (isFull()) {
+            throw new IllegalStateException("Cannot add a row to the Record Batch because it already holds " + capacity + " rows");
+        }
+
+        return size++;
+    }
+
+    /**
+     * Adds a row to the batch, copying the given values into the column vectors
+     *
+     * @param values the values of the row, indexed by field position in the schema, using the same convention as {@link ArrayRecord}
+     * @param rowUnknownValues the values of fields that are not part of the schema, or <code>null</code> if there are none
+     * @param serializedForm the serialized form of the row, or <code>null</code> if not available
+     * @return the index of the new row
+     * @throws IllegalStateException if the batch is full
+     */
+    public int addRow(final Object[] values, final Map<String, Object> rowUnknownValues, final SerializedForm serializedForm) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Row has " + values.length + " values but the schema of the Record Batch has " + columns.length + " fields");
+        }
+
+        final int row = addRow();
+        for (int i = 0; i < values.length; i++) {
+            columns[i][row] = values[i];
+        }
+
+        if (rowUnknownValues != null && !rowUnknownValues.isEmpty()) {
+            setUnknownValues(row, rowUnknownValues);
+        }
+        if (serializedForm != null) {
+            setSerializedForm(row, serializedForm);
+        }
+
+        return row;
+    }
+
+    /**
+     * Adds the given Record to the batch as a new row. Values are taken from the Record for each field of the batch's schema. Values of fields
+     * that are not part of the batch's schema are kept unless the Record drops unknown fields.
+     *
+     * @param record the Record to add
+     * @return the index of the new row
+     * @throws IllegalStateException if the batch is full
+     */
+    public int addRecord(final Record record) {
+        if (record instanceof ArrayRecord && record.getSchema().equals(schema)) {
+            final ArrayRecord arrayRecord = (ArrayRecord) record;
+            final Map<String, Object> recordUnknownValues = arrayRecord.getUnknownValues();
+            return addRow(arrayRecord.getRawValues(), recordUnknownValues == null ? null : new LinkedHashMap<>(recordUnknownValues),
+                record.getSerializedForm().orElse(null));
+        }
+
+        final int row = addRow();
+        // Only fields that the Record has a value for are given one, so that default values are not mistaken for values that were given
+        final Set<String> rawFieldNames = record.getRawFieldNames();
+        for (int i = 0; i < columns.length; i++) {
+            final RecordField field = schema.getField(i);
+            if (isPresent(field, rawFieldNames)) {
+                final Object value = record.getValue(field);
+                columns[i][row] = value == null ? ArrayRecord.NULL_VALUE : value;
+            }
+        }
+
+        if (!record.isDropUnknownFields()) {
+            for (final String fieldName : rawFieldNames) {
+                if (schema.getFieldIndex(fieldName) < 0) {
+                    Map<String, Object> rowUnknownValues = getRowUnknownValues(row);
+                    if (rowUnknownValues == null) {
+                        rowUnknownValues = new LinkedHashMap<>();
+                        setUnknownValues(row, rowUnknownValues);
+                    }
+
+                    rowUnknownValues.put(fieldName, record.getValue(fieldName));
+                }
+            }
+        }
+
+        if (record.getSchema().equals(schema)) {
+            record.getSerializedForm().ifPresent(form -> setSerializedForm(row, form));
+        }
+
+        return row;
+    }
+
+    private static boolean isPresent(final RecordField field, final Set<String> rawFieldNames) {
+        if (rawFieldNames.contains(field.getFieldName())) {
+            return true;
+        }
+
+        for (final String alias : field.getAliases()) {
+            if (rawFieldNames.contains(alias)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the column vector of the field at the given index in the schema. Only the first {@link #size()} elements hold values of rows in
+     * the batch. An element is <code>null</code> if the row has no value for the field and {@link ArrayRecord#NULL_VALUE} if its value is
+     * <code>null</code>. The returned array is the batch's own storage, so changes made to it are reflected in the batch.
+     *
+     * @param fieldIndex the index of the field in the schema
+     * @return the column vector for the field
+     */
+    public Object[] getColumn(final int fieldIndex) {
+        return columns[fieldIndex];
+    }
+
+    /**
+     * Returns the value of the given row for the field at the given index in the schema, or the field's default value if the value is
+     * <code>null</code>, as {@link Record#getValue(RecordField)} does
+     *
+     * @param row the index of the row
+     * @param fieldIndex the index of the field in the schema
+     * @return the value
+     */
+    public Object getValue(final int row, final int fieldIndex) {
+        return getValue(row, fieldIndex, schema.getField(fieldIndex));
+    }
+
+    /**
+     * Returns the index of the given field in this batch's schema. The field may come from a different schema, such as that of a writer, in which
+     * case it is matched by its name and then by its aliases. Callers that process the batch one field at a time should resolve each field's index
+     * once and then use {@link #getValue(int, int, RecordField)} for each row.
+     *
+     * @param field the field
+     * @return the index of the field in this batch's schema, or <code>-1</code> if the schema has no such field
+     */
+    public int getFieldIndex(final RecordField field) {
+        final int index = schema.getFieldIndex(field.getFieldName());
+        if (index >= 0) {
+            return index;
+        }
+
+        for (final String alias : field.getAliases()) {
+            final int aliasIndex = schema.getFieldIndex(alias);
+            if (aliasIndex >= 0) {
+                return aliasIndex;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the value of the given row for the given field, as {@link Record#getValue(RecordField)} does: if the row has no value for the field,
+     * the default value of the given field is returned, or else the default value of the batch's own field.
+     *
+     * @param row the index of the row
+     * @param fieldIndex the index of the field in this batch's schema, as returned by {@link #getFieldIndex(RecordField)}, which may be <code>-1</code>
+     * @param field the field
+     * @return the value
+     */
+    public Object getValue(final int row, final int fieldIndex, final RecordField field) {
+        checkRow(row);
+
+        if (fieldIndex < 0) {
+            return field.getDefaultValue();
+        }
+
+        final Object value = columns[fieldIndex][row];
+        if (value != null && value != ArrayRecord.NULL_VALUE) {
+            return value;
+        }
+
+        final Object defaultValue = field.getDefaultValue();
+        return defaultValue == null ? schema.getField(fieldIndex).getDefaultValue() : defaultValue;
+    }
+
+    /**
+     * @param row the index of the row
+     * @param fieldIndex the index of the field in the schema
+     * @return <code>true</code> if the row was given a value, possibly <code>null</code>, for the field
+     */
+    public boolean isPresent(final int row, final int fieldIndex) {
+        checkRow(row);
+        return columns[fieldIndex][row] != null;
+    }
+
+    public void setValue(final int row, final int fieldIndex, final Object value) {
+        checkRow(row);
+        columns[fieldIndex][row] = value == null ? ArrayRecord.NULL_VALUE : value;
+
+        if (serializedForms != null) {
+            serializedForms[row] = null;
+        }
+    }
+
+    /**
+     * Validates the values of the given row against the schema, as a Record that is created with type checking enabled does
+     *
+     * @param row the index of the row
+     * @throws org.apache.nifi.serialization.SchemaValidationException if a value is <code>null</code> for a field that does not allow it,
+     *             or is not compatible with the field's type
+     */
+    public void checkTypes(final int row) {
+        checkRow(row);
+
+        for (int i = 0; i < columns.length; i++) {
+            final Object value = columns[i][row];
+            ArrayRecord.checkType(schema.getField(i), value == ArrayRecord.NULL_VALUE ? null : value);
+        }
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the values of the row for fields that are not part of the schema, which may be empty
+     */
+    public Map<String, Object> getUnknownValues(final int row) {
+        checkRow(row);
+
+        final Map<String, Object> rowUnknownValues = getRowUnknownValues(row);
+        return rowUnknownValues == null ? Collections.emptyMap() : Collections.unmodifiableMap(rowUnknownValues);
+    }
+
+    private Map<String, Object> getRowUnknownValues(final int row) {
+        return unknownValues == null ? null : unknownValues.get(row);
+    }
+
+    private void setUnknownValues(final int row, final Map<String, Object> rowUnknownValues) {
+        if (unknownValues == null) {
+            unknownValues = new ArrayList<>(Collections.nCopies(capacity, null));
+        }
+
+        unknownValues.set(row, rowUnknownValues);
+    }
+
+    public Optional<SerializedForm> getSerializedForm(final int row) {
+        checkRow(row);
+        return serializedForms == null ? Optional.empty() : Optional.ofNullable(serializedForms[row]);
+    }
+
+    private void setSerializedForm(final int row, final SerializedForm serializedForm) {
+        if (serializedForms == null) {
+            serializedForms = new SerializedForm[capacity];
+        }
+
+        serializedForms[row] = serializedForm;
+    }
+
+    /**
+     * Creates a Record that holds a copy of the values of the given row. This allows rows of a batch to be handed to code that operates
+     * on one Record at a time.
+     *
+     * @param row the index of the row
+     * @return a Record for the row
+     */
+    public Record getRecord(final int row) {
+        checkRow(row);
+
+        final Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i][row];
+        }
+
+        final Map<String, Object> storedUnknownValues = getRowUnknownValues(row);
+        final Map<String, Object> rowUnknownValues = storedUnknownValues == null ? null : new LinkedHashMap<>(storedUnknownValues);
+        final SerializedForm serializedForm = serializedForms == null ? null : serializedForms[row];
+        return new ArrayRecord(schema, values, rowUnknownValues, serializedForm, false, false);
+    }
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is not in the Record Batch, which holds " + size + " rows");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RecordBatch[size=" + size + ", capacity=" + capacity + ", schema=" + schema + "]";
+    }
+}
@@ -883,7 +883,7 @@ public class DataTypeUtils {
     }
 
     public static boolean isMapTypeCompatible(final Object value) {
-        return value != null && (value instanceof Map || value instanceof MapRecord);
+        return value != null && (value instanceof Map || value instanceof Record);
     }
 
 
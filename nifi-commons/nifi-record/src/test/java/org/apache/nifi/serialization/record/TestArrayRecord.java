@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.Test;
+
+public class TestArrayRecord {
+
+    private RecordSchema createSchema() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType(), Collections.singleton("fullName")));
+        fields.add(new RecordField("greeting", RecordFieldType.STRING.getDataType(), "hello"));
+        return new SimpleRecordSchema(fields);
+    }
+
+    @Test
+    public void testGetValue() {
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null});
+
+        assertEquals(1, record.getValue("id"));
+        assertEquals("John Doe", record.getValue("name"));
+        assertEquals("John Doe", record.getValue("fullName"));
+        assertEquals("hello", record.getValue("greeting"));
+        assertNull(record.getValue("other"));
+        assertEquals("1", record.getAsString("id"));
+        assertEquals(Long.valueOf(1L), record.getAsLong("id"));
+        assertTrue(Arrays.equals(new Object[] {1, "John Doe", "hello"}, record.getValues()));
+
+        final RecordField aliasedField = new RecordField("other", RecordFieldType.STRING.getDataType(), Collections.singleton("name"));
+        assertEquals("John Doe", record.getValue(aliasedField));
+
+        final RecordField newField = new RecordField("missing", RecordFieldType.STRING.getDataType(), "new");
+        assertEquals("new", record.getValue(newField));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueCountMustMatchSchema() {
+        new ArrayRecord(createSchema(), new Object[] {1, "John Doe"});
+    }
+
+    @Test(expected = SchemaValidationException.class)
+    public void testCheckTypes() {
+        new ArrayRecord(createSchema(), new Object[] {"not a number", "John Doe", null}, null, null, true, false);
+    }
+
+    @Test
+    public void testExplicitNullDistinctFromMissing() {
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, ArrayRecord.NULL_VALUE, null});
+
+        assertNull(record.getValue("name"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("id", "name")), record.getRawFieldNames());
+
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("id", 1);
+        expected.put("name", null);
+        assertEquals(expected, record.toMap());
+    }
+
+    @Test
+    public void testUnknownValues() {
+        final Map<String, Object> unknownValues = new LinkedHashMap<>();
+        unknownValues.put("extra", "value");
+
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null}, unknownValues, null, false, false);
+        assertEquals("value", record.getValue("extra"));
+        assertTrue(record.getRawFieldNames().contains("extra"));
+
+        final Record dropping = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null}, unknownValues, null, false, true);
+        assertNull(dropping.getValue("extra"));
+        assertFalse(dropping.getRawFieldNames().contains("extra"));
+    }
+
+    @Test
+    public void testSetValue() {
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null}, null, null, true, false);
+        record.setValue("id", "42");
+        assertEquals(42, record.getValue("id"));
+
+        record.setValue("extra", "value");
+        assertEquals("value", record.getValue("extra"));
+        assertFalse(record.getSchema().getField("extra").isPresent());
+
+        record.incorporateInactiveFields();
+        assertTrue(record.getSchema().getField("extra").isPresent());
+        assertEquals("value", record.getValue("extra"));
+        assertEquals(42, record.getValue("id"));
+    }
+
+    @Test
+    public void testIncorporateSchema() {
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null});
+
+        final List<RecordField> otherFields = new ArrayList<>();
+        otherFields.add(new RecordField("age", RecordFieldType.INT.getDataType()));
+        otherFields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        record.incorporateSchema(new SimpleRecordSchema(otherFields));
+
+        assertEquals(4, record.getSchema().getFieldCount());
+        assertEquals(1, record.getValue("id"));
+        assertEquals("John Doe", record.getValue("name"));
+        assertNull(record.getValue("age"));
+    }
+
+    @Test
+    public void testEqualToMapRecord() {
+        final RecordSchema schema = createSchema();
+        final Record arrayRecord = new ArrayRecord(schema, new Object[] {1, "John Doe", null});
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 1);
+        values.put("name", "John Doe");
+        final Record mapRecord = new MapRecord(schema, values);
+
+        assertEquals(arrayRecord, mapRecord);
+        assertEquals(mapRecord, arrayRecord);
+        assertEquals(mapRecord.hashCode(), arrayRecord.hashCode());
+    }
+}
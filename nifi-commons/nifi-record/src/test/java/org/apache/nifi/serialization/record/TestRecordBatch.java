@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.serialization.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.Test;
+
+public class TestRecordBatch {
+
+    private RecordSchema createSchema() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        fields.add(new RecordField("greeting", RecordFieldType.STRING.getDataType(), "hello"));
+        return new SimpleRecordSchema(fields);
+    }
+
+    @Test
+    public void testAddRowAndGetColumns() {
+        final RecordBatch batch = new RecordBatch(createSchema(), 2);
+        assertTrue(batch.isEmpty());
+
+        batch.addRow(new Object[] {1, "John Doe", null}, null, null);
+        batch.addRow(new Object[] {2, ArrayRecord.NULL_VALUE, "hi"}, Collections.singletonMap("extra", "value"), null);
+        assertTrue(batch.isFull());
+
+        assertTrue(Arrays.equals(new Object[] {1, 2}, batch.getColumn(0)));
+        assertEquals("John Doe", batch.getValue(0, 1));
+        assertNull(batch.getValue(1, 1));
+        assertTrue(batch.isPresent(1, 1));
+        assertEquals("hello", batch.getValue(0, 2));
+        assertFalse(batch.isPresent(0, 2));
+        assertEquals(Collections.singletonMap("extra", "value"), batch.getUnknownValues(1));
+        assertTrue(batch.getUnknownValues(0).isEmpty());
+
+        final Record record = batch.getRecord(1);
+        assertEquals(2, record.getValue("id"));
+        assertNull(record.getValue("name"));
+        assertTrue(record.getRawFieldNames().contains("name"));
+        assertEquals("value", record.getValue("extra"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddRowWhenFull() {
+        final RecordBatch batch = new RecordBatch(createSchema(), 1);
+        batch.addRow();
+        batch.addRow();
+    }
+
+    @Test
+    public void testClear() {
+        final RecordBatch batch = new RecordBatch(createSchema(), 2);
+        final int row = batch.addRow();
+        batch.setValue(row, 0, 1);
+        batch.clear();
+
+        assertEquals(0, batch.size());
+        assertNull(batch.getColumn(0)[0]);
+    }
+
+    @Test
+    public void testAddRecord() {
+        final RecordSchema schema = createSchema();
+        final RecordBatch batch = new RecordBatch(schema, 4);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("id", 1);
+        values.put("name", null);
+        values.put("extra", "value");
+        batch.addRecord(new MapRecord(schema, values));
+
+        final Map<String, Object> unknownValues = new LinkedHashMap<>();
+        unknownValues.put("other", "x");
+        batch.addRecord(new ArrayRecord(schema, new Object[] {2, "Jane Doe", null}, unknownValues, null, false, false));
+
+        assertEquals(2, batch.size());
+        assertTrue(batch.isPresent(0, 1));
+        assertFalse(batch.isPresent(0, 2));
+        assertEquals(Collections.singletonMap("extra", "value"), batch.getUnknownValues(0));
+        assertEquals("Jane Doe", batch.getValue(1, 1));
+        assertEquals(Collections.singletonMap("other", "x"), batch.getUnknownValues(1));
+        assertEquals(new MapRecord(schema, values), batch.getRecord(0));
+    }
+
+    @Test
+    public void testNextBatchReadsRecords() throws Exception {
+        final RecordSchema schema = createSchema();
+        final List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(new ArrayRecord(schema, new Object[] {i, "name " + i, null}));
+        }
+
+        final Iterator<Record> iterator = records.iterator();
+        final RecordReader reader = new RecordReader() {
+            @Override
+            public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public RecordSchema getSchema() {
+                return schema;
+            }
+
+            @Override
+            public void close() throws IOException {
+            }
+        };
+
+        final RecordBatch batch = new RecordBatch(schema, 2);
+        assertEquals(2, reader.nextBatch(batch));
+        assertEquals(0, batch.getValue(0, 0));
+        assertEquals(2, reader.nextBatch(batch));
+        assertEquals(2, batch.getValue(0, 0));
+        assertEquals(1, reader.nextBatch(batch));
+        assertEquals(4, batch.getValue(0, 0));
+        assertEquals(0, reader.nextBatch(batch));
+    }
+}
@@ -92,6 +92,12 @@ public class HashMapSnapshot<T> implements WriteAheadSnapshot<T>, RecordLookup<T
 
     @Override
     public SnapshotRecovery<T> recover() throws IOException {
+        // If a PartitionedHashMapSnapshot has been written, it is the most recent snapshot, because we delete it before
+        // our own snapshot file takes effect. Recover from it, and it will be replaced at the next checkpoint.
+        if (PartitionedHashMapSnapshot.isSnapshotPresent(storageDirectory)) {
+            return recoverFromPartitionedSnapshot();
+        }
+
         final File partialFile = getPartialFile();
         final File snapshotFile = getSnapshotFile();
         final boolean partialExists = partialFile.exists();
@@ -162,6 +168,20 @@ public class HashMapSnapshot<T> implements WriteAheadSnapshot<T>, RecordLookup<T
         }
     }
 
+    private SnapshotRecovery<T> recoverFromPartitionedSnapshot() throws IOException {
+        Files.deleteIfExists(getPartialFile().toPath());
+        Files.deleteIfExists(getSnapshotFile().toPath());
+
+        final SnapshotRecovery<T> recovery = new PartitionedHashMapSnapshot<>(storageDirectory, serdeFactory).recover();
+        recordMap.putAll(recovery.getRecords());
+        this.swapLocations.addAll(recovery.getRecoveredSwapLocations());
+
+        logger.info("{} restored {} Records and {} Swap Files from Partitioned Snapshot at {}, ending with Transaction ID {}",
+            new Object[] {this, recordMap.size(), recovery.getRecoveredSwapLocations().size(), recovery.getRecoveryFile(), recovery.getMaxTransactionId()});
+
+        return new StandardSnapshotRecovery<>(recordMap, new HashSet<>(recovery.getRecoveredSwapLocations()), recovery.getRecoveryFile(), recovery.getMaxTransactionId());
+    }
+
     @Override
     public void update(final Collection<T> records) {
         // This implementation of Snapshot keeps a ConcurrentHashMap of all 'active' records
@@ -295,6 +315,10 @@ public class HashMapSnapshot<T> implements WriteAheadSnapshot<T>, RecordLookup<T
             fileOut.getChannel().force(false);
         }
 
+        // If a PartitionedHashMapSnapshot was written previously, it takes precedence over the snapshot file during recovery,
+        // so it must be deleted before the partial file is renamed.
+        PartitionedHashMapSnapshot.deleteSnapshot(storageDirectory);
+
         // If the snapshot file exists, delete it
         if (snapshotFile.exists()) {
             if (!snapshotFile.delete()) {
@@ -48,10 +48,12 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
 
 public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
     private static final Logger logger = LoggerFactory.getLogger(LengthDelimitedJournal.class);
-    private static final int DEFAULT_MAX_IN_HEAP_SERIALIZATION_BYTES = 5 * 1024 * 1024; // 5 MB
+    static final int DEFAULT_MAX_IN_HEAP_SERIALIZATION_BYTES = 5 * 1024 * 1024; // 5 MB
+    private static final int GROUP_COMMIT_BUFFER_SIZE = 256 * 1024;
 
     private static final JournalSummary INACTIVE_JOURNAL_SUMMARY = new StandardJournalSummary(-1L, -1L, 0);
     private static final int JOURNAL_ENCODING_VERSION = 1;
@@ -65,6 +67,8 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
     private final SerDeFactory<T> serdeFactory;
     private final ObjectPool<ByteArrayDataOutputStream> streamPool;
     private final int maxInHeapSerializationBytes;
+    private final boolean groupCommit;
+    private final long groupCommitWindowNanos;
 
     private SerDe<T> serde;
     private FileOutputStream fileOut;
@@ -78,12 +82,30 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
     private volatile boolean closed = false;
     private final ByteBuffer transactionPreamble = ByteBuffer.allocate(12); // guarded by synchronized block
 
+    // Group commit state, guarded by synchronizing on syncLock. The thread that finds no sync in progress becomes the 'leader' and syncs
+    // every transaction written so far; all other threads wait for a sync that covers their transaction.
+    private final Object syncLock = new Object();
+    private long syncedTransactionId = -1L;
+    private boolean syncInProgress = false;
+
     public LengthDelimitedJournal(final File journalFile, final SerDeFactory<T> serdeFactory, final ObjectPool<ByteArrayDataOutputStream> streamPool, final long initialTransactionId) {
         this(journalFile, serdeFactory, streamPool, initialTransactionId, DEFAULT_MAX_IN_HEAP_SERIALIZATION_BYTES);
     }
 
     public LengthDelimitedJournal(final File journalFile, final SerDeFactory<T> serdeFactory, final ObjectPool<ByteArrayDataOutputStream> streamPool, final long initialTransactionId,
                                   final int maxInHeapSerializationBytes) {
+        this(journalFile, serdeFactory, streamPool, initialTransactionId, maxInHeapSerializationBytes, false, 0L);
+    }
+
+    /**
+     * @param groupCommit whether or not concurrent calls to {@link #updateAndSync(Collection, RecordLookup)} should be coalesced so that their
+     *            transactions are written to the journal together and synced to disk with a single fsync
+     * @param groupCommitWindowNanos when group commit is enabled, the number of nanoseconds that the thread performing the sync waits before
+     *            syncing, so that more transactions can join the group. A value of 0 means that only transactions that are written while
+     *            the previous sync is in progress are grouped together.
+     */
+    public LengthDelimitedJournal(final File journalFile, final SerDeFactory<T> serdeFactory, final ObjectPool<ByteArrayDataOutputStream> streamPool, final long initialTransactionId,
+                                  final int maxInHeapSerializationBytes, final boolean groupCommit, final long groupCommitWindowNanos) {
         this.journalFile = journalFile;
         this.overflowDirectory = new File(journalFile.getParentFile(), "overflow-" + getBaseFilename(journalFile));
         this.serdeFactory = serdeFactory;
@@ -93,6 +115,8 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
         this.initialTransactionId = initialTransactionId;
         this.currentTransactionId = initialTransactionId;
         this.maxInHeapSerializationBytes = maxInHeapSerializationBytes;
+        this.groupCommit = groupCommit;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
     }
 
     public void dispose() {
@@ -134,7 +158,7 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
     private synchronized OutputStream getOutputStream() throws FileNotFoundException {
         if (fileOut == null) {
             fileOut = new FileOutputStream(journalFile);
-            bufferedOut = new BufferedOutputStream(fileOut);
+            bufferedOut = groupCommit ? new BufferedOutputStream(fileOut, GROUP_COMMIT_BUFFER_SIZE) : new BufferedOutputStream(fileOut);
         }
 
         return bufferedOut;
@@ -230,12 +254,108 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
 
     @Override
     public void update(final Collection<T> records, final RecordLookup<T> recordLookup) throws IOException {
+        writeTransaction(records, recordLookup, true);
+    }
+
+    @Override
+    public void updateAndSync(final Collection<T> records, final RecordLookup<T> recordLookup) throws IOException {
+        if (!groupCommit) {
+            update(records, recordLookup);
+            fsync();
+            return;
+        }
+
+        // Leave the transaction in the buffer; whichever thread performs the sync will write it to the file along with
+        // any other transactions that are waiting to be synced.
+        final long transactionId = writeTransaction(records, recordLookup, false);
+        if (transactionId < 0) {
+            fsync();
+            return;
+        }
+
+        awaitSync(transactionId);
+    }
+
+    private void awaitSync(final long transactionId) throws IOException {
+        synchronized (syncLock) {
+            while (syncedTransactionId < transactionId) {
+                checkState();
+
+                if (!syncInProgress) {
+                    syncInProgress = true;
+                    break;
+                }
+
+                try {
+                    syncLock.wait();
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for transaction " + transactionId + " to be synced to journal " + journalFile, ie);
+                }
+            }
+
+            if (syncedTransactionId >= transactionId) {
+                return;
+            }
+        }
+
+        long syncedThrough = -1L;
+        try {
+            if (groupCommitWindowNanos > 0L) {
+                LockSupport.parkNanos(groupCommitWindowNanos);
+            }
+
+            final long lastWrittenTransactionId;
+            synchronized (this) {
+                checkState();
+
+                try {
+                    lastWrittenTransactionId = currentTransactionId - 1;
+                    bufferedOut.flush();
+                } catch (final Throwable t) {
+                    poison(t);
+                    throw t;
+                }
+            }
+
+            // Sync without holding the monitor so that other threads can continue writing transactions to the buffer in the meantime.
+            try {
+                syncToDisk();
+            } catch (final IOException ioe) {
+                poison(ioe);
+                throw ioe;
+            }
+
+            syncedThrough = lastWrittenTransactionId;
+            logger.debug("Synced journal {} through Transaction {}", journalFile, syncedThrough);
+        } finally {
+            synchronized (syncLock) {
+                syncInProgress = false;
+                if (syncedThrough > syncedTransactionId) {
+                    syncedTransactionId = syncedThrough;
+                }
+
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Serializes the given records and writes them to the journal as a single transaction
+     *
+     * @param records the records to write
+     * @param recordLookup a lookup that can be used to access the current value of a record
+     * @param flush whether or not to flush the transaction to the file; if <code>false</code>, the transaction may remain buffered in memory
+     * @return the ID of the transaction, or -1 if there were no records to write
+     * @throws IOException if unable to write to the journal
+     */
+    private long writeTransaction(final Collection<T> records, final RecordLookup<T> recordLookup, final boolean flush) throws IOException {
         if (!headerWritten) {
             throw new IllegalStateException("Cannot update journal file " + journalFile + " because no header has been written yet.");
         }
 
         if (records.isEmpty()) {
-            return;
+            return -1L;
         }
 
         checkState();
@@ -318,7 +438,9 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
                     out.write(TRANSACTION_FOLLOWS);
                     out.write(transactionPreamble.array());
                     baos.writeTo(out);
-                    out.flush();
+                    if (flush) {
+                        out.flush();
+                    }
                 } catch (final Throwable t) {
                     // While the outter Throwable that wraps this "catch" will call Poison, it is imperative that we call poison()
                     // before the synchronized block is excited. Otherwise, another thread could potentially corrupt the journal before
@@ -329,6 +451,7 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
             }
 
             logger.debug("Wrote Transaction {} to journal {} with length {} and {} records", transactionId, journalFile, baos.size(), records.size());
+            return transactionId;
         } catch (final Throwable t) {
             poison(t);
 
@@ -381,13 +504,19 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
 
         try {
             if (fileOut != null) {
-                fileOut.getChannel().force(false);
+                bufferedOut.flush();
+                syncToDisk();
             }
         } catch (final IOException ioe) {
             poison(ioe);
         }
     }
 
+    // Visible/overrideable for testing.
+    protected void syncToDisk() throws IOException {
+        fileOut.getChannel().force(false);
+    }
+
     @Override
     public synchronized void close() throws IOException {
         if (closed) {
@@ -399,6 +528,7 @@ public class LengthDelimitedJournal<T> implements WriteAheadJournal<T> {
         try {
             if (fileOut != null) {
                 if (!isPoisoned()) {
+                    bufferedOut.flush();
                     fileOut.write(JOURNAL_COMPLETE);
                 }
 
@@ -0,0 +1,759 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wali.SerDe;
+import org.wali.SerDeFactory;
+import org.wali.UpdateType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A Write-Ahead Snapshot that splits the records into partitions and, at each checkpoint, writes only those partitions that have changed since
+ * the previous checkpoint. Records whose identifiers are numbers are partitioned by identifier range, so that records that sit in the repository
+ * for a long time share partitions that are rarely rewritten, while newly created records fall into the most recent partitions. Other identifiers
+ * are partitioned by their hash code. As a result, the time taken to checkpoint, and the amount of heap that is needed to do so, is proportional
+ * to the number of records that have changed rather than the total number of records.
+ * </p>
+ *
+ * <p>
+ * Each partition is written to its own file in the <code>checkpoint.partitions</code> directory, and changed partitions are written in parallel.
+ * Once all of the changed partitions have been written and synced to disk, a manifest that lists the file for every partition, along with the
+ * Max Transaction ID and the swap locations, is written and atomically renamed to <code>checkpoint.manifest</code>. The manifest is the only file
+ * that determines which partition files make up the snapshot, so a failure while checkpointing leaves the previous snapshot intact. Partition
+ * files that are no longer referenced by the manifest are deleted after it has been renamed. On recovery, the partitions are read in parallel.
+ * </p>
+ *
+ * <p>
+ * If there is no manifest but there is a snapshot that was written by {@link HashMapSnapshot}, that snapshot is recovered instead, and the first
+ * checkpoint writes every partition and then removes it. Likewise, {@link HashMapSnapshot} recovers from the manifest if one exists, so the
+ * repository can be switched between the two in either direction.
+ * </p>
+ */
+public class PartitionedHashMapSnapshot<T> implements WriteAheadSnapshot<T>, RecordLookup<T> {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedHashMapSnapshot.class);
+    private static final int ENCODING_VERSION = 1;
+
+    public static final long DEFAULT_IDS_PER_PARTITION = 100_000L;
+    public static final int DEFAULT_WRITE_THREADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    static final int HASH_PARTITION_COUNT = 256;
+    static final String MANIFEST_FILENAME = "checkpoint.manifest";
+    static final String PARTITIONS_DIRECTORY = "checkpoint.partitions";
+
+    private final ConcurrentMap<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<Object, T> recordView = new RecordMapView();
+    private final SerDeFactory<T> serdeFactory;
+    private final Set<String> swapLocations = Collections.synchronizedSet(new HashSet<>());
+    private final File storageDirectory;
+    private final File partitionsDirectory;
+    private final long idsPerPartition;
+    private final int writeThreads;
+    private final AtomicLong generation = new AtomicLong(0L);
+
+    public PartitionedHashMapSnapshot(final File storageDirectory, final SerDeFactory<T> serdeFactory) {
+        this(storageDirectory, serdeFactory, DEFAULT_IDS_PER_PARTITION, DEFAULT_WRITE_THREADS);
+    }
+
+    /**
+     * @param storageDirectory the directory to store the snapshot in
+     * @param serdeFactory the factory for the serializer/deserializer to use
+     * @param idsPerPartition the size of the range of numeric record identifiers that make up each partition
+     * @param writeThreads the maximum number of partitions to write or read concurrently
+     */
+    public PartitionedHashMapSnapshot(final File storageDirectory, final SerDeFactory<T> serdeFactory, final long idsPerPartition, final int writeThreads) {
+        if (idsPerPartition < 1) {
+            throw new IllegalArgumentException("Number of IDs per partition must be positive");
+        }
+        if (writeThreads < 1) {
+            throw new IllegalArgumentException("Number of write threads must be positive");
+        }
+
+        this.serdeFactory = serdeFactory;
+        this.storageDirectory = storageDirectory;
+        this.partitionsDirectory = new File(storageDirectory, PARTITIONS_DIRECTORY);
+        this.idsPerPartition = idsPerPartition;
+        this.writeThreads = writeThreads;
+    }
+
+    /**
+     * @param storageDirectory the directory of a Write-Ahead Log
+     * @return <code>true</code> if the directory contains a snapshot that was written by a PartitionedHashMapSnapshot
+     */
+    static boolean isSnapshotPresent(final File storageDirectory) {
+        return new File(storageDirectory, MANIFEST_FILENAME).exists();
+    }
+
+    /**
+     * Deletes the snapshot that was written by a PartitionedHashMapSnapshot in the given directory, if there is one. The manifest is deleted
+     * first, so that the partition files are no longer considered part of a snapshot even if they cannot all be deleted.
+     *
+     * @param storageDirectory the directory of a Write-Ahead Log
+     * @throws IOException if unable to delete the manifest
+     */
+    static void deleteSnapshot(final File storageDirectory) throws IOException {
+        Files.deleteIfExists(new File(storageDirectory, MANIFEST_FILENAME).toPath());
+        Files.deleteIfExists(getPartialManifestFile(storageDirectory).toPath());
+
+        final File[] partitionFiles = new File(storageDirectory, PARTITIONS_DIRECTORY).listFiles();
+        if (partitionFiles != null) {
+            for (final File partitionFile : partitionFiles) {
+                if (!partitionFile.delete()) {
+                    logger.warn("Unable to delete Snapshot partition file {}", partitionFile);
+                }
+            }
+        }
+    }
+
+    private static File getPartialManifestFile(final File storageDirectory) {
+        return new File(storageDirectory, MANIFEST_FILENAME + ".partial");
+    }
+
+    private File getManifestFile() {
+        return new File(storageDirectory, MANIFEST_FILENAME);
+    }
+
+    private long getPartitionKey(final Object recordId) {
+        if (recordId instanceof Number) {
+            return Math.floorDiv(((Number) recordId).longValue(), idsPerPartition);
+        }
+
+        // Partition keys of hashed identifiers may collide with those of numeric identifiers. That is harmless, because each partition is
+        // keyed by the record identifiers themselves.
+        return Math.floorMod(recordId.hashCode(), HASH_PARTITION_COUNT);
+    }
+
+    @Override
+    public SnapshotRecovery<T> recover() throws IOException {
+        final File manifestFile = getManifestFile();
+
+        // The partial manifest is renamed atomically, so if it still exists, it was never complete.
+        Files.deleteIfExists(getPartialManifestFile(storageDirectory).toPath());
+
+        if (!manifestFile.exists()) {
+            return recoverFromHashMapSnapshot();
+        }
+
+        final Manifest manifest;
+        try (final DataInputStream dataIn = new DataInputStream(new BufferedInputStream(new FileInputStream(manifestFile)))) {
+            manifest = readManifest(dataIn);
+        }
+
+        final List<Callable<Partition>> tasks = new ArrayList<>(manifest.partitions.size());
+        for (final PersistedPartition persisted : manifest.partitions) {
+            tasks.add(() -> readPartition(persisted));
+        }
+
+        for (final Partition partition : invokeAll(tasks, "Recover")) {
+            partitions.put(partition.key, partition);
+        }
+
+        // The manifest takes precedence over any snapshot written by HashMapSnapshot, as that snapshot is only retained if
+        // we failed to delete it after writing the manifest.
+        deleteHashMapSnapshot();
+        deleteUnreferencedPartitionFiles(manifest.partitions);
+
+        generation.set(manifest.generation);
+        this.swapLocations.addAll(manifest.swapLocations);
+
+        final int recordCount = getRecordCount();
+        logger.info("{} restored {} Records in {} Partitions and {} Swap Files from Snapshot, ending with Transaction ID {}",
+            new Object[] {this, recordCount, manifest.partitions.size(), manifest.swapLocations.size(), manifest.maxTransactionId});
+
+        return new StandardSnapshotRecovery<>(recordView, new HashSet<>(manifest.swapLocations), manifestFile, manifest.maxTransactionId);
+    }
+
+    private SnapshotRecovery<T> recoverFromHashMapSnapshot() throws IOException {
+        final SnapshotRecovery<T> recovery = new HashMapSnapshot<>(storageDirectory, serdeFactory).recover();
+        if (recovery.getRecoveryFile() == null) {
+            return recovery;
+        }
+
+        // Each of the partitions is new, so each will be written at the next checkpoint, at which point the HashMapSnapshot will be deleted.
+        recordView.putAll(recovery.getRecords());
+        this.swapLocations.addAll(recovery.getRecoveredSwapLocations());
+
+        logger.info("{} restored {} Records from Snapshot at {}; all Partitions will be written at the next checkpoint", this, getRecordCount(), recovery.getRecoveryFile());
+        return new StandardSnapshotRecovery<>(recordView, new HashSet<>(recovery.getRecoveredSwapLocations()), recovery.getRecoveryFile(), recovery.getMaxTransactionId());
+    }
+
+    private Manifest readManifest(final DataInputStream dataIn) throws IOException {
+        final File manifestFile = getManifestFile();
+        final String snapshotClass = dataIn.readUTF();
+        if (!snapshotClass.equals(PartitionedHashMapSnapshot.class.getName())) {
+            throw new IOException("Write-Ahead Log Snapshot Manifest located at " + manifestFile + " was written using the "
+                + snapshotClass + " class; cannot restore using " + getClass().getName());
+        }
+
+        final int snapshotVersion = dataIn.readInt();
+        if (snapshotVersion > ENCODING_VERSION) {
+            throw new IOException("Write-Ahead Log Snapshot Manifest located at " + manifestFile + " was written using version "
+                + snapshotVersion + " of the " + snapshotClass + " class; cannot restore using Version " + ENCODING_VERSION);
+        }
+
+        final Manifest manifest = new Manifest();
+        manifest.maxTransactionId = dataIn.readLong();
+        manifest.generation = dataIn.readLong();
+
+        final int numPartitions = dataIn.readInt();
+        manifest.partitions = new ArrayList<>(numPartitions);
+        for (int i = 0; i < numPartitions; i++) {
+            final long key = dataIn.readLong();
+            final String filename = dataIn.readUTF();
+            final int recordCount = dataIn.readInt();
+            manifest.partitions.add(new PersistedPartition(key, 0L, filename, recordCount));
+        }
+
+        final int numSwapLocations = dataIn.readInt();
+        manifest.swapLocations = new HashSet<>();
+        for (int i = 0; i < numSwapLocations; i++) {
+            manifest.swapLocations.add(dataIn.readUTF());
+        }
+
+        return manifest;
+    }
+
+    private Partition readPartition(final PersistedPartition persisted) throws IOException {
+        final File partitionFile = new File(partitionsDirectory, persisted.filename);
+        final Partition partition = new Partition(persisted.key);
+
+        try (final DataInputStream dataIn = new DataInputStream(new BufferedInputStream(new FileInputStream(partitionFile)))) {
+            final String serdeEncoding = dataIn.readUTF();
+            final int serdeVersion = dataIn.readInt();
+            final int numRecords = dataIn.readInt();
+
+            final SerDe<T> serde = serdeFactory.createSerDe(serdeEncoding);
+            serde.readHeader(dataIn);
+
+            for (int i = 0; i < numRecords; i++) {
+                final T record = serde.deserializeRecord(dataIn, serdeVersion);
+                if (record == null) {
+                    throw new EOFException("Snapshot partition file " + partitionFile + " ended after " + i + " of " + numRecords + " records");
+                }
+
+                final UpdateType updateType = serde.getUpdateType(record);
+                if (updateType == UpdateType.DELETE) {
+                    logger.warn("While recovering from snapshot, found record with type 'DELETE'; this record will not be restored");
+                    continue;
+                }
+
+                logger.trace("Recovered from snapshot: {}", record);
+                partition.records.put(serde.getRecordIdentifier(record), record);
+            }
+        }
+
+        partition.persisted = persisted;
+        return partition;
+    }
+
+    @Override
+    public void update(final Collection<T> records) {
+        for (final T record : records) {
+            final Object recordId = serdeFactory.getRecordIdentifier(record);
+            final UpdateType updateType = serdeFactory.getUpdateType(record);
+
+            switch (updateType) {
+                case DELETE:
+                    removeRecord(recordId);
+                    break;
+                case SWAP_OUT:
+                    final String location = serdeFactory.getLocation(record);
+                    if (location == null) {
+                        logger.error("Received Record (ID=" + recordId + ") with UpdateType of SWAP_OUT but "
+                            + "no indicator of where the Record is to be Swapped Out to; these records may be "
+                            + "lost when the repository is restored!");
+                    } else {
+                        removeRecord(recordId);
+                        this.swapLocations.add(location);
+                    }
+                    break;
+                case SWAP_IN:
+                    final String swapLocation = serdeFactory.getLocation(record);
+                    if (swapLocation == null) {
+                        logger.error("Received Record (ID=" + recordId + ") with UpdateType of SWAP_IN but no "
+                            + "indicator of where the Record is to be Swapped In from; these records may be duplicated "
+                            + "when the repository is restored!");
+                    } else {
+                        swapLocations.remove(swapLocation);
+                    }
+                    putRecord(recordId, record);
+                    break;
+                default:
+                    putRecord(recordId, record);
+                    break;
+            }
+        }
+    }
+
+    private T putRecord(final Object recordId, final T record) {
+        final Object[] previous = new Object[1];
+
+        // Partitions are created and removed atomically with respect to the updates that are made to them, so that an
+        // update can never be made to a partition that has just been removed because it was empty.
+        partitions.compute(getPartitionKey(recordId), (key, partition) -> {
+            final Partition updated = partition == null ? new Partition(key) : partition;
+            previous[0] = updated.records.put(recordId, record);
+            updated.version.incrementAndGet();
+            return updated;
+        });
+
+        return cast(previous[0]);
+    }
+
+    private T removeRecord(final Object recordId) {
+        final Object[] previous = new Object[1];
+
+        partitions.computeIfPresent(getPartitionKey(recordId), (key, partition) -> {
+            previous[0] = partition.records.remove(recordId);
+            if (previous[0] != null) {
+                partition.version.incrementAndGet();
+            }
+
+            return partition.records.isEmpty() ? null : partition;
+        });
+
+        return cast(previous[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(final Object record) {
+        return (T) record;
+    }
+
+    @Override
+    public int getRecordCount() {
+        int count = 0;
+        for (final Partition partition : partitions.values()) {
+            count += partition.records.size();
+        }
+        return count;
+    }
+
+    @Override
+    public T lookup(final Object recordId) {
+        final Partition partition = partitions.get(getPartitionKey(recordId));
+        return partition == null ? null : partition.records.get(recordId);
+    }
+
+    @Override
+    public SnapshotCapture<T> prepareSnapshot(final long maxTransactionId) {
+        return prepareSnapshot(maxTransactionId, this.swapLocations);
+    }
+
+    @Override
+    public SnapshotCapture<T> prepareSnapshot(final long maxTransactionId, final Set<String> swapFileLocations) {
+        final List<PartitionCapture> captures = new ArrayList<>(partitions.size());
+        for (final Partition partition : partitions.values()) {
+            // Obtain the version before copying the records. When the Write-Ahead Log checkpoints, no updates can occur while the snapshot is
+            // prepared, so the copy is exactly that version of the partition. Otherwise, the copy may also contain later updates, which is
+            // harmless, as such a capture is never written.
+            final long version = partition.version.get();
+            final PersistedPartition persisted = partition.persisted;
+
+            if (persisted != null && persisted.version == version) {
+                captures.add(new PartitionCapture(partition, version, null, persisted));
+            } else {
+                captures.add(new PartitionCapture(partition, version, new HashMap<>(partition.records), null));
+            }
+        }
+
+        return new PartitionedSnapshot(captures, new HashSet<>(swapFileLocations), maxTransactionId, generation.incrementAndGet());
+    }
+
+    @Override
+    public synchronized void writeSnapshot(final SnapshotCapture<T> snapshotCapture) throws IOException {
+        if (!(snapshotCapture instanceof PartitionedHashMapSnapshot.PartitionedSnapshot)) {
+            throw new IllegalArgumentException("Cannot write Snapshot Capture " + snapshotCapture + " because it was not prepared by " + this);
+        }
+
+        final PartitionedSnapshot snapshot = (PartitionedSnapshot) snapshotCapture;
+        if (!partitionsDirectory.exists() && !partitionsDirectory.mkdirs()) {
+            throw new IOException("Directory " + partitionsDirectory + " does not exist and cannot be created");
+        }
+
+        final List<Callable<PersistedPartition>> tasks = new ArrayList<>();
+        final List<PersistedPartition> persistedPartitions = new ArrayList<>(snapshot.partitionCaptures.size());
+        for (final PartitionCapture capture : snapshot.partitionCaptures) {
+            if (capture.persisted != null) {
+                persistedPartitions.add(capture.persisted);
+            } else if (!capture.records.isEmpty()) {
+                tasks.add(() -> writePartition(capture, snapshot.generation));
+            }
+        }
+
+        // If any partition fails to be written, the manifest is not updated, so the previous snapshot remains intact. Partitions that were
+        // written are not marked as persisted, so they will be written again at the next checkpoint.
+        final List<PersistedPartition> writtenPartitions = invokeAll(tasks, "Write");
+        persistedPartitions.addAll(writtenPartitions);
+
+        writeManifest(snapshot, persistedPartitions);
+
+        final Map<Long, PersistedPartition> writtenByKey = new HashMap<>();
+        for (final PersistedPartition written : writtenPartitions) {
+            writtenByKey.put(written.key, written);
+        }
+        for (final PartitionCapture capture : snapshot.partitionCaptures) {
+            final PersistedPartition written = writtenByKey.get(capture.partition.key);
+            if (written != null) {
+                capture.partition.persisted = written;
+            }
+        }
+
+        deleteHashMapSnapshot();
+        deleteUnreferencedPartitionFiles(persistedPartitions);
+
+        logger.debug("{} wrote {} of {} Partitions for Snapshot with Max Transaction ID {}", this, writtenPartitions.size(), persistedPartitions.size(), snapshot.maxTransactionId);
+    }
+
+    private PersistedPartition writePartition(final PartitionCapture capture, final long snapshotGeneration) throws IOException {
+        final String filename = "partition-" + capture.partition.key + "-" + snapshotGeneration + ".bin";
+        final File partitionFile = new File(partitionsDirectory, filename);
+        final SerDe<T> serde = serdeFactory.createSerDe(null);
+
+        try (final FileOutputStream fileOut = new FileOutputStream(partitionFile);
+             final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+
+            dataOut.writeUTF(serde.getClass().getName());
+            dataOut.writeInt(serde.getVersion());
+            dataOut.writeInt(capture.records.size());
+            serde.writeHeader(dataOut);
+
+            for (final T record : capture.records.values()) {
+                logger.trace("Checkpointing {}", record);
+                serde.serializeRecord(record, dataOut);
+            }
+
+            // Ensure that the partition is fully written to disk before the manifest refers to it.
+            dataOut.flush();
+            fileOut.getChannel().force(false);
+        }
+
+        return new PersistedPartition(capture.partition.key, capture.version, filename, capture.records.size());
+    }
+
+    private void writeManifest(final PartitionedSnapshot snapshot, final List<PersistedPartition> persistedPartitions) throws IOException {
+        final File partialFile = getPartialManifestFile(storageDirectory);
+
+        try (final FileOutputStream fileOut = new FileOutputStream(partialFile);
+             final DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+
+            dataOut.writeUTF(PartitionedHashMapSnapshot.class.getName());
+            dataOut.writeInt(ENCODING_VERSION);
+            dataOut.writeLong(snapshot.maxTransactionId);
+            dataOut.writeLong(snapshot.generation);
+
+            dataOut.writeInt(persistedPartitions.size());
+            for (final PersistedPartition persisted : persistedPartitions) {
+                dataOut.writeLong(persisted.key);
+                dataOut.writeUTF(persisted.filename);
+                dataOut.writeInt(persisted.recordCount);
+            }
+
+            dataOut.writeInt(snapshot.swapLocations.size());
+            for (final String swapLocation : snapshot.swapLocations) {
+                dataOut.writeUTF(swapLocation);
+            }
+
+            dataOut.flush();
+            fileOut.getChannel().force(false);
+        }
+
+        Files.move(partialFile.toPath(), getManifestFile().toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteHashMapSnapshot() throws IOException {
+        Files.deleteIfExists(new File(storageDirectory, "checkpoint").toPath());
+        Files.deleteIfExists(new File(storageDirectory, "checkpoint.partial").toPath());
+    }
+
+    private void deleteUnreferencedPartitionFiles(final List<PersistedPartition> persistedPartitions) {
+        final Set<String> referenced = new HashSet<>();
+        for (final PersistedPartition persisted : persistedPartitions) {
+            referenced.add(persisted.filename);
+        }
+
+        final File[] partitionFiles = partitionsDirectory.listFiles();
+        if (partitionFiles == null) {
+            return;
+        }
+
+        for (final File partitionFile : partitionFiles) {
+            if (!referenced.contains(partitionFile.getName()) && !partitionFile.delete()) {
+                logger.warn("Unable to delete Snapshot partition file {} that is no longer part of the Snapshot", partitionFile);
+            }
+        }
+    }
+
+    private <R> List<R> invokeAll(final List<Callable<R>> tasks, final String action) throws IOException {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(writeThreads, tasks.size()), runnable -> {
+            final Thread thread = new Thread(runnable, action + " Snapshot Partition-" + threadCounter.incrementAndGet() + " [" + storageDirectory + "]");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final List<Future<R>> futures = new ArrayList<>(tasks.size());
+            for (final Callable<R> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            final List<R> results = new ArrayList<>(tasks.size());
+            for (final Future<R> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Snapshot partitions at " + storageDirectory, ie);
+        } catch (final ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to " + action.toLowerCase() + " Snapshot partitions at " + storageDirectory, cause);
+        } finally {
+            // Do not return until all tasks have stopped, so that no task can create a partition file after the caller has moved on.
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionedHashMapSnapshot[" + storageDirectory + "]";
+    }
+
+
+    private class Partition {
+        private final long key;
+        private final ConcurrentMap<Object, T> records = new ConcurrentHashMap<>();
+        private final AtomicLong version = new AtomicLong(0L);
+
+        // The version of the partition that is part of the most recently written snapshot, or null if it is not part of that snapshot
+        private volatile PersistedPartition persisted;
+
+        Partition(final long key) {
+            this.key = key;
+        }
+    }
+
+    private static class PersistedPartition {
+        private final long key;
+        private final long version;
+        private final String filename;
+        private final int recordCount;
+
+        PersistedPartition(final long key, final long version, final String filename, final int recordCount) {
+            this.key = key;
+            this.version = version;
+            this.filename = filename;
+            this.recordCount = recordCount;
+        }
+    }
+
+    private class PartitionCapture {
+        private final Partition partition;
+        private final long version;
+        private final Map<Object, T> records;
+        private final PersistedPartition persisted;
+
+        PartitionCapture(final Partition partition, final long version, final Map<Object, T> records, final PersistedPartition persisted) {
+            this.partition = partition;
+            this.version = version;
+            this.records = records;
+            this.persisted = persisted;
+        }
+    }
+
+    private static class Manifest {
+        private long maxTransactionId;
+        private long generation;
+        private List<PersistedPartition> partitions;
+        private Set<String> swapLocations;
+    }
+
+    /**
+     * A capture of the snapshot that holds a copy of only those partitions that have changed since they were last written. The records of
+     * the unchanged partitions are obtained from the partitions themselves if {@link #getRecords()} is called, so they reflect any updates
+     * that have been made since the snapshot was prepared.
+     */
+    public class PartitionedSnapshot implements SnapshotCapture<T> {
+        private final List<PartitionCapture> partitionCaptures;
+        private final Set<String> swapLocations;
+        private final long maxTransactionId;
+        private final long generation;
+        private final int recordCount;
+        private Map<Object, T> records;
+
+        private PartitionedSnapshot(final List<PartitionCapture> partitionCaptures, final Set<String> swapLocations, final long maxTransactionId, final long generation) {
+            this.partitionCaptures = partitionCaptures;
+            this.swapLocations = swapLocations;
+            this.maxTransactionId = maxTransactionId;
+            this.generation = generation;
+
+            int count = 0;
+            for (final PartitionCapture capture : partitionCaptures) {
+                count += capture.records == null ? capture.persisted.recordCount : capture.records.size();
+            }
+            this.recordCount = count;
+        }
+
+        @Override
+        public synchronized Map<Object, T> getRecords() {
+            if (records == null) {
+                final Map<Object, T> merged = new HashMap<>(recordCount);
+                for (final PartitionCapture capture : partitionCaptures) {
+                    merged.putAll(capture.records == null ? capture.partition.records : capture.records);
+                }
+                records = merged;
+            }
+
+            return records;
+        }
+
+        @Override
+        public int getRecordCount() {
+            return recordCount;
+        }
+
+        @Override
+        public long getMaxTransactionId() {
+            return maxTransactionId;
+        }
+
+        @Override
+        public Set<String> getSwapLocations() {
+            return swapLocations;
+        }
+
+        /**
+         * @return the number of partitions that have changed since they were last written
+         */
+        public int getChangedPartitionCount() {
+            int count = 0;
+            for (final PartitionCapture capture : partitionCaptures) {
+                if (capture.records != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @return the total number of partitions
+         */
+        public int getPartitionCount() {
+            return partitionCaptures.size();
+        }
+    }
+
+    /**
+     * A view of all of the records in all of the partitions. Changes made through the view, such as those made while replaying the journals
+     * during recovery, are applied to the partitions.
+     */
+    private class RecordMapView extends AbstractMap<Object, T> {
+        @Override
+        public T get(final Object key) {
+            return lookup(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return lookup(key) != null;
+        }
+
+        @Override
+        public T put(final Object key, final T value) {
+            return putRecord(key, value);
+        }
+
+        @Override
+        public T remove(final Object key) {
+            return removeRecord(key);
+        }
+
+        @Override
+        public int size() {
+            return getRecordCount();
+        }
+
+        @Override
+        public Set<Entry<Object, T>> entrySet() {
+            return new AbstractSet<Entry<Object, T>>() {
+                @Override
+                public Iterator<Entry<Object, T>> iterator() {
+                    return partitions.values().stream()
+                        .flatMap(partition -> partition.records.entrySet().stream())
+                        .iterator();
+                }
+
+                @Override
+                public int size() {
+                    return getRecordCount();
+                }
+            };
+        }
+    }
+}
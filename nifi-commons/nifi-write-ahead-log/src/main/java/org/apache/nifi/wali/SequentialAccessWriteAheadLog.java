@@ -65,6 +65,8 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     private final File journalsDirectory;
     protected final SerDeFactory<T> serdeFactory;
     private final SyncListener syncListener;
+    private final boolean groupCommit;
+    private final long groupCommitWindowNanos;
     private final Set<String> recoveredSwapLocations = new HashSet<>();
 
     private final ReadWriteLock journalRWLock = new ReentrantReadWriteLock();
@@ -88,6 +90,41 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
     }
 
     public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener) throws IOException {
+        this(storageDirectory, serdeFactory, syncListener, false, 0L);
+    }
+
+    /**
+     * Creates a Write-Ahead Log that may group the updates that are made concurrently with <code>forceSync</code> set to <code>true</code>
+     * so that they are written to the journal together and synced to disk with a single fsync. Each call to {@link #update(Collection, boolean)}
+     * still returns only after its own update has been synced.
+     *
+     * @param storageDirectory the directory to store the snapshot and journals in
+     * @param serdeFactory the factory for the serializer/deserializer to use
+     * @param syncListener the listener to notify when the repository is synced
+     * @param groupCommit whether or not to group concurrent synced updates together
+     * @param groupCommitWindowNanos how long the thread that syncs a group waits for more updates to join the group before syncing, in nanoseconds
+     * @throws IOException if unable to create the storage directories
+     */
+    public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener,
+                                         final boolean groupCommit, final long groupCommitWindowNanos) throws IOException {
+        this(storageDirectory, serdeFactory, syncListener, groupCommit, groupCommitWindowNanos, false);
+    }
+
+    /**
+     * Creates a Write-Ahead Log that may group concurrent synced updates, as described in
+     * {@link #SequentialAccessWriteAheadLog(File, SerDeFactory, SyncListener, boolean, long)}, and that may checkpoint incrementally
+     * using a {@link PartitionedHashMapSnapshot}, so that each checkpoint writes only the records that have changed since the previous one.
+     *
+     * @param storageDirectory the directory to store the snapshot and journals in
+     * @param serdeFactory the factory for the serializer/deserializer to use
+     * @param syncListener the listener to notify when the repository is synced
+     * @param groupCommit whether or not to group concurrent synced updates together
+     * @param groupCommitWindowNanos how long the thread that syncs a group waits for more updates to join the group before syncing, in nanoseconds
+     * @param incrementalCheckpoint whether to write only the changed partitions of the snapshot at each checkpoint
+     * @throws IOException if unable to create the storage directories
+     */
+    public SequentialAccessWriteAheadLog(final File storageDirectory, final SerDeFactory<T> serdeFactory, final SyncListener syncListener,
+                                         final boolean groupCommit, final long groupCommitWindowNanos, final boolean incrementalCheckpoint) throws IOException {
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new IOException("Directory " + storageDirectory + " does not exist and cannot be created");
         }
@@ -95,9 +132,15 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
             throw new IOException("File " + storageDirectory + " is a regular file and not a directory");
         }
 
-        final HashMapSnapshot<T> hashMapSnapshot = new HashMapSnapshot<>(storageDirectory, serdeFactory);
-        this.snapshot = hashMapSnapshot;
-        this.recordLookup = hashMapSnapshot;
+        if (incrementalCheckpoint) {
+            final PartitionedHashMapSnapshot<T> partitionedSnapshot = new PartitionedHashMapSnapshot<>(storageDirectory, serdeFactory);
+            this.snapshot = partitionedSnapshot;
+            this.recordLookup = partitionedSnapshot;
+        } else {
+            final HashMapSnapshot<T> hashMapSnapshot = new HashMapSnapshot<>(storageDirectory, serdeFactory);
+            this.snapshot = hashMapSnapshot;
+            this.recordLookup = hashMapSnapshot;
+        }
 
         this.storageDirectory = storageDirectory;
         this.journalsDirectory = new File(storageDirectory, "journals");
@@ -109,6 +152,8 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
 
         this.serdeFactory = serdeFactory;
         this.syncListener = (syncListener == null) ? SyncListener.NOP_SYNC_LISTENER : syncListener;
+        this.groupCommit = groupCommit;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
     }
 
     @Override
@@ -119,11 +164,11 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
 
         journalReadLock.lock();
         try {
-            journal.update(records, recordLookup);
-
             if (forceSync) {
-                journal.fsync();
+                journal.updateAndSync(records, recordLookup);
                 syncListener.onSync(PARTITION_INDEX);
+            } else {
+                journal.update(records, recordLookup);
             }
 
             snapshot.update(records);
@@ -305,7 +350,7 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
                 journalFile = new File(journalsDirectory, nextTransactionId + ".journal");
             }
 
-            journal = new LengthDelimitedJournal<>(journalFile, serdeFactory, streamPool, nextTransactionId);
+            journal = createJournal(journalFile, nextTransactionId);
             journal.writeHeader();
 
             logger.debug("Created new Journal starting with Transaction ID {}", nextTransactionId);
@@ -317,19 +362,28 @@ public class SequentialAccessWriteAheadLog<T> implements WriteAheadRepository<T>
         snapshot.writeSnapshot(snapshotCapture);
 
         for (final File existingJournal : existingJournals) {
-            final WriteAheadJournal journal = new LengthDelimitedJournal<>(existingJournal, serdeFactory, streamPool, nextTransactionId);
+            final WriteAheadJournal<T> journal = new LengthDelimitedJournal<>(existingJournal, serdeFactory, streamPool, nextTransactionId);
             journal.dispose();
         }
 
         final long totalNanos = System.nanoTime() - startNanos;
         final long millis = TimeUnit.NANOSECONDS.toMillis(totalNanos);
         logger.info("Checkpointed Write-Ahead Log with {} Records and {} Swap Files in {} milliseconds (Stop-the-world time = {} milliseconds), max Transaction ID {}",
-                snapshotCapture.getRecords().size(), snapshotCapture.getSwapLocations().size(), millis, stopTheWorldMillis, snapshotCapture.getMaxTransactionId());
+                snapshotCapture.getRecordCount(), snapshotCapture.getSwapLocations().size(), millis, stopTheWorldMillis, snapshotCapture.getMaxTransactionId());
 
-        return snapshotCapture.getRecords().size();
+        return snapshotCapture.getRecordCount();
     }
 
 
+    private WriteAheadJournal<T> createJournal(final File journalFile, final long initialTransactionId) {
+        if (groupCommit) {
+            return new LengthDelimitedJournal<>(journalFile, serdeFactory, streamPool, initialTransactionId, LengthDelimitedJournal.DEFAULT_MAX_IN_HEAP_SERIALIZATION_BYTES,
+                true, groupCommitWindowNanos);
+        }
+
+        return new LengthDelimitedJournal<>(journalFile, serdeFactory, streamPool, initialTransactionId);
+    }
+
     @Override
     public void shutdown() throws IOException {
         journalWriteLock.lock();
@@ -23,6 +23,13 @@ import java.util.Set;
 public interface SnapshotCapture<T> {
     Map<Object, T> getRecords();
 
+    /**
+     * @return the number of records in the snapshot, which may be obtained without materializing the records
+     */
+    default int getRecordCount() {
+        return getRecords().size();
+    }
+
     long getMaxTransactionId();
 
     Set<String> getSwapLocations();
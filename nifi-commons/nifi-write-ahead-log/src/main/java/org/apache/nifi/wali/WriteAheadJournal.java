@@ -37,6 +37,21 @@ public interface WriteAheadJournal<T> extends Closeable {
      */
     void update(Collection<T> records, RecordLookup<T> recordLookup) throws IOException;
 
+    /**
+     * Updates the journal with the given set of records and ensures that the update has been synced to disk before returning.
+     * Implementations may coalesce concurrent calls to this method so that several updates are written and synced together.
+     * The default implementation calls {@link #update(Collection, RecordLookup)} followed by {@link #fsync()}.
+     *
+     * @param records the records to update
+     * @param recordLookup a lookup that can be used to access the current value of a record, given its ID
+     *
+     * @throws IOException if unable to write to or sync the underlying storage mechanism
+     */
+    default void updateAndSync(Collection<T> records, RecordLookup<T> recordLookup) throws IOException {
+        update(records, recordLookup);
+        fsync();
+    }
+
     void writeHeader() throws IOException;
 
     void fsync() throws IOException;
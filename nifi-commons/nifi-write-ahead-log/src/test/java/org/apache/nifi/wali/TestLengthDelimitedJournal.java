@@ -43,6 +43,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -315,6 +317,113 @@ public class TestLengthDelimitedJournal {
         }
     }
 
+    @Test
+    public void testGroupCommitSyncsConcurrentUpdatesTogether() throws IOException, InterruptedException {
+        final int threadCount = 8;
+        final AtomicInteger syncCount = new AtomicInteger(0);
+        final long windowNanos = TimeUnit.MILLISECONDS.toNanos(200L);
+
+        try (final LengthDelimitedJournal<DummyRecord> journal = new LengthDelimitedJournal<DummyRecord>(journalFile, serdeFactory, streamPool, 0L, 5 * 1024 * 1024, true, windowNanos) {
+            @Override
+            protected void syncToDisk() throws IOException {
+                syncCount.incrementAndGet();
+                super.syncToDisk();
+            }
+        }) {
+            journal.writeHeader();
+
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            final List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                final DummyRecord record = new DummyRecord(String.valueOf(i), UpdateType.CREATE);
+                final Thread thread = new Thread(() -> {
+                    try {
+                        startLatch.await();
+                        journal.updateAndSync(Collections.singleton(record), key -> null);
+                    } catch (final Throwable t) {
+                        failure.set(t);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            startLatch.countDown();
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+
+            assertNull(failure.get());
+            assertEquals(threadCount, journal.getSummary().getTransactionCount());
+
+            // All threads should be able to write their transactions during the first thread's group commit window, but allow for a slow
+            // thread to require a second sync.
+            assertTrue("Expected concurrent updates to share syncs but performed " + syncCount.get() + " syncs", syncCount.get() < threadCount);
+        }
+
+        try (final LengthDelimitedJournal<DummyRecord> journal = new LengthDelimitedJournal<>(journalFile, serdeFactory, streamPool, 0L)) {
+            final Map<Object, DummyRecord> recordMap = new HashMap<>();
+            final JournalRecovery recovery = journal.recoverRecords(recordMap, new HashSet<>());
+            assertFalse(recovery.isEOFExceptionEncountered());
+            assertEquals(threadCount, recovery.getUpdateCount());
+            assertEquals(threadCount, recordMap.size());
+        }
+    }
+
+    @Test
+    public void testGroupCommitRoundTrip() throws IOException {
+        try (final LengthDelimitedJournal<DummyRecord> journal = new LengthDelimitedJournal<>(journalFile, serdeFactory, streamPool, 0L, 5 * 1024 * 1024, true, 0L)) {
+            journal.writeHeader();
+
+            final DummyRecord firstRecord = new DummyRecord("1", UpdateType.CREATE);
+            journal.updateAndSync(Collections.singleton(firstRecord), key -> null);
+
+            // An update that is not synced must still be written to the journal
+            final DummyRecord secondRecord = new DummyRecord("1", UpdateType.UPDATE).setProperty("abc", "123");
+            journal.update(Collections.singleton(secondRecord), key -> firstRecord);
+
+            final DummyRecord thirdRecord = new DummyRecord("2", UpdateType.CREATE);
+            journal.updateAndSync(Collections.singleton(thirdRecord), key -> null);
+            journal.updateAndSync(Collections.emptyList(), key -> null);
+        }
+
+        try (final LengthDelimitedJournal<DummyRecord> journal = new LengthDelimitedJournal<>(journalFile, serdeFactory, streamPool, 0L)) {
+            final Map<Object, DummyRecord> recordMap = new HashMap<>();
+            final JournalRecovery recovery = journal.recoverRecords(recordMap, new HashSet<>());
+            assertFalse(recovery.isEOFExceptionEncountered());
+            assertEquals(2L, recovery.getMaxTransactionId());
+            assertEquals(2, recordMap.size());
+            assertEquals(Collections.singletonMap("abc", "123"), recordMap.get("1").getProperties());
+        }
+    }
+
+    @Test
+    public void testGroupCommitFailsAfterSyncFailure() throws IOException {
+        try (final LengthDelimitedJournal<DummyRecord> journal = new LengthDelimitedJournal<DummyRecord>(journalFile, serdeFactory, streamPool, 0L, 5 * 1024 * 1024, true, 0L) {
+            @Override
+            protected void syncToDisk() throws IOException {
+                throw new IOException("Intentional Unit Test Exception");
+            }
+        }) {
+            journal.writeHeader();
+
+            try {
+                journal.updateAndSync(Collections.singleton(new DummyRecord("1", UpdateType.CREATE)), key -> null);
+                Assert.fail("Expected IOException");
+            } catch (final IOException expected) {
+            }
+
+            assertFalse(journal.isHealthy());
+
+            try {
+                journal.updateAndSync(Collections.singleton(new DummyRecord("2", UpdateType.CREATE)), key -> null);
+                Assert.fail("Expected IOException");
+            } catch (final IOException expected) {
+            }
+        }
+    }
+
     @Test
     public void testMultipleThreadsCreatingOverflowDirectory() throws IOException, InterruptedException {
         final LengthDelimitedJournal<DummyRecord> journal = new LengthDelimitedJournal<DummyRecord>(journalFile, serdeFactory, streamPool, 3820L, 100) {
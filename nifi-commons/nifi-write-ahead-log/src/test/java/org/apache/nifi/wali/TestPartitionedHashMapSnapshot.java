@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.wali;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wali.DummyRecord;
+import org.wali.DummyRecordSerde;
+import org.wali.SerDeFactory;
+import org.wali.SingletonSerDeFactory;
+import org.wali.UpdateType;
+
+public class TestPartitionedHashMapSnapshot {
+
+    private final File storageDirectory = new File("target/test-partitioned-hashmap-snapshot");
+    private final File partitionsDirectory = new File(storageDirectory, PartitionedHashMapSnapshot.PARTITIONS_DIRECTORY);
+    private DummyRecordSerde serde;
+    private SerDeFactory<DummyRecord> serdeFactory;
+
+    @Before
+    public void setup() throws IOException {
+        deleteRecursively(storageDirectory);
+        Files.createDirectories(storageDirectory.toPath());
+
+        serde = new DummyRecordSerde();
+        serdeFactory = new SingletonSerDeFactory<>(serde);
+    }
+
+    private PartitionedHashMapSnapshot<DummyRecord> createSnapshot() {
+        return new PartitionedHashMapSnapshot<>(storageDirectory, serdeFactory, PartitionedHashMapSnapshot.DEFAULT_IDS_PER_PARTITION, 4);
+    }
+
+    private void createRecords(final WriteAheadSnapshot<DummyRecord> snapshot, final int count) {
+        for (int i = 0; i < count; i++) {
+            final DummyRecord record = new DummyRecord(String.valueOf(i), UpdateType.CREATE);
+            record.setProperty("key", String.valueOf(i));
+            snapshot.update(Collections.singleton(record));
+        }
+    }
+
+    @Test
+    public void testSuccessfulRoundTrip() throws IOException {
+        final PartitionedHashMapSnapshot<DummyRecord> snapshot = createSnapshot();
+        createRecords(snapshot, 1000);
+
+        for (int i = 0; i < 1000; i += 2) {
+            snapshot.update(Collections.singleton(new DummyRecord(String.valueOf(i), UpdateType.DELETE)));
+        }
+
+        final DummyRecord swapOut = new DummyRecord("1", UpdateType.SWAP_OUT);
+        swapOut.setSwapLocation("swapFile-1");
+        snapshot.update(Collections.singleton(swapOut));
+
+        final SnapshotCapture<DummyRecord> capture = snapshot.prepareSnapshot(180L);
+        assertEquals(180L, capture.getMaxTransactionId());
+        assertEquals(Collections.singleton("swapFile-1"), capture.getSwapLocations());
+        assertEquals(499, capture.getRecordCount());
+        assertEquals(499, capture.getRecords().size());
+        snapshot.writeSnapshot(capture);
+
+        final SnapshotRecovery<DummyRecord> recovery = createSnapshot().recover();
+        assertEquals(180L, recovery.getMaxTransactionId());
+        assertEquals(Collections.singleton("swapFile-1"), recovery.getRecoveredSwapLocations());
+        assertEquals(capture.getRecords(), new HashMap<>(recovery.getRecords()));
+    }
+
+    @Test
+    public void testOnlyChangedPartitionsWritten() throws IOException {
+        final PartitionedHashMapSnapshot<DummyRecord> snapshot = createSnapshot();
+        createRecords(snapshot, 1000);
+
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot firstCapture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) snapshot.prepareSnapshot(10L);
+        assertTrue(firstCapture.getPartitionCount() > 1);
+        assertTrue(firstCapture.getPartitionCount() <= PartitionedHashMapSnapshot.HASH_PARTITION_COUNT);
+        assertEquals(firstCapture.getPartitionCount(), firstCapture.getChangedPartitionCount());
+        snapshot.writeSnapshot(firstCapture);
+
+        final Set<String> filesAfterFirst = listPartitionFiles();
+        assertEquals(firstCapture.getPartitionCount(), filesAfterFirst.size());
+
+        final DummyRecord update = new DummyRecord("5", UpdateType.UPDATE);
+        update.setProperty("key", "updated");
+        snapshot.update(Collections.singleton(update));
+
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot secondCapture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) snapshot.prepareSnapshot(20L);
+        assertEquals(1, secondCapture.getChangedPartitionCount());
+        assertEquals(1000, secondCapture.getRecordCount());
+        snapshot.writeSnapshot(secondCapture);
+
+        // Exactly one partition file is replaced; the rest are carried over from the first checkpoint.
+        final Set<String> filesAfterSecond = listPartitionFiles();
+        assertEquals(filesAfterFirst.size(), filesAfterSecond.size());
+        final Set<String> replaced = new HashSet<>(filesAfterFirst);
+        replaced.removeAll(filesAfterSecond);
+        assertEquals(1, replaced.size());
+
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot thirdCapture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) snapshot.prepareSnapshot(30L);
+        assertEquals(0, thirdCapture.getChangedPartitionCount());
+        snapshot.writeSnapshot(thirdCapture);
+        assertEquals(filesAfterSecond, listPartitionFiles());
+
+        final SnapshotRecovery<DummyRecord> recovery = createSnapshot().recover();
+        assertEquals(30L, recovery.getMaxTransactionId());
+        assertEquals(1000, recovery.getRecords().size());
+        assertEquals("updated", recovery.getRecords().get("5").getProperties().get("key"));
+        assertEquals("6", recovery.getRecords().get("6").getProperties().get("key"));
+    }
+
+    @Test
+    public void testNumericIdsPartitionedByRange() throws IOException {
+        final DummyRecordSerde numericSerde = new DummyRecordSerde() {
+            @Override
+            public Object getRecordIdentifier(final DummyRecord record) {
+                return Long.parseLong(record.getId());
+            }
+        };
+        final SerDeFactory<DummyRecord> numericFactory = new SingletonSerDeFactory<>(numericSerde);
+
+        final PartitionedHashMapSnapshot<DummyRecord> snapshot = new PartitionedHashMapSnapshot<>(storageDirectory, numericFactory, 100L, 4);
+        createRecords(snapshot, 1000);
+
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot capture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) snapshot.prepareSnapshot(10L);
+        assertEquals(10, capture.getPartitionCount());
+        snapshot.writeSnapshot(capture);
+
+        // Deleting every record in the first range removes its partition from the snapshot altogether.
+        for (int i = 0; i < 100; i++) {
+            snapshot.update(Collections.singleton(new DummyRecord(String.valueOf(i), UpdateType.DELETE)));
+        }
+        snapshot.update(Collections.singleton(new DummyRecord("1000", UpdateType.CREATE)));
+        assertEquals(901, snapshot.getRecordCount());
+        assertNull(snapshot.lookup(5L));
+
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot nextCapture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) snapshot.prepareSnapshot(20L);
+        assertEquals(10, nextCapture.getPartitionCount());
+        assertEquals(1, nextCapture.getChangedPartitionCount());
+        snapshot.writeSnapshot(nextCapture);
+        assertEquals(10, listPartitionFiles().size());
+
+        final SnapshotRecovery<DummyRecord> recovery = new PartitionedHashMapSnapshot<>(storageDirectory, numericFactory, 100L, 4).recover();
+        assertEquals(901, recovery.getRecords().size());
+        assertFalse(recovery.getRecords().containsKey(5L));
+        assertTrue(recovery.getRecords().containsKey(1000L));
+    }
+
+    @Test
+    public void testOOMEWhenWritingResultsInPreviousSnapshotStillRecoverable() throws IOException {
+        final PartitionedHashMapSnapshot<DummyRecord> snapshot = createSnapshot();
+        createRecords(snapshot, 11);
+        snapshot.writeSnapshot(snapshot.prepareSnapshot(25L));
+
+        for (int i = 0; i < 11; i++) {
+            final DummyRecord update = new DummyRecord(String.valueOf(i), UpdateType.UPDATE);
+            update.setProperty("key", "updated");
+            snapshot.update(Collections.singleton(update));
+        }
+
+        serde.setThrowOOMEAfterNSerializeEdits(3);
+
+        try {
+            snapshot.writeSnapshot(snapshot.prepareSnapshot(150L));
+            Assert.fail("Expected OOME");
+        } catch (final OutOfMemoryError oome) {
+            // expected
+        }
+
+        final SnapshotRecovery<DummyRecord> recovery = createSnapshot().recover();
+        assertEquals(25L, recovery.getMaxTransactionId());
+
+        final Map<Object, DummyRecord> recordMap = recovery.getRecords();
+        assertEquals(11, recordMap.size());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(String.valueOf(i), recordMap.get(String.valueOf(i)).getProperties().get("key"));
+        }
+
+        // Any partition files written by the failed checkpoint are not part of the snapshot and are removed on recovery.
+        assertEquals(11, listPartitionFiles().size());
+    }
+
+    @Test
+    public void testPartitionsWrittenAgainAfterFailure() throws IOException {
+        final PartitionedHashMapSnapshot<DummyRecord> snapshot = createSnapshot();
+        createRecords(snapshot, 11);
+        snapshot.writeSnapshot(snapshot.prepareSnapshot(25L));
+
+        final DummyRecord update = new DummyRecord("3", UpdateType.UPDATE);
+        update.setProperty("key", "updated");
+        snapshot.update(Collections.singleton(update));
+
+        serde.setThrowIOEAfterNSerializeEdits(0);
+        try {
+            snapshot.writeSnapshot(snapshot.prepareSnapshot(30L));
+            Assert.fail("Expected IOE");
+        } catch (final IOException ioe) {
+            // expected
+        }
+
+        serde.setThrowIOEAfterNSerializeEdits(-1);
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot capture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) snapshot.prepareSnapshot(40L);
+        assertEquals(1, capture.getChangedPartitionCount());
+        snapshot.writeSnapshot(capture);
+
+        final SnapshotRecovery<DummyRecord> recovery = createSnapshot().recover();
+        assertEquals(40L, recovery.getMaxTransactionId());
+        assertEquals("updated", recovery.getRecords().get("3").getProperties().get("key"));
+    }
+
+    @Test
+    public void testRecoveredRecordsUpdatedThroughView() throws IOException {
+        final PartitionedHashMapSnapshot<DummyRecord> snapshot = createSnapshot();
+        createRecords(snapshot, 10);
+        snapshot.writeSnapshot(snapshot.prepareSnapshot(5L));
+
+        // Journal replay applies updates to the recovered record map, and the affected partitions must be written at the next checkpoint.
+        final PartitionedHashMapSnapshot<DummyRecord> recovered = createSnapshot();
+        final Map<Object, DummyRecord> records = recovered.recover().getRecords();
+        records.remove("1");
+        records.put("10", new DummyRecord("10", UpdateType.CREATE));
+        assertEquals(10, recovered.getRecordCount());
+        assertNull(recovered.lookup("1"));
+
+        final PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot capture = (PartitionedHashMapSnapshot<DummyRecord>.PartitionedSnapshot) recovered.prepareSnapshot(8L);
+        assertTrue(capture.getChangedPartitionCount() >= 1);
+        assertTrue(capture.getChangedPartitionCount() <= 2);
+        recovered.writeSnapshot(capture);
+
+        final Map<Object, DummyRecord> recoveredAgain = createSnapshot().recover().getRecords();
+        assertEquals(10, recoveredAgain.size());
+        assertFalse(recoveredAgain.containsKey("1"));
+        assertTrue(recoveredAgain.containsKey("10"));
+    }
+
+    @Test
+    public void testConversionFromAndToHashMapSnapshot() throws IOException {
+        final HashMapSnapshot<DummyRecord> hashMapSnapshot = new HashMapSnapshot<>(storageDirectory, serdeFactory);
+        createRecords(hashMapSnapshot, 20);
+        hashMapSnapshot.writeSnapshot(hashMapSnapshot.prepareSnapshot(50L));
+        assertTrue(new File(storageDirectory, "checkpoint").exists());
+
+        final PartitionedHashMapSnapshot<DummyRecord> partitioned = createSnapshot();
+        final SnapshotRecovery<DummyRecord> fromHashMap = partitioned.recover();
+        assertEquals(50L, fromHashMap.getMaxTransactionId());
+        assertEquals(20, fromHashMap.getRecords().size());
+
+        fromHashMap.getRecords().remove("0");
+        partitioned.writeSnapshot(partitioned.prepareSnapshot(60L));
+        assertFalse(new File(storageDirectory, "checkpoint").exists());
+        assertTrue(PartitionedHashMapSnapshot.isSnapshotPresent(storageDirectory));
+
+        final HashMapSnapshot<DummyRecord> convertedBack = new HashMapSnapshot<>(storageDirectory, serdeFactory);
+        final SnapshotRecovery<DummyRecord> fromPartitioned = convertedBack.recover();
+        assertEquals(60L, fromPartitioned.getMaxTransactionId());
+        assertEquals(19, fromPartitioned.getRecords().size());
+        assertFalse(fromPartitioned.getRecords().containsKey("0"));
+
+        convertedBack.writeSnapshot(convertedBack.prepareSnapshot(70L));
+        assertFalse(PartitionedHashMapSnapshot.isSnapshotPresent(storageDirectory));
+        assertEquals(0, listPartitionFiles().size());
+
+        final SnapshotRecovery<DummyRecord> recovery = new HashMapSnapshot<>(storageDirectory, serdeFactory).recover();
+        assertEquals(70L, recovery.getMaxTransactionId());
+        assertEquals(19, recovery.getRecords().size());
+    }
+
+    private Set<String> listPartitionFiles() {
+        final Set<String> filenames = new HashSet<>();
+        final File[] files = partitionsDirectory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                filenames.add(file.getName());
+            }
+        }
+        return filenames;
+    }
+
+    private void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+
+        file.delete();
+    }
+}
@@ -26,6 +26,7 @@ import org.wali.DummyRecord;
 import org.wali.DummyRecordSerde;
 import org.wali.SerDeFactory;
 import org.wali.SingletonSerDeFactory;
+import org.wali.SyncListener;
 import org.wali.UpdateType;
 import org.wali.WriteAheadRepository;
 
@@ -42,12 +43,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class TestSequentialAccessWriteAheadLog {
@@ -308,6 +312,100 @@ public class TestSequentialAccessWriteAheadLog {
     }
 
 
+    @Test
+    public void testGroupCommitUpdatesThenRecover() throws IOException, InterruptedException {
+        final File storageDir = new File("target", testName.getMethodName());
+        deleteRecursively(storageDir);
+        assertTrue(storageDir.mkdirs());
+
+        final SerDeFactory<DummyRecord> serdeFactory = new SingletonSerDeFactory<>(new DummyRecordSerde());
+        final AtomicInteger syncCount = new AtomicInteger(0);
+        final SyncListener syncListener = new SyncListener() {
+            @Override
+            public void onSync(final int partitionIndex) {
+                syncCount.incrementAndGet();
+            }
+
+            @Override
+            public void onGlobalSync() {
+            }
+        };
+
+        final SequentialAccessWriteAheadLog<DummyRecord> repo = new SequentialAccessWriteAheadLog<>(storageDir, serdeFactory, syncListener, true, 0L);
+        assertTrue(repo.recoverRecords().isEmpty());
+
+        final int threadCount = 8;
+        final int updatesPerThread = 100;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int threadIndex = t;
+            final Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        final DummyRecord record = new DummyRecord(threadIndex + "-" + i, UpdateType.CREATE);
+                        repo.update(Collections.singleton(record), true);
+                    }
+                } catch (final Throwable e) {
+                    failure.set(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(threadCount * updatesPerThread, syncCount.get());
+        repo.shutdown();
+
+        final SequentialAccessWriteAheadLog<DummyRecord> recoveryRepo = createRecoveryRepo();
+        final Collection<DummyRecord> recoveredRecords = recoveryRepo.recoverRecords();
+        assertEquals(threadCount * updatesPerThread, recoveredRecords.size());
+        recoveryRepo.shutdown();
+    }
+
+    @Test
+    public void testIncrementalCheckpointUpdatesThenRecover() throws IOException {
+        final File storageDir = new File("target", testName.getMethodName());
+        deleteRecursively(storageDir);
+        assertTrue(storageDir.mkdirs());
+
+        final SerDeFactory<DummyRecord> serdeFactory = new SingletonSerDeFactory<>(new DummyRecordSerde());
+        final SequentialAccessWriteAheadLog<DummyRecord> repo = new SequentialAccessWriteAheadLog<>(storageDir, serdeFactory, SyncListener.NOP_SYNC_LISTENER, false, 0L, true);
+        assertTrue(repo.recoverRecords().isEmpty());
+
+        final List<DummyRecord> created = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            created.add(new DummyRecord(String.valueOf(i), UpdateType.CREATE));
+        }
+        repo.update(created, false);
+        assertEquals(100, repo.checkpoint());
+
+        // Updates after the checkpoint are recovered from the journal and applied on top of the partitioned snapshot.
+        repo.update(Collections.singleton(new DummyRecord("1", UpdateType.DELETE)), false);
+        final DummyRecord updated = new DummyRecord("2", UpdateType.UPDATE);
+        updated.setProperty("state", "updated");
+        repo.update(Collections.singleton(updated), false);
+        repo.update(Collections.singleton(new DummyRecord("100", UpdateType.CREATE)), false);
+        repo.shutdown();
+
+        final SequentialAccessWriteAheadLog<DummyRecord> recoveryRepo = new SequentialAccessWriteAheadLog<>(storageDir, serdeFactory, SyncListener.NOP_SYNC_LISTENER, false, 0L, true);
+        final Collection<DummyRecord> recovered = recoveryRepo.recoverRecords();
+        assertEquals(100, recovered.size());
+        assertEquals(1, recovered.stream().filter(record -> record.getId().equals("2") && "updated".equals(record.getProperties().get("state"))).count());
+        assertEquals(0, recovered.stream().filter(record -> record.getId().equals("1")).count());
+        recoveryRepo.shutdown();
+
+        // The Write-Ahead Log can also be recovered without incremental checkpointing.
+        final SequentialAccessWriteAheadLog<DummyRecord> fullRecoveryRepo = createRecoveryRepo();
+        assertEquals(100, fullRecoveryRepo.recoverRecords().size());
+        fullRecoveryRepo.shutdown();
+    }
+
     @Test
     @Ignore("For manual performance testing")
     public void testUpdatePerformance() throws IOException, InterruptedException {
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+
+/**
+ * <p>
+ * A FlowFilePrioritizer whose ordering can be expressed as a priority key that is computed from each FlowFile on its own. A FlowFile
+ * Queue whose prioritizers all implement this interface can group FlowFiles into buckets of equal keys, rather than maintaining a heap
+ * that compares FlowFiles to one another, so that adding a FlowFile to the queue does not require any comparisons with the FlowFiles
+ * that are already queued.
+ * </p>
+ *
+ * <p>
+ * Within a bucket, FlowFiles are ordered by the order in which they were added to the queue. Therefore, an implementation must return
+ * keys such that, for any two FlowFiles <code>a</code> and <code>b</code>, if the key of <code>a</code> is less than the key of
+ * <code>b</code> then {@link #compare(Object, Object) compare(a, b)} is negative, and if the keys are equal then either
+ * <code>compare(a, b)</code> is zero or ordering <code>a</code> and <code>b</code> by the order in which they were queued is consistent
+ * with the prioritizer's intent.
+ * </p>
+ */
+public interface KeyedFlowFilePrioritizer extends FlowFilePrioritizer {
+
+    /**
+     * Returns the priority key for the given FlowFile. Keys are compared using their natural ordering, lowest first, and must implement
+     * <code>equals</code> and <code>hashCode</code> consistently with <code>compareTo</code>. Implementations should return a small
+     * number of distinct keys relative to the number of FlowFiles queued, as each distinct key is held in its own bucket.
+     *
+     * @param flowFile the FlowFile
+     * @return the priority key for the given FlowFile, never <code>null</code>
+     */
+    Comparable<?> getPriorityKey(FlowFile flowFile);
+}
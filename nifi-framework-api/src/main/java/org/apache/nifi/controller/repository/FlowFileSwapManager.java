@@ -80,6 +80,17 @@ public interface FlowFileSwapManager {
      */
     SwapContents swapIn(String swapLocation, FlowFileQueue flowFileQueue) throws IncompleteSwapFileException, IOException;
 
+    /**
+     * Provides a hint that the swap file at the given location is likely to be swapped in soon, so that the
+     * implementation may begin reading it in the background. A subsequent call to {@link #swapIn(String, FlowFileQueue)}
+     * must behave exactly as it would have without the hint. The default implementation does nothing.
+     *
+     * @param swapLocation the location of the swap file
+     * @param flowFileQueue the queue to which the FlowFiles belong
+     */
+    default void prefetch(String swapLocation, FlowFileQueue flowFileQueue) {
+    }
+
     /**
      * Determines swap files that exist for the given FlowFileQueue
      *
@@ -143,4 +143,11 @@ public interface ComponentStatusRepository {
     StatusHistory getNodeStatusHistory();
 
     GarbageCollectionHistory getGarbageCollectionHistory(Date start, Date end);
+
+    /**
+     * Releases any resources, such as open files, that are held by the repository. No status is captured after the repository has been shut down.
+     * The default implementation does nothing.
+     */
+    default void shutdown() {
+    }
 }
@@ -34,9 +34,11 @@ import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -606,6 +608,52 @@ public class AvroTypeUtil {
         return rec;
     }
 
+    /**
+     * Creates an Avro Record with the given Avro schema for each row of the given batch, as {@link #createAvroRecord(Record, Schema, Charset)}
+     * does for a single Record. The batch is converted one field at a time, so each field of the batch's schema is matched to a field of the
+     * Avro schema only once rather than once for every row.
+     */
+    public static GenericRecord[] createAvroRecords(final RecordBatch batch, final Schema avroSchema, final Charset charset) {
+        final int size = batch.size();
+        final GenericRecord[] records = new GenericRecord[size];
+        for (int row = 0; row < size; row++) {
+            records[row] = new GenericData.Record(avroSchema);
+        }
+
+        final RecordSchema recordSchema = batch.getSchema();
+        for (int i = 0; i < recordSchema.getFieldCount(); i++) {
+            final Pair<String, Field> fieldPair = lookupField(avroSchema, recordSchema.getField(i));
+            final String fieldName = fieldPair.getLeft();
+            final Field field = fieldPair.getRight();
+            if (field == null) {
+                continue;
+            }
+
+            final Schema fieldSchema = field.schema();
+            final int position = field.pos();
+            for (int row = 0; row < size; row++) {
+                records[row].put(position, convertToAvroObject(batch.getValue(row, i), fieldSchema, fieldName, charset));
+            }
+        }
+
+        // see if the Avro schema has any fields that aren't in the RecordSchema, and if those fields have a default
+        // value then we want to populate it in the GenericRecords being produced
+        for (final Field field : avroSchema.getFields()) {
+            if (field.defaultVal() == null || recordSchema.getField(field.name()).isPresent()) {
+                continue;
+            }
+
+            final int position = field.pos();
+            for (int row = 0; row < size; row++) {
+                if (records[row].get(position) == null) {
+                    records[row].put(position, field.defaultVal());
+                }
+            }
+        }
+
+        return records;
+    }
+
     /**
      * Convert a raw value to an Avro object to serialize in Avro type system, using the provided character set when necessary.
      * The counter-part method which reads an Avro object back to a raw value is {@link #normalizeValue(Object, Schema, String)}.
@@ -849,39 +897,59 @@ public class AvroTypeUtil {
         final Map<String, Object> values = new HashMap<>(recordSchema.getFieldCount());
 
         for (final RecordField recordField : recordSchema.getFields()) {
+            values.put(recordField.getFieldName(), convertAvroField(avroRecord, recordField, charset));
+        }
 
-            Object value = avroRecord.get(recordField.getFieldName());
-            if (value == null) {
-                for (final String alias : recordField.getAliases()) {
-                    value = avroRecord.get(alias);
-                    if (value != null) {
-                        break;
-                    }
+        return values;
+    }
+
+    public static Object[] convertAvroRecordToArray(final GenericRecord avroRecord, final RecordSchema recordSchema) {
+        return convertAvroRecordToArray(avroRecord, recordSchema, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts the given Avro Record into an array of values that is indexed by field position in the given schema, as used by {@link ArrayRecord}.
+     * Every field of the schema is given a value, so a field whose value is <code>null</code> is represented by {@link ArrayRecord#NULL_VALUE}.
+     */
+    public static Object[] convertAvroRecordToArray(final GenericRecord avroRecord, final RecordSchema recordSchema, final Charset charset) {
+        final Object[] values = new Object[recordSchema.getFieldCount()];
+
+        int i = 0;
+        for (final RecordField recordField : recordSchema.getFields()) {
+            final Object value = convertAvroField(avroRecord, recordField, charset);
+            values[i++] = value == null ? ArrayRecord.NULL_VALUE : value;
+        }
+
+        return values;
+    }
+
+    private static Object convertAvroField(final GenericRecord avroRecord, final RecordField recordField, final Charset charset) {
+        Object value = avroRecord.get(recordField.getFieldName());
+        if (value == null) {
+            for (final String alias : recordField.getAliases()) {
+                value = avroRecord.get(alias);
+                if (value != null) {
+                    break;
                 }
             }
+        }
 
-            final String fieldName = recordField.getFieldName();
-            try {
+        final String fieldName = recordField.getFieldName();
+        try {
             final Field avroField = avroRecord.getSchema().getField(fieldName);
             if (avroField == null) {
-                values.put(fieldName, null);
-                continue;
+                return null;
             }
 
             final Schema fieldSchema = avroField.schema();
             final Object rawValue = normalizeValue(value, fieldSchema, fieldName);
 
             final DataType desiredType = recordField.getDataType();
-            final Object coercedValue = DataTypeUtils.convertType(rawValue, desiredType, fieldName, charset);
-
-            values.put(fieldName, coercedValue);
-            } catch (Exception ex) {
-                logger.debug("fail to convert field " + fieldName, ex );
-                throw ex;
-            }
+            return DataTypeUtils.convertType(rawValue, desiredType, fieldName, charset);
+        } catch (Exception ex) {
+            logger.debug("fail to convert field " + fieldName, ex );
+            throw ex;
         }
-
-        return values;
     }
 
     /**
@@ -36,6 +36,8 @@ public class ProcessGroupDTO extends ComponentDTO {
     private ParameterContextReferenceEntity parameterContext;
     private String flowfileConcurrency;
     private String flowfileOutboundPolicy;
+    private Integer maxTimerDrivenThreadCount;
+    private ProvenanceCapturePolicyDTO provenanceCapturePolicy;
 
     private Integer runningCount;
     private Integer stoppedCount;
@@ -373,4 +375,24 @@ public class ProcessGroupDTO extends ComponentDTO {
     public void setFlowfileOutboundPolicy(final String flowfileOutboundPolicy) {
         this.flowfileOutboundPolicy = flowfileOutboundPolicy;
     }
+
+    @ApiModelProperty(value = "The maximum number of threads in the Timer Driven Thread Pool that is dedicated to the components in this Process Group. "
+        + "A value of 0 indicates that the components use the Thread Pool of the parent Process Group.")
+    public Integer getMaxTimerDrivenThreadCount() {
+        return maxTimerDrivenThreadCount;
+    }
+
+    public void setMaxTimerDrivenThreadCount(final Integer maxTimerDrivenThreadCount) {
+        this.maxTimerDrivenThreadCount = maxTimerDrivenThreadCount;
+    }
+
+    @ApiModelProperty(value = "The policy that determines which Provenance Events are recorded for the components in this Process Group. "
+        + "If not set, the policy of the parent Process Group applies.")
+    public ProvenanceCapturePolicyDTO getProvenanceCapturePolicy() {
+        return provenanceCapturePolicy;
+    }
+
+    public void setProvenanceCapturePolicy(final ProvenanceCapturePolicyDTO provenanceCapturePolicy) {
+        this.provenanceCapturePolicy = provenanceCapturePolicy;
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.web.api.dto;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.xml.bind.annotation.XmlType;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The policy that determines which Provenance Events are recorded for the components of a Process Group.
+ */
+@XmlType(name = "provenanceCapturePolicy")
+public class ProvenanceCapturePolicyDTO {
+
+    private Map<String, Double> samplingRates;
+    private Set<String> includedAttributes;
+    private Set<String> excludedAttributes;
+    private Boolean lineageOnly;
+
+    /**
+     * @return the fraction of events to record for each event type that is not recorded in full
+     */
+    @ApiModelProperty(
+            value = "The fraction of events, between 0 and 1, to record for each event type that is not recorded in full, keyed by event type."
+    )
+    public Map<String, Double> getSamplingRates() {
+        return samplingRates;
+    }
+
+    public void setSamplingRates(Map<String, Double> samplingRates) {
+        this.samplingRates = samplingRates;
+    }
+
+    /**
+     * @return the names of the only attributes to record
+     */
+    @ApiModelProperty(
+            value = "The names of the only FlowFile attributes to record. If empty, all attributes that are not excluded are recorded."
+    )
+    public Set<String> getIncludedAttributes() {
+        return includedAttributes;
+    }
+
+    public void setIncludedAttributes(Set<String> includedAttributes) {
+        this.includedAttributes = includedAttributes;
+    }
+
+    /**
+     * @return the names of the attributes that are not recorded
+     */
+    @ApiModelProperty(
+            value = "The names of the FlowFile attributes that are not recorded."
+    )
+    public Set<String> getExcludedAttributes() {
+        return excludedAttributes;
+    }
+
+    public void setExcludedAttributes(Set<String> excludedAttributes) {
+        this.excludedAttributes = excludedAttributes;
+    }
+
+    /**
+     * @return whether only the events and attributes that are needed to trace the lineage of FlowFiles are recorded
+     */
+    @ApiModelProperty(
+            value = "Whether only the events and attributes that are needed to trace the lineage of FlowFiles are recorded."
+    )
+    public Boolean getLineageOnly() {
+        return lineageOnly;
+    }
+
+    public void setLineageOnly(Boolean lineageOnly) {
+        this.lineageOnly = lineageOnly;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.NopProvenanceEventRepository;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.VolatileFlowFileRepository;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.prioritizer.FirstInFirstOutPrioritizer;
+import org.apache.nifi.prioritizer.OldestFlowFileFirstPrioritizer;
+import org.apache.nifi.prioritizer.PriorityAttributePrioritizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks offering FlowFiles to and polling FlowFiles from a {@link StandardFlowFileQueue}, which delegates to the
+ * {@link SwappablePriorityQueue}. The queue is pre-filled so that the cost of maintaining the prioritized active queue
+ * at a realistic depth is included. Every operation polls the highest priority FlowFile(s), acknowledges them and
+ * offers the same number of new FlowFiles so that the depth of the queue stays constant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowFileQueueBenchmark {
+
+    @Param({"none", "FirstInFirstOut", "OldestFlowFileFirst", "PriorityAttribute"})
+    private String prioritizer;
+
+    @Param({"10000", "100000"})
+    private int queuedFlowFiles;
+
+    @Param({"100"})
+    private int batchSize;
+
+    @Param({"false", "true"})
+    private boolean concurrentFifo;
+
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+    private StandardFlowFileQueue queue;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final StandardResourceClaimManager claimManager = new StandardResourceClaimManager();
+        final VolatileFlowFileRepository flowFileRepository = new VolatileFlowFileRepository();
+        flowFileRepository.initialize(claimManager);
+
+        // Use a swap threshold that cannot be reached so that only the in-heap queue is measured.
+        queue = new StandardFlowFileQueue("benchmark-queue", new NopConnectionEventListener(), flowFileRepository, new NopProvenanceEventRepository(), claimManager,
+            null, null, null, Integer.MAX_VALUE, 0L, "0 B", concurrentFifo);
+        queue.setPriorities(createPrioritizers(prioritizer));
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(queuedFlowFiles);
+        for (int i = 0; i < queuedFlowFiles; i++) {
+            flowFiles.add(createFlowFile());
+        }
+        queue.putAll(flowFiles);
+    }
+
+    private static List<FlowFilePrioritizer> createPrioritizers(final String name) {
+        switch (name) {
+            case "FirstInFirstOut":
+                return Collections.singletonList(new FirstInFirstOutPrioritizer());
+            case "OldestFlowFileFirst":
+                return Collections.singletonList(new OldestFlowFileFirstPrioritizer());
+            case "PriorityAttribute":
+                return Collections.singletonList(new PriorityAttributePrioritizer());
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private FlowFileRecord createFlowFile() {
+        final long now = System.currentTimeMillis();
+        return new StandardFlowFileRecord.Builder()
+            .id(idGenerator.getAndIncrement())
+            .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
+            .addAttribute(CoreAttributes.PRIORITY.key(), String.valueOf(ThreadLocalRandom.current().nextInt(10)))
+            .entryDate(now)
+            .lineageStart(now, 0L)
+            .size(1024L)
+            .build();
+    }
+
+    @Benchmark
+    public FlowFileRecord offerPoll() {
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        final FlowFileRecord polled = queue.poll(expired);
+        queue.acknowledge(polled);
+        queue.put(createFlowFile());
+        return polled;
+    }
+
+    @Benchmark
+    public List<FlowFileRecord> offerPollBatch() {
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        final List<FlowFileRecord> polled = queue.poll(batchSize, expired);
+        queue.acknowledge(polled);
+
+        final List<FlowFileRecord> replacements = new ArrayList<>(polled.size());
+        for (int i = 0; i < polled.size(); i++) {
+            replacements.add(createFlowFile());
+        }
+        queue.putAll(replacements);
+        return polled;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public FlowFileRecord offerPollContended() {
+        return offerPoll();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ContentClaimWriteCache;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.StandardContentClaimWriteCache;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.util.NiFiProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing content to and reading content from the {@link FileSystemRepository}. Writes go through a
+ * {@link StandardContentClaimWriteCache}, as they do in the session, so that many small claims are packed into the
+ * same Resource Claim. Reads cycle through a fixed set of Content Claims that are written during setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileSystemRepositoryBenchmark {
+    private static final int READ_CLAIM_COUNT = 1000;
+
+    @Param({"128", "4096", "1048576"})
+    private int contentSize;
+
+    private File repoDirectory;
+    private StandardResourceClaimManager claimManager;
+    private FileSystemRepository repository;
+    private byte[] content;
+    private byte[] readBuffer;
+    private ContentClaim[] readClaims;
+    private int readIndex = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        repoDirectory = Files.createTempDirectory("nifi-content-benchmark").toFile();
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.REPOSITORY_CONTENT_PREFIX + "default", new File(repoDirectory, "content").getAbsolutePath());
+        properties.put(NiFiProperties.CONTENT_ARCHIVE_ENABLED, "false");
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties("", properties);
+
+        claimManager = new StandardResourceClaimManager();
+        repository = new FileSystemRepository(nifiProperties);
+        repository.initialize(claimManager);
+
+        content = new byte[contentSize];
+        new Random(0L).nextBytes(content);
+        readBuffer = new byte[8192];
+
+        final ContentClaimWriteCache writeCache = new StandardContentClaimWriteCache(repository);
+        readClaims = new ContentClaim[READ_CLAIM_COUNT];
+        for (int i = 0; i < READ_CLAIM_COUNT; i++) {
+            final ContentClaim claim = writeCache.getContentClaim();
+            try (final OutputStream out = writeCache.write(claim)) {
+                out.write(content);
+            }
+            readClaims[i] = claim;
+        }
+        writeCache.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        repository.shutdown();
+        StandardProcessSessionBenchmark.deleteRecursively(repoDirectory);
+    }
+
+    @Benchmark
+    public ContentClaim writeClaim() throws IOException {
+        final ContentClaimWriteCache writeCache = new StandardContentClaimWriteCache(repository);
+        final ContentClaim claim = writeCache.getContentClaim();
+        try (final OutputStream out = writeCache.write(claim)) {
+            out.write(content);
+        }
+        writeCache.reset();
+
+        // Release the claim the way the FlowFile Repository would once the FlowFile is removed, so that the
+        // background cleanup can destroy the Resource Claim and the repository does not grow without bound.
+        final ResourceClaim resourceClaim = claim.getResourceClaim();
+        if (claimManager.decrementClaimantCount(resourceClaim) <= 0) {
+            claimManager.markDestructable(resourceClaim);
+        }
+
+        return claim;
+    }
+
+    @Benchmark
+    public long readClaim() throws IOException {
+        final ContentClaim claim = readClaims[readIndex];
+        readIndex = (readIndex + 1) % READ_CLAIM_COUNT;
+
+        long total = 0L;
+        try (final InputStream in = repository.read(claim)) {
+            int len;
+            while ((len = in.read(readBuffer)) > 0) {
+                total += len;
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.connectable.StandardConnection;
+import org.apache.nifi.controller.StandardFunnel;
+import org.apache.nifi.controller.queue.NopConnectionEventListener;
+import org.apache.nifi.controller.queue.StandardFlowFileQueue;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.controller.repository.metrics.RingBufferEventRepository;
+import org.apache.nifi.documentation.init.NopStateManager;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.util.NiFiProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks the get / transfer / commit cycle of the {@link StandardProcessSession}.
+ *
+ * Two Funnels are wired together by a pair of Connections so that FlowFiles can be moved back and forth indefinitely
+ * without the queues growing or draining. A single benchmark operation is therefore one full round trip: a session
+ * for the first Funnel pulls a batch from its incoming Connection and transfers it to the second Funnel, and then a
+ * session for the second Funnel transfers the same batch back. The FlowFile Repository is volatile and the Provenance
+ * Repository discards events, so the numbers reflect the session and queue overhead plus, where content is written,
+ * the File System Content Repository.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StandardProcessSessionBenchmark {
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    @Param({"10000"})
+    private int queuedFlowFiles;
+
+    @Param({"1024"})
+    private int contentSize;
+
+    private File repoDirectory;
+    private FileSystemRepository contentRepository;
+    private StandardRepositoryContext firstContext;
+    private StandardRepositoryContext secondContext;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        repoDirectory = Files.createTempDirectory("nifi-session-benchmark").toFile();
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.REPOSITORY_CONTENT_PREFIX + "default", new File(repoDirectory, "content").getAbsolutePath());
+        properties.put(NiFiProperties.CONTENT_ARCHIVE_ENABLED, "false");
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties("", properties);
+
+        final StandardResourceClaimManager claimManager = new StandardResourceClaimManager();
+        contentRepository = new FileSystemRepository(nifiProperties);
+        contentRepository.initialize(claimManager);
+
+        final FlowFileRepository flowFileRepository = new VolatileFlowFileRepository();
+        flowFileRepository.initialize(claimManager);
+
+        final NopProvenanceEventRepository provenanceRepository = new NopProvenanceEventRepository();
+        final FlowFileEventRepository flowFileEventRepository = new RingBufferEventRepository(5);
+        final CounterRepository counterRepository = new StandardCounterRepository();
+
+        final StandardFunnel first = new StandardFunnel("first", 1, 10_000);
+        final StandardFunnel second = new StandardFunnel("second", 1, 10_000);
+        final Connection firstToSecond = createConnection(first, second, flowFileRepository, provenanceRepository, claimManager);
+        final Connection secondToFirst = createConnection(second, first, flowFileRepository, provenanceRepository, claimManager);
+
+        first.addConnection(firstToSecond);
+        first.addConnection(secondToFirst);
+        second.addConnection(firstToSecond);
+        second.addConnection(secondToFirst);
+
+        final AtomicLong connectionIndex = new AtomicLong(0L);
+        firstContext = new StandardRepositoryContext(first, connectionIndex, contentRepository, flowFileRepository, flowFileEventRepository, counterRepository,
+            provenanceRepository, new NopStateManager());
+        secondContext = new StandardRepositoryContext(second, connectionIndex, contentRepository, flowFileRepository, flowFileEventRepository, counterRepository,
+            provenanceRepository, new NopStateManager());
+
+        content = new byte[contentSize];
+        new Random(0L).nextBytes(content);
+
+        // Seed the queue that feeds the first Funnel, using the second Funnel as the creator of the FlowFiles.
+        final StandardProcessSession seedSession = new StandardProcessSession(secondContext, () -> false);
+        for (int i = 0; i < queuedFlowFiles; i++) {
+            FlowFile flowFile = seedSession.create();
+            flowFile = seedSession.putAttribute(flowFile, "benchmark.index", String.valueOf(i));
+            flowFile = seedSession.write(flowFile, out -> out.write(content));
+            seedSession.transfer(flowFile, Relationship.ANONYMOUS);
+        }
+        seedSession.commit();
+    }
+
+    private Connection createConnection(final Connectable source, final Connectable destination, final FlowFileRepository flowFileRepository,
+                                        final NopProvenanceEventRepository provenanceRepository, final StandardResourceClaimManager claimManager) {
+        return new StandardConnection.Builder(null)
+            .id(source.getIdentifier() + "-" + destination.getIdentifier())
+            .source(source)
+            .destination(destination)
+            .flowFileQueueFactory((loadBalanceStrategy, partitioningAttribute, eventListener) -> new StandardFlowFileQueue(source.getIdentifier() + "-" + destination.getIdentifier(),
+                new NopConnectionEventListener(), flowFileRepository, provenanceRepository, claimManager, null, null, null, Integer.MAX_VALUE, 0L, "0 B"))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        contentRepository.shutdown();
+        deleteRecursively(repoDirectory);
+    }
+
+    static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    @Benchmark
+    public int getTransferCommit() {
+        return roundTrip(false);
+    }
+
+    @Benchmark
+    public int getWriteTransferCommit() {
+        return roundTrip(true);
+    }
+
+    private int roundTrip(final boolean writeContent) {
+        return moveBatch(firstContext, writeContent) + moveBatch(secondContext, writeContent);
+    }
+
+    private int moveBatch(final RepositoryContext context, final boolean writeContent) {
+        final StandardProcessSession session = new StandardProcessSession(context, () -> false);
+        final List<FlowFile> flowFiles = session.get(batchSize);
+        for (FlowFile flowFile : flowFiles) {
+            flowFile = session.putAttribute(flowFile, "benchmark.owner", context.getConnectable().getIdentifier());
+            if (writeContent) {
+                flowFile = session.write(flowFile, out -> out.write(content));
+            }
+
+            session.transfer(flowFile, Relationship.ANONYMOUS);
+        }
+
+        session.commit();
+        return flowFiles.size();
+    }
+}
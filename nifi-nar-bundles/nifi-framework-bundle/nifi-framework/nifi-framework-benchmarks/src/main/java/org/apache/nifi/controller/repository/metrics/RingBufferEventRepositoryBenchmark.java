@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository.metrics;
+
+import org.apache.nifi.controller.repository.FlowFileEvent;
+import org.apache.nifi.controller.repository.RepositoryStatusReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link RingBufferEventRepository}, which is updated with a {@link FlowFileEvent} for the component on every session commit.
+ * Each update is made for a randomly chosen component so that, with many components, concurrent updates rarely target the same component and
+ * the cost is dominated by the aggregate values that all updates share.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBufferEventRepositoryBenchmark {
+
+    @Param({"1", "1000"})
+    private int componentCount;
+
+    private RingBufferEventRepository repository;
+    private String[] componentIds;
+    private FlowFileEvent event;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        repository = new RingBufferEventRepository(5);
+
+        componentIds = new String[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            componentIds[i] = "component-" + i;
+        }
+
+        final StandardFlowFileEvent flowFileEvent = new StandardFlowFileEvent();
+        flowFileEvent.setFlowFilesIn(1);
+        flowFileEvent.setContentSizeIn(1024L);
+        flowFileEvent.setFlowFilesOut(1);
+        flowFileEvent.setContentSizeOut(1024L);
+        flowFileEvent.setBytesRead(1024L);
+        flowFileEvent.setBytesWritten(1024L);
+        flowFileEvent.setProcessingNanos(25_000L);
+        flowFileEvent.setInvocations(1);
+        event = flowFileEvent;
+
+        // Make sure that every component has events to report
+        for (final String componentId : componentIds) {
+            repository.updateRepository(event, componentId);
+        }
+    }
+
+    private String nextComponentId() {
+        return componentIds[ThreadLocalRandom.current().nextInt(componentCount)];
+    }
+
+    @Benchmark
+    public void updateRepository() {
+        repository.updateRepository(event, nextComponentId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void updateRepositoryContended() {
+        repository.updateRepository(event, nextComponentId());
+    }
+
+    @Benchmark
+    public FlowFileEvent reportComponent() {
+        return repository.reportTransferEvents(nextComponentId(), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public RepositoryStatusReport reportAll() {
+        return repository.reportTransferEvents(System.currentTimeMillis());
+    }
+}
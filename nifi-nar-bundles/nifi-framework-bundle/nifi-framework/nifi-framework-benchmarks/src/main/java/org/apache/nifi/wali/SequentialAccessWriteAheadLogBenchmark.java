@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.wali;
+
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.ReconstitutedSerializedRepositoryRecord;
+import org.apache.nifi.controller.repository.RepositoryRecordType;
+import org.apache.nifi.controller.repository.SerializedRepositoryRecord;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.StandardRepositoryRecordSerdeFactory;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wali.SyncListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks the {@link SequentialAccessWriteAheadLog} as it is used by the FlowFile Repository, using the same
+ * serialization that the WriteAheadFlowFileRepository uses. Updates cycle over a fixed set of FlowFile IDs so that
+ * the number of live records, and therefore the size of the snapshot written by each checkpoint, stays constant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SequentialAccessWriteAheadLogBenchmark {
+    private static final String QUEUE_IDENTIFIER = "benchmark-queue";
+
+    @Param({"1", "100"})
+    private int recordsPerUpdate;
+
+    @Param({"false", "true"})
+    private boolean fsync;
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    @Param({"100000"})
+    private int liveRecords;
+
+    private final AtomicLong updateCounter = new AtomicLong(0L);
+    private File storageDirectory;
+    private SequentialAccessWriteAheadLog<SerializedRepositoryRecord> wal;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        storageDirectory = Files.createTempDirectory("nifi-wal-benchmark").toFile();
+        wal = new SequentialAccessWriteAheadLog<>(storageDirectory, new StandardRepositoryRecordSerdeFactory(new StandardResourceClaimManager()),
+            SyncListener.NOP_SYNC_LISTENER, groupCommit, 0L);
+        wal.recoverRecords();
+
+        final List<SerializedRepositoryRecord> records = new ArrayList<>(liveRecords);
+        for (int i = 0; i < liveRecords; i++) {
+            records.add(createRecord(i, RepositoryRecordType.CREATE));
+        }
+        wal.update(records, false);
+        wal.checkpoint();
+    }
+
+    @Setup(Level.Iteration)
+    public void rollJournal() throws IOException {
+        // Checkpoint between iterations, as the FlowFile Repository does periodically, so that the journal does not grow without bound.
+        wal.checkpoint();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        wal.shutdown();
+        deleteRecursively(storageDirectory);
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    private static SerializedRepositoryRecord createRecord(final long id, final RepositoryRecordType type) {
+        final FlowFileRecord flowFile = new StandardFlowFileRecord.Builder()
+            .id(id)
+            .addAttribute(CoreAttributes.UUID.key(), UUID.randomUUID().toString())
+            .addAttribute(CoreAttributes.FILENAME.key(), "file-" + id)
+            .addAttribute(CoreAttributes.PATH.key(), "./")
+            .entryDate(System.currentTimeMillis())
+            .size(1024L)
+            .build();
+
+        return new ReconstitutedSerializedRepositoryRecord.Builder()
+            .queueIdentifier(QUEUE_IDENTIFIER)
+            .type(type)
+            .flowFileRecord(flowFile)
+            .build();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int update() throws IOException {
+        final List<SerializedRepositoryRecord> records = new ArrayList<>(recordsPerUpdate);
+        for (int i = 0; i < recordsPerUpdate; i++) {
+            final long id = updateCounter.getAndIncrement() % liveRecords;
+            records.add(createRecord(id, RepositoryRecordType.UPDATE));
+        }
+
+        return wal.update(records, fsync);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public int checkpoint() throws IOException {
+        // Ensure that the journal is not empty, or the checkpoint is skipped.
+        wal.update(Collections.singletonList(createRecord(updateCounter.getAndIncrement() % liveRecords, RepositoryRecordType.UPDATE)), false);
+        return wal.checkpoint();
+    }
+}
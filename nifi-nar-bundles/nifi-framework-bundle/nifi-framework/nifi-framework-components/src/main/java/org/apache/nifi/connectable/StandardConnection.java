@@ -70,6 +70,7 @@ public final class StandardConnection implements Connection, ConnectionEventList
     private final AtomicLong zIndex = new AtomicLong(0L);
     private final AtomicReference<String> versionedComponentId = new AtomicReference<>();
     private final ProcessScheduler scheduler;
+    private final boolean wakeTimerDrivenDestination;
     private final int hashCode;
 
     private volatile FlowFileQueue flowFileQueue;
@@ -83,6 +84,7 @@ public final class StandardConnection implements Connection, ConnectionEventList
         destination = new AtomicReference<>(builder.destination);
         relationships = new AtomicReference<>(Collections.unmodifiableCollection(builder.relationships));
         scheduler = builder.scheduler;
+        wakeTimerDrivenDestination = builder.wakeTimerDrivenDestination;
 
         flowFileQueue = builder.flowFileQueueFactory.createFlowFileQueue(LoadBalanceStrategy.DO_NOT_LOAD_BALANCE, null, this);
         hashCode = new HashCodeBuilder(7, 67).append(id).toHashCode();
@@ -146,7 +148,9 @@ public final class StandardConnection implements Connection, ConnectionEventList
 
     @Override
     public void triggerDestinationEvent() {
-        if (getDestination().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
+        // When enabled, Timer Driven components are notified too, so that they may be woken if they are waiting because they had no work to do
+        final SchedulingStrategy schedulingStrategy = getDestination().getSchedulingStrategy();
+        if (schedulingStrategy == SchedulingStrategy.EVENT_DRIVEN || (wakeTimerDrivenDestination && schedulingStrategy == SchedulingStrategy.TIMER_DRIVEN)) {
             scheduler.registerEvent(getDestination());
         }
     }
@@ -349,6 +353,11 @@ public final class StandardConnection implements Connection, ConnectionEventList
         return flowFileQueue.poll(expiredRecords);
     }
 
+    @Override
+    public List<FlowFileRecord> poll(final int maxResults, final Set<FlowFileRecord> expiredRecords) {
+        return flowFileQueue.poll(maxResults, expiredRecords);
+    }
+
     @Override
     public boolean equals(final Object other) {
         if (!(other instanceof Connection)) {
@@ -399,6 +408,7 @@ public final class StandardConnection implements Connection, ConnectionEventList
         private Collection<Relationship> relationships;
         private FlowFileQueueFactory flowFileQueueFactory;
         private boolean clustered = false;
+        private boolean wakeTimerDrivenDestination = false;
 
         public Builder(final ProcessScheduler scheduler) {
             this.scheduler = scheduler;
@@ -455,6 +465,15 @@ public final class StandardConnection implements Connection, ConnectionEventList
             return this;
         }
 
+        /**
+         * @param wakeTimerDrivenDestination whether or not a Timer Driven destination should be notified when FlowFiles are added to the connection,
+         * so that it can be woken if it is waiting because it had no work to do
+         */
+        public Builder wakeTimerDrivenDestination(final boolean wakeTimerDrivenDestination) {
+            this.wakeTimerDrivenDestination = wakeTimerDrivenDestination;
+            return this;
+        }
+
         public StandardConnection build() {
             if (source == null) {
                 throw new IllegalStateException("Cannot build a Connection without a Source");
@@ -371,6 +371,14 @@ public class StandardProcessorNode extends ProcessorNode implements Connectable
         return processorRef.get().isExecutionNodeRestricted();
     }
 
+    /**
+     * @return true if the processor has the {@link org.apache.nifi.annotation.behavior.IOBound} annotation, false otherwise
+     */
+    @Override
+    public boolean isIOBound() {
+        return processorRef.get().isIOBound();
+    }
+
     /**
      * Indicates whether flow file content made by this processor must be
      * persisted
@@ -23,8 +23,10 @@ import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.ProcessorNode;
 import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.groups.ProcessGroup;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.provenance.InternalProvenanceReporter;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.provenance.ProvenanceEventBuilder;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
@@ -253,7 +255,13 @@ public abstract class AbstractRepositoryContext implements RepositoryContext {
     @Override
     public InternalProvenanceReporter createProvenanceReporter(final Predicate<FlowFile> flowfileKnownCheck, final ProvenanceEventEnricher eventEnricher) {
         final String componentType = getProvenanceComponentDescription();
-        return new StandardProvenanceReporter(flowfileKnownCheck, getConnectable().getIdentifier(), componentType, getProvenanceRepository(), eventEnricher);
+        return new StandardProvenanceReporter(flowfileKnownCheck, getConnectable().getIdentifier(), componentType, getProvenanceRepository(), eventEnricher,
+            getProvenanceCapturePolicy());
+    }
+
+    private ProvenanceCapturePolicy getProvenanceCapturePolicy() {
+        final ProcessGroup processGroup = getConnectable().getProcessGroup();
+        return processGroup == null ? ProvenanceCapturePolicy.CAPTURE_ALL : processGroup.getEffectiveProvenanceCapturePolicy();
     }
 
     @Override
@@ -52,6 +52,7 @@ import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.io.StreamCallback;
 import org.apache.nifi.provenance.InternalProvenanceReporter;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.provenance.ProvenanceEventBuilder;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
@@ -70,12 +71,14 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -666,6 +669,14 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             }
         }
 
+        // Events that the Processor reported but that the Provenance Capture Policy excluded are registered as well, so that the
+        // ATTRIBUTES_MODIFIED event below is not generated in place of an event that was deliberately not recorded.
+        for (final Map.Entry<String, Set<ProvenanceEventType>> entry : checkpoint.excludedEventTypes.entrySet()) {
+            for (final ProvenanceEventType eventType : entry.getValue()) {
+                addEventType(eventTypesPerFlowFileId, entry.getKey(), eventType);
+            }
+        }
+
         // Check if content or attributes changed. If so, register the appropriate events.
         for (final StandardRepositoryRecord repoRecord : checkpoint.records.values()) {
             final ContentClaim original = repoRecord.getOriginalClaim();
@@ -737,11 +748,21 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             flowFileRecordMap.put(flowFile.getAttribute(CoreAttributes.UUID.key()), flowFile);
         }
 
+        // Events that the Processor reported have already been checked against the Provenance Capture Policy, but those that were
+        // generated by the framework have not.
+        final ProvenanceCapturePolicy capturePolicy = provenanceReporter.getCapturePolicy();
+        List<ProvenanceEventRecord> autoTermEvents = checkpoint.autoTerminatedEvents;
+        if (!capturePolicy.isCaptureAll()) {
+            recordsToSubmit.removeIf(event -> !capturePolicy.isCaptured(event));
+            if (autoTermEvents != null) {
+                autoTermEvents = autoTermEvents.stream().filter(capturePolicy::isCaptured).collect(Collectors.toList());
+            }
+        }
+
         final long commitNanos = System.nanoTime();
-        final List<ProvenanceEventRecord> autoTermEvents = checkpoint.autoTerminatedEvents;
+        final Iterator<ProvenanceEventRecord> autoTermIterator = autoTermEvents == null ? null : autoTermEvents.iterator();
         final Iterable<ProvenanceEventRecord> iterable = new Iterable<ProvenanceEventRecord>() {
             final Iterator<ProvenanceEventRecord> recordsToSubmitIterator = recordsToSubmit.iterator();
-            final Iterator<ProvenanceEventRecord> autoTermIterator = autoTermEvents == null ? null : autoTermEvents.iterator();
 
             @Override
             public Iterator<ProvenanceEventRecord> iterator() {
@@ -753,6 +774,10 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
 
                     @Override
                     public ProvenanceEventRecord next() {
+                        return capturePolicy.filterAttributes(nextEnriched(), context.createProvenanceEventBuilder());
+                    }
+
+                    private ProvenanceEventRecord nextEnriched() {
                         if (recordsToSubmitIterator.hasNext()) {
                             final ProvenanceEventRecord rawEvent = recordsToSubmitIterator.next();
 
@@ -1014,9 +1039,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         }
 
         // Put the FlowFiles that are not marked for abort back to their original queues
-        for (final StandardRepositoryRecord record : transferRecords) {
-            rollbackRecord(record, penalize);
-        }
+        rollbackRecords(transferRecords, penalize);
 
         if (!abortedRecords.isEmpty()) {
             try {
@@ -1067,24 +1090,39 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     }
 
     /**
-     * Rolls back the Record in a manner that is appropriate for the context. The default implementation
-     * is to place the queue back on its original queue, if it exists, or just ignore it if it has no original queue.
+     * Rolls back the Records in a manner that is appropriate for the context. The default implementation
+     * is to place each Record back on its original queue, if it exists, or just ignore it if it has no original queue.
+     * The FlowFiles for each queue are placed back on the queue as a single batch.
      * However, subclasses may wish to change the behavior for how Records are handled when a rollback occurs.
-     * @param record the Record that is to be rolled back
-     * @param penalize whether or not the Record should be penalized
+     * @param records the Records that are to be rolled back
+     * @param penalize whether or not the Records should be penalized
      */
-    protected void rollbackRecord(final StandardRepositoryRecord record, final boolean penalize) {
-        if (record.getOriginal() != null) {
+    protected void rollbackRecords(final Collection<StandardRepositoryRecord> records, final boolean penalize) {
+        final long expirationEpochMillis = penalize ? System.currentTimeMillis() + context.getConnectable().getPenalizationPeriod(TimeUnit.MILLISECONDS) : 0L;
+
+        final Map<FlowFileQueue, List<FlowFileRecord>> flowFilesByQueue = new HashMap<>();
+        for (final StandardRepositoryRecord record : records) {
+            if (record.getOriginal() == null) {
+                continue;
+            }
+
             final FlowFileQueue originalQueue = record.getOriginalQueue();
-            if (originalQueue != null) {
-                if (penalize) {
-                    final long expirationEpochMillis = System.currentTimeMillis() + context.getConnectable().getPenalizationPeriod(TimeUnit.MILLISECONDS);
-                    final FlowFileRecord newFile = new StandardFlowFileRecord.Builder().fromFlowFile(record.getOriginal()).penaltyExpirationTime(expirationEpochMillis).build();
-                    originalQueue.put(newFile);
-                } else {
-                    originalQueue.put(record.getOriginal());
-                }
+            if (originalQueue == null) {
+                continue;
             }
+
+            final FlowFileRecord flowFile;
+            if (penalize) {
+                flowFile = new StandardFlowFileRecord.Builder().fromFlowFile(record.getOriginal()).penaltyExpirationTime(expirationEpochMillis).build();
+            } else {
+                flowFile = record.getOriginal();
+            }
+
+            flowFilesByQueue.computeIfAbsent(originalQueue, queue -> new ArrayList<>()).add(flowFile);
+        }
+
+        for (final Map.Entry<FlowFileQueue, List<FlowFileRecord>> entry : flowFilesByQueue.entrySet()) {
+            entry.getKey().putAll(entry.getValue());
         }
     }
 
@@ -1503,6 +1541,35 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
     }
 
     private void registerDequeuedRecord(final FlowFileRecord flowFile, final Connection connection) {
+        addDequeuedRecord(flowFile, connection);
+
+        flowFilesIn++;
+        contentSizeIn += flowFile.getSize();
+
+        getUnacknowledgedFlowFiles(connection).add(flowFile);
+        incrementConnectionOutputCounts(connection, flowFile);
+    }
+
+    /**
+     * Registers all of the given FlowFiles, which were polled from the given Connection as a single batch, updating the
+     * session's counters once for the entire batch rather than once per FlowFile.
+     */
+    private void registerDequeuedRecords(final List<FlowFileRecord> flowFiles, final Connection connection) {
+        final Set<FlowFileRecord> unacknowledged = getUnacknowledgedFlowFiles(connection);
+
+        long bytes = 0L;
+        for (final FlowFileRecord flowFile : flowFiles) {
+            addDequeuedRecord(flowFile, connection);
+            unacknowledged.add(flowFile);
+            bytes += flowFile.getSize();
+        }
+
+        flowFilesIn += flowFiles.size();
+        contentSizeIn += bytes;
+        incrementConnectionOutputCounts(connection.getIdentifier(), flowFiles.size(), bytes);
+    }
+
+    private void addDequeuedRecord(final FlowFileRecord flowFile, final Connection connection) {
         final StandardRepositoryRecord record = new StandardRepositoryRecord(connection.getFlowFileQueue(), flowFile);
 
         // Ensure that the checkpoint does not have a FlowFile with the same ID already. This should not occur,
@@ -1515,18 +1582,16 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
 
         final StandardRepositoryRecord existingRecord = records.putIfAbsent(flowFile.getId(), record);
         handleConflictingId(flowFile, connection, existingRecord); // Ensure that we have no conflicts
+    }
 
-        flowFilesIn++;
-        contentSizeIn += flowFile.getSize();
-
+    private Set<FlowFileRecord> getUnacknowledgedFlowFiles(final Connection connection) {
         Set<FlowFileRecord> set = unacknowledgedFlowFiles.get(connection.getFlowFileQueue());
         if (set == null) {
             set = new HashSet<>();
             unacknowledgedFlowFiles.put(connection.getFlowFileQueue(), set);
         }
-        set.add(flowFile);
 
-        incrementConnectionOutputCounts(connection, flowFile);
+        return set;
     }
 
     private void handleConflictingId(final FlowFileRecord flowFile, final Connection connection, final StandardRepositoryRecord conflict) {
@@ -1619,18 +1684,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         return get(new ConnectionPoller() {
             @Override
             public List<FlowFileRecord> poll(final Connection connection, final Set<FlowFileRecord> expiredRecords) {
-                return connection.poll(new FlowFileFilter() {
-                    int polled = 0;
-
-                    @Override
-                    public FlowFileFilterResult filter(final FlowFile flowFile) {
-                        if (++polled < maxResults) {
-                            return FlowFileFilterResult.ACCEPT_AND_CONTINUE;
-                        } else {
-                            return FlowFileFilterResult.ACCEPT_AND_TERMINATE;
-                        }
-                    }
-                }, expiredRecords);
+                return connection.poll(maxResults, expiredRecords);
             }
         }, false);
     }
@@ -1671,9 +1725,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
                     continue;
                 }
 
-                for (final FlowFileRecord flowFile : newlySelected) {
-                    registerDequeuedRecord(flowFile, conn);
-                }
+                registerDequeuedRecords(newlySelected, conn);
 
                 return new ArrayList<>(newlySelected);
             }
@@ -1729,35 +1781,29 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
 
         final String uuid = UUID.randomUUID().toString();
 
-        final Map<String, String> newAttributes = new HashMap<>(3);
-        newAttributes.put(CoreAttributes.FILENAME.key(), uuid);
-        newAttributes.put(CoreAttributes.PATH.key(), DEFAULT_FLOWFILE_PATH);
-        newAttributes.put(CoreAttributes.UUID.key(), uuid);
-
-        final StandardFlowFileRecord.Builder fFileBuilder = new StandardFlowFileRecord.Builder().id(context.getNextFlowFileSequence());
-
         // copy all attributes from parent except for the "special" attributes. Copying the special attributes
         // can cause problems -- especially the ALTERNATE_IDENTIFIER, because copying can cause Provenance Events
-        // to be incorrectly created.
-        for (final Map.Entry<String, String> entry : parent.getAttributes().entrySet()) {
-            final String key = entry.getKey();
-            final String value = entry.getValue();
-            if (CoreAttributes.ALTERNATE_IDENTIFIER.key().equals(key)
-                || CoreAttributes.DISCARD_REASON.key().equals(key)
-                || CoreAttributes.UUID.key().equals(key)) {
-                continue;
-            }
-            newAttributes.put(key, value);
+        // to be incorrectly created. Starting from the parent's attributes, rather than copying them one at a time,
+        // allows the child to share the parent's attribute keys.
+        final StandardFlowFileRecord.Builder fFileBuilder = new StandardFlowFileRecord.Builder().id(context.getNextFlowFileSequence())
+            .addAttributes(parent.getAttributes())
+            .removeAttributes(CoreAttributes.ALTERNATE_IDENTIFIER.key(), CoreAttributes.DISCARD_REASON.key())
+            .addAttribute(CoreAttributes.UUID.key(), uuid);
+
+        if (parent.getAttribute(CoreAttributes.FILENAME.key()) == null) {
+            fFileBuilder.addAttribute(CoreAttributes.FILENAME.key(), uuid);
+        }
+        if (parent.getAttribute(CoreAttributes.PATH.key()) == null) {
+            fFileBuilder.addAttribute(CoreAttributes.PATH.key(), DEFAULT_FLOWFILE_PATH);
         }
 
         fFileBuilder.lineageStart(parent.getLineageStartDate(), parent.getLineageStartIndex());
-        fFileBuilder.addAttributes(newAttributes);
 
         final FlowFileRecord fFile = fFileBuilder.build();
         final StandardRepositoryRecord record = new StandardRepositoryRecord(null);
-        record.setWorking(fFile, newAttributes, false);
+        record.setWorking(fFile, fFile.getAttributes(), false);
         records.put(fFile.getId(), record);
-        createdFlowFiles.add(fFile.getAttribute(CoreAttributes.UUID.key()));
+        createdFlowFiles.add(uuid);
 
         registerForkEvent(parent, fFile);
         return fFile;
@@ -2242,7 +2288,8 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
                                     record.getContentClaimOffset() + claim.getOffset(), record.getSize());
                             }
 
-                            enriched.setAttributes(record.getAttributes(), Collections.<String, String> emptyMap());
+                            final ProvenanceCapturePolicy capturePolicy = expiredReporter.getCapturePolicy();
+                            enriched.setAttributes(capturePolicy.filterAttributes(record.getAttributes()), Collections.<String, String> emptyMap());
                             return enriched.build();
                         }
 
@@ -3243,6 +3290,36 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         }
     }
 
+    @Override
+    public void exportTo(FlowFile source, final WritableByteChannel destination) {
+        verifyTaskActive();
+        source = validateRecordState(source);
+        final StandardRepositoryRecord record = getRecord(source);
+
+        if (record.getCurrentClaim() == null) {
+            return;
+        }
+
+        try {
+            ensureNotAppending(record.getCurrentClaim());
+            claimCache.flush(record.getCurrentClaim());
+        } catch (final IOException e) {
+            throw new FlowFileAccessException("Failed to access ContentClaim for " + source.toString(), e);
+        }
+
+        // Let the Content Repository transfer the content to the channel directly, rather than copying it through an InputStream.
+        try {
+            final long copyCount = context.getContentRepository().exportTo(record.getCurrentClaim(), destination, record.getCurrentClaimOffset(), source.getSize());
+            bytesRead += copyCount;
+        } catch (final ContentNotFoundException nfe) {
+            handleContentNotFound(nfe, record);
+        } catch (final IOException ex) {
+            // The repository writes straight into the caller's channel, so an IOException here is treated like one thrown
+            // by the OutputStream in exportTo(FlowFile, OutputStream) rather than being blamed on the Content Repository.
+            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ex.toString(), ex);
+        }
+    }
+
     private void handleContentNotFound(final ContentNotFoundException nfe, final Collection<StandardRepositoryRecord> suspectRecords) {
         for (final StandardRepositoryRecord record : suspectRecords) {
             handleContentNotFound(nfe, record);
@@ -3256,7 +3333,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
 
         final ProvenanceEventRecord dropEvent = provenanceReporter.drop(suspectRecord.getCurrent(), nfe.getMessage() == null ? "Content Not Found" : nfe.getMessage());
         if (dropEvent != null) {
-            context.getProvenanceRepository().registerEvent(dropEvent);
+            context.getProvenanceRepository().registerEvent(provenanceReporter.getCapturePolicy().filterAttributes(dropEvent, context.createProvenanceEventBuilder()));
         }
 
         if (missingClaim == registeredClaim) {
@@ -3466,6 +3543,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
         private Map<FlowFile, ProvenanceEventBuilder> forkEventBuilders;
         private List<ProvenanceEventRecord> autoTerminatedEvents;
         private Set<ProvenanceEventRecord> reportedEvents;
+        private Map<String, Set<ProvenanceEventType>> excludedEventTypes;
 
         private Map<Long, StandardRepositoryRecord> records;
         private Map<String, StandardFlowFileEvent> connectionCounts;
@@ -3499,6 +3577,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             forkEventBuilders = new HashMap<>();
             autoTerminatedEvents = new ArrayList<>();
             reportedEvents = new LinkedHashSet<>();
+            excludedEventTypes = new HashMap<>();
 
             records = new ConcurrentHashMap<>();
             connectionCounts = new ConcurrentHashMap<>();
@@ -3532,6 +3611,7 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
             this.forkEventBuilders = session.forkEventBuilders;
             this.autoTerminatedEvents = autoTerminatedEvents;
             this.reportedEvents = session.provenanceReporter.getEvents();
+            this.excludedEventTypes = session.provenanceReporter.getExcludedEventTypes();
 
             this.records = session.records;
 
@@ -3579,6 +3659,9 @@ public class StandardProcessSession implements ProcessSession, ProvenanceEventEn
                 this.autoTerminatedEvents.addAll(autoTerminatedEvents);
             }
             this.reportedEvents.addAll(session.provenanceReporter.getEvents());
+            for (final Map.Entry<String, Set<ProvenanceEventType>> entry : session.provenanceReporter.getExcludedEventTypes().entrySet()) {
+                this.excludedEventTypes.computeIfAbsent(entry.getKey(), uuid -> EnumSet.noneOf(ProvenanceEventType.class)).addAll(entry.getValue());
+            }
 
             this.records.putAll(session.records);
 
@@ -20,6 +20,7 @@ import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.FlowFileHandlingException;
 import org.apache.nifi.provenance.InternalProvenanceReporter;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.provenance.ProvenanceEventBuilder;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
@@ -29,7 +30,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -39,9 +44,11 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
     private final String processorId;
     private final String processorType;
     private final Set<ProvenanceEventRecord> events = new LinkedHashSet<>();
+    private final Map<String, Set<ProvenanceEventType>> excludedEventTypes = new HashMap<>();
     private final ProvenanceEventRepository repository;
     private final ProvenanceEventEnricher eventEnricher;
     private final Predicate<FlowFile> flowfileKnownCheck;
+    private final ProvenanceCapturePolicy capturePolicy;
     private long bytesSent = 0L;
     private long bytesReceived = 0L;
     private int flowFilesSent = 0;
@@ -51,11 +58,58 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
     public StandardProvenanceReporter(final Predicate<FlowFile> flowfileKnownCheck, final String processorId, final String processorType,
         final ProvenanceEventRepository repository, final ProvenanceEventEnricher enricher) {
+        this(flowfileKnownCheck, processorId, processorType, repository, enricher, ProvenanceCapturePolicy.CAPTURE_ALL);
+    }
+
+    public StandardProvenanceReporter(final Predicate<FlowFile> flowfileKnownCheck, final String processorId, final String processorType,
+        final ProvenanceEventRepository repository, final ProvenanceEventEnricher enricher, final ProvenanceCapturePolicy capturePolicy) {
         this.flowfileKnownCheck = flowfileKnownCheck;
         this.processorId = processorId;
         this.processorType = processorType;
         this.repository = repository;
         this.eventEnricher = enricher;
+        this.capturePolicy = capturePolicy == null ? ProvenanceCapturePolicy.CAPTURE_ALL : capturePolicy;
+    }
+
+    @Override
+    public ProvenanceCapturePolicy getCapturePolicy() {
+        return capturePolicy;
+    }
+
+    /**
+     * Adds the given event to those that are registered when the session is committed, unless the Provenance Capture Policy
+     * excludes it
+     *
+     * @param event the event
+     * @return <code>true</code> if the event was added
+     */
+    private boolean addEvent(final ProvenanceEventRecord event) {
+        if (!capturePolicy.isCaptured(event)) {
+            addExcludedEventType(event);
+            return false;
+        }
+
+        events.add(event);
+        return true;
+    }
+
+    /**
+     * Remembers the type of an event that the Provenance Capture Policy excludes, so that the session does not generate an event of its own
+     * for the FlowFile in place of the one that was deliberately not recorded
+     */
+    private void addExcludedEventType(final ProvenanceEventRecord event) {
+        addExcludedEventType(event.getFlowFileUuid(), event.getEventType());
+
+        final List<String> childUuids = event.getChildUuids();
+        if (childUuids != null) {
+            for (final String childUuid : childUuids) {
+                addExcludedEventType(childUuid, event.getEventType());
+            }
+        }
+    }
+
+    private void addExcludedEventType(final String flowFileUuid, final ProvenanceEventType eventType) {
+        excludedEventTypes.computeIfAbsent(flowFileUuid, uuid -> EnumSet.noneOf(ProvenanceEventType.class)).add(eventType);
     }
 
     @Override
@@ -63,6 +117,11 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
         return Collections.unmodifiableSet(events);
     }
 
+    @Override
+    public Map<String, Set<ProvenanceEventType>> getExcludedEventTypes() {
+        return Collections.unmodifiableMap(excludedEventTypes);
+    }
+
     /**
      * Removes the given event from the reporter
      *
@@ -76,6 +135,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
     @Override
     public void clear() {
         events.clear();
+        excludedEventTypes.clear();
 
         flowFilesSent = 0;
         bytesSent = 0;
@@ -98,6 +158,18 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
         newOwner.receiveMigration(events);
         events.removeAll(toMove);
+
+        final Map<String, Set<ProvenanceEventType>> excludedToMove = new HashMap<>();
+        for (final String flowFileId : flowFileIds) {
+            final Set<ProvenanceEventType> eventTypes = excludedEventTypes.remove(flowFileId);
+            if (eventTypes != null) {
+                excludedToMove.put(flowFileId, eventTypes);
+            }
+        }
+
+        if (!excludedToMove.isEmpty()) {
+            newOwner.receiveExcludedEventTypes(excludedToMove);
+        }
     }
 
     @Override
@@ -105,6 +177,15 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
         this.events.addAll(events);
     }
 
+    @Override
+    public void receiveExcludedEventTypes(final Map<String, Set<ProvenanceEventType>> excludedEventTypes) {
+        for (final Map.Entry<String, Set<ProvenanceEventType>> entry : excludedEventTypes.entrySet()) {
+            for (final ProvenanceEventType eventType : entry.getValue()) {
+                addExcludedEventType(entry.getKey(), eventType);
+            }
+        }
+    }
+
     /**
      * Generates a Fork event for the given child and parents but does not register the event. This is useful so that a ProcessSession has the ability to de-dupe events, since one or more events may
      * be created by the session itself, as well as by the Processor
@@ -163,7 +244,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.RECEIVE)
                 .setTransitUri(transitUri).setSourceSystemFlowFileIdentifier(sourceSystemFlowFileIdentifier).setEventDuration(transmissionMillis).setDetails(details).build();
-            events.add(record);
+            addEvent(record);
 
             bytesReceived += flowFile.getSize();
             flowFilesReceived++;
@@ -196,7 +277,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
                 .setDetails(details)
                 .build();
 
-            events.add(record);
+            addEvent(record);
 
             bytesFetched += flowFile.getSize();
             flowFilesFetched++;
@@ -242,14 +323,18 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
     public void send(final FlowFile flowFile, final String transitUri, final String details, final long transmissionMillis, final boolean force) {
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.SEND).setTransitUri(transitUri).setEventDuration(transmissionMillis).setDetails(details).build();
-            // If the transmissionMillis field has been populated, use zero as the value of commitNanos (the call to System.nanoTime() is expensive but the value will be ignored).
-            final long commitNanos = transmissionMillis < 0 ? System.nanoTime() : 0L;
-            final ProvenanceEventRecord enriched = eventEnricher == null ? record : eventEnricher.enrich(record, flowFile, commitNanos);
-
-            if (force) {
-                repository.registerEvent(enriched);
+            if (!capturePolicy.isCaptured(record)) {
+                addExcludedEventType(record);
             } else {
-                events.add(enriched);
+                // If the transmissionMillis field has been populated, use zero as the value of commitNanos (the call to System.nanoTime() is expensive but the value will be ignored).
+                final long commitNanos = transmissionMillis < 0 ? System.nanoTime() : 0L;
+                final ProvenanceEventRecord enriched = eventEnricher == null ? record : eventEnricher.enrich(record, flowFile, commitNanos);
+
+                if (force) {
+                    repository.registerEvent(capturePolicy.filterAttributes(enriched, repository.eventBuilder()));
+                } else {
+                    events.add(enriched);
+                }
             }
 
             bytesSent += flowFile.getSize();
@@ -277,7 +362,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.REMOTE_INVOCATION)
                     .setTransitUri(transitUri).setDetails(details).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -304,7 +389,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
             final String alternateIdentifierUri = trimmedNamespace + ":" + trimmedIdentifier;
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.ADDINFO).setAlternateIdentifierUri(alternateIdentifierUri).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -321,8 +406,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
                 builder.setDetails("Discard reason: " + reason);
             }
             final ProvenanceEventRecord record = builder.build();
-            events.add(record);
-            return record;
+            return addEvent(record) ? record : null;
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -336,7 +420,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
     public void expire(final FlowFile flowFile, final String details) {
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.EXPIRE).setDetails(details).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -379,7 +463,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
                 eventBuilder.setDetails(details);
             }
 
-            events.add(eventBuilder.build());
+            addEvent(eventBuilder.build());
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -416,7 +500,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
                 eventBuilder.addParentFlowFile(parent);
             }
 
-            events.add(eventBuilder.build());
+            addEvent(eventBuilder.build());
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -440,7 +524,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
             final ProvenanceEventBuilder eventBuilder = build(parent, ProvenanceEventType.CLONE);
             eventBuilder.addChildFlowFile(child);
             eventBuilder.addParentFlowFile(parent);
-            events.add(eventBuilder.build());
+            addEvent(eventBuilder.build());
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -470,7 +554,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.CONTENT_MODIFIED).setEventDuration(processingMillis).setDetails(details).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -490,7 +574,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.ATTRIBUTES_MODIFIED).setDetails(details).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -520,7 +604,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.ROUTE).setRelationship(relationship).setDetails(details).setEventDuration(processingDuration).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
@@ -540,7 +624,7 @@ public class StandardProvenanceReporter implements InternalProvenanceReporter {
 
         try {
             final ProvenanceEventRecord record = build(flowFile, ProvenanceEventType.CREATE).setDetails(details).build();
-            events.add(record);
+            addEvent(record);
         } catch (final Exception e) {
             logger.error("Failed to generate Provenance Event due to " + e);
             if (logger.isDebugEnabled()) {
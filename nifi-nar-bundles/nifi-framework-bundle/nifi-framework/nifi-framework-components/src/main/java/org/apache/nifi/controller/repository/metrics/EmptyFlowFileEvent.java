@@ -72,6 +72,11 @@ public class EmptyFlowFileEvent implements FlowFileEvent {
         return 0;
     }
 
+    @Override
+    public long getTaskWaitNanoseconds() {
+        return 0;
+    }
+
     @Override
     public long getAverageLineageMillis() {
         return 0;
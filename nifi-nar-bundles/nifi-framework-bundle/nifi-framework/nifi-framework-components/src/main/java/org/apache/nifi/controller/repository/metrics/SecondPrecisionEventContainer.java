@@ -28,7 +28,7 @@ public class SecondPrecisionEventContainer implements EventContainer {
 
     private final int numBins;
     private final EventSum[] sums;
-    private final EventSumValue aggregateValue = new EventSumValue(0L);
+    private final StripedEventSumValue aggregateValue = new StripedEventSumValue();
     private final AtomicLong lastUpdateSecond = new AtomicLong(System.currentTimeMillis() / 1000L);
 
     public SecondPrecisionEventContainer(final int numMinutes) {
@@ -57,11 +57,11 @@ public class SecondPrecisionEventContainer implements EventContainer {
 
         aggregateValue.add(event);
 
-        if (replaced == null) {
-            logger.debug("Updated bin {}. Did NOT replace.", binIdx);
-        } else {
-            logger.debug("Replaced bin {}", binIdx);
-            aggregateValue.subtract(replaced);
+        if (replaced != null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Replaced bin {}", binIdx);
+            }
+            aggregateValue.subtract(replaced.toFlowFileEvent());
         }
 
         // If there are any buckets that have expired, we need to update our aggregate value to reflect that.
@@ -93,7 +93,7 @@ public class SecondPrecisionEventContainer implements EventContainer {
                     final EventSum expiredSum = sums[index];
                     final EventSumValue expiredValue = expiredSum.reset(expirationTimestamp);
                     if (expiredValue != null) {
-                        aggregateValue.subtract(expiredValue);
+                        aggregateValue.subtract(expiredValue.toFlowFileEvent());
                         expired++;
                     }
                 }
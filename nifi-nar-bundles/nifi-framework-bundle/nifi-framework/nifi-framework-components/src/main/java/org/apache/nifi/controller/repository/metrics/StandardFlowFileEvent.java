@@ -32,6 +32,7 @@ public final class StandardFlowFileEvent implements FlowFileEvent, Cloneable {
     private long bytesRead;
     private long bytesWritten;
     private long processingNanos;
+    private long taskWaitNanos;
     private long aggregateLineageMillis;
     private int flowFilesReceived;
     private long bytesReceived;
@@ -124,6 +125,15 @@ public final class StandardFlowFileEvent implements FlowFileEvent, Cloneable {
         this.processingNanos = processingNanos;
     }
 
+    @Override
+    public long getTaskWaitNanoseconds() {
+        return taskWaitNanos;
+    }
+
+    public void setTaskWaitNanos(final long taskWaitNanos) {
+        this.taskWaitNanos = taskWaitNanos;
+    }
+
     @Override
     public int getInvocations() {
         return invocations;
@@ -206,6 +216,7 @@ public final class StandardFlowFileEvent implements FlowFileEvent, Cloneable {
         bytesRead += event.getBytesRead();
         bytesWritten += event.getBytesWritten();
         processingNanos += event.getProcessingNanoseconds();
+        taskWaitNanos += event.getTaskWaitNanoseconds();
         aggregateLineageMillis += event.getAggregateLineageMillis();
         flowFilesReceived += event.getFlowFilesReceived();
         bytesReceived += event.getBytesReceived();
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository.metrics;
+
+import org.apache.nifi.controller.repository.FlowFileEvent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A running sum of FlowFile Events that many threads update concurrently, such as the aggregate values of a component or of the whole flow.
+ * Rather than having every thread update the same values under one lock, the values are split into stripes, much like a {@link LongAdder}. Each
+ * thread updates the stripe that it maps to, so threads rarely contend with one another, and a stripe is only created once a thread maps to it.
+ * </p>
+ *
+ * <p>
+ * Reading the sum does not require any lock. As with a {@link LongAdder}, the sum that is read is not an atomic snapshot: an event that is being
+ * added concurrently may be only partially reflected in it.
+ * </p>
+ */
+public class StripedEventSumValue {
+    private static final int FLOWFILES_IN = 0;
+    private static final int FLOWFILES_OUT = 1;
+    private static final int FLOWFILES_REMOVED = 2;
+    private static final int FLOWFILES_RECEIVED = 3;
+    private static final int FLOWFILES_SENT = 4;
+    private static final int CONTENT_SIZE_IN = 5;
+    private static final int CONTENT_SIZE_OUT = 6;
+    private static final int CONTENT_SIZE_REMOVED = 7;
+    private static final int BYTES_READ = 8;
+    private static final int BYTES_WRITTEN = 9;
+    private static final int BYTES_RECEIVED = 10;
+    private static final int BYTES_SENT = 11;
+    private static final int PROCESSING_NANOS = 12;
+    private static final int TASK_WAIT_NANOS = 13;
+    private static final int AGGREGATE_LINEAGE_MILLIS = 14;
+    private static final int INVOCATIONS = 15;
+    private static final int FIELD_COUNT = 16;
+
+    private static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private volatile boolean empty = true;
+
+    static int stripeCount(final int availableProcessors) {
+        // Twice as many stripes as processors, rounded up to a power of two so that a stripe can be chosen with a mask, and capped at 64
+        final int desired = Math.min(64, Math.max(2, availableProcessors * 2));
+        return Integer.highestOneBit(desired - 1) << 1;
+    }
+
+    public void add(final FlowFileEvent event) {
+        update(event, 1);
+    }
+
+    public void subtract(final FlowFileEvent event) {
+        update(event, -1);
+    }
+
+    private void update(final FlowFileEvent event, final int sign) {
+        if (empty) {
+            empty = false;
+        }
+
+        final Stripe stripe = getStripe();
+        synchronized (stripe) {
+            stripe.add(FLOWFILES_IN, sign * event.getFlowFilesIn());
+            stripe.add(FLOWFILES_OUT, sign * event.getFlowFilesOut());
+            stripe.add(FLOWFILES_REMOVED, sign * event.getFlowFilesRemoved());
+            stripe.add(FLOWFILES_RECEIVED, sign * event.getFlowFilesReceived());
+            stripe.add(FLOWFILES_SENT, sign * event.getFlowFilesSent());
+            stripe.add(CONTENT_SIZE_IN, sign * event.getContentSizeIn());
+            stripe.add(CONTENT_SIZE_OUT, sign * event.getContentSizeOut());
+            stripe.add(CONTENT_SIZE_REMOVED, sign * event.getContentSizeRemoved());
+            stripe.add(BYTES_READ, sign * event.getBytesRead());
+            stripe.add(BYTES_WRITTEN, sign * event.getBytesWritten());
+            stripe.add(BYTES_RECEIVED, sign * event.getBytesReceived());
+            stripe.add(BYTES_SENT, sign * event.getBytesSent());
+            stripe.add(PROCESSING_NANOS, sign * event.getProcessingNanoseconds());
+            stripe.add(TASK_WAIT_NANOS, sign * event.getTaskWaitNanoseconds());
+            stripe.add(AGGREGATE_LINEAGE_MILLIS, sign * event.getAggregateLineageMillis());
+            stripe.add(INVOCATIONS, sign * event.getInvocations());
+        }
+
+        final Map<String, Long> eventCounters = event.getCounters();
+        if (eventCounters != null && !eventCounters.isEmpty()) {
+            for (final Map.Entry<String, Long> entry : eventCounters.entrySet()) {
+                LongAdder counter = counters.get(entry.getKey());
+                if (counter == null) {
+                    counter = counters.computeIfAbsent(entry.getKey(), key -> new LongAdder());
+                }
+
+                counter.add(sign * entry.getValue());
+            }
+        }
+    }
+
+    private Stripe getStripe() {
+        final int index = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        final Stripe stripe = stripes.get(index);
+        if (stripe != null) {
+            return stripe;
+        }
+
+        final Stripe created = new Stripe();
+        return stripes.compareAndSet(index, null, created) ? created : stripes.get(index);
+    }
+
+    private long sum(final int field) {
+        long sum = 0L;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            final Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                sum += stripe.get(field);
+            }
+        }
+
+        return sum;
+    }
+
+    public FlowFileEvent toFlowFileEvent() {
+        if (empty) {
+            return EmptyFlowFileEvent.INSTANCE;
+        }
+
+        final StandardFlowFileEvent event = new StandardFlowFileEvent();
+        event.setFlowFilesIn((int) sum(FLOWFILES_IN));
+        event.setFlowFilesOut((int) sum(FLOWFILES_OUT));
+        event.setFlowFilesRemoved((int) sum(FLOWFILES_REMOVED));
+        event.setFlowFilesReceived((int) sum(FLOWFILES_RECEIVED));
+        event.setFlowFilesSent((int) sum(FLOWFILES_SENT));
+        event.setContentSizeIn(sum(CONTENT_SIZE_IN));
+        event.setContentSizeOut(sum(CONTENT_SIZE_OUT));
+        event.setContentSizeRemoved(sum(CONTENT_SIZE_REMOVED));
+        event.setBytesRead(sum(BYTES_READ));
+        event.setBytesWritten(sum(BYTES_WRITTEN));
+        event.setBytesReceived(sum(BYTES_RECEIVED));
+        event.setBytesSent(sum(BYTES_SENT));
+        event.setProcessingNanos(sum(PROCESSING_NANOS));
+        event.setTaskWaitNanos(sum(TASK_WAIT_NANOS));
+        event.setAggregateLineageMillis(sum(AGGREGATE_LINEAGE_MILLIS));
+        event.setInvocations((int) sum(INVOCATIONS));
+
+        if (counters.isEmpty()) {
+            event.setCounters(Collections.emptyMap());
+        } else {
+            final Map<String, Long> counterValues = new HashMap<>();
+            counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+            event.setCounters(Collections.unmodifiableMap(counterValues));
+        }
+
+        return event;
+    }
+
+    /**
+     * The values that the threads mapping to one stripe add to. Updates are made while holding the stripe's monitor, which is almost never
+     * contended, so that a value can be read and written without a compare-and-set. Readers do not need the monitor.
+     */
+    private static final class Stripe extends AtomicLongArray {
+        Stripe() {
+            super(FIELD_COUNT);
+        }
+
+        void add(final int field, final long delta) {
+            if (delta != 0L) {
+                lazySet(field, get(field) + delta);
+            }
+        }
+    }
+}
@@ -85,6 +85,7 @@ import org.apache.nifi.parameter.ParameterUpdate;
 import org.apache.nifi.parameter.StandardParameterUpdate;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.StandardProcessContext;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.registry.ComponentVariableRegistry;
 import org.apache.nifi.registry.VariableDescriptor;
 import org.apache.nifi.registry.client.NiFiRegistryException;
@@ -220,6 +221,8 @@ public final class StandardProcessGroup implements ProcessGroup {
     private volatile FlowFileGate flowFileGate = new UnboundedFlowFileGate();
     private volatile FlowFileOutboundPolicy flowFileOutboundPolicy = FlowFileOutboundPolicy.STREAM_WHEN_AVAILABLE;
     private volatile BatchCounts batchCounts = new NoOpBatchCounts();
+    private volatile int maxTimerDrivenThreadCount = 0;
+    private volatile ProvenanceCapturePolicy provenanceCapturePolicy;
     private final DataValve dataValve;
 
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
@@ -5530,6 +5533,30 @@ public final class StandardProcessGroup implements ProcessGroup {
         setBatchCounts(flowFileOutboundPolicy, getFlowFileConcurrency());
     }
 
+    @Override
+    public int getMaxTimerDrivenThreadCount() {
+        return maxTimerDrivenThreadCount;
+    }
+
+    @Override
+    public void setMaxTimerDrivenThreadCount(final int maxThreadCount) {
+        if (maxThreadCount < 0) {
+            throw new IllegalArgumentException("Cannot set Max Timer Driven Thread Count for " + this + " to " + maxThreadCount + " because the value must not be negative");
+        }
+
+        this.maxTimerDrivenThreadCount = maxThreadCount;
+    }
+
+    @Override
+    public ProvenanceCapturePolicy getProvenanceCapturePolicy() {
+        return provenanceCapturePolicy;
+    }
+
+    @Override
+    public void setProvenanceCapturePolicy(final ProvenanceCapturePolicy policy) {
+        this.provenanceCapturePolicy = policy;
+    }
+
     private synchronized void setBatchCounts(final FlowFileOutboundPolicy outboundPolicy, final FlowFileConcurrency flowFileConcurrency) {
         if (outboundPolicy == FlowFileOutboundPolicy.BATCH_OUTPUT && flowFileConcurrency == FlowFileConcurrency.SINGLE_FLOWFILE_PER_NODE) {
             if (batchCounts instanceof NoOpBatchCounts) {
@@ -591,6 +591,7 @@ public abstract class AbstractEventAccess implements EventAccess {
             status.setBytesWritten(writtenBytes);
 
             status.setProcessingNanos(flowFileEvent.getProcessingNanoseconds());
+            status.setTaskWaitNanos(flowFileEvent.getTaskWaitNanoseconds());
             status.setInvocations(flowFileEvent.getInvocations());
 
             status.setAverageLineageDuration(flowFileEvent.getAverageLineageMillis());
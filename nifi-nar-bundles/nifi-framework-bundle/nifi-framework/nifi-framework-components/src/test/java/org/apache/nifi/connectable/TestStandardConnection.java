@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.connectable;
+
+import org.apache.nifi.controller.ProcessScheduler;
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.scheduling.SchedulingStrategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestStandardConnection {
+    private ProcessScheduler scheduler;
+    private Connectable source;
+    private Connectable destination;
+
+    @Before
+    public void setup() {
+        scheduler = Mockito.mock(ProcessScheduler.class);
+        source = Mockito.mock(Connectable.class);
+        when(source.getConnectableType()).thenReturn(ConnectableType.FUNNEL);
+        destination = Mockito.mock(Connectable.class);
+    }
+
+    private StandardConnection createConnection(final boolean wakeTimerDrivenDestination) {
+        return new StandardConnection.Builder(scheduler)
+            .source(source)
+            .destination(destination)
+            .flowFileQueueFactory((loadBalanceStrategy, partitioningAttribute, eventListener) -> Mockito.mock(FlowFileQueue.class))
+            .wakeTimerDrivenDestination(wakeTimerDrivenDestination)
+            .build();
+    }
+
+    @Test
+    public void testTimerDrivenDestinationNotNotifiedByDefault() {
+        when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.TIMER_DRIVEN);
+        createConnection(false).triggerDestinationEvent();
+        verify(scheduler, never()).registerEvent(any(Connectable.class));
+    }
+
+    @Test
+    public void testTimerDrivenDestinationNotifiedWhenEnabled() {
+        when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.TIMER_DRIVEN);
+        createConnection(true).triggerDestinationEvent();
+        verify(scheduler).registerEvent(destination);
+    }
+
+    @Test
+    public void testEventDrivenDestinationAlwaysNotified() {
+        when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.EVENT_DRIVEN);
+        createConnection(false).triggerDestinationEvent();
+        verify(scheduler).registerEvent(destination);
+    }
+}
@@ -123,6 +123,11 @@ public class TestRingBufferEventRepository {
                 return 234782;
             }
 
+            @Override
+            public long getTaskWaitNanoseconds() {
+                return 0;
+            }
+
             @Override
             public int getInvocations() {
                 return 1;
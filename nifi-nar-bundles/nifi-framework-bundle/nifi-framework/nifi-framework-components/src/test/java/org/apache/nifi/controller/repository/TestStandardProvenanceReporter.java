@@ -17,16 +17,30 @@
 package org.apache.nifi.controller.repository;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class TestStandardProvenanceReporter {
@@ -59,4 +73,112 @@ public class TestStandardProvenanceReporter {
         assertEquals(12, reporter.getEvents().size());
     }
 
+    @Test
+    public void testLineageOnlyPolicyRecordsOnlyLineageEvents() {
+        final ProvenanceCapturePolicy policy = new ProvenanceCapturePolicy(Collections.emptyMap(), Collections.emptySet(), Collections.emptySet(), true);
+        final StandardProvenanceReporter reporter = createReporter(createRepository(), policy);
+
+        final FlowFile flowFile = createFlowFile(1L, UUID.randomUUID().toString());
+        reporter.create(flowFile);
+        reporter.modifyAttributes(flowFile);
+        reporter.modifyContent(flowFile);
+        reporter.route(flowFile, new Relationship.Builder().name("success").build());
+        reporter.drop(flowFile, "done");
+
+        final Set<ProvenanceEventType> eventTypes = reporter.getEvents().stream().map(ProvenanceEventRecord::getEventType).collect(Collectors.toSet());
+        assertEquals(EnumSet.of(ProvenanceEventType.CREATE, ProvenanceEventType.DROP), eventTypes);
+    }
+
+    @Test
+    public void testSamplingIsConsistentForEachFlowFile() {
+        final ProvenanceCapturePolicy policy = new ProvenanceCapturePolicy(Collections.singletonMap(ProvenanceEventType.ROUTE, 0.25D),
+            Collections.emptySet(), Collections.emptySet(), false);
+        final StandardProvenanceReporter reporter = createReporter(createRepository(), policy);
+        final Relationship success = new Relationship.Builder().name("success").build();
+        final Relationship failure = new Relationship.Builder().name("failure").build();
+
+        final int flowFileCount = 10_000;
+        for (int i = 0; i < flowFileCount; i++) {
+            final FlowFile flowFile = createFlowFile(i, UUID.randomUUID().toString());
+            reporter.create(flowFile);
+            reporter.route(flowFile, success);
+            reporter.route(flowFile, failure);
+        }
+
+        final Map<ProvenanceEventType, Integer> counts = new HashMap<>();
+        final Map<String, Integer> routeEventsPerFlowFile = new HashMap<>();
+        for (final ProvenanceEventRecord event : reporter.getEvents()) {
+            counts.merge(event.getEventType(), 1, Integer::sum);
+            if (event.getEventType() == ProvenanceEventType.ROUTE) {
+                routeEventsPerFlowFile.merge(event.getFlowFileUuid(), 1, Integer::sum);
+            }
+        }
+
+        // Event types without a sampling rate are recorded in full
+        assertEquals(flowFileCount, counts.get(ProvenanceEventType.CREATE).intValue());
+
+        // Roughly a quarter of the FlowFiles are sampled, and every ROUTE event of a sampled FlowFile is recorded
+        final int sampledFlowFiles = routeEventsPerFlowFile.size();
+        assertTrue("Sampled " + sampledFlowFiles + " FlowFiles", sampledFlowFiles > flowFileCount * 0.2 && sampledFlowFiles < flowFileCount * 0.3);
+        assertEquals(Collections.singleton(2), new HashSet<>(routeEventsPerFlowFile.values()));
+    }
+
+    @Test
+    public void testExcludedEventTypesMigrated() {
+        final ProvenanceCapturePolicy policy = new ProvenanceCapturePolicy(Collections.singletonMap(ProvenanceEventType.ROUTE, 0D),
+            Collections.emptySet(), Collections.emptySet(), false);
+        final StandardProvenanceReporter reporter = createReporter(createRepository(), policy);
+        final StandardProvenanceReporter newOwner = createReporter(createRepository(), policy);
+
+        final String uuid = UUID.randomUUID().toString();
+        final FlowFile flowFile = createFlowFile(1L, uuid);
+        reporter.route(flowFile, new Relationship.Builder().name("success").build());
+
+        assertTrue(reporter.getEvents().isEmpty());
+        assertEquals(Collections.singletonMap(uuid, EnumSet.of(ProvenanceEventType.ROUTE)), reporter.getExcludedEventTypes());
+
+        reporter.migrate(newOwner, Collections.singleton(uuid));
+        assertTrue(reporter.getExcludedEventTypes().isEmpty());
+        assertEquals(Collections.singletonMap(uuid, EnumSet.of(ProvenanceEventType.ROUTE)), newOwner.getExcludedEventTypes());
+
+        newOwner.clear();
+        assertTrue(newOwner.getExcludedEventTypes().isEmpty());
+    }
+
+    @Test
+    public void testAttributesFilteredWhenEventRegisteredImmediately() {
+        final ProvenanceEventRepository repository = createRepository();
+        final ProvenanceCapturePolicy policy = new ProvenanceCapturePolicy(Collections.emptyMap(), new HashSet<>(Arrays.asList("filename", "secret", "size")),
+            Collections.singleton("secret"), false);
+        final StandardProvenanceReporter reporter = createReporter(repository, policy);
+
+        final String uuid = UUID.randomUUID().toString();
+        final FlowFile flowFile = new StandardFlowFileRecord.Builder().id(1L).addAttribute("uuid", uuid).addAttribute("filename", "data.csv")
+            .addAttribute("secret", "password").addAttribute("path", "./").build();
+        reporter.send(flowFile, "http://localhost/data", true);
+
+        final ArgumentCaptor<ProvenanceEventRecord> captor = ArgumentCaptor.forClass(ProvenanceEventRecord.class);
+        Mockito.verify(repository).registerEvent(captor.capture());
+
+        final Map<String, String> expectedAttributes = new HashMap<>();
+        expectedAttributes.put("uuid", uuid);
+        expectedAttributes.put("filename", "data.csv");
+        assertEquals(expectedAttributes, captor.getValue().getAttributes());
+        assertEquals(1, reporter.getFlowFilesSent());
+    }
+
+    private ProvenanceEventRepository createRepository() {
+        final ProvenanceEventRepository repository = Mockito.mock(ProvenanceEventRepository.class);
+        Mockito.when(repository.eventBuilder()).thenAnswer(invocation -> new StandardProvenanceEventRecord.Builder());
+        return repository;
+    }
+
+    private StandardProvenanceReporter createReporter(final ProvenanceEventRepository repository, final ProvenanceCapturePolicy policy) {
+        return new StandardProvenanceReporter(null, "1234", "TestProc", repository, null, policy);
+    }
+
+    private FlowFile createFlowFile(final long id, final String uuid) {
+        return new StandardFlowFileRecord.Builder().id(id).addAttribute("uuid", uuid).build();
+    }
+
 }
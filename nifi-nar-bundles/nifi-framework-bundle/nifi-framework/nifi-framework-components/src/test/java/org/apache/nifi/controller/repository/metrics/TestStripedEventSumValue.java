@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository.metrics;
+
+import org.apache.nifi.controller.repository.FlowFileEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestStripedEventSumValue {
+
+    private StandardFlowFileEvent createEvent() {
+        final StandardFlowFileEvent event = new StandardFlowFileEvent();
+        event.setFlowFilesIn(1);
+        event.setContentSizeIn(100L);
+        event.setFlowFilesOut(2);
+        event.setContentSizeOut(200L);
+        event.setBytesRead(300L);
+        event.setBytesWritten(400L);
+        event.setProcessingNanos(500L);
+        event.setTaskWaitNanos(600L);
+        event.setInvocations(1);
+        event.setCounters(Collections.singletonMap("counter", 3L));
+        return event;
+    }
+
+    @Test
+    public void testEmptyUntilAdded() {
+        final StripedEventSumValue value = new StripedEventSumValue();
+        assertSame(EmptyFlowFileEvent.INSTANCE, value.toFlowFileEvent());
+
+        value.add(createEvent());
+        final FlowFileEvent sum = value.toFlowFileEvent();
+        assertEquals(1, sum.getFlowFilesIn());
+        assertEquals(100L, sum.getContentSizeIn());
+        assertEquals(2, sum.getFlowFilesOut());
+        assertEquals(200L, sum.getContentSizeOut());
+        assertEquals(300L, sum.getBytesRead());
+        assertEquals(400L, sum.getBytesWritten());
+        assertEquals(500L, sum.getProcessingNanoseconds());
+        assertEquals(600L, sum.getTaskWaitNanoseconds());
+        assertEquals(1, sum.getInvocations());
+        assertEquals(Long.valueOf(3L), sum.getCounters().get("counter"));
+    }
+
+    @Test
+    public void testSubtract() {
+        final StripedEventSumValue value = new StripedEventSumValue();
+        final StandardFlowFileEvent event = createEvent();
+        value.add(event);
+        value.add(event);
+        value.subtract(event);
+
+        final FlowFileEvent sum = value.toFlowFileEvent();
+        assertEquals(1, sum.getFlowFilesIn());
+        assertEquals(400L, sum.getBytesWritten());
+        assertEquals(Long.valueOf(3L), sum.getCounters().get("counter"));
+
+        value.subtract(event);
+        final FlowFileEvent zeroed = value.toFlowFileEvent();
+        assertEquals(0, zeroed.getFlowFilesIn());
+        assertEquals(0L, zeroed.getBytesWritten());
+        assertEquals(Long.valueOf(0L), zeroed.getCounters().get("counter"));
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentUpdates() throws InterruptedException {
+        final StripedEventSumValue value = new StripedEventSumValue();
+        final StandardFlowFileEvent event = createEvent();
+        final int threadCount = 8;
+        final int eventsPerThread = 100_000;
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(() -> {
+                for (int j = 0; j < eventsPerThread; j++) {
+                    value.add(event);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final FlowFileEvent sum = value.toFlowFileEvent();
+        final long eventCount = (long) threadCount * eventsPerThread;
+        assertEquals(eventCount, sum.getFlowFilesIn());
+        assertEquals(eventCount * 300L, sum.getBytesRead());
+        assertEquals(eventCount, sum.getInvocations());
+        assertEquals(Long.valueOf(eventCount * 3L), sum.getCounters().get("counter"));
+    }
+
+    @Test
+    public void testStripeCountIsPowerOfTwo() {
+        assertEquals(2, StripedEventSumValue.stripeCount(1));
+        assertEquals(4, StripedEventSumValue.stripeCount(2));
+        assertEquals(8, StripedEventSumValue.stripeCount(3));
+        assertEquals(64, StripedEventSumValue.stripeCount(32));
+        assertEquals(64, StripedEventSumValue.stripeCount(256));
+
+        for (int processors = 1; processors < 100; processors++) {
+            final int stripeCount = StripedEventSumValue.stripeCount(processors);
+            assertTrue(Integer.bitCount(stripeCount) == 1);
+        }
+    }
+}
@@ -26,12 +26,14 @@ import org.apache.nifi.flowfile.FlowFile;
 import org.junit.Test;
 
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 
 public class TestStandardPropertyValue {
@@ -124,6 +126,42 @@ public class TestStandardPropertyValue {
         assertEquals(year, val);
     }
 
+    @Test
+    public void testEvaluateAsString() {
+        final PropertyValue value = new StandardPropertyValue("${greeting}, ${audience}! ${fileSize}", lookup, ParameterLookup.EMPTY);
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("greeting", "Hello");
+        attributes.put("audience", "World");
+
+        final FlowFile flowFile = new StandardFlowFileRecord.Builder().addAttributes(attributes).size(12L).build();
+        assertEquals("Hello, World! 12", value.evaluateAttributeExpressionsAsString(flowFile));
+        assertEquals("Hi, World! 12", value.evaluateAttributeExpressionsAsString(flowFile, Collections.singletonMap("greeting", "Hi")));
+        assertEquals(value.evaluateAttributeExpressions(flowFile).getValue(), value.evaluateAttributeExpressionsAsString(flowFile));
+    }
+
+    @Test
+    public void testEvaluateAsStringDoesNotRetainStateBetweenFlowFiles() {
+        final PropertyValue value = new StandardPropertyValue("${a:equals('x'):and(${b:equals('y')})}", lookup, ParameterLookup.EMPTY);
+        final Map<String, String> matching = new HashMap<>();
+        matching.put("a", "x");
+        matching.put("b", "y");
+        final Map<String, String> nonMatching = new HashMap<>();
+        nonMatching.put("a", "x");
+        nonMatching.put("b", "z");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("true", value.evaluateAttributeExpressionsAsString(createFlowFile(matching)));
+            assertEquals("false", value.evaluateAttributeExpressionsAsString(createFlowFile(nonMatching)));
+            assertEquals("false", value.evaluateAttributeExpressions(createFlowFile(nonMatching)).getValue());
+        }
+    }
+
+    @Test
+    public void testEvaluateAsStringWithoutValue() {
+        final PropertyValue value = new StandardPropertyValue(null, lookup, ParameterLookup.EMPTY);
+        assertNull(value.evaluateAttributeExpressionsAsString(createFlowFile(new HashMap<>())));
+    }
+
     @Test
     public void testisExpressionLanguagePresentShouldHandleNPE() {
         // Arrange
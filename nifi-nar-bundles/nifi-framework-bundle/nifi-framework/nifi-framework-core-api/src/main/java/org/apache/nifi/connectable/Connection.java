@@ -80,6 +80,17 @@ public interface Connection extends Authorizable, VersionedComponent {
 
     FlowFileRecord poll(Set<FlowFileRecord> expiredRecords);
 
+    /**
+     * Polls up to <code>maxResults</code> FlowFiles from the Connection's queue as a single batch. Unlike polling with a
+     * {@link FlowFileFilter}, the FlowFiles are not examined one at a time, so the queue is able to drain them with a single
+     * lock acquisition and a single update to its size.
+     *
+     * @param maxResults the maximum number of FlowFiles to return
+     * @param expiredRecords a Set of FlowFileRecord's to which any expired records that are encountered should be added
+     * @return a List of FlowFiles (possibly empty) with the highest priority FlowFiles that are available in the queue
+     */
+    List<FlowFileRecord> poll(int maxResults, Set<FlowFileRecord> expiredRecords);
+
     void verifyCanUpdate() throws IllegalStateException;
 
     void verifyCanDelete() throws IllegalStateException;
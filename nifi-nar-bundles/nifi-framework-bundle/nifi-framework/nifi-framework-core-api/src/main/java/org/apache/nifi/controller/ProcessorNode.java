@@ -71,6 +71,12 @@ public abstract class ProcessorNode extends AbstractComponentNode implements Con
 
     public abstract boolean isExecutionNodeRestricted();
 
+    /**
+     * @return <code>true</code> if the Processor spends most of its time blocked on I/O and should therefore be invoked on the I/O threads
+     * rather than on the Timer Driven Thread Pool, <code>false</code> otherwise
+     */
+    public abstract boolean isIOBound();
+
     public abstract Requirement getInputRequirement();
 
     public abstract List<ActiveThreadInfo> getActiveThreads(ThreadDetails threadDetails);
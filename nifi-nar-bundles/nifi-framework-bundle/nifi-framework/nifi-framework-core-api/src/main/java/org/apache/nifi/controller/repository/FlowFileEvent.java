@@ -38,6 +38,11 @@ public interface FlowFileEvent {
 
     long getProcessingNanoseconds();
 
+    /**
+     * @return the number of nanoseconds that the component's tasks waited for a thread after they were due to run
+     */
+    long getTaskWaitNanoseconds();
+
     long getAverageLineageMillis();
 
     long getAggregateLineageMillis();
@@ -36,6 +36,7 @@ import org.apache.nifi.controller.service.ControllerServiceNode;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.parameter.ParameterContext;
 import org.apache.nifi.parameter.ParameterUpdate;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.processor.Processor;
 import org.apache.nifi.registry.ComponentVariableRegistry;
 import org.apache.nifi.registry.flow.FlowRegistryClient;
@@ -1143,6 +1144,54 @@ public interface ProcessGroup extends ComponentAuthorizable, Positionable, Versi
      */
     void setFlowFileOutboundPolicy(FlowFileOutboundPolicy outboundPolicy);
 
+    /**
+     * @return the maximum number of threads in the Timer Driven Thread Pool that is dedicated to the components in this Process Group and any
+     * child Process Group that does not have a thread pool of its own, or <code>0</code> if the components use the Thread Pool of the parent
+     * Process Group, or the Thread Pool that is shared by the whole flow
+     */
+    int getMaxTimerDrivenThreadCount();
+
+    /**
+     * Specifies the maximum number of threads in the Timer Driven Thread Pool that is dedicated to the components in this Process Group.
+     * Components that are already running continue to use the Thread Pool that they were started with until they are restarted.
+     *
+     * @param maxThreadCount the maximum number of threads, or <code>0</code> to use the Thread Pool of the parent Process Group
+     * @throws IllegalArgumentException if the given count is negative
+     */
+    void setMaxTimerDrivenThreadCount(int maxThreadCount);
+
+    /**
+     * @return the policy that determines which Provenance Events are recorded for the components in this Process Group, or <code>null</code>
+     * if the policy of the parent Process Group applies
+     */
+    ProvenanceCapturePolicy getProvenanceCapturePolicy();
+
+    /**
+     * Specifies the policy that determines which Provenance Events are recorded for the components in this Process Group and in any
+     * child Process Group that does not specify a policy of its own
+     *
+     * @param policy the policy, or <code>null</code> to apply the policy of the parent Process Group
+     */
+    void setProvenanceCapturePolicy(ProvenanceCapturePolicy policy);
+
+    /**
+     * @return the policy that applies to the components in this Process Group: the policy of this Process Group if it has one, otherwise the
+     * policy that applies to the parent Process Group, or a policy that records all events if no ancestor has a policy
+     */
+    default ProvenanceCapturePolicy getEffectiveProvenanceCapturePolicy() {
+        ProcessGroup group = this;
+        while (group != null) {
+            final ProvenanceCapturePolicy policy = group.getProvenanceCapturePolicy();
+            if (policy != null) {
+                return policy;
+            }
+
+            group = group.getParent();
+        }
+
+        return ProvenanceCapturePolicy.CAPTURE_ALL;
+    }
+
     /**
      * @return true if at least one FlowFile resides in a FlowFileQueue in this Process Group or a child ProcessGroup, false otherwise
      */
@@ -20,6 +20,7 @@ package org.apache.nifi.provenance;
 import org.apache.nifi.flowfile.FlowFile;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -41,11 +42,29 @@ public interface InternalProvenanceReporter extends ProvenanceReporter {
 
     void receiveMigration(Set<ProvenanceEventRecord> events);
 
+    /**
+     * Records that events of the given types were reported for the given FlowFiles but were not added because the Provenance Capture Policy excludes them
+     *
+     * @param excludedEventTypes the types of the excluded events, keyed by FlowFile UUID
+     */
+    void receiveExcludedEventTypes(Map<String, Set<ProvenanceEventType>> excludedEventTypes);
+
     Set<ProvenanceEventRecord> getEvents();
 
+    /**
+     * @return the types of the events that were reported but not added because the Provenance Capture Policy excludes them, keyed by the UUID of each
+     * FlowFile that the events apply to
+     */
+    Map<String, Set<ProvenanceEventType>> getExcludedEventTypes();
+
     ProvenanceEventBuilder build(FlowFile flowFile, ProvenanceEventType eventType);
 
     ProvenanceEventRecord drop(FlowFile flowFile, String explanation);
 
     void expire(FlowFile flowFile, String details);
+
+    /**
+     * @return the policy that determines which of the events generated for the component are recorded, and which attributes they contain
+     */
+    ProvenanceCapturePolicy getCapturePolicy();
 }
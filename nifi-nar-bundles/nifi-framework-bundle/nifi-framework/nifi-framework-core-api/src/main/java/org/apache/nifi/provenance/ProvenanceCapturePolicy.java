@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * Determines which Provenance Events are recorded for the components of a Process Group, and which FlowFile attributes those events contain.
+ * By default, every event is recorded with all of the FlowFile's attributes. A policy may instead:
+ * </p>
+ *
+ * <ul>
+ *     <li>Record only a sample of the events of a given type. A sampling rate of 0.1 for ROUTE events, for example, records the ROUTE events of
+ *     roughly one in ten FlowFiles. Whether or not an event is sampled depends only on its type and on the UUID of its FlowFile, so all of the events
+ *     of a given type for a given FlowFile are either recorded or not, no matter which component generates them.</li>
+ *     <li>Record only the attributes that are included, and none of the attributes that are excluded. The <code>uuid</code> attribute is always recorded.</li>
+ *     <li>Record only the lineage of FlowFiles. In this mode, only the events that create, clone, fork, join, receive, send or remove FlowFiles are
+ *     recorded, and only the attributes that identify the FlowFile.</li>
+ * </ul>
+ *
+ * <p>
+ * Instances of this class are immutable.
+ * </p>
+ */
+public class ProvenanceCapturePolicy {
+    public static final ProvenanceCapturePolicy CAPTURE_ALL = new ProvenanceCapturePolicy(Collections.emptyMap(), Collections.emptySet(), Collections.emptySet(), false);
+
+    private static final Set<ProvenanceEventType> LINEAGE_EVENT_TYPES = Collections.unmodifiableSet(EnumSet.of(ProvenanceEventType.CREATE, ProvenanceEventType.RECEIVE,
+        ProvenanceEventType.FETCH, ProvenanceEventType.SEND, ProvenanceEventType.DOWNLOAD, ProvenanceEventType.DROP, ProvenanceEventType.EXPIRE, ProvenanceEventType.FORK,
+        ProvenanceEventType.JOIN, ProvenanceEventType.CLONE, ProvenanceEventType.REPLAY));
+    private static final Set<String> LINEAGE_ATTRIBUTES = Collections.unmodifiableSet(new LinkedHashSet<>(
+        Arrays.asList(CoreAttributes.UUID.key(), CoreAttributes.FILENAME.key(), CoreAttributes.PATH.key())));
+
+    private static final int SAMPLING_BUCKETS = 10_000;
+
+    private final Map<ProvenanceEventType, Double> samplingRates;
+    private final Set<String> includedAttributes;
+    private final Set<String> excludedAttributes;
+    private final boolean lineageOnly;
+    private final boolean captureAll;
+    private final boolean filteringAttributes;
+
+    /**
+     * @param samplingRates the fraction of events to record, between 0 and 1, for each event type that is not to be recorded in full
+     * @param includedAttributes the names of the only attributes to record, or an empty set to record all attributes that are not excluded
+     * @param excludedAttributes the names of the attributes that are not to be recorded
+     * @param lineageOnly whether or not to record only the events and attributes that are needed to trace the lineage of FlowFiles
+     * @throws IllegalArgumentException if a sampling rate is not between 0 and 1
+     */
+    public ProvenanceCapturePolicy(final Map<ProvenanceEventType, Double> samplingRates, final Set<String> includedAttributes, final Set<String> excludedAttributes,
+                                   final boolean lineageOnly) {
+        final Map<ProvenanceEventType, Double> rates = new EnumMap<>(ProvenanceEventType.class);
+        if (samplingRates != null) {
+            for (final Map.Entry<ProvenanceEventType, Double> entry : samplingRates.entrySet()) {
+                final Double rate = entry.getValue();
+                if (rate == null || rate < 0D || rate > 1D) {
+                    throw new IllegalArgumentException("Sampling rate for " + entry.getKey() + " events is " + rate + " but must be between 0 and 1");
+                }
+
+                if (rate < 1D) {
+                    rates.put(entry.getKey(), rate);
+                }
+            }
+        }
+
+        this.samplingRates = Collections.unmodifiableMap(rates);
+        this.includedAttributes = includedAttributes == null ? Collections.emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(includedAttributes));
+        this.excludedAttributes = excludedAttributes == null ? Collections.emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(excludedAttributes));
+        this.lineageOnly = lineageOnly;
+        this.filteringAttributes = lineageOnly || !this.includedAttributes.isEmpty() || !this.excludedAttributes.isEmpty();
+        this.captureAll = !filteringAttributes && this.samplingRates.isEmpty();
+    }
+
+    /**
+     * @return the sampling rate of each event type that is not recorded in full
+     */
+    public Map<ProvenanceEventType, Double> getSamplingRates() {
+        return samplingRates;
+    }
+
+    public Set<String> getIncludedAttributes() {
+        return includedAttributes;
+    }
+
+    public Set<String> getExcludedAttributes() {
+        return excludedAttributes;
+    }
+
+    public boolean isLineageOnly() {
+        return lineageOnly;
+    }
+
+    /**
+     * @return <code>true</code> if every event is recorded with all of its attributes
+     */
+    public boolean isCaptureAll() {
+        return captureAll;
+    }
+
+    /**
+     * Indicates whether or not an event of the given type, for the FlowFile with the given UUID, is to be recorded
+     *
+     * @param eventType the type of the event
+     * @param flowFileUuid the UUID of the FlowFile that the event is for
+     * @return <code>true</code> if the event is to be recorded
+     */
+    public boolean isCaptured(final ProvenanceEventType eventType, final String flowFileUuid) {
+        if (captureAll) {
+            return true;
+        }
+
+        if (lineageOnly && !LINEAGE_EVENT_TYPES.contains(eventType)) {
+            return false;
+        }
+
+        final Double samplingRate = samplingRates.get(eventType);
+        if (samplingRate == null) {
+            return true;
+        }
+
+        return getSamplingBucket(flowFileUuid) < samplingRate * SAMPLING_BUCKETS;
+    }
+
+    /**
+     * Indicates whether or not the given event is to be recorded
+     *
+     * @param event the event
+     * @return <code>true</code> if the event is to be recorded
+     */
+    public boolean isCaptured(final ProvenanceEventRecord event) {
+        return isCaptured(event.getEventType(), event.getFlowFileUuid());
+    }
+
+    private static int getSamplingBucket(final String flowFileUuid) {
+        if (flowFileUuid == null) {
+            return 0;
+        }
+
+        // Spread the bits of the hash code so that UUIDs that differ only slightly still fall into different buckets
+        int hash = flowFileUuid.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % SAMPLING_BUCKETS;
+    }
+
+    /**
+     * Removes from the given attributes those that are not to be recorded
+     *
+     * @param attributes the attributes of a FlowFile
+     * @return the attributes that are to be recorded, which may be the given Map itself if all attributes are to be recorded
+     */
+    public Map<String, String> filterAttributes(final Map<String, String> attributes) {
+        if (!filteringAttributes || attributes == null || attributes.isEmpty()) {
+            return attributes;
+        }
+
+        final Map<String, String> filtered = new HashMap<>();
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            if (isAttributeCaptured(entry.getKey())) {
+                filtered.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return filtered;
+    }
+
+    private boolean isAttributeCaptured(final String attributeName) {
+        if (CoreAttributes.UUID.key().equals(attributeName)) {
+            return true;
+        }
+
+        if (lineageOnly && !LINEAGE_ATTRIBUTES.contains(attributeName)) {
+            return false;
+        }
+
+        if (!includedAttributes.isEmpty() && !includedAttributes.contains(attributeName)) {
+            return false;
+        }
+
+        return !excludedAttributes.contains(attributeName);
+    }
+
+    /**
+     * Applies the attribute filtering of this policy to the given event
+     *
+     * @param event the event
+     * @param builder a new builder to create the filtered event with, if filtering is needed
+     * @return an event that contains only the attributes that are to be recorded, which is the given event itself if all attributes are to be recorded
+     */
+    public ProvenanceEventRecord filterAttributes(final ProvenanceEventRecord event, final ProvenanceEventBuilder builder) {
+        if (!filteringAttributes) {
+            return event;
+        }
+
+        return builder.fromEvent(event)
+            .setAttributes(filterAttributes(event.getPreviousAttributes()), filterAttributes(event.getUpdatedAttributes()))
+            .build();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ProvenanceCapturePolicy)) {
+            return false;
+        }
+
+        final ProvenanceCapturePolicy other = (ProvenanceCapturePolicy) obj;
+        return lineageOnly == other.lineageOnly && samplingRates.equals(other.samplingRates)
+            && includedAttributes.equals(other.includedAttributes) && excludedAttributes.equals(other.excludedAttributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(samplingRates, includedAttributes, excludedAttributes, lineageOnly);
+    }
+
+    @Override
+    public String toString() {
+        return "ProvenanceCapturePolicy[samplingRates=" + samplingRates + ", includedAttributes=" + includedAttributes
+            + ", excludedAttributes=" + excludedAttributes + ", lineageOnly=" + lineageOnly + "]";
+    }
+}
@@ -27,8 +27,11 @@ import org.apache.nifi.controller.repository.SwapContents;
 import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
 import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.swap.CompactSwapDeserializer;
+import org.apache.nifi.controller.swap.CompactSwapSerializer;
 import org.apache.nifi.controller.swap.SchemaSwapDeserializer;
-import org.apache.nifi.controller.swap.SchemaSwapSerializer;
 import org.apache.nifi.controller.swap.SimpleSwapDeserializer;
 import org.apache.nifi.controller.swap.StandardSwapContents;
 import org.apache.nifi.controller.swap.StandardSwapSummary;
@@ -65,6 +68,14 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -74,6 +85,14 @@ import java.util.stream.Stream;
  * An implementation of the {@link FlowFileSwapManager} that swaps FlowFiles
  * to/from local disk
  * </p>
+ *
+ * <p>
+ * If configured with one or more swap I/O threads, swap files are written in the background: {@link #swapOut(List, FlowFileQueue, String)}
+ * returns as soon as the FlowFiles have been handed off, and the FlowFiles are held in memory until the swap file has been written and the
+ * FlowFile Repository updated. The number of swap files that may be waiting to be written is limited; once that limit is reached, swap files
+ * are written by the calling thread, which slows down the threads that are filling the queues. The swap I/O threads are also used to read a
+ * swap file before it is swapped in, when requested via {@link #prefetch(String, FlowFileQueue)}.
+ * </p>
  */
 public class FileSystemSwapManager implements FlowFileSwapManager {
 
@@ -83,8 +102,15 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
     public static final String EVENT_CATEGORY = "Swap FlowFiles";
     private static final Logger logger = LoggerFactory.getLogger(FileSystemSwapManager.class);
 
+    private static final int MAX_PREFETCHED_SWAP_FILES = 2;
+
     private final File storageDirectory;
     private final FieldCache fieldCache = new CaffeineFieldCache(10_000_000);
+    private final boolean ownsSwapIoPool;
+    private volatile SwapIoPool swapIoPool;
+    private final boolean compressSwapFiles;
+    private final ConcurrentMap<String, PendingSwapOut> pendingSwapOuts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Future<SwapContents>> prefetchedSwapFiles = new ConcurrentHashMap<>();
 
     // effectively final
     private FlowFileRepository flowFileRepository;
@@ -98,20 +124,63 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
      */
     public FileSystemSwapManager() {
         storageDirectory = null;
+        swapIoPool = null;
+        ownsSwapIoPool = false;
+        compressSwapFiles = false;
     }
 
+    /**
+     * Creates a Swap Manager that reads and writes swap files on the calling thread until it is given the FlowController's swap I/O threads
+     * via {@link #setSwapIoPool(SwapIoPool)}
+     */
     public FileSystemSwapManager(final NiFiProperties nifiProperties) {
-        this(nifiProperties.getFlowFileRepositoryPath());
+        this(nifiProperties.getFlowFileRepositoryPath(), 0, nifiProperties.isSwapCompressionEnabled());
     }
 
     public FileSystemSwapManager(final Path flowFileRepoPath) {
+        this(flowFileRepoPath, 0, false);
+    }
+
+    /**
+     * @param flowFileRepoPath the path of the FlowFile Repository, under which swap files are stored
+     * @param swapIoThreads the number of threads that this Swap Manager should create to write and prefetch swap files, or 0 to write and
+     * read swap files only on the calling thread. Any threads that are created are stopped when the Swap Manager is {@link #shutdown() shut down}.
+     * @param compressSwapFiles whether or not the FlowFiles in swap files should be compressed
+     */
+    public FileSystemSwapManager(final Path flowFileRepoPath, final int swapIoThreads, final boolean compressSwapFiles) {
         this.storageDirectory = flowFileRepoPath.resolve("swap").toFile();
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new RuntimeException("Cannot create Swap Storage directory " + storageDirectory.getAbsolutePath());
         }
+
+        this.swapIoPool = swapIoThreads > 0 ? new SwapIoPool(swapIoThreads) : null;
+        this.ownsSwapIoPool = swapIoPool != null;
+        this.compressSwapFiles = compressSwapFiles;
     }
 
 
+    /**
+     * Provides the threads, shared with other Swap Managers and shut down by their owner, to use for writing and prefetching swap files
+     *
+     * @param swapIoPool the shared swap I/O threads
+     */
+    void setSwapIoPool(final SwapIoPool swapIoPool) {
+        if (ownsSwapIoPool) {
+            throw new IllegalStateException("This Swap Manager already owns a pool of swap I/O threads");
+        }
+
+        this.swapIoPool = swapIoPool;
+    }
+
+    /**
+     * Stops the swap I/O threads, if this Swap Manager created its own
+     */
+    public void shutdown() {
+        if (ownsSwapIoPool) {
+            swapIoPool.shutdown();
+        }
+    }
+
     @Override
     public synchronized void initialize(final SwapManagerInitializationContext initializationContext) {
         this.claimManager = initializationContext.getResourceClaimManager();
@@ -131,10 +200,71 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         final String swapFileName = swapFileBaseName + ".swap";
 
         final File swapFile = new File(storageDirectory, swapFileName);
+        final String swapLocation = swapFile.getAbsolutePath();
+
+        final SwapIoPool swapIoPool = this.swapIoPool;
+        if (swapIoPool == null || !swapIoPool.tryAcquireSwapOut()) {
+            if (!writeSwapFile(toSwap, flowFileQueue, swapFile)) {
+                error("Failed to swap out FlowFiles from " + flowFileQueue + " due to: Unable to rename swap file to " + swapFile);
+            }
+
+            return swapLocation;
+        }
+
+        final PendingSwapOut pendingSwapOut = new PendingSwapOut(new ArrayList<>(toSwap));
+        pendingSwapOuts.put(swapLocation, pendingSwapOut);
+
+        try {
+            swapIoPool.execute(() -> {
+                try {
+                    // The swap out may have been cancelled by a purge while it was waiting for a thread
+                    if (!pendingSwapOut.start()) {
+                        return;
+                    }
+
+                    final boolean written = writeSwapFile(pendingSwapOut.getFlowFiles(), flowFileQueue, swapFile);
+                    if (!written) {
+                        error("Failed to swap out FlowFiles from " + flowFileQueue + " due to: Unable to rename swap file to " + swapFile
+                            + "; the FlowFiles will be held in memory until they are swapped back in");
+                    }
+
+                    pendingSwapOut.complete(written);
+                } catch (final Throwable t) {
+                    error("Failed to swap out FlowFiles from " + flowFileQueue + " due to: " + t + "; the FlowFiles will be held in memory until they are swapped back in");
+                    logger.error("", t);
+                    pendingSwapOut.complete(false);
+                } finally {
+                    swapIoPool.releaseSwapOut();
+                }
+
+                // Once written, the FlowFiles no longer need to be held in memory unless they are being swapped in right now.
+                if (pendingSwapOut.isWritten()) {
+                    pendingSwapOuts.remove(swapLocation, pendingSwapOut);
+                }
+            });
+        } catch (final RejectedExecutionException ree) {
+            pendingSwapOuts.remove(swapLocation, pendingSwapOut);
+            swapIoPool.releaseSwapOut();
+            if (!writeSwapFile(toSwap, flowFileQueue, swapFile)) {
+                error("Failed to swap out FlowFiles from " + flowFileQueue + " due to: Unable to rename swap file to " + swapFile);
+            }
+        }
+
+        return swapLocation;
+    }
+
+    /**
+     * Writes the given FlowFiles to the given swap file and, if successful, updates the FlowFile Repository to indicate that they have been swapped out.
+     *
+     * @return <code>true</code> if the swap file was written and the FlowFile Repository updated, <code>false</code> if the swap file could not be renamed
+     * from its temporary name, in which case the FlowFile Repository is not updated
+     * @throws IOException if unable to write the swap file or update the FlowFile Repository
+     */
+    private boolean writeSwapFile(final List<FlowFileRecord> toSwap, final FlowFileQueue flowFileQueue, final File swapFile) throws IOException {
         final File swapTempFile = new File(swapFile.getParentFile(), swapFile.getName() + ".part");
         final String swapLocation = swapFile.getAbsolutePath();
 
-        final SwapSerializer serializer = new SchemaSwapSerializer();
+        final SwapSerializer serializer = new CompactSwapSerializer(compressSwapFiles);
         try (final FileOutputStream fos = new FileOutputStream(swapTempFile);
             final OutputStream out = new BufferedOutputStream(fos)) {
             out.write(MAGIC_HEADER);
@@ -149,29 +279,61 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
             throw ioe;
         }
 
-        if (swapTempFile.renameTo(swapFile)) {
+        if (!swapTempFile.renameTo(swapFile)) {
+            return false;
+        }
+
+        try {
             flowFileRepository.swapFlowFilesOut(toSwap, flowFileQueue, swapLocation);
-        } else {
-            error("Failed to swap out FlowFiles from " + flowFileQueue + " due to: Unable to rename swap file from " + swapTempFile + " to " + swapFile);
+        } catch (final IOException ioe) {
+            // The FlowFile Repository does not know about the swap file, so the FlowFiles will remain in the queue. Remove the swap file so that it is not left behind.
+            if (!swapFile.delete()) {
+                warn("Failed to delete Swap File " + swapFile + " after failing to update the FlowFile Repository; this file should be cleaned up manually");
+            }
+
+            throw ioe;
         }
 
-        return swapLocation;
+        return true;
     }
 
     @Override
     public SwapContents swapIn(final String swapLocation, final FlowFileQueue flowFileQueue) throws IOException {
         final File swapFile = new File(swapLocation);
 
+        final PendingSwapOut pendingSwapOut = pendingSwapOuts.remove(swapLocation);
+        if (pendingSwapOut != null) {
+            discardPrefetchedContents(swapLocation);
+
+            final SwapContents swapContents = pendingSwapOut.toSwapContents();
+
+            // If the swap file could not be written, the FlowFile Repository was never told that the FlowFiles were swapped out, so there
+            // is nothing to update; otherwise, use the FlowFiles that are already in memory rather than reading them back from disk.
+            if (pendingSwapOut.awaitWritten()) {
+                flowFileRepository.swapFlowFilesIn(swapFile.getAbsolutePath(), swapContents.getFlowFiles(), flowFileQueue);
+                if (!swapFile.delete()) {
+                    warn("Swapped in FlowFiles from file " + swapFile.getAbsolutePath() + " but failed to delete the file; this file should be cleaned up manually");
+                }
+            }
+
+            return swapContents;
+        }
+
         final boolean validLocation = flowFileRepository.isValidSwapLocationSuffix(swapFile.getName());
         if (!validLocation) {
             warn("Cannot swap in FlowFiles from location " + swapLocation + " because the FlowFile Repository does not know about this Swap Location. " +
                 "This file should be manually removed. This typically occurs when a Swap File is written but the FlowFile Repository is not updated yet to reflect this. " +
                 "This is generally not a cause for concern, but may be indicative of a failure to update the FlowFile Repository.");
+            discardPrefetchedContents(swapLocation);
             final SwapSummary swapSummary = new StandardSwapSummary(new QueueSize(0, 0), 0L, Collections.emptyList());
             return new StandardSwapContents(swapSummary, Collections.emptyList());
         }
 
-        final SwapContents swapContents = peek(swapLocation, flowFileQueue);
+        SwapContents swapContents = getPrefetchedContents(swapLocation);
+        if (swapContents == null) {
+            swapContents = peek(swapLocation, flowFileQueue);
+        }
+
         flowFileRepository.swapFlowFilesIn(swapFile.getAbsolutePath(), swapContents.getFlowFiles(), flowFileQueue);
 
         if (!swapFile.delete()) {
@@ -181,8 +343,85 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         return swapContents;
     }
 
+    /**
+     * Returns the contents of the given swap file if it was prefetched successfully, waiting for the prefetch to complete if necessary.
+     * Returns <code>null</code> if the swap file was not prefetched or could not be read, in which case the caller should read it again
+     * so that any failure is reported in the usual way.
+     */
+    private SwapContents getPrefetchedContents(final String swapLocation) throws IOException {
+        final Future<SwapContents> future = prefetchedSwapFiles.remove(swapLocation);
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            return future.get();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Swap File " + swapLocation + " to be read", ie);
+        } catch (final ExecutionException ee) {
+            logger.debug("Failed to prefetch Swap File {}; will read it again", swapLocation, ee.getCause());
+            return null;
+        }
+    }
+
+    private void discardPrefetchedContents(final String swapLocation) {
+        final Future<SwapContents> prefetched = prefetchedSwapFiles.remove(swapLocation);
+        if (prefetched != null) {
+            prefetched.cancel(false);
+        }
+    }
+
+    /**
+     * Discards any prefetched swap files that no longer exist, such as those that were purged or swapped in by another Swap Manager,
+     * so that they do not prevent other swap files from being prefetched
+     */
+    private void discardDeletedPrefetches() {
+        for (final String swapLocation : prefetchedSwapFiles.keySet()) {
+            if (!new File(swapLocation).exists()) {
+                discardPrefetchedContents(swapLocation);
+            }
+        }
+    }
+
+    @Override
+    public void prefetch(final String swapLocation, final FlowFileQueue flowFileQueue) {
+        final SwapIoPool swapIoPool = this.swapIoPool;
+        if (swapIoPool == null || prefetchedSwapFiles.containsKey(swapLocation) || pendingSwapOuts.containsKey(swapLocation)) {
+            return;
+        }
+
+        if (prefetchedSwapFiles.size() >= MAX_PREFETCHED_SWAP_FILES) {
+            discardDeletedPrefetches();
+            if (prefetchedSwapFiles.size() >= MAX_PREFETCHED_SWAP_FILES) {
+                return;
+            }
+        }
+
+        final FutureTask<SwapContents> task = new FutureTask<>(() -> peek(swapLocation, flowFileQueue));
+        if (prefetchedSwapFiles.putIfAbsent(swapLocation, task) != null) {
+            return;
+        }
+
+        try {
+            swapIoPool.execute(task);
+            logger.debug("Prefetching Swap File {} for {}", swapLocation, flowFileQueue);
+        } catch (final RejectedExecutionException ree) {
+            prefetchedSwapFiles.remove(swapLocation, task);
+        }
+    }
+
+    boolean isPrefetched(final String swapLocation) {
+        return prefetchedSwapFiles.containsKey(swapLocation);
+    }
+
     @Override
     public SwapContents peek(final String swapLocation, final FlowFileQueue flowFileQueue) throws IOException {
+        final PendingSwapOut pendingSwapOut = pendingSwapOuts.get(swapLocation);
+        if (pendingSwapOut != null) {
+            return pendingSwapOut.toSwapContents();
+        }
+
         final File swapFile = new File(swapLocation);
         if (!swapFile.exists()) {
             throw new FileNotFoundException("Failed to swap in FlowFiles from external storage location " + swapLocation + " into FlowFile Queue because the file could not be found");
@@ -199,6 +438,25 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
     @Override
     public void purge() {
+        for (final String swapLocation : prefetchedSwapFiles.keySet()) {
+            discardPrefetchedContents(swapLocation);
+        }
+
+        // Cancel the swap outs that have not started and wait for the others to finish, so that no swap file is written after the purge.
+        for (final PendingSwapOut pendingSwapOut : pendingSwapOuts.values()) {
+            pendingSwapOut.cancel();
+        }
+
+        for (final PendingSwapOut pendingSwapOut : pendingSwapOuts.values()) {
+            try {
+                pendingSwapOut.awaitWritten();
+            } catch (final IOException ioe) {
+                warn("Interrupted while waiting for Swap Files to be written when purging FlowFile Swap Manager; some Swap Files may not be purged");
+                break;
+            }
+        }
+        pendingSwapOuts.clear();
+
         final File[] swapFiles = storageDirectory.listFiles(new FilenameFilter() {
             @Override
             public boolean accept(final File dir, final String name) {
@@ -348,6 +606,11 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
     @Override
     public SwapSummary getSwapSummary(final String swapLocation) throws IOException {
+        final PendingSwapOut pendingSwapOut = pendingSwapOuts.get(swapLocation);
+        if (pendingSwapOut != null) {
+            return pendingSwapOut.toSwapContents().getSummary();
+        }
+
         final File swapFile = new File(swapLocation);
 
         // read record from disk via the swap file
@@ -373,6 +636,9 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
         if (Arrays.equals(magicHeader, MAGIC_HEADER)) {
             final String serializationName = dis.readUTF();
+            if (serializationName.equals(CompactSwapDeserializer.getSerializationName())) {
+                return new CompactSwapDeserializer();
+            }
             if (serializationName.equals(SchemaSwapDeserializer.getSerializationName())) {
                 return new SchemaSwapDeserializer(fieldCache);
             }
@@ -453,26 +719,118 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
     @Override
     public String changePartitionName(final String swapLocation, final String newPartitionName) throws IOException {
+        discardPrefetchedContents(swapLocation);
+
         final File existingFile = new File(swapLocation);
+        final PendingSwapOut pendingSwapOut = pendingSwapOuts.get(swapLocation);
+        if (pendingSwapOut != null && !pendingSwapOut.awaitWritten()) {
+            // There is no swap file to rename, so just track the FlowFiles that are held in memory by their new location.
+            final String newLocation = new File(existingFile.getParentFile(), getSwapFilename(existingFile.getName(), newPartitionName)).getAbsolutePath();
+            pendingSwapOuts.remove(swapLocation, pendingSwapOut);
+            pendingSwapOuts.put(newLocation, pendingSwapOut);
+            return newLocation;
+        }
+
         if (!existingFile.exists()) {
             throw new FileNotFoundException("Could not change name of partition for swap location " + swapLocation + " because no swap file exists at that location");
         }
 
-        final String existingFilename = existingFile.getName();
+        final File newFile = new File(existingFile.getParentFile(), getSwapFilename(existingFile.getName(), newPartitionName));
+        // Use Files.move and convert to Path's instead of File.rename so that we get an IOException on failure that describes why we failed.
+        Files.move(existingFile.toPath(), newFile.toPath());
+
+        logger.debug("Changed Partition for Swap File by renaming from {} to {}", swapLocation, newPartitionName);
+        return newFile.getAbsolutePath();
+    }
 
-        final String newFilename;
+    private static String getSwapFilename(final String existingFilename, final String newPartitionName) {
         final int dotIndex = existingFilename.indexOf(".");
         if (dotIndex < 0) {
-            newFilename = existingFilename + "." + newPartitionName + ".swap";
+            return existingFilename + "." + newPartitionName + ".swap";
         } else {
-            newFilename = existingFilename.substring(0, dotIndex) + "." + newPartitionName + ".swap";
+            return existingFilename.substring(0, dotIndex) + "." + newPartitionName + ".swap";
         }
+    }
 
-        final File newFile = new File(existingFile.getParentFile(), newFilename);
-        // Use Files.move and convert to Path's instead of File.rename so that we get an IOException on failure that describes why we failed.
-        Files.move(existingFile.toPath(), newFile.toPath());
 
-        logger.debug("Changed Partition for Swap File by renaming from {} to {}", swapLocation, newPartitionName);
-        return newFile.getAbsolutePath();
+    /**
+     * FlowFiles that have been handed off to be written to a swap file in the background, which are held in memory until the
+     * swap file has been written.
+     */
+    private static class PendingSwapOut {
+        private final List<FlowFileRecord> flowFiles;
+        private final CountDownLatch completionLatch = new CountDownLatch(1);
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private volatile boolean written = false;
+
+        PendingSwapOut(final List<FlowFileRecord> flowFiles) {
+            this.flowFiles = flowFiles;
+        }
+
+        List<FlowFileRecord> getFlowFiles() {
+            return flowFiles;
+        }
+
+        /**
+         * @return <code>true</code> if the swap file is to be written, <code>false</code> if the swap out was cancelled
+         */
+        boolean start() {
+            return started.compareAndSet(false, true);
+        }
+
+        /**
+         * Cancels the swap out if the swap file has not started to be written, in which case it never will be
+         */
+        void cancel() {
+            if (started.compareAndSet(false, true)) {
+                complete(false);
+            }
+        }
+
+        void complete(final boolean written) {
+            this.written = written;
+            completionLatch.countDown();
+        }
+
+        boolean isWritten() {
+            return written;
+        }
+
+        /**
+         * Waits for the swap file to be written
+         *
+         * @return <code>true</code> if the swap file was written and the FlowFile Repository updated, <code>false</code> if it could not be written
+         * @throws IOException if interrupted while waiting
+         */
+        boolean awaitWritten() throws IOException {
+            try {
+                completionLatch.await();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for Swap File to be written", ie);
+            }
+
+            return written;
+        }
+
+        SwapContents toSwapContents() {
+            long contentSize = 0L;
+            Long maxFlowFileId = null;
+            final List<ResourceClaim> resourceClaims = new ArrayList<>();
+            for (final FlowFileRecord flowFile : flowFiles) {
+                contentSize += flowFile.getSize();
+                if (maxFlowFileId == null || flowFile.getId() > maxFlowFileId) {
+                    maxFlowFileId = flowFile.getId();
+                }
+
+                final ContentClaim contentClaim = flowFile.getContentClaim();
+                if (contentClaim != null) {
+                    resourceClaims.add(contentClaim.getResourceClaim());
+                }
+            }
+
+            final SwapSummary swapSummary = new StandardSwapSummary(new QueueSize(flowFiles.size(), contentSize), maxFlowFileId, resourceClaims);
+            return new StandardSwapContents(swapSummary, flowFiles);
+        }
     }
 }
@@ -249,6 +249,7 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
     private final AtomicReference<FlowEngine> timerDrivenEngineRef;
     private final AtomicReference<FlowEngine> eventDrivenEngineRef;
     private final EventDrivenSchedulingAgent eventDrivenSchedulingAgent;
+    private final TimerDrivenSchedulingAgent timerDrivenSchedulingAgent;
 
     private final ContentRepository contentRepository;
     private final FlowFileRepository flowFileRepository;
@@ -300,6 +301,7 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
     private final ClusterCoordinator clusterCoordinator;
     private final FlowRegistryClient flowRegistryClient;
     private final FlowEngine validationThreadPool;
+    private final SwapIoPool swapIoPool;
     private final ValidationTrigger validationTrigger;
     private final ReloadComponent reloadComponent;
     private final ProvenanceAuthorizableFactory provenanceAuthorizableFactory;
@@ -533,10 +535,10 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
         processScheduler.setSchedulingAgent(SchedulingStrategy.EVENT_DRIVEN, eventDrivenSchedulingAgent);
 
         final QuartzSchedulingAgent quartzSchedulingAgent = new QuartzSchedulingAgent(this, timerDrivenEngineRef.get(), repositoryContextFactory, encryptor);
-        final TimerDrivenSchedulingAgent timerDrivenAgent = new TimerDrivenSchedulingAgent(this, timerDrivenEngineRef.get(), repositoryContextFactory, encryptor, this.nifiProperties);
-        processScheduler.setSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN, timerDrivenAgent);
+        timerDrivenSchedulingAgent = new TimerDrivenSchedulingAgent(this, timerDrivenEngineRef.get(), repositoryContextFactory, encryptor, this.nifiProperties);
+        processScheduler.setSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN, timerDrivenSchedulingAgent);
         // PRIMARY_NODE_ONLY is deprecated, but still exists to handle processors that are still defined with it (they haven't been re-configured with executeNode = PRIMARY).
-        processScheduler.setSchedulingAgent(SchedulingStrategy.PRIMARY_NODE_ONLY, timerDrivenAgent);
+        processScheduler.setSchedulingAgent(SchedulingStrategy.PRIMARY_NODE_ONLY, timerDrivenSchedulingAgent);
         processScheduler.setSchedulingAgent(SchedulingStrategy.CRON_DRIVEN, quartzSchedulingAgent);
 
         startConnectablesAfterInitialization = new ArrayList<>();
@@ -574,6 +576,8 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
         instanceId = ComponentIdGenerator.generateId().toString();
 
         this.validationThreadPool = new FlowEngine(5, "Validate Components", true);
+        final int swapIoThreads = nifiProperties.getSwapIoThreads();
+        this.swapIoPool = swapIoThreads > 0 ? new SwapIoPool(swapIoThreads) : null;
         this.validationTrigger = new StandardValidationTrigger(validationThreadPool, this::isInitialized);
 
         if (remoteInputSocketPort == null) {
@@ -808,6 +812,9 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
 
         try {
             final FlowFileSwapManager swapManager = NarThreadContextClassLoader.createInstance(extensionManager, implementationClassName, FlowFileSwapManager.class, nifiProperties);
+            if (swapIoPool != null && swapManager instanceof FileSystemSwapManager) {
+                ((FileSystemSwapManager) swapManager).setSwapIoPool(swapIoPool);
+            }
 
             final EventReporter eventReporter = createEventReporter();
             try (final NarCloseable narCloseable = NarCloseable.withNarLoader()) {
@@ -1288,6 +1295,11 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
                 LOG.info("Interrupted while waiting for controller termination.");
             }
 
+            // Allow any swap files that are being written to finish before the FlowFile Repository is closed
+            if (swapIoPool != null) {
+                swapIoPool.shutdown();
+            }
+
             try {
                 flowFileRepository.close();
             } catch (final Throwable t) {
@@ -1332,6 +1344,10 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
                     }
                 }
             }
+
+            if (componentStatusRepository != null) {
+                componentStatusRepository.shutdown();
+            }
         } finally {
             readLock.unlock("shutdown");
         }
@@ -1916,7 +1932,8 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
 
                 if (clusterCoordinator == null) {
                     flowFileQueue = new StandardFlowFileQueue(id, eventListener, flowFileRepository, provenanceRepository, resourceClaimManager, processScheduler, swapManager,
-                            eventReporter, nifiProperties.getQueueSwapThreshold(), nifiProperties.getDefaultBackPressureObjectThreshold(), nifiProperties.getDefaultBackPressureDataSizeThreshold());
+                            eventReporter, nifiProperties.getQueueSwapThreshold(), nifiProperties.getDefaultBackPressureObjectThreshold(), nifiProperties.getDefaultBackPressureDataSizeThreshold(),
+                            nifiProperties.isQueueConcurrentFifoEnabled());
                 } else {
                     flowFileQueue = new SocketLoadBalancedFlowFileQueue(id, eventListener, processScheduler, flowFileRepository, provenanceRepository, contentRepository, resourceClaimManager,
                             clusterCoordinator, loadBalanceClientRegistry, swapManager, nifiProperties.getQueueSwapThreshold(), eventReporter);
@@ -1935,6 +1952,7 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
                 .source(requireNonNull(source))
                 .destination(destination)
                 .flowFileQueueFactory(flowFileQueueFactory)
+                .wakeTimerDrivenDestination(nifiProperties.isBoredYieldWakeOnQueueEvent())
                 .build();
 
         return connection;
@@ -2102,7 +2120,7 @@ public class FlowController implements ReportingTaskProvider, Authorizable, Node
     }
 
     public int getActiveThreadCount() {
-        final int timerDrivenCount = timerDrivenEngineRef.get().getActiveCount();
+        final int timerDrivenCount = timerDrivenEngineRef.get().getActiveCount() + timerDrivenSchedulingAgent.getActiveThreadCount();
         final int eventDrivenCount = eventDrivenSchedulingAgent.getActiveThreadCount();
         return timerDrivenCount + eventDrivenCount;
     }
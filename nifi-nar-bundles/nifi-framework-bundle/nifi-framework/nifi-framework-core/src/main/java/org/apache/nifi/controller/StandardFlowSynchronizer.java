@@ -49,6 +49,7 @@ import org.apache.nifi.controller.serialization.FlowFromDOMFactory;
 import org.apache.nifi.controller.serialization.FlowSerializationException;
 import org.apache.nifi.controller.serialization.FlowSynchronizationException;
 import org.apache.nifi.controller.serialization.FlowSynchronizer;
+import org.apache.nifi.controller.serialization.ProvenanceCapturePolicyMapper;
 import org.apache.nifi.controller.serialization.StandardFlowSerializer;
 import org.apache.nifi.controller.service.ControllerServiceLoader;
 import org.apache.nifi.controller.service.ControllerServiceNode;
@@ -1184,6 +1185,10 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             group.setFlowFileOutboundPolicy(FlowFileOutboundPolicy.valueOf(flowfileOutboundPolicyName));
         }
 
+        final Integer maxTimerDrivenThreadCount = dto.getMaxTimerDrivenThreadCount();
+        group.setMaxTimerDrivenThreadCount(maxTimerDrivenThreadCount == null ? 0 : maxTimerDrivenThreadCount);
+        group.setProvenanceCapturePolicy(ProvenanceCapturePolicyMapper.toPolicy(dto.getProvenanceCapturePolicy()));
+
         final ParameterContextReferenceEntity parameterContextReference = dto.getParameterContext();
         if (parameterContextReference != null && parameterContextReference.getId() != null) {
             final String parameterContextId = parameterContextReference.getId();
@@ -1305,6 +1310,10 @@ public class StandardFlowSynchronizer implements FlowSynchronizer {
             processGroup.setFlowFileOutboundPolicy(FlowFileOutboundPolicy.valueOf(flowfileOutboundPolicyName));
         }
 
+        final Integer maxTimerDrivenThreadCount = processGroupDTO.getMaxTimerDrivenThreadCount();
+        processGroup.setMaxTimerDrivenThreadCount(maxTimerDrivenThreadCount == null ? 0 : maxTimerDrivenThreadCount);
+        processGroup.setProvenanceCapturePolicy(ProvenanceCapturePolicyMapper.toPolicy(processGroupDTO.getProvenanceCapturePolicy()));
+
 
         final String parameterContextId = getString(processGroupElement, "parameterContextId");
         if (parameterContextId != null) {
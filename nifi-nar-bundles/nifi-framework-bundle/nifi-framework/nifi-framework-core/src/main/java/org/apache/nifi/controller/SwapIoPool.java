@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads used by {@link FileSystemSwapManager}s to write and prefetch swap files, along with a limit on the number of swap files
+ * that may be waiting to be written at any one time, so that the FlowFiles held in memory for them are bounded. A single pool is owned by
+ * the FlowController and shared by the Swap Managers of all of its connections.
+ */
+class SwapIoPool {
+    private static final long SHUTDOWN_WAIT_SECONDS = 10L;
+
+    private final ExecutorService executor;
+    private final Semaphore swapOutPermits;
+
+    SwapIoPool(final int threadCount) {
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = defaultFactory.newThread(runnable);
+            thread.setName("Swap I/O Thread-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = Executors.newFixedThreadPool(threadCount, threadFactory);
+        this.swapOutPermits = new Semaphore(threadCount * 2);
+    }
+
+    boolean tryAcquireSwapOut() {
+        return swapOutPermits.tryAcquire();
+    }
+
+    void releaseSwapOut() {
+        swapOutPermits.release();
+    }
+
+    void execute(final Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Stops accepting new tasks and waits a short time for any swap files that are being written to be completed
+     */
+    void shutdown() {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isShutdown() {
+        return executor.isShutdown();
+    }
+}
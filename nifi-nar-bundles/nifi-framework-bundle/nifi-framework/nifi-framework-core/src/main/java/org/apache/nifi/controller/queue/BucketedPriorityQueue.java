@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * A Queue of FlowFiles for connections whose prioritizers are all {@link KeyedFlowFilePrioritizer}s. FlowFiles are grouped into buckets
+ * by their priority key, and each bucket holds its FlowFiles ordered by FlowFile ID, which is the last tie-breaker of {@link QueuePrioritizer}.
+ * Because IDs are assigned in increasing order, a FlowFile almost always belongs at the tail of its bucket, so adding a FlowFile whose key
+ * already has a bucket costs a single map lookup, rather than the O(log n) comparisons of a heap, and polling costs O(1). This makes it
+ * much cheaper than a {@link PriorityQueue} for the common prioritizers, which produce few distinct keys, especially when a queue holds
+ * hundreds of thousands of FlowFiles. FlowFiles that are put back into the queue, for instance when a session is rolled back, are
+ * returned to their place near the head of their bucket rather than behind newer FlowFiles.
+ * </p>
+ *
+ * <p>
+ * As with {@link QueuePrioritizer}, penalized FlowFiles are ordered after all others, by the time at which their penalty expires.
+ * Once its penalty has expired, a FlowFile is moved back into the bucket for its key, so that it is ordered by its priority again.
+ * </p>
+ *
+ * <b>Not Thread Safe</b>
+ */
+class BucketedPriorityQueue extends AbstractQueue<FlowFileRecord> {
+    private static final Comparator<FlowFileRecord> PENALTY_EXPIRATION_COMPARATOR = Comparator.comparingLong(FlowFileRecord::getPenaltyExpirationMillis)
+        .thenComparingLong(FlowFileRecord::getId);
+
+    private final KeyedFlowFilePrioritizer[] prioritizers;
+    private final TreeMap<Comparable<Object>, ArrayDeque<FlowFileRecord>> buckets = new TreeMap<>();
+    private final PriorityQueue<FlowFileRecord> penalized = new PriorityQueue<>(20, PENALTY_EXPIRATION_COMPARATOR);
+    private int size = 0;
+
+    // The bucket that a FlowFile was most recently added to. Consecutive FlowFiles very often have the same key.
+    private Comparable<Object> lastKey;
+    private ArrayDeque<FlowFileRecord> lastBucket;
+
+    BucketedPriorityQueue(final List<FlowFilePrioritizer> prioritizers) {
+        this.prioritizers = prioritizers.toArray(new KeyedFlowFilePrioritizer[0]);
+    }
+
+    /**
+     * Indicates whether or not a BucketedPriorityQueue can be used to order FlowFiles according to the given prioritizers.
+     *
+     * @param prioritizers the prioritizers configured for a connection
+     * @return <code>true</code> if there is at least one prioritizer and all of them are KeyedFlowFilePrioritizers
+     */
+    static boolean isSupported(final List<FlowFilePrioritizer> prioritizers) {
+        if (prioritizers.isEmpty()) {
+            return false;
+        }
+
+        for (final FlowFilePrioritizer prioritizer : prioritizers) {
+            if (!(prioritizer instanceof KeyedFlowFilePrioritizer)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparable<Object> getKey(final FlowFileRecord flowFile) {
+        if (prioritizers.length == 1) {
+            return (Comparable<Object>) prioritizers[0].getPriorityKey(flowFile);
+        }
+
+        final Comparable<Object>[] keys = new Comparable[prioritizers.length];
+        for (int i = 0; i < prioritizers.length; i++) {
+            keys[i] = (Comparable<Object>) prioritizers[i].getPriorityKey(flowFile);
+        }
+
+        return (Comparable<Object>) (Comparable<?>) new CompositeKey(keys);
+    }
+
+    @Override
+    public boolean offer(final FlowFileRecord flowFile) {
+        if (flowFile.isPenalized()) {
+            penalized.offer(flowFile);
+        } else {
+            addOrdered(getBucket(getKey(flowFile)), flowFile);
+        }
+
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds the given FlowFile to the given bucket in order of FlowFile ID. A FlowFile that does not belong at either end of the bucket is
+     * inserted by walking from the end that is nearer to it, which is cheap for the FlowFiles that are put back after being polled.
+     */
+    private static void addOrdered(final ArrayDeque<FlowFileRecord> bucket, final FlowFileRecord flowFile) {
+        final long id = flowFile.getId();
+        final FlowFileRecord last = bucket.peekLast();
+        if (last == null || last.getId() < id) {
+            bucket.addLast(flowFile);
+            return;
+        }
+
+        final FlowFileRecord first = bucket.peekFirst();
+        if (first.getId() > id) {
+            bucket.addFirst(flowFile);
+            return;
+        }
+
+        final ArrayDeque<FlowFileRecord> displaced = new ArrayDeque<>();
+        if (id - first.getId() <= last.getId() - id) {
+            while (bucket.peekFirst().getId() < id) {
+                displaced.addFirst(bucket.pollFirst());
+            }
+
+            bucket.addFirst(flowFile);
+            while (!displaced.isEmpty()) {
+                bucket.addFirst(displaced.pollFirst());
+            }
+        } else {
+            while (bucket.peekLast().getId() > id) {
+                displaced.addLast(bucket.pollLast());
+            }
+
+            bucket.addLast(flowFile);
+            while (!displaced.isEmpty()) {
+                bucket.addLast(displaced.pollLast());
+            }
+        }
+    }
+
+    private ArrayDeque<FlowFileRecord> getBucket(final Comparable<Object> key) {
+        if (lastBucket != null && key.equals(lastKey)) {
+            return lastBucket;
+        }
+
+        ArrayDeque<FlowFileRecord> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets.put(key, bucket);
+        }
+
+        lastKey = key;
+        lastBucket = bucket;
+        return bucket;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends FlowFileRecord> flowFiles) {
+        for (final FlowFileRecord flowFile : flowFiles) {
+            offer(flowFile);
+        }
+
+        return !flowFiles.isEmpty();
+    }
+
+    /**
+     * Moves the FlowFiles whose penalty has expired from the penalized queue back into the buckets for their keys
+     */
+    private void moveExpiredPenalties() {
+        FlowFileRecord penalizedHead;
+        while ((penalizedHead = penalized.peek()) != null && !penalizedHead.isPenalized()) {
+            penalized.poll();
+            addOrdered(getBucket(getKey(penalizedHead)), penalizedHead);
+        }
+    }
+
+    @Override
+    public FlowFileRecord poll() {
+        moveExpiredPenalties();
+
+        final Map.Entry<Comparable<Object>, ArrayDeque<FlowFileRecord>> firstEntry = buckets.firstEntry();
+        if (firstEntry != null) {
+            final ArrayDeque<FlowFileRecord> bucket = firstEntry.getValue();
+            final FlowFileRecord flowFile = bucket.pollFirst();
+            if (bucket.isEmpty()) {
+                removeBucket(firstEntry.getKey(), bucket);
+            }
+
+            size--;
+            return flowFile;
+        }
+
+        final FlowFileRecord penalizedFlowFile = penalized.poll();
+        if (penalizedFlowFile != null) {
+            size--;
+        }
+
+        return penalizedFlowFile;
+    }
+
+    /**
+     * Adds the given FlowFiles to the head of their buckets, in the order given, so that they are polled before any FlowFile with the
+     * same key that is already queued. This is used to return FlowFiles that were polled but not consumed without changing their order.
+     *
+     * @param flowFiles the FlowFiles to return to the queue
+     */
+    void offerFirst(final List<FlowFileRecord> flowFiles) {
+        final ListIterator<FlowFileRecord> itr = flowFiles.listIterator(flowFiles.size());
+        while (itr.hasPrevious()) {
+            final FlowFileRecord flowFile = itr.previous();
+            if (flowFile.isPenalized()) {
+                penalized.offer(flowFile);
+            } else {
+                getBucket(getKey(flowFile)).addFirst(flowFile);
+            }
+
+            size++;
+        }
+    }
+
+    private void removeBucket(final Comparable<Object> key, final ArrayDeque<FlowFileRecord> bucket) {
+        buckets.remove(key);
+        if (lastBucket == bucket) {
+            lastKey = null;
+            lastBucket = null;
+        }
+    }
+
+    @Override
+    public FlowFileRecord peek() {
+        moveExpiredPenalties();
+
+        final Map.Entry<Comparable<Object>, ArrayDeque<FlowFileRecord>> firstEntry = buckets.firstEntry();
+        return firstEntry == null ? penalized.peek() : firstEntry.getValue().peekFirst();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        buckets.clear();
+        penalized.clear();
+        lastKey = null;
+        lastBucket = null;
+        size = 0;
+    }
+
+    /**
+     * Returns an iterator over the FlowFiles that are not penalized, in order, followed by those that are penalized, in no particular
+     * order. The iterator does not support removal.
+     */
+    @Override
+    public Iterator<FlowFileRecord> iterator() {
+        final Iterator<ArrayDeque<FlowFileRecord>> bucketItr = buckets.values().iterator();
+        final Iterator<FlowFileRecord> penalizedItr = penalized.iterator();
+
+        return new Iterator<FlowFileRecord>() {
+            private Iterator<FlowFileRecord> currentItr = null;
+
+            @Override
+            public boolean hasNext() {
+                while ((currentItr == null || !currentItr.hasNext()) && bucketItr.hasNext()) {
+                    currentItr = bucketItr.next().iterator();
+                }
+
+                return (currentItr != null && currentItr.hasNext()) || penalizedItr.hasNext();
+            }
+
+            @Override
+            public FlowFileRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return currentItr != null && currentItr.hasNext() ? currentItr.next() : penalizedItr.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "BucketedPriorityQueue[size=" + size + ", buckets=" + buckets.size() + ", penalized=" + penalized.size() + "]";
+    }
+
+
+    /**
+     * The key of a FlowFile for a list of prioritizers, ordered by the key of the first prioritizer, then the second, and so on.
+     */
+    private static final class CompositeKey implements Comparable<CompositeKey> {
+        private final Comparable<Object>[] keys;
+        private final int hashCode;
+
+        private CompositeKey(final Comparable<Object>[] keys) {
+            this.keys = keys;
+            this.hashCode = Arrays.hashCode(keys);
+        }
+
+        @Override
+        public int compareTo(final CompositeKey other) {
+            for (int i = 0; i < keys.length; i++) {
+                final int comparison = keys[i].compareTo(other.keys[i]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+
+            return 0;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CompositeKey)) {
+                return false;
+            }
+
+            return Arrays.equals(keys, ((CompositeKey) obj).keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
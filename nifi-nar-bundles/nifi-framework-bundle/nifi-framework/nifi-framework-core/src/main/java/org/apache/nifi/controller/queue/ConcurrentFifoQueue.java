@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A thread-safe, non-blocking Queue of FlowFiles that orders FlowFiles in the order in which they were added, for use as the
+ * active queue of a {@link SwappablePriorityQueue} whose connection is configured with no prioritizers (or only the First In,
+ * First Out prioritizer). Unlike the {@link java.util.PriorityQueue} that is otherwise used, it can be offered to and polled from
+ * by many threads at once, so the SwappablePriorityQueue only needs to hold its read lock while doing so.
+ * </p>
+ *
+ * <p>
+ * Penalized FlowFiles are held separately, ordered by the time at which their penalty expires. Once its penalty has expired, a
+ * FlowFile is moved to a queue of expired FlowFiles that is ordered by the time at which the FlowFiles were queued, and it is
+ * merged back in arrival order with the FlowFiles that were never penalized. Consistent with the ordering provided by
+ * {@link QueuePrioritizer}, {@link #poll()} and {@link #peek()} return a penalized FlowFile only if no other FlowFile is available,
+ * so that callers can continue to stop polling as soon as they encounter a penalized FlowFile.
+ * </p>
+ */
+class ConcurrentFifoQueue extends AbstractQueue<FlowFileRecord> {
+    private static final String FIFO_PRIORITIZER_CLASS_NAME = "org.apache.nifi.prioritizer.FirstInFirstOutPrioritizer";
+    private static final Comparator<FlowFileRecord> PENALTY_EXPIRATION_COMPARATOR = Comparator.comparingLong(FlowFileRecord::getPenaltyExpirationMillis)
+        .thenComparingLong(FlowFileRecord::getId);
+    private static final Comparator<FlowFileRecord> ARRIVAL_COMPARATOR = Comparator.comparing(FlowFileRecord::getLastQueueDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparingLong(FlowFileRecord::getQueueDateIndex)
+        .thenComparingLong(FlowFileRecord::getId);
+
+    private final ConcurrentLinkedDeque<FlowFileRecord> available = new ConcurrentLinkedDeque<>();
+    private final PriorityBlockingQueue<FlowFileRecord> penalized = new PriorityBlockingQueue<>(20, PENALTY_EXPIRATION_COMPARATOR);
+    private final PriorityBlockingQueue<FlowFileRecord> expired = new PriorityBlockingQueue<>(20, ARRIVAL_COMPARATOR);
+    // The number of FlowFiles held in either the penalized or the expired queue
+    private final AtomicInteger penalizedCount = new AtomicInteger(0);
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Indicates whether or not FlowFiles that are ordered by the given prioritizers can instead be ordered by a ConcurrentFifoQueue.
+     * The First In, First Out prioritizer is identified by class name because prioritizers are loaded from extension bundles.
+     *
+     * @param prioritizers the prioritizers configured for a connection
+     * @return <code>true</code> if the prioritizers are empty or consist only of the First In, First Out prioritizer
+     */
+    static boolean isFifoOnly(final List<FlowFilePrioritizer> prioritizers) {
+        for (final FlowFilePrioritizer prioritizer : prioritizers) {
+            if (!FIFO_PRIORITIZER_CLASS_NAME.equals(prioritizer.getClass().getName())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean offer(final FlowFileRecord flowFile) {
+        // Count the FlowFile before it becomes visible, so that a concurrent poll can never decrement the counts below zero.
+        size.increment();
+        if (flowFile.isPenalized()) {
+            penalizedCount.incrementAndGet();
+            penalized.offer(flowFile);
+        } else {
+            available.offerLast(flowFile);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the given FlowFiles to the head of the queue, in the order given, so that they are polled before any FlowFile that
+     * is already queued. This is used to return FlowFiles that were polled but not consumed without changing their order.
+     *
+     * @param flowFiles the FlowFiles to return to the head of the queue
+     */
+    void offerFirst(final List<FlowFileRecord> flowFiles) {
+        final ListIterator<FlowFileRecord> itr = flowFiles.listIterator(flowFiles.size());
+        while (itr.hasPrevious()) {
+            final FlowFileRecord flowFile = itr.previous();
+            size.increment();
+            if (flowFile.isPenalized()) {
+                penalizedCount.incrementAndGet();
+                penalized.offer(flowFile);
+            } else {
+                available.offerFirst(flowFile);
+            }
+        }
+    }
+
+    @Override
+    public FlowFileRecord poll() {
+        // Avoid touching the penalized queues, which are guarded by locks, unless they are known to hold FlowFiles.
+        if (penalizedCount.get() > 0) {
+            moveExpiredPenalties();
+
+            final FlowFileRecord expiredHead = expired.peek();
+            if (expiredHead != null) {
+                final FlowFileRecord availableHead = available.peekFirst();
+                if (availableHead == null || ARRIVAL_COMPARATOR.compare(expiredHead, availableHead) <= 0) {
+                    final FlowFileRecord flowFile = pollHeld(expired);
+                    if (flowFile != null) {
+                        return flowFile;
+                    }
+                }
+            }
+        }
+
+        final FlowFileRecord flowFile = available.pollFirst();
+        if (flowFile != null) {
+            size.decrement();
+            return flowFile;
+        }
+
+        if (penalizedCount.get() == 0) {
+            return null;
+        }
+
+        final FlowFileRecord expiredFlowFile = pollHeld(expired);
+        return expiredFlowFile == null ? pollHeld(penalized) : expiredFlowFile;
+    }
+
+    /**
+     * Moves the FlowFiles whose penalty has expired from the penalized queue to the expired queue, so that they are ordered by arrival again
+     */
+    private void moveExpiredPenalties() {
+        FlowFileRecord penalizedHead;
+        while ((penalizedHead = penalized.peek()) != null && !penalizedHead.isPenalized()) {
+            final FlowFileRecord flowFile = penalized.poll();
+            if (flowFile == null) {
+                return;
+            }
+
+            // Another thread may have polled the expired FlowFile first, in which case the head may still be penalized.
+            if (flowFile.isPenalized()) {
+                penalized.offer(flowFile);
+                return;
+            }
+
+            expired.offer(flowFile);
+        }
+    }
+
+    private FlowFileRecord pollHeld(final PriorityBlockingQueue<FlowFileRecord> queue) {
+        final FlowFileRecord flowFile = queue.poll();
+        if (flowFile != null) {
+            penalizedCount.decrementAndGet();
+            size.decrement();
+        }
+
+        return flowFile;
+    }
+
+    @Override
+    public FlowFileRecord peek() {
+        if (penalizedCount.get() > 0) {
+            moveExpiredPenalties();
+        }
+
+        final FlowFileRecord availableHead = available.peekFirst();
+        if (penalizedCount.get() == 0) {
+            return availableHead;
+        }
+
+        final FlowFileRecord expiredHead = expired.peek();
+        if (expiredHead != null && (availableHead == null || ARRIVAL_COMPARATOR.compare(expiredHead, availableHead) <= 0)) {
+            return expiredHead;
+        }
+
+        return availableHead == null ? penalized.peek() : availableHead;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return available.isEmpty() && penalizedCount.get() == 0;
+    }
+
+    /**
+     * Returns the number of FlowFiles in the queue. While other threads are offering or polling FlowFiles, the value is only approximate,
+     * as the count is not updated atomically with the queues that hold the FlowFiles, but it is never negative.
+     */
+    @Override
+    public int size() {
+        return Math.max(0, size.intValue());
+    }
+
+    @Override
+    public void clear() {
+        available.clear();
+        penalized.clear();
+        expired.clear();
+        penalizedCount.set(0);
+        size.reset();
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends FlowFileRecord> flowFiles) {
+        for (final FlowFileRecord flowFile : flowFiles) {
+            offer(flowFile);
+        }
+
+        return !flowFiles.isEmpty();
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the FlowFiles that were never penalized, in order, followed by those whose penalty
+     * has expired and those that are penalized, in no particular order. The iterator does not support removal.
+     */
+    @Override
+    public Iterator<FlowFileRecord> iterator() {
+        final Iterator<FlowFileRecord> availableItr = available.iterator();
+        final Iterator<FlowFileRecord> expiredItr = expired.iterator();
+        final Iterator<FlowFileRecord> penalizedItr = penalized.iterator();
+
+        return new Iterator<FlowFileRecord>() {
+            @Override
+            public boolean hasNext() {
+                return availableItr.hasNext() || expiredItr.hasNext() || penalizedItr.hasNext();
+            }
+
+            @Override
+            public FlowFileRecord next() {
+                if (availableItr.hasNext()) {
+                    return availableItr.next();
+                }
+                if (expiredItr.hasNext()) {
+                    return expiredItr.next();
+                }
+                if (penalizedItr.hasNext()) {
+                    return penalizedItr.next();
+                }
+
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentFifoQueue[size=" + size() + ", penalized=" + penalizedCount.get() + "]";
+    }
+}
@@ -54,10 +54,18 @@ public class StandardFlowFileQueue extends AbstractFlowFileQueue implements Flow
     public StandardFlowFileQueue(final String identifier, final ConnectionEventListener eventListener, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
                                  final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
                                  final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold) {
+        this(identifier, eventListener, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold, defaultBackPressureObjectThreshold,
+            defaultBackPressureDataSizeThreshold, false);
+    }
+
+    public StandardFlowFileQueue(final String identifier, final ConnectionEventListener eventListener, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+                                 final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter,
+                                 final int swapThreshold, final long defaultBackPressureObjectThreshold, final String defaultBackPressureDataSizeThreshold,
+                                 final boolean concurrentFifoEnabled) {
 
         super(identifier, scheduler, flowFileRepo, provRepo, resourceClaimManager);
         this.swapManager = swapManager;
-        this.queue = new SwappablePriorityQueue(swapManager, swapThreshold, eventReporter, this, this::drop, null);
+        this.queue = new SwappablePriorityQueue(swapManager, swapThreshold, eventReporter, this, this::drop, null, concurrentFifoEnabled);
         this.eventListener = eventListener;
 
         writeLock = new TimedLock(this.lock.writeLock(), getIdentifier() + " Write Lock", 100);
@@ -63,6 +63,7 @@ public class SwappablePriorityQueue {
     private final DropFlowFileAction dropAction;
     private final List<FlowFilePrioritizer> priorities = new ArrayList<>();
     private final String swapPartitionName;
+    private final boolean concurrentFifoEnabled;
 
     private final List<String> swapLocations = new ArrayList<>();
     private final AtomicReference<FlowFileQueueSize> size = new AtomicReference<>(new FlowFileQueueSize(0, 0L, 0, 0L, 0, 0, 0L));
@@ -78,17 +79,31 @@ public class SwappablePriorityQueue {
     // active queue, then we would end up processing the newer FlowFile before the swapped FlowFile. By
     // keeping these separate, we are able to guarantee that FlowFiles are swapped in in the same order
     // that they are swapped out.
-    // Guarded by lock.
-    private PriorityQueue<FlowFileRecord> activeQueue;
+    // Guarded by lock. When in FIFO mode, the active queue is a ConcurrentFifoQueue, and FlowFiles may be added to and
+    // polled from it while holding only the read lock. Anything else that modifies the active queue, including any change
+    // to the swap queue or swap mode, requires the write lock.
+    private Queue<FlowFileRecord> activeQueue;
     private ArrayList<FlowFileRecord> swapQueue;
     private boolean swapMode = false;
+    private volatile boolean fifoMode;
 
     public SwappablePriorityQueue(final FlowFileSwapManager swapManager, final int swapThreshold, final EventReporter eventReporter, final FlowFileQueue flowFileQueue,
         final DropFlowFileAction dropAction, final String swapPartitionName) {
+        this(swapManager, swapThreshold, eventReporter, flowFileQueue, dropAction, swapPartitionName, false);
+    }
+
+    /**
+     * @param concurrentFifoEnabled whether or not to use a {@link ConcurrentFifoQueue} for the active queue whenever the configured prioritizers
+     * order FlowFiles only by the order in which they were queued, which allows FlowFiles to be added and polled concurrently
+     */
+    public SwappablePriorityQueue(final FlowFileSwapManager swapManager, final int swapThreshold, final EventReporter eventReporter, final FlowFileQueue flowFileQueue,
+        final DropFlowFileAction dropAction, final String swapPartitionName, final boolean concurrentFifoEnabled) {
         this.swapManager = swapManager;
         this.swapThreshold = swapThreshold;
+        this.concurrentFifoEnabled = concurrentFifoEnabled;
 
-        this.activeQueue = new PriorityQueue<>(20, new QueuePrioritizer(Collections.emptyList()));
+        this.fifoMode = concurrentFifoEnabled;
+        this.activeQueue = createActiveQueue(Collections.emptyList(), 20);
         this.swapQueue = new ArrayList<>();
         this.eventReporter = eventReporter;
         this.flowFileQueue = flowFileQueue;
@@ -119,7 +134,8 @@ public class SwappablePriorityQueue {
             priorities.clear();
             priorities.addAll(newPriorities);
 
-            final PriorityQueue<FlowFileRecord> newQueue = new PriorityQueue<>(Math.max(20, activeQueue.size()), new QueuePrioritizer(newPriorities));
+            fifoMode = concurrentFifoEnabled && ConcurrentFifoQueue.isFifoOnly(newPriorities);
+            final Queue<FlowFileRecord> newQueue = createActiveQueue(newPriorities, Math.max(20, activeQueue.size()));
             newQueue.addAll(activeQueue);
             activeQueue = newQueue;
         } finally {
@@ -128,6 +144,28 @@ public class SwappablePriorityQueue {
     }
 
 
+    private Queue<FlowFileRecord> createActiveQueue(final List<FlowFilePrioritizer> prioritizers, final int initialCapacity) {
+        if (fifoMode) {
+            return new ConcurrentFifoQueue();
+        }
+        if (BucketedPriorityQueue.isSupported(prioritizers)) {
+            return new BucketedPriorityQueue(prioritizers);
+        }
+
+        return new PriorityQueue<>(initialCapacity, new QueuePrioritizer(prioritizers));
+    }
+
+    /**
+     * Creates a temporary queue that holds the given FlowFiles in priority order. This method MUST be called with the write lock held.
+     */
+    private Queue<FlowFileRecord> createSortedQueue(final Collection<FlowFileRecord> flowFiles) {
+        final List<FlowFilePrioritizer> prioritizers = getPriorities();
+        final Queue<FlowFileRecord> sortedQueue = BucketedPriorityQueue.isSupported(prioritizers)
+            ? new BucketedPriorityQueue(prioritizers) : new PriorityQueue<>(Math.max(1, flowFiles.size()), new QueuePrioritizer(prioritizers));
+        sortedQueue.addAll(flowFiles);
+        return sortedQueue;
+    }
+
     public LocalQueuePartitionDiagnostics getQueueDiagnostics() {
         readLock.lock();
         try {
@@ -178,8 +216,7 @@ public class SwappablePriorityQueue {
         // whatever data we don't write out to a swap file (because there isn't enough to fill a swap file) will be added back to the swap queue.
         // Since the swap queue cannot be processed until all swap files, we want to ensure that only the lowest priority data goes back onto it. Which means
         // that we must swap out the highest priority data that is currently on the swap queue.
-        final PriorityQueue<FlowFileRecord> tempQueue = new PriorityQueue<>(swapQueue.size(), new QueuePrioritizer(getPriorities()));
-        tempQueue.addAll(swapQueue);
+        final Queue<FlowFileRecord> tempQueue = createSortedQueue(swapQueue);
 
         long bytesSwappedOut = 0L;
         int flowFilesSwappedOut = 0;
@@ -282,6 +319,7 @@ public class SwappablePriorityQueue {
         // Swap Queue to the Active Queue. However, we don't do this if there are FlowFiles already swapped out
         // to disk, because we want them to be swapped back in in the same order that they were swapped out.
         if (!activeQueue.isEmpty()) {
+            prefetchSwapFileIfNecessary();
             return;
         }
 
@@ -309,8 +347,7 @@ public class SwappablePriorityQueue {
         }
 
         // Swap Queue is not currently ordered. We want to migrate the highest priority FlowFiles to the Active Queue, then re-queue the lowest priority items.
-        final PriorityQueue<FlowFileRecord> tempQueue = new PriorityQueue<>(swapQueue.size(), new QueuePrioritizer(getPriorities()));
-        tempQueue.addAll(swapQueue);
+        final Queue<FlowFileRecord> tempQueue = createSortedQueue(swapQueue);
 
         int recordsMigrated = 0;
         long bytesMigrated = 0L;
@@ -342,6 +379,18 @@ public class SwappablePriorityQueue {
         }
     }
 
+    /**
+     * Once the active queue has been drained to half of the swap threshold, asks the Swap Manager to begin reading the next swap file,
+     * so that it is likely to have been read by the time that the active queue is empty and the FlowFiles are swapped in.
+     *
+     * This method MUST be called with the write lock held or, if in FIFO mode, with the read lock held
+     */
+    private void prefetchSwapFileIfNecessary() {
+        if (!swapLocations.isEmpty() && activeQueue.size() <= swapThreshold / 2) {
+            swapManager.prefetch(swapLocations.get(0), flowFileQueue);
+        }
+    }
+
     private void swapIn() {
         final String swapLocation = swapLocations.get(0);
         boolean partialContents = false;
@@ -405,7 +454,15 @@ public class SwappablePriorityQueue {
             logger.debug("Successfully swapped in Swap File {} containing {} FlowFiles ({} bytes)", swapLocation, flowFileCount, contentSize);
         }
 
-        activeQueue.addAll(swapContents.getFlowFiles());
+        if (!(activeQueue instanceof PriorityQueue)) {
+            // Swap files are not written in priority order, and only the PriorityQueue sorts what is added to it. The others order
+            // FlowFiles with equal priority by the order in which they are added.
+            final List<FlowFileRecord> swappedIn = new ArrayList<>(swapContents.getFlowFiles());
+            swappedIn.sort(new QueuePrioritizer(getPriorities()));
+            activeQueue.addAll(swappedIn);
+        } else {
+            activeQueue.addAll(swapContents.getFlowFiles());
+        }
     }
 
     public QueueSize size() {
@@ -461,6 +518,10 @@ public class SwappablePriorityQueue {
 
 
     public void put(final FlowFileRecord flowFile) {
+        if (fifoMode && putConcurrently(flowFile)) {
+            return;
+        }
+
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold) {
@@ -479,6 +540,33 @@ public class SwappablePriorityQueue {
         }
     }
 
+    /**
+     * Adds the given FlowFile to the active queue while holding only the read lock, if in FIFO mode and the FlowFile does not need to go
+     * to the swap queue. Because other threads may be adding FlowFiles at the same time, the active queue may exceed the swap threshold
+     * by up to the number of concurrent threads.
+     *
+     * @return <code>true</code> if the FlowFile was added, <code>false</code> if it must be added while holding the write lock
+     */
+    private boolean putConcurrently(final FlowFileRecord flowFile) {
+        readLock.lock();
+        try {
+            if (!fifoMode || swapMode || activeQueue.size() >= swapThreshold) {
+                return false;
+            }
+
+            incrementActiveQueueSize(1, flowFile.getSize());
+            activeQueue.add(flowFile);
+            logger.trace("{} put to {}", flowFile, this);
+            return true;
+        } finally {
+            readLock.unlock("put(FlowFileRecord)");
+        }
+    }
+
+    /**
+     * Adds all of the given FlowFiles to the queue while acquiring the lock only once and updating the size of the queue only once,
+     * so callers that have many FlowFiles to enqueue should prefer this method to calling {@link #put(FlowFileRecord)} for each of them.
+     */
     public void putAll(final Collection<FlowFileRecord> flowFiles) {
         final int numFiles = flowFiles.size();
         long bytes = 0L;
@@ -486,6 +574,20 @@ public class SwappablePriorityQueue {
             bytes += flowFile.getSize();
         }
 
+        if (fifoMode) {
+            readLock.lock();
+            try {
+                if (fifoMode && !swapMode && activeQueue.size() < swapThreshold - numFiles) {
+                    incrementActiveQueueSize(numFiles, bytes);
+                    activeQueue.addAll(flowFiles);
+                    logger.trace("{} put to {}", flowFiles, this);
+                    return;
+                }
+            } finally {
+                readLock.unlock("putAll");
+            }
+        }
+
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold - numFiles) {
@@ -507,7 +609,26 @@ public class SwappablePriorityQueue {
     public FlowFileRecord poll(final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         FlowFileRecord flowFile;
 
-        // First check if we have any records Pre-Fetched.
+        // In FIFO mode, poll while holding only the read lock unless the active queue is empty, in which case FlowFiles may need
+        // to be migrated from the swap queue or swapped in.
+        if (fifoMode) {
+            readLock.lock();
+            try {
+                if (fifoMode && !activeQueue.isEmpty()) {
+                    flowFile = pollActiveQueue(expiredRecords, expirationMillis);
+                    prefetchSwapFileIfNecessary();
+                    if (flowFile != null) {
+                        logger.trace("{} poll() returning {}", this, flowFile);
+                        incrementUnacknowledgedQueueSize(1, flowFile.getSize());
+                    }
+
+                    return flowFile;
+                }
+            } finally {
+                readLock.unlock("poll(Set)");
+            }
+        }
+
         writeLock.lock();
         try {
             flowFile = doPoll(expiredRecords, expirationMillis);
@@ -525,11 +646,17 @@ public class SwappablePriorityQueue {
 
 
     private FlowFileRecord doPoll(final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
+        migrateSwapToActive();
+        return pollActiveQueue(expiredRecords, expirationMillis);
+    }
+
+    /**
+     * This method MUST be called with the write lock held or, if in FIFO mode, with the read lock held
+     */
+    private FlowFileRecord pollActiveQueue(final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         FlowFileRecord flowFile;
         boolean isExpired;
 
-        migrateSwapToActive();
-
         long expiredBytes = 0L;
         do {
             flowFile = this.activeQueue.poll();
@@ -561,10 +688,33 @@ public class SwappablePriorityQueue {
         return flowFile;
     }
 
+    /**
+     * Drains up to <code>maxResults</code> of the highest priority FlowFiles from the queue while acquiring the lock only once and
+     * updating the size of the queue only once.
+     */
     public List<FlowFileRecord> poll(int maxResults, final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
-        final List<FlowFileRecord> records = new ArrayList<>(Math.min(1, maxResults));
+        // The size of the active queue is read without the lock, so it is only a hint and is clamped to a valid capacity, but it avoids
+        // allocating a large list when few FlowFiles are queued.
+        final List<FlowFileRecord> records = new ArrayList<>(Math.max(0, Math.min(maxResults, activeQueue.size())));
+
+        if (fifoMode) {
+            readLock.lock();
+            try {
+                if (fifoMode && !activeQueue.isEmpty()) {
+                    drainActiveQueue(records, maxResults, expiredRecords, expirationMillis);
+                    prefetchSwapFileIfNecessary();
+
+                    if (!records.isEmpty()) {
+                        logger.trace("{} poll() returning {}", this, records);
+                    }
+
+                    return records;
+                }
+            } finally {
+                readLock.unlock("poll(int, Set)");
+            }
+        }
 
-        // First check if we have any records Pre-Fetched.
         writeLock.lock();
         try {
             doPoll(records, maxResults, expiredRecords, expirationMillis);
@@ -582,6 +732,7 @@ public class SwappablePriorityQueue {
     public List<FlowFileRecord> poll(final FlowFileFilter filter, final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         long bytesPulled = 0L;
         int flowFilesPulled = 0;
+        long bytesSelected = 0L;
 
         writeLock.lock();
         try {
@@ -617,7 +768,7 @@ public class SwappablePriorityQueue {
                     bytesPulled += flowFile.getSize();
                     flowFilesPulled++;
 
-                    incrementUnacknowledgedQueueSize(1, flowFile.getSize());
+                    bytesSelected += flowFile.getSize();
                     selectedFlowFiles.add(flowFile);
                 } else {
                     unselected.add(flowFile);
@@ -628,7 +779,19 @@ public class SwappablePriorityQueue {
                 }
             }
 
-            this.activeQueue.addAll(unselected);
+            // Return the unselected FlowFiles to the head of the queue so that they keep their place ahead of the FlowFiles that follow them.
+            if (activeQueue instanceof ConcurrentFifoQueue) {
+                ((ConcurrentFifoQueue) activeQueue).offerFirst(unselected);
+            } else if (activeQueue instanceof BucketedPriorityQueue) {
+                ((BucketedPriorityQueue) activeQueue).offerFirst(unselected);
+            } else {
+                this.activeQueue.addAll(unselected);
+            }
+            // Account for the selected FlowFiles as unacknowledged before removing them from the active queue's size, so that the queue
+            // never appears to be empty while they are in flight.
+            if (!selectedFlowFiles.isEmpty()) {
+                incrementUnacknowledgedQueueSize(selectedFlowFiles.size(), bytesSelected);
+            }
             incrementActiveQueueSize(-flowFilesPulled, -bytesPulled);
 
             if (!selectedFlowFiles.isEmpty()) {
@@ -643,7 +806,13 @@ public class SwappablePriorityQueue {
 
     private void doPoll(final List<FlowFileRecord> records, int maxResults, final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         migrateSwapToActive();
+        drainActiveQueue(records, maxResults, expiredRecords, expirationMillis);
+    }
 
+    /**
+     * This method MUST be called with the write lock held or, if in FIFO mode, with the read lock held
+     */
+    private void drainActiveQueue(final List<FlowFileRecord> records, int maxResults, final Set<FlowFileRecord> expiredRecords, final long expirationMillis) {
         final long bytesDrained = drainQueue(activeQueue, records, maxResults, expiredRecords, expirationMillis);
 
         long expiredBytes = 0L;
@@ -32,6 +32,7 @@ import org.apache.nifi.provenance.ProvenanceReporter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
@@ -250,6 +251,11 @@ public class BatchingSessionFactory implements ProcessSessionFactory {
             session.exportTo(flowFile, destination);
         }
 
+        @Override
+        public void exportTo(FlowFile flowFile, WritableByteChannel destination) {
+            session.exportTo(flowFile, destination);
+        }
+
         @Override
         public ProvenanceReporter getProvenanceReporter() {
             return session.getProvenanceReporter();
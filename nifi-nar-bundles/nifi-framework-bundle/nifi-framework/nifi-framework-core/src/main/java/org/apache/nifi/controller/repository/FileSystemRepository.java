@@ -43,6 +43,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
@@ -123,6 +126,7 @@ public class FileSystemRepository implements ContentRepository {
     private final Map<String, Long> minUsableContainerBytesForArchive = new HashMap<>();
     private final boolean alwaysSync;
     private final ScheduledExecutorService containerCleanupExecutor;
+    private final MappedResourceClaimCache mappedClaimCache; // null if mapped reads are disabled
 
     private ResourceClaimManager resourceClaimManager; // effectively final
 
@@ -145,6 +149,7 @@ public class FileSystemRepository implements ContentRepository {
         maxArchiveMillis = 0;
         alwaysSync = false;
         containerCleanupExecutor = null;
+        mappedClaimCache = null;
         nifiProperties = null;
         maxAppendableClaimLength = 0;
         maxFlowFilesPerClaim = 0;
@@ -249,6 +254,15 @@ public class FileSystemRepository implements ContentRepository {
 
         this.alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty("nifi.content.repository.always.sync"));
         LOG.info("Initializing FileSystemRepository with 'Always Sync' set to {}", alwaysSync);
+
+        if (nifiProperties.isContentRepositoryMappedReadEnabled()) {
+            final long maxMappedBytes = DataUnit.parseDataSize(nifiProperties.getContentRepositoryMappedReadMaxSize(), DataUnit.B).longValue();
+            this.mappedClaimCache = new MappedResourceClaimCache(maxMappedBytes, maxMappedBytes / 16);
+            LOG.info("Content Claims will be read through memory-mapped files, mapping at most {} bytes at a time", maxMappedBytes);
+        } else {
+            this.mappedClaimCache = null;
+        }
+
         initializeRepository();
 
         containerCleanupExecutor = new FlowEngine(containers.size(), "Cleanup FileSystemRepository Container", true);
@@ -293,6 +307,10 @@ public class FileSystemRepository implements ContentRepository {
             } catch (final IOException ioe) {
             }
         }
+
+        if (mappedClaimCache != null) {
+            mappedClaimCache.clear();
+        }
     }
 
     private static double getRatio(final String value) {
@@ -690,6 +708,10 @@ public class FileSystemRepository implements ContentRepository {
         } catch (final ContentNotFoundException cnfe) {
         }
 
+        if (mappedClaimCache != null) {
+            mappedClaimCache.evict(claim);
+        }
+
         // Ensure that we have no writable claim streams for this resource claim
         final ByteCountingOutputStream bcos = writableClaimStreams.remove(claim);
 
@@ -860,6 +882,53 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    @Override
+    public long exportTo(final ContentClaim claim, final WritableByteChannel destination, final long offset, final long length) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset cannot be negative");
+        }
+        if (claim == null) {
+            if (offset > 0) {
+                throw new IllegalArgumentException("Cannot specify an offset of " + offset + " for a null claim");
+            }
+            return 0L;
+        }
+        if (destination instanceof SelectableChannel && !((SelectableChannel) destination).isBlocking()) {
+            throw new IllegalArgumentException("Cannot export content to " + destination + " because the channel is not in blocking mode");
+        }
+
+        final long claimSize = size(claim);
+        if (offset > claimSize) {
+            throw new IllegalArgumentException("offset of " + offset + " exceeds claim size of " + claimSize);
+        }
+
+        // Transfer directly from the file to the destination so that the operating system can avoid copying the content
+        // into user space (e.g., by using sendfile when the destination is a socket).
+        final long bytesToCopy = Math.min(length, claimSize - offset);
+        final Path path = getPath(claim, true);
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long start = claim.getOffset() + offset;
+            long copied = 0L;
+            while (copied < bytesToCopy) {
+                final long transferred = fileChannel.transferTo(start + copied, bytesToCopy - copied, destination);
+                if (transferred <= 0) {
+                    if (start + copied >= fileChannel.size()) {
+                        throw new ContentNotFoundException(claim, "Content Claim has an offset of " + claim.getOffset() + " and a length of " + claimSize
+                            + " but Resource Claim " + path + " is only " + fileChannel.size() + " bytes");
+                    }
+
+                    // A blocking channel accepts at least one byte per transfer, so retrying would only spin
+                    throw new IOException("Failed to export " + claim + " to " + destination + " because the channel accepted no bytes after " + copied + " of "
+                        + bytesToCopy + " bytes were written");
+                }
+
+                copied += transferred;
+            }
+
+            return copied;
+        }
+    }
+
     @Override
     public long size(final ContentClaim claim) throws IOException {
         if (claim == null) {
@@ -880,6 +949,15 @@ public class FileSystemRepository implements ContentRepository {
             return new ByteArrayInputStream(new byte[0]);
         }
         final Path path = getPath(claim, true);
+
+        // A Resource Claim that is no longer writable will not grow, so its file can be mapped and shared by all of its Content Claims.
+        if (mappedClaimCache != null && claim.getLength() >= 0 && !claim.getResourceClaim().isWritable()) {
+            final InputStream mappedIn = mappedClaimCache.read(claim.getResourceClaim(), path, claim.getOffset(), claim.getLength());
+            if (mappedIn != null) {
+                return mappedIn;
+            }
+        }
+
         final FileInputStream fis = new FileInputStream(path.toFile());
         if (claim.getOffset() > 0L) {
             try {
@@ -1062,6 +1140,11 @@ public class FileSystemRepository implements ContentRepository {
         return Files.exists(getArchivePath(contentClaim.getResourceClaim()));
     }
 
+    // visible for testing
+    MappedResourceClaimCache getMappedClaimCache() {
+        return mappedClaimCache;
+    }
+
     // visible for testing
     boolean archive(final ResourceClaim claim) throws IOException {
         if (!archiveData) {
@@ -1086,6 +1169,10 @@ public class FileSystemRepository implements ContentRepository {
             }
         }
 
+        if (mappedClaimCache != null) {
+            mappedClaimCache.evict(claim);
+        }
+
         final Path curPath = getPath(claim);
         if (curPath == null) {
             return false;
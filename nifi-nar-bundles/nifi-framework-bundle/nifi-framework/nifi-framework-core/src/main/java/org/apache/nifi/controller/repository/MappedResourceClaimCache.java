@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A bounded cache of memory-mapped Resource Claim files. Reading a Content Claim through the cache returns an InputStream that is a view
+ * over the mapped file, so that reading many small Content Claims from the same Resource Claim does not require opening, seeking, and closing
+ * the file for each of them, and the bytes are copied directly from the page cache into the caller's buffer.
+ * </p>
+ *
+ * <p>
+ * Each mapping is reference counted: the cache holds one reference for as long as the mapping is cached, and each InputStream holds one until
+ * it is closed. When the total size of the cached mappings exceeds the configured maximum, the least recently used mappings are evicted, and
+ * mappings are evicted explicitly when their Resource Claim is destroyed or archived. A mapping is unmapped once it has been evicted and all
+ * InputStreams that use it have been closed.
+ * </p>
+ *
+ * <p>
+ * Only Resource Claims that are no longer writable should be read through the cache, as the size of a mapping is fixed when it is created.
+ * </p>
+ */
+class MappedResourceClaimCache {
+    private static final Logger logger = LoggerFactory.getLogger(MappedResourceClaimCache.class);
+    private static final Consumer<ByteBuffer> UNMAPPER = createUnmapper();
+
+    private final long maxMappedBytes;
+    private final long maxMappingSize;
+
+    // guarded by synchronizing on this
+    private final LinkedHashMap<ResourceClaim, Mapping> mappings = new LinkedHashMap<>(64, 0.75f, true);
+    private long mappedBytes = 0L;
+
+    /**
+     * @param maxMappedBytes the maximum total number of bytes that may be mapped by cached mappings
+     * @param maxMappingSize the size of the largest Resource Claim file that will be mapped
+     */
+    MappedResourceClaimCache(final long maxMappedBytes, final long maxMappingSize) {
+        this.maxMappedBytes = maxMappedBytes;
+        this.maxMappingSize = Math.min(maxMappingSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an InputStream over the given range of the given Resource Claim's file, or <code>null</code> if the file cannot be mapped,
+     * either because it is too large or because it does not contain the requested range. In that case the caller should read the file
+     * in the usual way, which will also report any problem with the content.
+     *
+     * @param resourceClaim the Resource Claim
+     * @param path the path of the Resource Claim's file
+     * @param offset the offset into the file of the first byte to read
+     * @param length the number of bytes to read
+     * @return an InputStream over the requested bytes, or <code>null</code> if they cannot be read from a mapping
+     * @throws IOException if unable to map the file
+     */
+    InputStream read(final ResourceClaim resourceClaim, final Path path, final long offset, final long length) throws IOException {
+        final Mapping mapping = acquire(resourceClaim, path, offset + length);
+        if (mapping == null) {
+            return null;
+        }
+
+        return new MappedInputStream(mapping, (int) offset, (int) length);
+    }
+
+    private Mapping acquire(final ResourceClaim resourceClaim, final Path path, final long requiredSize) throws IOException {
+        if (requiredSize > maxMappingSize) {
+            return null;
+        }
+
+        synchronized (this) {
+            final Mapping existing = mappings.get(resourceClaim);
+            if (existing != null && existing.size >= requiredSize) {
+                existing.retain();
+                return existing;
+            }
+        }
+
+        // Map the file without holding the lock, as mapping requires I/O
+        final MappedByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < requiredSize || fileSize > maxMappingSize) {
+                return null;
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+
+        final Mapping created = new Mapping(resourceClaim, buffer);
+        final List<Mapping> evicted = new ArrayList<>();
+        final Mapping acquired;
+
+        synchronized (this) {
+            final Mapping existing = mappings.get(resourceClaim);
+            if (existing != null && existing.size >= requiredSize) {
+                // Another thread mapped the same file in the meantime
+                existing.retain();
+                acquired = existing;
+                evicted.add(created);
+            } else {
+                if (existing != null) {
+                    mappings.remove(resourceClaim);
+                    mappedBytes -= existing.size;
+                    evicted.add(existing);
+                }
+
+                mappings.put(resourceClaim, created);
+                mappedBytes += created.size;
+                created.retain();
+                acquired = created;
+
+                final Iterator<Mapping> itr = mappings.values().iterator();
+                while (mappedBytes > maxMappedBytes && itr.hasNext()) {
+                    final Mapping eldest = itr.next();
+                    if (eldest == created) {
+                        continue;
+                    }
+
+                    itr.remove();
+                    mappedBytes -= eldest.size;
+                    evicted.add(eldest);
+                }
+            }
+        }
+
+        evicted.forEach(Mapping::release);
+        return acquired;
+    }
+
+    /**
+     * Removes the mapping for the given Resource Claim, if there is one. The mapping is unmapped once all InputStreams that use it are closed.
+     *
+     * @param resourceClaim the Resource Claim that is being destroyed or archived
+     */
+    void evict(final ResourceClaim resourceClaim) {
+        final Mapping mapping;
+        synchronized (this) {
+            mapping = mappings.remove(resourceClaim);
+            if (mapping != null) {
+                mappedBytes -= mapping.size;
+            }
+        }
+
+        if (mapping != null) {
+            mapping.release();
+        }
+    }
+
+    /**
+     * Removes all mappings from the cache
+     */
+    void clear() {
+        final List<Mapping> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>(mappings.values());
+            mappings.clear();
+            mappedBytes = 0L;
+        }
+
+        evicted.forEach(Mapping::release);
+    }
+
+    synchronized long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    synchronized boolean isMapped(final ResourceClaim resourceClaim) {
+        return mappings.containsKey(resourceClaim);
+    }
+
+
+    private static Consumer<ByteBuffer> createUnmapper() {
+        // Java 9+
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (final Exception e) {
+                    logger.debug("Failed to unmap buffer; it will be unmapped when it is garbage collected", e);
+                }
+            };
+        } catch (final Exception ignored) {
+        }
+
+        // Java 8
+        try {
+            final Class<?> directBufferClass = Class.forName("sun.nio.ch.DirectBuffer");
+            final Method cleaner = directBufferClass.getMethod("cleaner");
+            final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+
+            return buffer -> {
+                try {
+                    final Object bufferCleaner = cleaner.invoke(buffer);
+                    if (bufferCleaner != null) {
+                        clean.invoke(bufferCleaner);
+                    }
+                } catch (final Exception e) {
+                    logger.debug("Failed to unmap buffer; it will be unmapped when it is garbage collected", e);
+                }
+            };
+        } catch (final Exception e) {
+            logger.debug("Unable to unmap buffers explicitly; mapped Resource Claims will be unmapped when they are garbage collected", e);
+            return buffer -> { };
+        }
+    }
+
+
+    private static class Mapping {
+        private final ResourceClaim resourceClaim;
+        private final MappedByteBuffer buffer;
+        private final long size;
+        private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+        Mapping(final ResourceClaim resourceClaim, final MappedByteBuffer buffer) {
+            this.resourceClaim = resourceClaim;
+            this.buffer = buffer;
+            this.size = buffer.capacity();
+        }
+
+        void retain() {
+            referenceCount.incrementAndGet();
+        }
+
+        void release() {
+            if (referenceCount.decrementAndGet() == 0) {
+                logger.debug("Unmapping {}", resourceClaim);
+                UNMAPPER.accept(buffer);
+            }
+        }
+
+        /**
+         * @return a view of the given range of the mapped file, which is independent of any other view
+         */
+        ByteBuffer view(final int offset, final int length) {
+            final ByteBuffer view = buffer.duplicate();
+            view.limit(offset + length);
+            view.position(offset);
+            return view;
+        }
+    }
+
+
+    /**
+     * <p>
+     * An InputStream over a range of a mapped file. Once closed, reading from the stream fails rather than accessing memory that may have been unmapped.
+     * </p>
+     *
+     * <p>
+     * The stream may be closed by a thread other than the one that is reading from it, such as when a task is terminated. The stream therefore
+     * counts the threads that are reading from the mapping, along with one count for the stream being open, and releases its reference to the
+     * mapping only once that count drops to zero, so that the mapping is never unmapped while a read from it is in progress.
+     * </p>
+     */
+    private static class MappedInputStream extends InputStream {
+        private final Mapping mapping;
+        private final ByteBuffer view;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final AtomicInteger users = new AtomicInteger(1);
+        private int markPosition;
+
+        MappedInputStream(final Mapping mapping, final int offset, final int length) {
+            this.mapping = mapping;
+            this.view = mapping.view(offset, length);
+            this.markPosition = offset;
+        }
+
+        /**
+         * Registers the calling thread as using the mapping. Each successful call must be followed by a call to {@link #exit()}.
+         */
+        private ByteBuffer enter() throws IOException {
+            int current;
+            do {
+                current = users.get();
+                if (current == 0) {
+                    throw new IOException("Stream is closed");
+                }
+            } while (!users.compareAndSet(current, current + 1));
+
+            // The stream may have been closed after the count was checked; the mapping is still retained, but the stream must not be read.
+            if (closed.get()) {
+                exit();
+                throw new IOException("Stream is closed");
+            }
+
+            return view;
+        }
+
+        private void exit() {
+            if (users.decrementAndGet() == 0) {
+                mapping.release();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final ByteBuffer buffer = enter();
+            try {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+
+                return buffer.get() & 0xFF;
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final ByteBuffer buffer = enter();
+            try {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+
+                final int bytesToRead = Math.min(len, buffer.remaining());
+                buffer.get(b, off, bytesToRead);
+                return bytesToRead;
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final ByteBuffer buffer = enter();
+            try {
+                if (n <= 0) {
+                    return 0L;
+                }
+
+                final int bytesToSkip = (int) Math.min(n, buffer.remaining());
+                buffer.position(buffer.position() + bytesToSkip);
+                return bytesToSkip;
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public int available() throws IOException {
+            final ByteBuffer buffer = enter();
+            try {
+                return buffer.remaining();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readlimit) {
+            if (!closed.get()) {
+                markPosition = view.position();
+            }
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            final ByteBuffer buffer = enter();
+            try {
+                buffer.position(markPosition);
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void close() {
+            // Only the first call to close() gives up the stream's count, so the mapping is released exactly once
+            if (closed.compareAndSet(false, true)) {
+                exit();
+            }
+        }
+    }
+}
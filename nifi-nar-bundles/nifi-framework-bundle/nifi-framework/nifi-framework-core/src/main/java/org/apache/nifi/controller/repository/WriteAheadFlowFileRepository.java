@@ -244,7 +244,19 @@ public class WriteAheadFlowFileRepository implements FlowFileRepository, SyncLis
         // The specified implementation can be plaintext or encrypted; the only difference is the serde factory
         if (isSequentialAccessWAL(walImplementation)) {
             // TODO: May need to instantiate ESAWAL for clarity?
-            wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this);
+            final boolean groupCommit = alwaysSync && nifiProperties.isFlowFileRepositoryGroupCommitEnabled();
+            long groupCommitWindowNanos = 0L;
+            if (groupCommit) {
+                groupCommitWindowNanos = Math.round(FormatUtils.getPreciseTimeDuration(nifiProperties.getFlowFileRepositoryGroupCommitWindow(), TimeUnit.NANOSECONDS));
+                logger.info("FlowFile Repository will group concurrent updates into a single sync, waiting up to {} nanos for each group", groupCommitWindowNanos);
+            }
+
+            final boolean incrementalCheckpoint = nifiProperties.isFlowFileRepositoryCheckpointIncremental();
+            if (incrementalCheckpoint) {
+                logger.info("FlowFile Repository will checkpoint incrementally, writing only the partitions of the snapshot that have changed");
+            }
+
+            wal = new SequentialAccessWriteAheadLog<>(flowFileRepositoryPaths.get(0), serdeFactory, this, groupCommit, groupCommitWindowNanos, incrementalCheckpoint);
         } else if (walImplementation.equals(MINIMAL_LOCKING_WALI)) {
             final SortedSet<Path> paths = flowFileRepositoryPaths.stream()
                     .map(File::toPath)
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.security.KeyManagementException;
 import javax.crypto.CipherOutputStream;
@@ -124,6 +126,24 @@ public class EncryptedFileSystemRepository extends FileSystemRepository {
         return super.exportTo(claim, destination, offset, length);
     }
 
+    /**
+     * Exports a subset of the content of the given claim, starting at offset
+     * and copying length bytes, to the given channel. Returns the number of bytes written. The content cannot be transferred
+     * directly from the file to the channel, because it must be decrypted, so it is copied through
+     * {@link #exportTo(ContentClaim, OutputStream, long, long)}. <strong>This method decrypts the encrypted content and writes it in plaintext.</strong>
+     *
+     * @param claim       to export from
+     * @param destination the channel to write the data to
+     * @param offset      the offset into the claim at which the copy should begin
+     * @param length      the number of bytes to copy
+     * @return the number of bytes copied
+     * @throws IOException if an IO error occurs
+     */
+    @Override
+    public long exportTo(final ContentClaim claim, final WritableByteChannel destination, final long offset, final long length) throws IOException {
+        return exportTo(claim, Channels.newOutputStream(destination), offset, length);
+    }
+
     /**
      * Exports the content of the given claim to the given destination. Returns the number of bytes written. <strong>This method decrypts the encrypted content and writes it in plaintext.</strong>
      *
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+/**
+ * Tracks how long a scheduled task waits for a thread once it is due to run. A task that waits for long periods of time indicates that
+ * the Thread Pool that it runs in is saturated.
+ */
+class TaskWaitTracker {
+    private volatile long expectedStartNanos = System.nanoTime();
+
+    /**
+     * Indicates that the task is due to run again after the given delay, measured from now
+     *
+     * @param delayNanos the number of nanoseconds until the task is due to run
+     */
+    void expectStartAfter(final long delayNanos) {
+        expectedStartNanos = System.nanoTime() + delayNanos;
+    }
+
+    /**
+     * @return the number of nanoseconds that have elapsed since the task was due to run, or <code>0</code> if it is not yet due
+     */
+    long getWaitNanos() {
+        return Math.max(0L, System.nanoTime() - expectedStartNanos);
+    }
+}
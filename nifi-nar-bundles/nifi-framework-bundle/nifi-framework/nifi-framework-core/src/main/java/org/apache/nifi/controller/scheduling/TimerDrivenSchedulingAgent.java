@@ -18,23 +18,54 @@ package org.apache.nifi.controller.scheduling;
 
 import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.ProcessorNode;
 import org.apache.nifi.controller.ReportingTaskNode;
+import org.apache.nifi.controller.tasks.AdaptiveRunDuration;
 import org.apache.nifi.controller.tasks.ConnectableTask;
 import org.apache.nifi.controller.tasks.InvocationResult;
 import org.apache.nifi.controller.tasks.ReportingTaskWrapper;
 import org.apache.nifi.encrypt.StringEncryptor;
 import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.nar.NarThreadContextClassLoader;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent {
+    // How long an I/O-bound task waits before trying again if all of the I/O threads are busy and their queue is full,
+    // if its scheduling period and the bored yield duration are both shorter than this
+    private static final long IO_SATURATED_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
     private final long noWorkYieldNanos;
+    private final boolean wakeOnQueueEvent;
+    private final long adaptiveRunDurationTargetNanos;
+    private final ConcurrentMap<Connectable, WorkSignal> workSignals = new ConcurrentHashMap<>();
+
+    // Processors that block on I/O are invoked on these threads rather than on the Timer Driven Thread Pool. Each scheduled task has at most
+    // one invocation in flight; once all of the threads are busy, invocations wait in a queue that is as long as the pool is large, and
+    // any beyond that are rejected and retried later by their trigger.
+    private final ExecutorService ioExecutor;
+
+    // Thread Pools that are dedicated to the components of Process Groups that have a Max Timer Driven Thread Count, keyed by Process Group ID.
+    // A group's Thread Pool is shut down and removed once none of the components that run in it are scheduled.
+    private final ConcurrentMap<String, GroupFlowEngine> groupFlowEngines = new ConcurrentHashMap<>();
+
+    // The ID of the Process Group whose Thread Pool each scheduled component runs in
+    private final ConcurrentMap<Connectable, String> scheduledGroupIds = new ConcurrentHashMap<>();
 
     public TimerDrivenSchedulingAgent(final FlowController flowController, final FlowEngine flowEngine, final RepositoryContextFactory contextFactory,
             final StringEncryptor encryptor, final NiFiProperties nifiProperties) {
@@ -46,11 +77,182 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
         } catch (final IllegalArgumentException e) {
             throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_DURATION + " property is set to an invalid time duration: " + boredYieldDuration);
         }
+
+        wakeOnQueueEvent = nifiProperties.isBoredYieldWakeOnQueueEvent();
+        ioExecutor = createIOExecutor(nifiProperties.getIOBoundProcessorMaxThreads());
+
+        if (nifiProperties.isAdaptiveRunDurationEnabled()) {
+            final String targetLatency = nifiProperties.getAdaptiveRunDurationTargetLatency();
+            try {
+                adaptiveRunDurationTargetNanos = FormatUtils.getTimeDuration(targetLatency, TimeUnit.NANOSECONDS);
+            } catch (final IllegalArgumentException e) {
+                throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.ADAPTIVE_RUN_DURATION_TARGET_LATENCY
+                    + " property is set to an invalid time duration: " + targetLatency);
+            }
+        } else {
+            adaptiveRunDurationTargetNanos = 0L;
+        }
+    }
+
+    /**
+     * Creates the AdaptiveRunDuration for the given component if adaptive Run Duration is enabled, the component supports session batching and
+     * its Run Duration has not been configured.
+     *
+     * @return the AdaptiveRunDuration for the component, or <code>null</code> if the component should use its configured Run Duration
+     */
+    AdaptiveRunDuration createAdaptiveRunDuration(final Connectable connectable) {
+        if (adaptiveRunDurationTargetNanos <= 0L || !connectable.isSessionBatchingSupported() || connectable.getRunDuration(TimeUnit.NANOSECONDS) > 0L) {
+            return null;
+        }
+
+        return new AdaptiveRunDuration(adaptiveRunDurationTargetNanos);
     }
 
     @Override
     public void shutdown() {
         flowEngine.shutdown();
+        ioExecutor.shutdown();
+        groupFlowEngines.values().forEach(groupFlowEngine -> groupFlowEngine.getFlowEngine().shutdown());
+    }
+
+    /**
+     * @return the number of threads that are actively running tasks in the Thread Pools dedicated to Process Groups and in the pool of I/O threads.
+     * This does not include the threads of the Timer Driven Thread Pool that is shared by the whole flow.
+     */
+    public int getActiveThreadCount() {
+        int activeThreadCount = ((ThreadPoolExecutor) ioExecutor).getActiveCount();
+        for (final GroupFlowEngine groupFlowEngine : groupFlowEngines.values()) {
+            activeThreadCount += groupFlowEngine.getFlowEngine().getActiveCount();
+        }
+
+        return activeThreadCount;
+    }
+
+    /**
+     * Determines which Thread Pool the given component should run in and records that the component is scheduled to run in it, so that a Thread Pool
+     * dedicated to a Process Group is not shut down while the component is still scheduled. This is the pool dedicated to the nearest Process Group,
+     * starting with the component's own group, that has a Max Timer Driven Thread Count, which is created if necessary; or the Timer Driven Thread Pool
+     * that is shared by the whole flow if there is no such group. Each call must be matched by a call to {@link #releaseFlowEngine(Connectable)}.
+     */
+    private FlowEngine acquireFlowEngine(final Connectable connectable) {
+        final ProcessGroup group = getThreadPoolGroup(connectable);
+        if (group == null) {
+            return flowEngine;
+        }
+
+        final int maxThreadCount = group.getMaxTimerDrivenThreadCount();
+        final GroupFlowEngine groupFlowEngine = groupFlowEngines.compute(group.getIdentifier(), (groupId, existing) -> {
+            final GroupFlowEngine engine = existing == null ? new GroupFlowEngine(groupId, maxThreadCount) : existing;
+            engine.resize(maxThreadCount);
+            engine.scheduledComponents++;
+            return engine;
+        });
+
+        final String previousGroupId = scheduledGroupIds.put(connectable, group.getIdentifier());
+        if (previousGroupId != null) {
+            releaseGroupFlowEngine(previousGroupId);
+        }
+
+        return groupFlowEngine.getFlowEngine();
+    }
+
+    /**
+     * Records that the given component is no longer scheduled. If it was the last scheduled component that runs in the Thread Pool of a Process Group,
+     * such as when all of the group's components have been stopped before the group is removed, that Thread Pool is shut down. Tasks that are running
+     * are allowed to complete.
+     */
+    private void releaseFlowEngine(final Connectable connectable) {
+        final String groupId = scheduledGroupIds.remove(connectable);
+        if (groupId != null) {
+            releaseGroupFlowEngine(groupId);
+        }
+    }
+
+    private void releaseGroupFlowEngine(final String groupId) {
+        groupFlowEngines.computeIfPresent(groupId, (id, engine) -> {
+            if (--engine.scheduledComponents > 0) {
+                return engine;
+            }
+
+            logger.debug("Shutting down the Thread Pool of Process Group {} because none of its components are scheduled", id);
+            engine.getFlowEngine().shutdown();
+            return null;
+        });
+    }
+
+    /**
+     * @return the nearest Process Group, starting with the component's own group, that has a Max Timer Driven Thread Count, or <code>null</code>
+     * if there is no such group
+     */
+    private static ProcessGroup getThreadPoolGroup(final Connectable connectable) {
+        ProcessGroup group = connectable.getProcessGroup();
+        while (group != null) {
+            if (group.getMaxTimerDrivenThreadCount() > 0) {
+                return group;
+            }
+
+            group = group.getParent();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the Thread Pool dedicated to the Process Group with the given ID, or <code>null</code> if none of the group's components are scheduled
+     */
+    FlowEngine getGroupFlowEngine(final String groupId) {
+        final GroupFlowEngine groupFlowEngine = groupFlowEngines.get(groupId);
+        return groupFlowEngine == null ? null : groupFlowEngine.getFlowEngine();
+    }
+
+    /**
+     * The Thread Pool of a Process Group, along with the number of scheduled components that run in it. The count is only accessed while
+     * the pool's entry in the map of group Thread Pools is being computed, so it needs no further synchronization.
+     */
+    private static class GroupFlowEngine {
+        private final FlowEngine flowEngine;
+        private int scheduledComponents = 0;
+
+        GroupFlowEngine(final String groupId, final int maxThreadCount) {
+            flowEngine = new FlowEngine(maxThreadCount, "Timer-Driven Process Group " + groupId, true);
+
+            // Let the threads of an idle group time out rather than keeping them around until the last of its components is stopped.
+            flowEngine.setKeepAliveTime(60L, TimeUnit.SECONDS);
+            flowEngine.allowCoreThreadTimeOut(true);
+        }
+
+        FlowEngine getFlowEngine() {
+            return flowEngine;
+        }
+
+        void resize(final int maxThreadCount) {
+            if (flowEngine.getCorePoolSize() != maxThreadCount) {
+                flowEngine.setCorePoolSize(maxThreadCount);
+            }
+        }
+    }
+
+    private static ExecutorService createIOExecutor(final int maxThreads) {
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+
+        // The core size equals the max size so that a new thread is started, rather than the invocation being queued, until the pool is full.
+        // Invocations that do not fit in the queue are rejected with a RejectedExecutionException (the default policy).
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(maxThreads), runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setName("Timer-Driven I/O Thread-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) {
+            @Override
+            protected void beforeExecute(final Thread thread, final Runnable runnable) {
+                thread.setContextClassLoader(NarThreadContextClassLoader.getInstance());
+                super.beforeExecute(thread, runnable);
+            }
+        };
+
+        // Let the threads time out when there are no I/O-bound Processors running.
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -69,42 +271,95 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
     @Override
     public void doSchedule(final Connectable connectable, final LifecycleState scheduleState) {
         final List<ScheduledFuture<?>> futures = new ArrayList<>();
-        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState, encryptor);
+        final ConnectableTask connectableTask = new ConnectableTask(this, connectable, flowController, contextFactory, scheduleState, encryptor,
+            createAdaptiveRunDuration(connectable));
+        final WorkSignal workSignal = wakeOnQueueEvent ? workSignals.computeIfAbsent(connectable, key -> new WorkSignal()) : null;
+        final boolean ioBound = connectable instanceof ProcessorNode && ((ProcessorNode) connectable).isIOBound();
+        final FlowEngine engine = acquireFlowEngine(connectable);
+
+        // Hold the lock until the Lifecycle State has all of the futures so that a task that is rescheduled before then cannot
+        // have its new future overwritten.
+        synchronized (scheduleState) {
+            for (int i = 0; i < connectable.getMaxConcurrentTasks(); i++) {
+                // Determine the task to run and create it.
+                final AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
 
-        for (int i = 0; i < connectable.getMaxConcurrentTasks(); i++) {
-            // Determine the task to run and create it.
-            final AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
+                final ScheduledFuture<?> future;
+                if (ioBound) {
+                    // Each invocation schedules the next one once it completes, so the task is scheduled to run only once.
+                    final Runnable trigger = createIOBoundTrigger(connectableTask, scheduleState, futureRef, workSignal, engine);
+                    future = engine.schedule(trigger, 0L, TimeUnit.NANOSECONDS);
+                } else {
+                    final Runnable trigger = createTrigger(connectableTask, scheduleState, futureRef, workSignal, engine);
 
-            final Runnable trigger = createTrigger(connectableTask, scheduleState, futureRef);
+                    // Schedule the task to run
+                    future = engine.scheduleWithFixedDelay(trigger, 0L, connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                }
 
-            // Schedule the task to run
-            final ScheduledFuture<?> future = flowEngine.scheduleWithFixedDelay(trigger, 0L,
-                connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                // now that we have the future, set the atomic reference so that if the component is yielded we
+                // are able to then cancel this future.
+                futureRef.set(future);
 
-            // now that we have the future, set the atomic reference so that if the component is yielded we
-            // are able to then cancel this future.
-            futureRef.set(future);
+                // Keep track of the futures so that we can update the ScheduleState.
+                futures.add(future);
+            }
 
-            // Keep track of the futures so that we can update the ScheduleState.
-            futures.add(future);
+            scheduleState.setFutures(futures);
         }
 
-        scheduleState.setFutures(futures);
-        logger.info("Scheduled {} to run with {} threads", connectable, connectable.getMaxConcurrentTasks());
+        if (ioBound) {
+            logger.info("Scheduled {} to run with {} I/O threads", connectable, connectable.getMaxConcurrentTasks());
+        } else if (engine != flowEngine) {
+            logger.info("Scheduled {} to run with {} threads in the Thread Pool of its Process Group", connectable, connectable.getMaxConcurrentTasks());
+        } else {
+            logger.info("Scheduled {} to run with {} threads", connectable, connectable.getMaxConcurrentTasks());
+        }
     }
 
-    private Runnable createTrigger(final ConnectableTask connectableTask, final LifecycleState scheduleState, final AtomicReference<ScheduledFuture<?>> futureRef) {
+    private Runnable createTrigger(final ConnectableTask connectableTask, final LifecycleState scheduleState, final AtomicReference<ScheduledFuture<?>> futureRef,
+                                   final WorkSignal workSignal, final FlowEngine engine) {
         final Connectable connectable = connectableTask.getConnectable();
         final Runnable yieldDetectionRunnable = new Runnable() {
+            // Guards against the task running concurrently with itself, which could otherwise happen if it is woken while it is running
+            private final AtomicBoolean running = new AtomicBoolean(false);
+            private final TaskWaitTracker waitTracker = new TaskWaitTracker();
+            private final Runnable wakeAction = () -> {
+                waitTracker.expectStartAfter(0L);
+                reschedule(this, connectable, scheduleState, futureRef, 0L, engine);
+            };
+
             @Override
             public void run() {
+                if (!running.compareAndSet(false, true)) {
+                    return;
+                }
+
+                try {
+                    invoke();
+                } finally {
+                    running.set(false);
+                }
+            }
+
+            private void invoke() {
+                final long signalCount;
+                if (workSignal == null) {
+                    signalCount = 0L;
+                } else {
+                    workSignal.unpark(wakeAction);
+                    signalCount = workSignal.getSignalCount();
+                }
+
                 // Call the task. It will return a boolean indicating whether or not we should yield
                 // based on a lack of work for to do for the component.
-                final InvocationResult invocationResult = connectableTask.invoke();
+                final InvocationResult invocationResult = connectableTask.invoke(waitTracker.getWaitNanos());
                 if (invocationResult.isYield()) {
                     logger.debug("Yielding {} due to {}", connectable, invocationResult.getYieldExplanation());
                 }
 
+                // Unless the task is rescheduled below, it runs again after the scheduling period.
+                waitTracker.expectStartAfter(connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS));
+
                 // If the component is yielded, cancel its future and re-submit it to run again
                 // after the yield has expired.
                 final long newYieldExpiration = connectable.getYieldExpiration();
@@ -112,54 +367,181 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
                 if (newYieldExpiration > now) {
                     final long yieldMillis = newYieldExpiration - now;
                     final long scheduleMillis = connectable.getSchedulingPeriod(TimeUnit.MILLISECONDS);
-                    final ScheduledFuture<?> scheduledFuture = futureRef.get();
-                    if (scheduledFuture == null) {
+                    final long yieldNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(scheduleMillis), TimeUnit.MILLISECONDS.toNanos(yieldMillis));
+                    if (reschedule(this, connectable, scheduleState, futureRef, yieldNanos, engine)) {
+                        waitTracker.expectStartAfter(yieldNanos);
+                    }
+                } else if (noWorkYieldNanos > 0L && invocationResult.isYield()) {
+                    // Component itself didn't yield but there was no work to do, so the framework will choose
+                    // to yield the component automatically for a short period of time.
+                    // Back pressure is not relieved by data arriving, so only a component that had no work to do waits to be signalled.
+                    if (workSignal == null || invocationResult != InvocationResult.NO_WORK) {
+                        if (reschedule(this, connectable, scheduleState, futureRef, noWorkYieldNanos, engine)) {
+                            waitTracker.expectStartAfter(noWorkYieldNanos);
+                        }
                         return;
                     }
 
-                    // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
-                    // an accurate accounting of which futures are outstanding; we must then also update the futureRef
-                    // so that we can do this again the next time that the component is yielded.
-                    if (scheduledFuture.cancel(false)) {
-                        final long yieldNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(scheduleMillis), TimeUnit.MILLISECONDS.toNanos(yieldMillis));
-
-                        synchronized (scheduleState) {
-                            if (scheduleState.isScheduled()) {
-                                final long schedulingNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
-                                final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, yieldNanos, schedulingNanos, TimeUnit.NANOSECONDS);
+                    // If the component was signalled while it was looking for work, there may now be work to do, so keep running it.
+                    if (workSignal.getSignalCount() != signalCount) {
+                        return;
+                    }
 
-                                scheduleState.replaceFuture(scheduledFuture, newFuture);
-                                futureRef.set(newFuture);
-                            }
-                        }
+                    // Otherwise, park the task until the component is signalled or the bored yield duration elapses, whichever comes first.
+                    if (reschedule(this, connectable, scheduleState, futureRef, noWorkYieldNanos, engine)) {
+                        waitTracker.expectStartAfter(noWorkYieldNanos);
+                        running.set(false);
+                        workSignal.park(wakeAction, signalCount);
                     }
-                } else if (noWorkYieldNanos > 0L && invocationResult.isYield()) {
-                    // Component itself didn't yield but there was no work to do, so the framework will choose
-                    // to yield the component automatically for a short period of time.
-                    final ScheduledFuture<?> scheduledFuture = futureRef.get();
-                    if (scheduledFuture == null) {
+                }
+            }
+        };
+
+        return yieldDetectionRunnable;
+    }
+
+    /**
+     * Creates a trigger for a Processor that blocks on I/O. The trigger runs on the Timer Driven Thread Pool only long enough to hand the
+     * invocation off to the I/O threads. Once the invocation completes, the next one is scheduled after the scheduling period, the yield
+     * duration or the bored yield duration, as appropriate, so that the task never has more than one invocation in flight.
+     */
+    private Runnable createIOBoundTrigger(final ConnectableTask connectableTask, final LifecycleState scheduleState, final AtomicReference<ScheduledFuture<?>> futureRef,
+                                          final WorkSignal workSignal, final FlowEngine engine) {
+        final Connectable connectable = connectableTask.getConnectable();
+        final Runnable ioBoundRunnable = new Runnable() {
+            private final AtomicBoolean running = new AtomicBoolean(false);
+            private final TaskWaitTracker waitTracker = new TaskWaitTracker();
+            private final Runnable wakeAction = () -> {
+                final ScheduledFuture<?> pendingFuture = futureRef.get();
+                if (pendingFuture != null && pendingFuture.cancel(false)) {
+                    waitTracker.expectStartAfter(0L);
+                    scheduleNext(this, scheduleState, futureRef, 0L, engine);
+                }
+            };
+
+            @Override
+            public void run() {
+                if (!running.compareAndSet(false, true)) {
+                    return;
+                }
+
+                try {
+                    final long waitNanos = waitTracker.getWaitNanos();
+                    ioExecutor.execute(() -> invoke(waitNanos));
+                } catch (final RejectedExecutionException ree) {
+                    running.set(false);
+                    if (ioExecutor.isShutdown()) {
+                        logger.debug("Could not invoke {} because the I/O threads are shut down", connectable);
                         return;
                     }
 
-                    // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
-                    // an accurate accounting of which futures are outstanding; we must then also update the futureRef
-                    // so that we can do this again the next time that the component is yielded.
-                    if (scheduledFuture.cancel(false)) {
-                        synchronized (scheduleState) {
-                            if (scheduleState.isScheduled()) {
-                                final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, noWorkYieldNanos,
-                                    connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
-
-                                scheduleState.replaceFuture(scheduledFuture, newFuture);
-                                futureRef.set(newFuture);
-                            }
+                    // All of the I/O threads are busy and their queue is full, so back off and try again rather than dropping the task.
+                    final long retryNanos = Math.max(IO_SATURATED_RETRY_NANOS, Math.max(noWorkYieldNanos, connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS)));
+                    logger.debug("Could not invoke {} because all of the I/O threads are busy; will try again in {} nanos", connectable, retryNanos);
+                    waitTracker.expectStartAfter(retryNanos);
+                    scheduleNext(this, scheduleState, futureRef, retryNanos, engine);
+                }
+            }
+
+            private void invoke(final long waitNanos) {
+                final long signalCount;
+                if (workSignal == null) {
+                    signalCount = 0L;
+                } else {
+                    workSignal.unpark(wakeAction);
+                    signalCount = workSignal.getSignalCount();
+                }
+
+                long nextDelayNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
+                boolean park = false;
+                try {
+                    final InvocationResult invocationResult = connectableTask.invoke(waitNanos);
+                    if (invocationResult.isYield()) {
+                        logger.debug("Yielding {} due to {}", connectable, invocationResult.getYieldExplanation());
+                    }
+
+                    final long newYieldExpiration = connectable.getYieldExpiration();
+                    final long now = System.currentTimeMillis();
+                    if (newYieldExpiration > now) {
+                        nextDelayNanos = Math.max(nextDelayNanos, TimeUnit.MILLISECONDS.toNanos(newYieldExpiration - now));
+                    } else if (noWorkYieldNanos > 0L && invocationResult.isYield()) {
+                        if (workSignal == null || invocationResult != InvocationResult.NO_WORK) {
+                            nextDelayNanos = noWorkYieldNanos;
+                        } else if (workSignal.getSignalCount() == signalCount) {
+                            nextDelayNanos = noWorkYieldNanos;
+                            park = true;
                         }
                     }
+                } catch (final Throwable t) {
+                    logger.error("Uncaught Exception while invoking {}", connectable, t);
+                } finally {
+                    running.set(false);
+                    waitTracker.expectStartAfter(nextDelayNanos);
+                    scheduleNext(this, scheduleState, futureRef, nextDelayNanos, engine);
+                }
+
+                if (park) {
+                    workSignal.park(wakeAction, signalCount);
                 }
             }
         };
 
-        return yieldDetectionRunnable;
+        return ioBoundRunnable;
+    }
+
+    /**
+     * Schedules the next invocation of an I/O-bound task, if the component is still scheduled, and updates the Lifecycle State and the
+     * future reference accordingly.
+     */
+    private void scheduleNext(final Runnable trigger, final LifecycleState scheduleState, final AtomicReference<ScheduledFuture<?>> futureRef,
+                              final long delayNanos, final FlowEngine engine) {
+        synchronized (scheduleState) {
+            if (scheduleState.isScheduled() && !engine.isShutdown()) {
+                try {
+                    final ScheduledFuture<?> newFuture = engine.schedule(trigger, delayNanos, TimeUnit.NANOSECONDS);
+                    final ScheduledFuture<?> previousFuture = futureRef.getAndSet(newFuture);
+                    scheduleState.replaceFuture(previousFuture, newFuture);
+                } catch (final RejectedExecutionException ree) {
+                    // The Thread Pool of the component's Process Group was shut down because the component was unscheduled
+                    logger.debug("Did not schedule the next invocation of a task because its Thread Pool is shut down");
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the current future of a task and, if the component is still scheduled, submits the task to run again after the given delay.
+     * The Lifecycle State and the future reference are updated so that they have an accurate accounting of which futures are outstanding,
+     * which allows us to do this again the next time that the task needs to be rescheduled.
+     *
+     * @return <code>true</code> if the current future was cancelled, <code>false</code> if it could not be cancelled
+     */
+    private boolean reschedule(final Runnable trigger, final Connectable connectable, final LifecycleState scheduleState,
+                               final AtomicReference<ScheduledFuture<?>> futureRef, final long initialDelayNanos, final FlowEngine engine) {
+        final ScheduledFuture<?> scheduledFuture = futureRef.get();
+        if (scheduledFuture == null) {
+            return false;
+        }
+
+        if (!scheduledFuture.cancel(false)) {
+            return false;
+        }
+
+        synchronized (scheduleState) {
+            if (scheduleState.isScheduled() && !engine.isShutdown()) {
+                final long schedulingNanos = connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS);
+                try {
+                    final ScheduledFuture<?> newFuture = engine.scheduleWithFixedDelay(trigger, initialDelayNanos, schedulingNanos, TimeUnit.NANOSECONDS);
+                    scheduleState.replaceFuture(scheduledFuture, newFuture);
+                    futureRef.set(newFuture);
+                } catch (final RejectedExecutionException ree) {
+                    // The Thread Pool of the component's Process Group was shut down because the component was unscheduled
+                    logger.debug("Did not reschedule {} because its Thread Pool is shut down", connectable);
+                }
+            }
+        }
+
+        return true;
     }
 
     @Override
@@ -169,6 +551,8 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
             future.cancel(false);
         }
 
+        workSignals.remove(connectable);
+        releaseFlowEngine(connectable);
         logger.info("Stopped scheduling {} to run", connectable);
     }
 
@@ -184,6 +568,12 @@ public class TimerDrivenSchedulingAgent extends AbstractTimeBasedSchedulingAgent
 
     @Override
     public void onEvent(final Connectable connectable) {
+        // A FlowFile was added to one of the component's incoming connections, so wake any of its tasks that are parked because
+        // there was no work to do.
+        final WorkSignal workSignal = workSignals.get(connectable);
+        if (workSignal != null) {
+            workSignal.signal();
+        }
     }
 
     @Override
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Signals that there may be work for a component, such as when a FlowFile is added to one of its incoming connections. Tasks for the
+ * component that found no work to do may park on the signal and are woken when it is next signalled.
+ * </p>
+ *
+ * <p>
+ * To ensure that no signal is missed, a task obtains the {@link #getSignalCount() signal count} before looking for work and provides it when parking.
+ * If the component has been signalled in the meantime, the task is woken immediately.
+ * </p>
+ */
+class WorkSignal {
+    private final AtomicLong signalCount = new AtomicLong(0L);
+    private final Set<Runnable> parked = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return the number of times that the component has been signalled
+     */
+    long getSignalCount() {
+        return signalCount.get();
+    }
+
+    /**
+     * Signals that there may be work to do, waking all parked tasks
+     */
+    void signal() {
+        signalCount.incrementAndGet();
+        if (parked.isEmpty()) {
+            return;
+        }
+
+        for (final Runnable wakeAction : parked) {
+            // Only the thread that removes the wake action may run it, so that each parked task is woken only once.
+            if (parked.remove(wakeAction)) {
+                wakeAction.run();
+            }
+        }
+    }
+
+    /**
+     * Parks a task until the component is next signalled, at which point the given wake action is run.
+     *
+     * @param wakeAction the action that wakes the task
+     * @param observedSignalCount the signal count that was obtained before the task looked for work
+     * @return <code>true</code> if the task was parked, <code>false</code> if the component was signalled since the count was obtained, in which
+     * case the wake action has already been run
+     */
+    boolean park(final Runnable wakeAction, final long observedSignalCount) {
+        parked.add(wakeAction);
+
+        // If the component was signalled before the wake action was added, the signalling thread may not have seen it.
+        if (signalCount.get() != observedSignalCount && parked.remove(wakeAction)) {
+            wakeAction.run();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the given wake action without running it, such as when the task's timer fires before the component is signalled
+     *
+     * @param wakeAction the wake action to remove
+     */
+    void unpark(final Runnable wakeAction) {
+        parked.remove(wakeAction);
+    }
+
+    int getParkedCount() {
+        return parked.size();
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.nifi.web.api.dto.PositionDTO;
 import org.apache.nifi.web.api.dto.ProcessGroupDTO;
 import org.apache.nifi.web.api.dto.ProcessorConfigDTO;
 import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.apache.nifi.web.api.dto.ProvenanceCapturePolicyDTO;
 import org.apache.nifi.web.api.dto.RemoteProcessGroupDTO;
 import org.apache.nifi.web.api.dto.ReportingTaskDTO;
 import org.apache.nifi.web.api.dto.VersionControlInformationDTO;
@@ -185,6 +186,8 @@ public class FlowFromDOMFactory {
         dto.setComments(getString(element, "comment"));
         dto.setFlowfileConcurrency(getString(element, "flowfileConcurrency"));
         dto.setFlowfileOutboundPolicy(getString(element, "flowfileOutboundPolicy"));
+        dto.setMaxTimerDrivenThreadCount(getOptionalInt(element, "maxTimerDrivenThreadCount"));
+        dto.setProvenanceCapturePolicy(getProvenanceCapturePolicy(DomUtils.getChild(element, "provenanceCapturePolicy")));
 
         final Map<String, String> variables = new HashMap<>();
         final NodeList variableList = DomUtils.getChildNodesByTagName(element, "variable");
@@ -544,6 +547,34 @@ public class FlowFromDOMFactory {
         return properties;
     }
 
+    private static ProvenanceCapturePolicyDTO getProvenanceCapturePolicy(final Element policyElement) {
+        if (policyElement == null) {
+            return null;
+        }
+
+        final Map<String, Double> samplingRates = new LinkedHashMap<>();
+        for (final Element samplingRateElement : getChildrenByTagName(policyElement, "samplingRate")) {
+            samplingRates.put(samplingRateElement.getAttribute("eventType"), Double.parseDouble(samplingRateElement.getTextContent()));
+        }
+
+        final Set<String> includedAttributes = new LinkedHashSet<>();
+        for (final Element attributeElement : getChildrenByTagName(policyElement, "includedAttribute")) {
+            includedAttributes.add(attributeElement.getTextContent());
+        }
+
+        final Set<String> excludedAttributes = new LinkedHashSet<>();
+        for (final Element attributeElement : getChildrenByTagName(policyElement, "excludedAttribute")) {
+            excludedAttributes.add(attributeElement.getTextContent());
+        }
+
+        final ProvenanceCapturePolicyDTO dto = new ProvenanceCapturePolicyDTO();
+        dto.setSamplingRates(samplingRates);
+        dto.setIncludedAttributes(includedAttributes);
+        dto.setExcludedAttributes(excludedAttributes);
+        dto.setLineageOnly(getBoolean(policyElement, "lineageOnly"));
+        return dto;
+    }
+
     private static String getString(final Element element, final String childElementName) {
         final List<Element> nodeList = getChildrenByTagName(element, childElementName);
         if (nodeList == null || nodeList.isEmpty()) {
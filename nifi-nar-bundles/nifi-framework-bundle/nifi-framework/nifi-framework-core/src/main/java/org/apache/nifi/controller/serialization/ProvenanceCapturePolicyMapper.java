@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.serialization;
+
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.web.api.dto.ProvenanceCapturePolicyDTO;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Converts between a {@link ProvenanceCapturePolicy} and its DTO representation.
+ */
+public final class ProvenanceCapturePolicyMapper {
+
+    private ProvenanceCapturePolicyMapper() {
+    }
+
+    /**
+     * @param dto the DTO
+     * @return the policy that the DTO describes, or <code>null</code> if the DTO is <code>null</code> or describes a policy that records all events,
+     * which means that the policy of the parent Process Group applies
+     * @throws IllegalArgumentException if the DTO specifies an unknown event type or a sampling rate that is not between 0 and 1
+     */
+    public static ProvenanceCapturePolicy toPolicy(final ProvenanceCapturePolicyDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        final Map<ProvenanceEventType, Double> samplingRates = new EnumMap<>(ProvenanceEventType.class);
+        if (dto.getSamplingRates() != null) {
+            for (final Map.Entry<String, Double> entry : dto.getSamplingRates().entrySet()) {
+                samplingRates.put(ProvenanceEventType.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+
+        final ProvenanceCapturePolicy policy = new ProvenanceCapturePolicy(samplingRates, dto.getIncludedAttributes(), dto.getExcludedAttributes(),
+            Boolean.TRUE.equals(dto.getLineageOnly()));
+        return policy.isCaptureAll() ? null : policy;
+    }
+
+    /**
+     * @param policy the policy
+     * @return the DTO that describes the policy, or <code>null</code> if the policy is <code>null</code>
+     */
+    public static ProvenanceCapturePolicyDTO toDto(final ProvenanceCapturePolicy policy) {
+        if (policy == null) {
+            return null;
+        }
+
+        final Map<String, Double> samplingRates = new LinkedHashMap<>();
+        policy.getSamplingRates().forEach((eventType, rate) -> samplingRates.put(eventType.name(), rate));
+
+        final ProvenanceCapturePolicyDTO dto = new ProvenanceCapturePolicyDTO();
+        dto.setSamplingRates(samplingRates);
+        dto.setIncludedAttributes(new LinkedHashSet<>(policy.getIncludedAttributes()));
+        dto.setExcludedAttributes(new LinkedHashSet<>(policy.getExcludedAttributes()));
+        dto.setLineageOnly(policy.isLineageOnly());
+        return dto;
+    }
+}
@@ -41,6 +41,8 @@ import org.apache.nifi.parameter.ParameterContextManager;
 import org.apache.nifi.parameter.ParameterDescriptor;
 import org.apache.nifi.persistence.TemplateSerializer;
 import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
+import org.apache.nifi.provenance.ProvenanceEventType;
 import org.apache.nifi.registry.VariableDescriptor;
 import org.apache.nifi.registry.VariableRegistry;
 import org.apache.nifi.registry.flow.FlowRegistry;
@@ -235,6 +237,10 @@ public class StandardFlowSerializer implements FlowSerializer<Document> {
         addTextElement(element, "comment", group.getComments());
         addTextElement(element, "flowfileConcurrency", group.getFlowFileConcurrency().name());
         addTextElement(element, "flowfileOutboundPolicy", group.getFlowFileOutboundPolicy().name());
+        if (group.getMaxTimerDrivenThreadCount() > 0) {
+            addTextElement(element, "maxTimerDrivenThreadCount", group.getMaxTimerDrivenThreadCount());
+        }
+        addProvenanceCapturePolicy(element, group.getProvenanceCapturePolicy());
 
         final VersionControlInformation versionControlInfo = group.getVersionControlInformation();
         if (versionControlInfo != null) {
@@ -644,6 +650,29 @@ public class StandardFlowSerializer implements FlowSerializer<Document> {
         element.appendChild(taskElement);
     }
 
+    private static void addProvenanceCapturePolicy(final Element parentElement, final ProvenanceCapturePolicy policy) {
+        if (policy == null) {
+            return;
+        }
+
+        final Element element = parentElement.getOwnerDocument().createElement("provenanceCapturePolicy");
+        addTextElement(element, "lineageOnly", String.valueOf(policy.isLineageOnly()));
+        for (final Map.Entry<ProvenanceEventType, Double> entry : policy.getSamplingRates().entrySet()) {
+            final Element samplingRateElement = element.getOwnerDocument().createElement("samplingRate");
+            samplingRateElement.setAttribute("eventType", entry.getKey().name());
+            samplingRateElement.setTextContent(String.valueOf(entry.getValue()));
+            element.appendChild(samplingRateElement);
+        }
+        for (final String attributeName : policy.getIncludedAttributes()) {
+            addTextElement(element, "includedAttribute", attributeName);
+        }
+        for (final String attributeName : policy.getExcludedAttributes()) {
+            addTextElement(element, "excludedAttribute", attributeName);
+        }
+
+        parentElement.appendChild(element);
+    }
+
     private static void addTextElement(final Element element, final String name, final long value) {
         addTextElement(element, name, String.valueOf(value));
     }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The kinds of components whose status history is kept, along with the metrics that are captured for each
+ */
+enum ComponentKind {
+    PROCESSOR(Arrays.stream(ProcessorStatusDescriptor.values()).map(ProcessorStatusDescriptor::getDescriptor).collect(Collectors.toList())),
+    CONNECTION(Arrays.stream(ConnectionStatusDescriptor.values()).map(ConnectionStatusDescriptor::getDescriptor).collect(Collectors.toList())),
+    PROCESS_GROUP(Arrays.stream(ProcessGroupStatusDescriptor.values()).map(ProcessGroupStatusDescriptor::getDescriptor).collect(Collectors.toList())),
+    REMOTE_PROCESS_GROUP(Arrays.stream(RemoteProcessGroupStatusDescriptor.values()).map(RemoteProcessGroupStatusDescriptor::getDescriptor).collect(Collectors.toList()));
+
+    private final List<MetricDescriptor<?>> descriptors;
+    private final Set<MetricDescriptor<?>> descriptorSet;
+
+    ComponentKind(final List<? extends MetricDescriptor<?>> descriptors) {
+        this.descriptors = Collections.unmodifiableList(descriptors);
+        this.descriptorSet = Collections.unmodifiableSet(new LinkedHashSet<>(descriptors));
+    }
+
+    /**
+     * @return the metrics that are captured for this kind of component, in the order of their metric identifiers
+     */
+    List<MetricDescriptor<?>> getMetricDescriptors() {
+        return descriptors;
+    }
+
+    Set<MetricDescriptor<?>> getMetricDescriptorSet() {
+        return descriptorSet;
+    }
+}
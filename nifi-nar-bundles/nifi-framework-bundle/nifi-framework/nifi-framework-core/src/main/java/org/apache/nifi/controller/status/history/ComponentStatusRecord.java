@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The status of a single component at a point in time, as it is stored by the {@link PersistentComponentStatusRepository}. A record
+ * without values denotes a component whose status was empty, so that the component's details are still known.
+ */
+class ComponentStatusRecord {
+    private final String componentId;
+    private final ComponentKind kind;
+    private final long timestamp;
+    private final ComponentDetails details;
+    private final long[] values;
+    private final Map<String, Long> counters;
+
+    ComponentStatusRecord(final String componentId, final ComponentKind kind, final long timestamp, final ComponentDetails details,
+                          final long[] values, final Map<String, Long> counters) {
+        this.componentId = componentId;
+        this.kind = kind;
+        this.timestamp = timestamp;
+        this.details = details;
+        this.values = values;
+        this.counters = counters == null ? Collections.emptyMap() : counters;
+    }
+
+    /**
+     * Creates a record from a snapshot that was created by {@link org.apache.nifi.util.ComponentMetrics ComponentMetrics}
+     *
+     * @param snapshot the snapshot, or <code>null</code> if the component's status was empty
+     */
+    static ComponentStatusRecord fromSnapshot(final ComponentKind kind, final ComponentDetails details, final StatusSnapshot snapshot, final long timestamp) {
+        if (snapshot == null) {
+            return new ComponentStatusRecord(details.getComponentId(), kind, timestamp, details, null, null);
+        }
+
+        final List<MetricDescriptor<?>> descriptors = kind.getMetricDescriptors();
+        final long[] values = new long[descriptors.size()];
+        for (int i = 0; i < values.length; i++) {
+            final Long value = snapshot.getStatusMetric(descriptors.get(i));
+            values[i] = value == null ? 0L : value;
+        }
+
+        Map<String, Long> counters = null;
+        for (final MetricDescriptor<?> descriptor : snapshot.getMetricDescriptors()) {
+            if (descriptor.isCounter()) {
+                if (counters == null) {
+                    counters = new TreeMap<>();
+                }
+
+                final Long value = snapshot.getStatusMetric(descriptor);
+                counters.put(descriptor.getField(), value == null ? 0L : value);
+            }
+        }
+
+        return new ComponentStatusRecord(details.getComponentId(), kind, timestamp, details, values, counters);
+    }
+
+    String getComponentId() {
+        return componentId;
+    }
+
+    ComponentKind getKind() {
+        return kind;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    ComponentDetails getDetails() {
+        return details;
+    }
+
+    boolean hasValues() {
+        return values != null;
+    }
+
+    long[] getValues() {
+        return values;
+    }
+
+    Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    StatusSnapshot toSnapshot(final boolean includeCounters) {
+        final StandardStatusSnapshot snapshot = new StandardStatusSnapshot(kind.getMetricDescriptorSet());
+        snapshot.setTimestamp(new Date(timestamp));
+
+        final List<MetricDescriptor<?>> descriptors = kind.getMetricDescriptors();
+        for (int i = 0; i < descriptors.size(); i++) {
+            // Records written before a metric was added do not have a value for it
+            snapshot.addStatusMetric(descriptors.get(i), i < values.length ? values[i] : 0L);
+        }
+
+        if (includeCounters) {
+            for (final Map.Entry<String, Long> entry : counters.entrySet()) {
+                final String label = entry.getKey() + " (5 mins)";
+                final MetricDescriptor<Object> descriptor = new CounterMetricDescriptor<>(entry.getKey(), label, label, MetricDescriptor.Formatter.COUNT, status -> null);
+                snapshot.addStatusMetric(descriptor, entry.getValue());
+            }
+        }
+
+        return snapshot;
+    }
+}
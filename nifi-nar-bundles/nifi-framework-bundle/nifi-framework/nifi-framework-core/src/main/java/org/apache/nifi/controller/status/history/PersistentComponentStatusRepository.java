@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import org.apache.nifi.controller.status.ConnectionStatus;
+import org.apache.nifi.controller.status.NodeStatus;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessorStatus;
+import org.apache.nifi.controller.status.RemoteProcessGroupStatus;
+import org.apache.nifi.util.ComponentMetrics;
+import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.NiFiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A Component Status Repository that keeps the status history of components on disk rather than on the heap, so that history survives a restart and
+ * long history can be kept for flows with many components. History is kept in two tiers: every capture is kept for the configured retention period,
+ * and the average of the captures within each downsampling interval is kept for a longer period. When history is requested, the downsampled tier
+ * provides the history that is older than the earliest capture that is still held at full resolution.
+ * </p>
+ *
+ * <p>
+ * The status history of the node and of garbage collection does not grow with the number of components, so it is kept on the heap, as it is by the
+ * {@link VolatileComponentStatusRepository}.
+ * </p>
+ */
+public class PersistentComponentStatusRepository implements ComponentStatusRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentComponentStatusRepository.class);
+
+    public static final String DIRECTORY_PROPERTY = "nifi.components.status.repository.persistent.directory";
+    public static final String RETENTION_PROPERTY = "nifi.components.status.repository.persistent.retention";
+    public static final String DOWNSAMPLED_INTERVAL_PROPERTY = "nifi.components.status.repository.persistent.downsampled.interval";
+    public static final String DOWNSAMPLED_RETENTION_PROPERTY = "nifi.components.status.repository.persistent.downsampled.retention";
+
+    public static final String DEFAULT_DIRECTORY = "./status_repository";
+    public static final String DEFAULT_RETENTION = "1 day";
+    public static final String DEFAULT_DOWNSAMPLED_INTERVAL = "1 hour";
+    public static final String DEFAULT_DOWNSAMPLED_RETENTION = "30 days";
+
+    private static final long FULL_RESOLUTION_SEGMENT_MILLIS = TimeUnit.HOURS.toMillis(1L);
+    private static final int DOWNSAMPLED_INTERVALS_PER_SEGMENT = 24;
+
+    private final VolatileComponentStatusRepository nodeStatusRepository;
+    private final StatusHistoryTier fullResolutionTier;
+    private final StatusHistoryTier downsampledTier;
+    private final long downsampledIntervalMillis;
+
+    // The sums of the values captured for each component during the current downsampling interval. This is not persisted, so the averages for
+    // the interval that was in progress when NiFi was stopped include only the captures that were made after NiFi was started again.
+    private final Map<String, DownsampledStatus> downsampledStatuses = new HashMap<>();
+    private long downsampledIntervalStart = -1L;
+    private int downsampledCaptureCount = 0;
+
+    private volatile long lastCaptureTime = 0L;
+    private boolean shutdown = false;
+
+    /**
+     * Default no args constructor for service loading only
+     */
+    public PersistentComponentStatusRepository() {
+        nodeStatusRepository = null;
+        fullResolutionTier = null;
+        downsampledTier = null;
+        downsampledIntervalMillis = 0L;
+    }
+
+    public PersistentComponentStatusRepository(final NiFiProperties nifiProperties) throws IOException {
+        final File directory = new File(nifiProperties.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+        final long retentionMillis = getTimeProperty(nifiProperties, RETENTION_PROPERTY, DEFAULT_RETENTION);
+        downsampledIntervalMillis = getTimeProperty(nifiProperties, DOWNSAMPLED_INTERVAL_PROPERTY, DEFAULT_DOWNSAMPLED_INTERVAL);
+        final long downsampledRetentionMillis = getTimeProperty(nifiProperties, DOWNSAMPLED_RETENTION_PROPERTY, DEFAULT_DOWNSAMPLED_RETENTION);
+
+        if (retentionMillis < downsampledIntervalMillis) {
+            logger.warn("The {} of {} is shorter than the {} of {}, so there may be periods for which no status history is available",
+                RETENTION_PROPERTY, FormatUtils.formatHoursMinutesSeconds(retentionMillis, TimeUnit.MILLISECONDS),
+                DOWNSAMPLED_INTERVAL_PROPERTY, FormatUtils.formatHoursMinutesSeconds(downsampledIntervalMillis, TimeUnit.MILLISECONDS));
+        }
+
+        nodeStatusRepository = new VolatileComponentStatusRepository(nifiProperties);
+        fullResolutionTier = new StatusHistoryTier(new File(directory, "full"), FULL_RESOLUTION_SEGMENT_MILLIS, retentionMillis);
+        downsampledTier = new StatusHistoryTier(new File(directory, "downsampled"), downsampledIntervalMillis * DOWNSAMPLED_INTERVALS_PER_SEGMENT, downsampledRetentionMillis);
+
+        fullResolutionTier.initialize();
+        downsampledTier.initialize();
+    }
+
+    private static long getTimeProperty(final NiFiProperties nifiProperties, final String propertyName, final String defaultValue) {
+        final String value = nifiProperties.getProperty(propertyName, defaultValue);
+        try {
+            final long millis = FormatUtils.getTimeDuration(value, TimeUnit.MILLISECONDS);
+            if (millis <= 0L) {
+                throw new IllegalArgumentException();
+            }
+            return millis;
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot create Component Status Repository because the " + propertyName + " property is set to an invalid time duration: " + value);
+        }
+    }
+
+    @Override
+    public void capture(final NodeStatus nodeStatus, final ProcessGroupStatus rootGroupStatus, final List<GarbageCollectionStatus> gcStatus) {
+        capture(nodeStatus, rootGroupStatus, gcStatus, new Date());
+    }
+
+    @Override
+    public synchronized void capture(final NodeStatus nodeStatus, final ProcessGroupStatus rootGroupStatus, final List<GarbageCollectionStatus> gcStatus, final Date timestamp) {
+        if (shutdown) {
+            return;
+        }
+
+        nodeStatusRepository.capture(nodeStatus, null, gcStatus, timestamp);
+
+        final long captureTime = timestamp.getTime();
+        final List<ComponentStatusRecord> records = new ArrayList<>();
+        collectRecords(rootGroupStatus, timestamp, records);
+
+        try {
+            fullResolutionTier.append(captureTime, records);
+            downsample(captureTime, records);
+        } catch (final IOException e) {
+            logger.error("Failed to persist the status of components captured at {}", timestamp, e);
+        }
+
+        logger.debug("Captured metrics for {} components", records.size());
+        lastCaptureTime = Math.max(lastCaptureTime, captureTime);
+    }
+
+    private void collectRecords(final ProcessGroupStatus groupStatus, final Date timestamp, final List<ComponentStatusRecord> records) {
+        final long captureTime = timestamp.getTime();
+        records.add(ComponentStatusRecord.fromSnapshot(ComponentKind.PROCESS_GROUP, ComponentDetails.forProcessGroup(groupStatus),
+            ComponentMetrics.createSnapshot(groupStatus, timestamp), captureTime));
+
+        for (final ProcessorStatus processorStatus : groupStatus.getProcessorStatus()) {
+            records.add(ComponentStatusRecord.fromSnapshot(ComponentKind.PROCESSOR, ComponentDetails.forProcessor(processorStatus),
+                ComponentMetrics.createSnapshot(processorStatus, timestamp), captureTime));
+        }
+
+        for (final ConnectionStatus connectionStatus : groupStatus.getConnectionStatus()) {
+            records.add(ComponentStatusRecord.fromSnapshot(ComponentKind.CONNECTION, ComponentDetails.forConnection(connectionStatus),
+                ComponentMetrics.createSnapshot(connectionStatus, timestamp), captureTime));
+        }
+
+        for (final RemoteProcessGroupStatus rpgStatus : groupStatus.getRemoteProcessGroupStatus()) {
+            records.add(ComponentStatusRecord.fromSnapshot(ComponentKind.REMOTE_PROCESS_GROUP, ComponentDetails.forRemoteProcessGroup(rpgStatus),
+                ComponentMetrics.createSnapshot(rpgStatus, timestamp), captureTime));
+        }
+
+        for (final ProcessGroupStatus childStatus : groupStatus.getProcessGroupStatus()) {
+            collectRecords(childStatus, timestamp, records);
+        }
+    }
+
+    private void downsample(final long captureTime, final List<ComponentStatusRecord> records) throws IOException {
+        final long intervalStart = captureTime - Math.floorMod(captureTime, downsampledIntervalMillis);
+        if (intervalStart > downsampledIntervalStart) {
+            if (downsampledIntervalStart >= 0L) {
+                writeDownsampledStatuses();
+            }
+
+            downsampledIntervalStart = intervalStart;
+        }
+
+        downsampledCaptureCount++;
+        for (final ComponentStatusRecord record : records) {
+            downsampledStatuses.computeIfAbsent(record.getComponentId(), id -> new DownsampledStatus()).add(record);
+        }
+    }
+
+    private void writeDownsampledStatuses() throws IOException {
+        final List<ComponentStatusRecord> records = new ArrayList<>(downsampledStatuses.size());
+        for (final DownsampledStatus status : downsampledStatuses.values()) {
+            records.add(status.toRecord(downsampledIntervalStart, downsampledCaptureCount));
+        }
+
+        downsampledTier.append(downsampledIntervalStart, records);
+        downsampledStatuses.clear();
+        downsampledCaptureCount = 0;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (shutdown || fullResolutionTier == null) {
+            return;
+        }
+
+        shutdown = true;
+        for (final StatusHistoryTier tier : new StatusHistoryTier[] {fullResolutionTier, downsampledTier}) {
+            try {
+                tier.close();
+            } catch (final IOException e) {
+                logger.warn("Failed to close the Component Status Repository", e);
+            }
+        }
+    }
+
+    @Override
+    public Date getLastCaptureDate() {
+        return new Date(lastCaptureTime);
+    }
+
+    @Override
+    public StatusHistory getProcessorStatusHistory(final String processorId, final Date start, final Date end, final int preferredDataPoints, final boolean includeCounters) {
+        return getStatusHistory(processorId, ComponentKind.PROCESSOR, includeCounters, start, end, preferredDataPoints);
+    }
+
+    @Override
+    public StatusHistory getConnectionStatusHistory(final String connectionId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(connectionId, ComponentKind.CONNECTION, true, start, end, preferredDataPoints);
+    }
+
+    @Override
+    public StatusHistory getProcessGroupStatusHistory(final String processGroupId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(processGroupId, ComponentKind.PROCESS_GROUP, true, start, end, preferredDataPoints);
+    }
+
+    @Override
+    public StatusHistory getRemoteProcessGroupStatusHistory(final String remoteGroupId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(remoteGroupId, ComponentKind.REMOTE_PROCESS_GROUP, true, start, end, preferredDataPoints);
+    }
+
+    private synchronized StatusHistory getStatusHistory(final String componentId, final ComponentKind kind, final boolean includeCounters,
+                                                        final Date start, final Date end, final int preferredDataPoints) {
+        final long startMillis = start == null ? 0L : start.getTime();
+        final long endMillis = end == null ? Long.MAX_VALUE : end.getTime();
+
+        final StatusHistoryTier.TierHistory downsampledHistory;
+        final StatusHistoryTier.TierHistory fullResolutionHistory;
+        try {
+            final long fullResolutionStart = Math.max(startMillis, fullResolutionTier.getEarliestTimestamp());
+            downsampledHistory = downsampledTier.read(componentId, startMillis, Math.min(endMillis, fullResolutionStart - 1));
+            fullResolutionHistory = fullResolutionTier.read(componentId, fullResolutionStart, endMillis);
+        } catch (final IOException e) {
+            logger.error("Failed to read the status history of component {}", componentId, e);
+            return createEmptyStatusHistory();
+        }
+
+        final ComponentDetails details = fullResolutionHistory.isComponentFound() ? fullResolutionHistory.getDetails() : downsampledHistory.getDetails();
+        if (details == null) {
+            return createEmptyStatusHistory();
+        }
+
+        final Map<Long, ComponentStatusRecord> recordsByTimestamp = new TreeMap<>();
+        downsampledHistory.getRecords().forEach(record -> recordsByTimestamp.put(record.getTimestamp(), record));
+        fullResolutionHistory.getRecords().forEach(record -> recordsByTimestamp.put(record.getTimestamp(), record));
+
+        final List<Long> timestamps = new ArrayList<>(downsampledHistory.getTimestamps());
+        timestamps.addAll(fullResolutionHistory.getTimestamps());
+        final List<Long> selectedTimestamps = timestamps.subList(Math.max(timestamps.size() - preferredDataPoints, 0), timestamps.size());
+
+        final List<StatusSnapshot> snapshots = new ArrayList<>(selectedTimestamps.size());
+        for (final Long timestamp : selectedTimestamps) {
+            final ComponentStatusRecord record = recordsByTimestamp.get(timestamp);
+            if (record == null) {
+                snapshots.add(new EmptyStatusSnapshot(new Date(timestamp), kind.getMetricDescriptorSet()));
+            } else {
+                snapshots.add(record.toSnapshot(includeCounters));
+            }
+        }
+
+        return new StandardStatusHistory(snapshots, details.toMap(), new Date());
+    }
+
+    private StatusHistory createEmptyStatusHistory() {
+        return new StandardStatusHistory(Collections.emptyList(), Collections.emptyMap(), new Date());
+    }
+
+    @Override
+    public StatusHistory getNodeStatusHistory() {
+        return nodeStatusRepository.getNodeStatusHistory();
+    }
+
+    @Override
+    public GarbageCollectionHistory getGarbageCollectionHistory(final Date start, final Date end) {
+        return nodeStatusRepository.getGarbageCollectionHistory(start, end);
+    }
+
+
+    /**
+     * The sums of the values that were captured for a component during the current downsampling interval
+     */
+    private static class DownsampledStatus {
+        private ComponentKind kind;
+        private ComponentDetails details;
+        private long[] sums;
+        private final Map<String, Long> counterSums = new TreeMap<>();
+
+        void add(final ComponentStatusRecord record) {
+            kind = record.getKind();
+            details = record.getDetails();
+
+            if (!record.hasValues()) {
+                return;
+            }
+
+            final long[] values = record.getValues();
+            if (sums == null) {
+                sums = new long[values.length];
+            }
+            for (int i = 0; i < Math.min(sums.length, values.length); i++) {
+                sums[i] += values[i];
+            }
+
+            record.getCounters().forEach((name, value) -> counterSums.merge(name, value, Long::sum));
+        }
+
+        /**
+         * Creates a record whose values are the averages of the values captured during the interval. Captures in which the component's status
+         * was empty count as zero.
+         */
+        ComponentStatusRecord toRecord(final long intervalStart, final int captureCount) {
+            if (sums == null) {
+                return new ComponentStatusRecord(details.getComponentId(), kind, intervalStart, details, null, null);
+            }
+
+            final long[] averages = new long[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                averages[i] = Math.round((double) sums[i] / captureCount);
+            }
+
+            final Map<String, Long> counterAverages = new HashMap<>();
+            counterSums.forEach((name, sum) -> counterAverages.put(name, Math.round((double) sum / captureCount)));
+
+            return new ComponentStatusRecord(details.getComponentId(), kind, intervalStart, details, averages, counterAverages);
+        }
+    }
+}
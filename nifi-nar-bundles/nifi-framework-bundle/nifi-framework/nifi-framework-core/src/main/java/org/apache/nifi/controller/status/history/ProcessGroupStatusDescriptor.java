@@ -92,7 +92,14 @@ public enum ProcessGroupStatusDescriptor {
         "Total Task Duration (5 mins)",
         "The total number of thread-milliseconds that the Processors within this ProcessGroup have used to complete their tasks in the past 5 minutes",
         Formatter.DURATION,
-        ProcessGroupStatusDescriptor::calculateTaskMillis);
+        ProcessGroupStatusDescriptor::calculateTaskMillis),
+
+    TASK_WAIT_MILLIS(
+        "taskWaitMillis",
+        "Total Task Wait Time (5 mins)",
+        "The total number of milliseconds that the tasks of Processors within this ProcessGroup have waited for a thread after they were due to run in the past 5 minutes",
+        Formatter.DURATION,
+        ProcessGroupStatusDescriptor::calculateTaskWaitMillis);
 
 
     private MetricDescriptor<ProcessGroupStatus> descriptor;
@@ -125,4 +132,22 @@ public enum ProcessGroupStatusDescriptor {
 
         return TimeUnit.MILLISECONDS.convert(nanos, TimeUnit.NANOSECONDS);
     }
+
+    private static long calculateTaskWaitMillis(final ProcessGroupStatus status) {
+        return TimeUnit.MILLISECONDS.convert(calculateTaskWaitNanos(status), TimeUnit.NANOSECONDS);
+    }
+
+    private static long calculateTaskWaitNanos(final ProcessGroupStatus status) {
+        long nanos = 0L;
+
+        for (final ProcessorStatus procStatus : status.getProcessorStatus()) {
+            nanos += procStatus.getTaskWaitNanos();
+        }
+
+        for (final ProcessGroupStatus childStatus : status.getProcessGroupStatus()) {
+            nanos += calculateTaskWaitNanos(childStatus);
+        }
+
+        return nanos;
+    }
 }
@@ -164,7 +164,14 @@ public enum ProcessorStatusDescriptor {
             }
         },
         true
-    );
+    ),
+
+    TASK_WAIT_MILLIS(
+        "taskWaitMillis",
+        "Total Task Wait Time (5 mins)",
+        "The total number of milliseconds that the Processor's tasks have waited for a thread after they were due to run in the past 5 minutes",
+        Formatter.DURATION,
+        s -> TimeUnit.MILLISECONDS.convert(s.getTaskWaitNanos(), TimeUnit.NANOSECONDS));
 
 
 
@@ -0,0 +1,877 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * Stores the status history of components on disk at one resolution, such as every capture for the last day or hourly averages for the last month.
+ * History is split into segments that each cover a fixed period of time, so that history that is older than the retention period is removed by deleting
+ * whole segments.
+ * </p>
+ *
+ * <p>
+ * The segment for the current period is an append-only log of records, which is what makes capturing status cheap. Its location in the log is kept in
+ * memory for each record so that the history of a single component can be read without scanning the log. Once the period ends, the log is rewritten
+ * as a columnar segment in which the records of each component are stored together and each metric is stored as a column of delta-encoded variable
+ * length integers. Because most metrics change little from one capture to the next, most values take up a single byte. The segment ends with an index,
+ * sorted by the hash of the component identifier, so that the history of a component is found with a binary search.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+class StatusHistoryTier implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(StatusHistoryTier.class);
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int SEGMENT_MAGIC = 0x4E534853;
+    private static final int SEGMENT_VERSION = 1;
+    private static final int SEGMENT_HEADER_LENGTH = 20;
+    private static final int INDEX_ENTRY_LENGTH = 12;
+
+    private static final byte CAPTURE_ENTRY = 1;
+    private static final byte RECORD_ENTRY = 2;
+    private static final int FLAG_DETAILS = 1;
+    private static final int FLAG_VALUES = 2;
+
+    private final File directory;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private final NavigableMap<Long, File> segments = new TreeMap<>();
+    private ActiveLog activeLog;
+    private long earliestTimestamp = Long.MAX_VALUE;
+
+    /**
+     * @param directory the directory to store the tier's segments in
+     * @param segmentMillis the period of time that each segment covers
+     * @param retentionMillis how long history is kept for
+     */
+    StatusHistoryTier(final File directory, final long segmentMillis, final long retentionMillis) {
+        this.directory = directory;
+        this.segmentMillis = segmentMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Loads the segments that were written previously. Logs of segments whose period has ended are converted into columnar segments, and the
+     * most recent log is reopened so that new captures are appended to it.
+     */
+    void initialize() throws IOException {
+        Files.createDirectories(directory.toPath());
+
+        final NavigableMap<Long, File> logs = new TreeMap<>();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(parseSegmentStart(name, SEGMENT_SUFFIX), file);
+                } else if (name.endsWith(LOG_SUFFIX)) {
+                    logs.put(parseSegmentStart(name, LOG_SUFFIX), file);
+                } else if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) {
+                    // The log was being converted into a segment when NiFi stopped. The log is still there, so the conversion is redone.
+                    Files.delete(file.toPath());
+                }
+            }
+        }
+
+        for (final Map.Entry<Long, File> entry : logs.entrySet()) {
+            final ActiveLog log = ActiveLog.open(entry.getKey(), entry.getValue());
+            if (entry.getKey().equals(logs.lastKey())) {
+                activeLog = log;
+            } else {
+                writeSegment(log);
+            }
+        }
+
+        updateEarliestTimestamp();
+        logger.info("Loaded {} status history segments from {}", segments.size() + (activeLog == null ? 0 : 1), directory);
+    }
+
+    private static long parseSegmentStart(final String filename, final String suffix) throws IOException {
+        try {
+            return Long.parseLong(filename.substring(0, filename.length() - suffix.length()));
+        } catch (final NumberFormatException nfe) {
+            throw new IOException("Unexpected file in status history directory: " + filename);
+        }
+    }
+
+    /**
+     * Appends the given records, all of which were captured at the given time
+     */
+    void append(final long timestamp, final Collection<ComponentStatusRecord> records) throws IOException {
+        final long segmentStart = timestamp - Math.floorMod(timestamp, segmentMillis);
+        if (activeLog != null && segmentStart > activeLog.segmentStart) {
+            writeSegment(activeLog);
+            activeLog = null;
+        }
+
+        if (activeLog == null) {
+            activeLog = ActiveLog.open(segmentStart, new File(directory, segmentStart + LOG_SUFFIX));
+        }
+
+        activeLog.append(timestamp, records);
+        earliestTimestamp = Math.min(earliestTimestamp, timestamp);
+        purgeExpired(timestamp);
+    }
+
+    private void purgeExpired(final long now) throws IOException {
+        final long cutoff = now - retentionMillis;
+        boolean purged = false;
+
+        final Iterator<Map.Entry<Long, File>> itr = segments.entrySet().iterator();
+        while (itr.hasNext()) {
+            final Map.Entry<Long, File> entry = itr.next();
+            if (entry.getKey() + segmentMillis > cutoff) {
+                break;
+            }
+
+            Files.deleteIfExists(entry.getValue().toPath());
+            itr.remove();
+            purged = true;
+            logger.debug("Removed status history segment {} because it is older than the retention period", entry.getValue());
+        }
+
+        if (purged) {
+            updateEarliestTimestamp();
+        }
+    }
+
+    private void updateEarliestTimestamp() throws IOException {
+        earliestTimestamp = Long.MAX_VALUE;
+        if (!segments.isEmpty()) {
+            try (final FileChannel channel = FileChannel.open(segments.firstEntry().getValue().toPath(), StandardOpenOption.READ)) {
+                final long[] timestamps = readTimestamps(channel);
+                if (timestamps.length > 0) {
+                    earliestTimestamp = timestamps[0];
+                }
+            }
+        }
+
+        if (earliestTimestamp == Long.MAX_VALUE && activeLog != null && activeLog.timestamps.size() > 0) {
+            earliestTimestamp = activeLog.timestamps.get(0);
+        }
+    }
+
+    /**
+     * @return the time of the earliest capture that is held by this tier, or {@link Long#MAX_VALUE} if the tier is empty
+     */
+    long getEarliestTimestamp() {
+        return earliestTimestamp;
+    }
+
+    /**
+     * Reads the history of the given component
+     *
+     * @param componentId the identifier of the component
+     * @param start the earliest capture time to include
+     * @param end the latest capture time to include
+     * @return the history of the component
+     */
+    TierHistory read(final String componentId, final long start, final long end) throws IOException {
+        final TierHistory history = new TierHistory();
+        if (start > end) {
+            return history;
+        }
+
+        final Long firstSegment = segments.floorKey(start);
+        final NavigableMap<Long, File> overlapping = segments.subMap(firstSegment == null ? Long.MIN_VALUE : firstSegment, true, end, true);
+        for (final File file : overlapping.values()) {
+            readSegment(file, componentId, start, end, history);
+        }
+
+        if (activeLog != null) {
+            activeLog.read(componentId, start, end, history);
+        }
+
+        return history;
+    }
+
+    /**
+     * Closes the active log, if there is one. Its captures remain on disk and are loaded again when the tier is next initialized,
+     * but they are no longer included when the tier is read, and the tier must not be appended to once it has been closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (activeLog != null) {
+            activeLog.close();
+            activeLog = null;
+        }
+    }
+
+    /**
+     * Rewrites the given log as a columnar segment and deletes the log
+     */
+    private void writeSegment(final ActiveLog log) throws IOException {
+        log.close();
+
+        final File segmentFile = new File(directory, log.segmentStart + SEGMENT_SUFFIX);
+        final File tempFile = new File(directory, log.segmentStart + SEGMENT_SUFFIX + ".tmp");
+
+        try (final FileChannel logChannel = FileChannel.open(log.file.toPath(), StandardOpenOption.READ);
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeLong(log.segmentStart);
+
+            final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+            writeDeltas(new DataOutputStream(blockBytes), log.timestamps.toArray());
+            out.writeInt(blockBytes.size());
+            blockBytes.writeTo(out);
+
+            final List<long[]> indexEntries = new ArrayList<>(log.components.size());
+            for (final Map.Entry<String, LogComponent> entry : log.components.entrySet()) {
+                final List<ComponentStatusRecord> records = new ArrayList<>();
+                for (int i = 0; i < entry.getValue().offsets.size(); i++) {
+                    records.add(readLogRecord(logChannel, entry.getValue().offsets.get(i)));
+                }
+
+                blockBytes.reset();
+                writeBlock(new DataOutputStream(blockBytes), entry.getKey(), entry.getValue(), records);
+
+                indexEntries.add(new long[] {entry.getKey().hashCode(), out.size()});
+                out.writeInt(blockBytes.size());
+                blockBytes.writeTo(out);
+            }
+
+            final long indexOffset = out.size();
+            indexEntries.sort((a, b) -> Long.compare(a[0], b[0]));
+            out.writeInt(indexEntries.size());
+            for (final long[] indexEntry : indexEntries) {
+                out.writeInt((int) indexEntry[0]);
+                out.writeLong(indexEntry[1]);
+            }
+            out.writeLong(indexOffset);
+        }
+
+        Files.move(tempFile.toPath(), segmentFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(log.file.toPath());
+        segments.put(log.segmentStart, segmentFile);
+        logger.debug("Wrote status history segment {} for {} components", segmentFile, log.components.size());
+    }
+
+    private static void writeBlock(final DataOutputStream out, final String componentId, final LogComponent component, final List<ComponentStatusRecord> records) throws IOException {
+        writeString(out, componentId);
+        out.writeByte(component.kind.ordinal());
+        writeDetails(out, component.details);
+
+        final int rowCount = records.size();
+        final long[] timestamps = new long[rowCount];
+        int columnCount = 0;
+        final TreeSet<String> counterNames = new TreeSet<>();
+        for (int i = 0; i < rowCount; i++) {
+            final ComponentStatusRecord record = records.get(i);
+            timestamps[i] = record.getTimestamp();
+            columnCount = Math.max(columnCount, record.getValues().length);
+            counterNames.addAll(record.getCounters().keySet());
+        }
+
+        writeDeltas(out, timestamps);
+
+        writeVarLong(out, columnCount);
+        final long[] column = new long[rowCount];
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            for (int i = 0; i < rowCount; i++) {
+                final long[] values = records.get(i).getValues();
+                column[i] = columnIndex < values.length ? values[columnIndex] : 0L;
+            }
+            writeDeltas(out, column);
+        }
+
+        writeVarLong(out, counterNames.size());
+        for (final String counterName : counterNames) {
+            writeString(out, counterName);
+            for (int i = 0; i < rowCount; i++) {
+                final Long value = records.get(i).getCounters().get(counterName);
+                column[i] = value == null ? 0L : value;
+            }
+            writeDeltas(out, column);
+        }
+    }
+
+    private static long[] readTimestamps(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_LENGTH);
+        readFully(channel, header, 0L);
+        header.flip();
+        if (header.getInt() != SEGMENT_MAGIC) {
+            throw new IOException("Status history segment has an invalid header");
+        }
+        final int version = header.getInt();
+        if (version != SEGMENT_VERSION) {
+            throw new IOException("Status history segment has version " + version + ", but only version " + SEGMENT_VERSION + " is supported");
+        }
+        header.getLong();
+
+        final ByteBuffer timestampBuffer = ByteBuffer.allocate(header.getInt());
+        readFully(channel, timestampBuffer, SEGMENT_HEADER_LENGTH);
+        timestampBuffer.flip();
+        return readDeltas(timestampBuffer);
+    }
+
+    private static void readSegment(final File file, final String componentId, final long start, final long end, final TierHistory history) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long[] timestamps = readTimestamps(channel);
+            for (final long timestamp : timestamps) {
+                if (timestamp >= start && timestamp <= end) {
+                    history.timestamps.add(timestamp);
+                }
+            }
+
+            final ByteBuffer block = findBlock(channel, componentId);
+            if (block == null) {
+                return;
+            }
+
+            readString(block);
+            final ComponentKind kind = ComponentKind.values()[block.get()];
+            final ComponentDetails details = readDetails(componentId, block);
+            history.update(kind, details);
+
+            final long[] rowTimestamps = readDeltas(block);
+            final int columnCount = (int) readVarLong(block);
+            final long[][] columns = new long[columnCount][];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = readDeltas(block);
+            }
+
+            final int counterCount = (int) readVarLong(block);
+            final String[] counterNames = new String[counterCount];
+            final long[][] counterColumns = new long[counterCount][];
+            for (int i = 0; i < counterCount; i++) {
+                counterNames[i] = readString(block);
+                counterColumns[i] = readDeltas(block);
+            }
+
+            for (int row = 0; row < rowTimestamps.length; row++) {
+                final long timestamp = rowTimestamps[row];
+                if (timestamp < start || timestamp > end) {
+                    continue;
+                }
+
+                final long[] values = new long[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = columns[i][row];
+                }
+
+                final Map<String, Long> counters = counterCount == 0 ? null : new HashMap<>();
+                for (int i = 0; i < counterCount; i++) {
+                    counters.put(counterNames[i], counterColumns[i][row]);
+                }
+
+                history.records.add(new ComponentStatusRecord(componentId, kind, timestamp, details, values, counters));
+            }
+        }
+    }
+
+    private static ByteBuffer findBlock(final FileChannel channel, final String componentId) throws IOException {
+        final ByteBuffer longBuffer = ByteBuffer.allocate(8);
+        readFully(channel, longBuffer, channel.size() - 8);
+        longBuffer.flip();
+        final long indexOffset = longBuffer.getLong();
+
+        final ByteBuffer intBuffer = ByteBuffer.allocate(4);
+        readFully(channel, intBuffer, indexOffset);
+        intBuffer.flip();
+        final int entryCount = intBuffer.getInt();
+
+        final int hash = componentId.hashCode();
+        final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_LENGTH);
+
+        // Find the first entry with the component's hash
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            entry.clear();
+            readFully(channel, entry, indexOffset + 4 + (long) mid * INDEX_ENTRY_LENGTH);
+            entry.flip();
+            if (entry.getInt() < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        // More than one component may have the same hash, so check the identifier of each of them
+        for (int i = low; i < entryCount; i++) {
+            entry.clear();
+            readFully(channel, entry, indexOffset + 4 + (long) i * INDEX_ENTRY_LENGTH);
+            entry.flip();
+            if (entry.getInt() != hash) {
+                return null;
+            }
+
+            final long blockOffset = entry.getLong();
+            intBuffer.clear();
+            readFully(channel, intBuffer, blockOffset);
+            intBuffer.flip();
+
+            final ByteBuffer block = ByteBuffer.allocate(intBuffer.getInt());
+            readFully(channel, block, blockOffset + 4);
+            block.flip();
+
+            block.mark();
+            if (componentId.equals(readString(block))) {
+                block.reset();
+                return block;
+            }
+        }
+
+        return null;
+    }
+
+    private static ComponentStatusRecord readLogRecord(final FileChannel channel, final long offset) throws IOException {
+        final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(channel, lengthBuffer, offset);
+        lengthBuffer.flip();
+
+        final ByteBuffer payload = ByteBuffer.allocate(lengthBuffer.getInt());
+        readFully(channel, payload, offset + 4);
+        payload.flip();
+        return decodeLogRecord(payload);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        long readPosition = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, readPosition);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of status history file at offset " + readPosition);
+            }
+            readPosition += read;
+        }
+    }
+
+    private static byte[] encodeLogRecord(final ComponentStatusRecord record, final boolean includeDetails) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(baos);
+        writeString(out, record.getComponentId());
+        out.writeByte(record.getKind().ordinal());
+        out.writeLong(record.getTimestamp());
+        out.writeByte((includeDetails ? FLAG_DETAILS : 0) | (record.hasValues() ? FLAG_VALUES : 0));
+
+        if (includeDetails) {
+            writeDetails(out, record.getDetails());
+        }
+
+        if (record.hasValues()) {
+            final long[] values = record.getValues();
+            writeVarLong(out, values.length);
+            for (final long value : values) {
+                writeVarLong(out, zigZag(value));
+            }
+
+            writeVarLong(out, record.getCounters().size());
+            for (final Map.Entry<String, Long> entry : record.getCounters().entrySet()) {
+                writeString(out, entry.getKey());
+                writeVarLong(out, zigZag(entry.getValue()));
+            }
+        }
+
+        return baos.toByteArray();
+    }
+
+    private static ComponentStatusRecord decodeLogRecord(final ByteBuffer buffer) {
+        final String componentId = readString(buffer);
+        final ComponentKind kind = ComponentKind.values()[buffer.get()];
+        final long timestamp = buffer.getLong();
+        final int flags = buffer.get();
+
+        final ComponentDetails details = (flags & FLAG_DETAILS) == 0 ? null : readDetails(componentId, buffer);
+
+        long[] values = null;
+        Map<String, Long> counters = null;
+        if ((flags & FLAG_VALUES) != 0) {
+            values = new long[(int) readVarLong(buffer)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = unZigZag(readVarLong(buffer));
+            }
+
+            final int counterCount = (int) readVarLong(buffer);
+            if (counterCount > 0) {
+                counters = new HashMap<>();
+                for (int i = 0; i < counterCount; i++) {
+                    counters.put(readString(buffer), unZigZag(readVarLong(buffer)));
+                }
+            }
+        }
+
+        return new ComponentStatusRecord(componentId, kind, timestamp, details, values, counters);
+    }
+
+    private static void writeDetails(final DataOutputStream out, final ComponentDetails details) throws IOException {
+        writeString(out, details.getGroupId());
+        writeString(out, details.getComponentName());
+        writeString(out, details.getComponentType());
+        writeString(out, details.getSourceName());
+        writeString(out, details.getDestinationName());
+        writeString(out, details.getTargetUri());
+    }
+
+    private static ComponentDetails readDetails(final String componentId, final ByteBuffer buffer) {
+        return new ComponentDetails(componentId, readString(buffer), readString(buffer), readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+    }
+
+    private static void writeDeltas(final DataOutputStream out, final long[] values) throws IOException {
+        writeVarLong(out, values.length);
+        long previous = 0L;
+        for (final long value : values) {
+            writeVarLong(out, zigZag(value - previous));
+            previous = value;
+        }
+    }
+
+    private static long[] readDeltas(final ByteBuffer buffer) {
+        final long[] values = new long[(int) readVarLong(buffer)];
+        long previous = 0L;
+        for (int i = 0; i < values.length; i++) {
+            previous += unZigZag(readVarLong(buffer));
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0L);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = (int) readVarLong(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+
+        final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    static long readVarLong(final ByteBuffer buffer) {
+        long value = 0L;
+        int shift = 0;
+        while (true) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+
+    /**
+     * The history of a single component that was read from a tier
+     */
+    static class TierHistory {
+        private final List<Long> timestamps = new ArrayList<>();
+        private final List<ComponentStatusRecord> records = new ArrayList<>();
+        private ComponentKind kind;
+        private ComponentDetails details;
+
+        private void update(final ComponentKind kind, final ComponentDetails details) {
+            this.kind = kind;
+            if (details != null) {
+                this.details = details;
+            }
+        }
+
+        /**
+         * @return the times of all captures in the requested period, in ascending order
+         */
+        List<Long> getTimestamps() {
+            final List<Long> sorted = new ArrayList<>(new TreeSet<>(timestamps));
+            return Collections.unmodifiableList(sorted);
+        }
+
+        /**
+         * @return the records of the component in the requested period that have values, in ascending order of time
+         */
+        List<ComponentStatusRecord> getRecords() {
+            records.sort((a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+            return Collections.unmodifiableList(records);
+        }
+
+        /**
+         * @return whether or not the component is known to the tier
+         */
+        boolean isComponentFound() {
+            return details != null;
+        }
+
+        ComponentKind getKind() {
+            return kind;
+        }
+
+        ComponentDetails getDetails() {
+            return details;
+        }
+    }
+
+    /**
+     * The state of a component within a log: its kind, its most recent details and the offsets of its records that have values
+     */
+    private static class LogComponent {
+        private final ComponentKind kind;
+        private ComponentDetails details;
+        private final LongList offsets = new LongList();
+
+        private LogComponent(final ComponentKind kind) {
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * The log that records are appended to for the segment of the current period
+     */
+    private static class ActiveLog implements Closeable {
+        private final long segmentStart;
+        private final File file;
+        private final LongList timestamps = new LongList();
+        private final Map<String, LogComponent> components = new HashMap<>();
+        private long length;
+        private DataOutputStream out;
+        private FileChannel readChannel;
+
+        private ActiveLog(final long segmentStart, final File file) {
+            this.segmentStart = segmentStart;
+            this.file = file;
+        }
+
+        /**
+         * Opens the log, reading any records that it already contains. If NiFi stopped while an entry was being written, the partial entry is discarded.
+         */
+        static ActiveLog open(final long segmentStart, final File file) throws IOException {
+            final ActiveLog log = new ActiveLog(segmentStart, file);
+
+            if (file.exists()) {
+                log.recover();
+            }
+
+            log.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+            return log;
+        }
+
+        private void recover() throws IOException {
+            long validLength = 0L;
+            try (final InputStream fis = new FileInputStream(file);
+                 final DataInputStream in = new DataInputStream(new BufferedInputStream(fis))) {
+
+                while (true) {
+                    final int entryType = in.read();
+                    if (entryType == -1) {
+                        break;
+                    }
+
+                    if (entryType == CAPTURE_ENTRY) {
+                        timestamps.add(in.readLong());
+                        validLength += 9;
+                    } else if (entryType == RECORD_ENTRY) {
+                        final int recordLength = in.readInt();
+                        final byte[] payload = new byte[recordLength];
+                        in.readFully(payload);
+                        final ComponentStatusRecord record = decodeLogRecord(ByteBuffer.wrap(payload));
+                        index(record, record.getDetails(), validLength + 1);
+                        validLength += 5 + recordLength;
+                    } else {
+                        logger.warn("Status history log {} contains an unexpected entry at offset {}; discarding the rest of the log", file, validLength);
+                        break;
+                    }
+                }
+            } catch (final EOFException eof) {
+                logger.warn("Status history log {} ends with a partially written entry, which will be discarded", file);
+            }
+
+            try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+            length = validLength;
+        }
+
+        private void index(final ComponentStatusRecord record, final ComponentDetails writtenDetails, final long recordOffset) {
+            final LogComponent component = components.computeIfAbsent(record.getComponentId(), id -> new LogComponent(record.getKind()));
+            if (writtenDetails != null) {
+                component.details = writtenDetails;
+            }
+            if (record.hasValues()) {
+                component.offsets.add(recordOffset);
+            }
+        }
+
+        void append(final long timestamp, final Collection<ComponentStatusRecord> records) throws IOException {
+            out.writeByte(CAPTURE_ENTRY);
+            out.writeLong(timestamp);
+            timestamps.add(timestamp);
+            length += 9;
+
+            for (final ComponentStatusRecord record : records) {
+                // Details are only written when they change, and records without values are only written to record the details.
+                final LogComponent existing = components.get(record.getComponentId());
+                final boolean detailsChanged = existing == null || !sameDetails(existing.details, record.getDetails());
+                if (!detailsChanged && !record.hasValues()) {
+                    continue;
+                }
+
+                final byte[] payload = encodeLogRecord(record, detailsChanged);
+                out.writeByte(RECORD_ENTRY);
+                out.writeInt(payload.length);
+                out.write(payload);
+
+                index(record, detailsChanged ? record.getDetails() : null, length + 1);
+                length += 5 + payload.length;
+            }
+
+            out.flush();
+        }
+
+        void read(final String componentId, final long start, final long end, final TierHistory history) throws IOException {
+            for (int i = 0; i < timestamps.size(); i++) {
+                final long timestamp = timestamps.get(i);
+                if (timestamp >= start && timestamp <= end) {
+                    history.timestamps.add(timestamp);
+                }
+            }
+
+            final LogComponent component = components.get(componentId);
+            if (component == null) {
+                return;
+            }
+
+            history.update(component.kind, component.details);
+            if (readChannel == null) {
+                readChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+
+            for (int i = 0; i < component.offsets.size(); i++) {
+                final ComponentStatusRecord record = readLogRecord(readChannel, component.offsets.get(i));
+                if (record.getTimestamp() >= start && record.getTimestamp() <= end) {
+                    history.records.add(record);
+                }
+            }
+        }
+
+        private static boolean sameDetails(final ComponentDetails a, final ComponentDetails b) {
+            return a != null && b != null
+                && Objects.equals(a.getGroupId(), b.getGroupId())
+                && Objects.equals(a.getComponentName(), b.getComponentName())
+                && Objects.equals(a.getComponentType(), b.getComponentType())
+                && Objects.equals(a.getSourceName(), b.getSourceName())
+                && Objects.equals(a.getDestinationName(), b.getDestinationName())
+                && Objects.equals(a.getTargetUri(), b.getTargetUri());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+            if (readChannel != null) {
+                readChannel.close();
+                readChannel = null;
+            }
+        }
+    }
+
+    /**
+     * A growable array of primitive longs, which keeps the offsets of the records in the active log without boxing each of them
+     */
+    private static class LongList {
+        private long[] values = new long[8];
+        private int size = 0;
+
+        void add(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long get(final int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
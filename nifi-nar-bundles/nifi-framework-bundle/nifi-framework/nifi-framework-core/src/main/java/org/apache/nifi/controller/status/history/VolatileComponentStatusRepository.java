@@ -107,7 +107,10 @@ public class VolatileComponentStatusRepository implements ComponentStatusReposit
             componentStatusHistories.values().forEach(history -> history.expireBefore(evicted));
         }
 
-        capture(rootGroupStatus, timestamp);
+        // The root group status may be omitted when only the status of the node is kept by this repository
+        if (rootGroupStatus != null) {
+            capture(rootGroupStatus, timestamp);
+        }
         nodeStatuses.add(nodeStatus);
         gcStatuses.add(gcStatus);
 
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.IncompleteSwapFileException;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+import org.apache.nifi.stream.io.StreamUtils;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads swap files that were written by the {@link CompactSwapSerializer}. The Swap Summary is built entirely from the header of the
+ * swap file, so {@link #getSwapSummary(DataInputStream, String, ResourceClaimManager)} does not read any of the FlowFiles.
+ */
+public class CompactSwapDeserializer implements SwapDeserializer {
+
+    @Override
+    public SwapContents deserializeFlowFiles(final DataInputStream in, final String swapLocation, final FlowFileQueue queue, final ResourceClaimManager claimManager) throws IOException {
+        final Header header = readHeader(in, swapLocation, claimManager);
+        if ((header.flags & CompactSwapSerializer.FLAG_COMPRESSED) == 0) {
+            return readFlowFiles(in, header, swapLocation);
+        }
+
+        final Inflater inflater = new Inflater();
+        try {
+            final DataInputStream bodyIn = new DataInputStream(new InflaterInputStream(in, inflater, 65536));
+            return readFlowFiles(bodyIn, header, swapLocation);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public SwapSummary getSwapSummary(final DataInputStream in, final String swapLocation, final ResourceClaimManager claimManager) throws IOException {
+        final Header header = readHeader(in, swapLocation, claimManager);
+
+        final List<ResourceClaim> resourceClaims = new ArrayList<>();
+        for (int i = 0; i < header.resourceClaims.length; i++) {
+            for (int j = 0; j < header.claimReferenceCounts[i]; j++) {
+                resourceClaims.add(header.resourceClaims[i]);
+            }
+        }
+
+        return new StandardSwapSummary(header.queueSize, header.maxFlowFileId, resourceClaims);
+    }
+
+    private Header readHeader(final DataInputStream in, final String swapLocation, final ResourceClaimManager claimManager) throws IOException {
+        final int encodingVersion = in.readInt();
+        if (encodingVersion > CompactSwapSerializer.ENCODING_VERSION) {
+            throw new IOException("Cannot swap FlowFiles in from " + swapLocation + " because the encoding version is "
+                + encodingVersion + ", which is too new (expecting " + CompactSwapSerializer.ENCODING_VERSION + " or less)");
+        }
+
+        final Header header = new Header();
+        header.encodingVersion = encodingVersion;
+        header.flags = in.readUnsignedByte();
+        in.readUTF(); // queue identifier
+        final int flowFileCount = in.readInt();
+        final long contentSize = in.readLong();
+        header.queueSize = new QueueSize(flowFileCount, contentSize);
+        final long maxFlowFileId = in.readLong();
+        header.maxFlowFileId = maxFlowFileId < 0 ? null : maxFlowFileId;
+
+        final int claimCount = in.readInt();
+        header.resourceClaims = new ResourceClaim[claimCount];
+        header.claimReferenceCounts = new int[claimCount];
+        for (int i = 0; i < claimCount; i++) {
+            final String container = in.readUTF();
+            final String section = in.readUTF();
+            final String identifier = in.readUTF();
+            final boolean lossTolerant = in.readBoolean();
+            header.claimReferenceCounts[i] = in.readInt();
+
+            // Preserve the existing Resource Claim, if there is one, because the Resource Claim Manager determines whether or not it is writable.
+            ResourceClaim resourceClaim = claimManager.getResourceClaim(container, section, identifier);
+            if (resourceClaim == null) {
+                resourceClaim = claimManager.newResourceClaim(container, section, identifier, lossTolerant, false);
+            }
+
+            header.resourceClaims[i] = resourceClaim;
+        }
+
+        return header;
+    }
+
+    private SwapContents readFlowFiles(final DataInputStream in, final Header header, final String swapLocation) throws IOException {
+        final int flowFileCount = header.queueSize.getObjectCount();
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(flowFileCount);
+        final List<ResourceClaim> resourceClaims = new ArrayList<>(flowFileCount);
+        final List<String> attributeNames = new ArrayList<>();
+
+        for (int i = 0; i < flowFileCount; i++) {
+            try {
+                final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder()
+                    .id(in.readLong())
+                    .entryDate(in.readLong())
+                    .lineageStart(in.readLong(), in.readLong());
+
+                // Version 1 always wrote a last queued date, using 0 when it was unknown; later versions write it only when it is known.
+                if (header.encodingVersion < 2 || in.readBoolean()) {
+                    builder.lastQueued(in.readLong(), in.readLong());
+                }
+
+                builder.size(in.readLong());
+
+                final int claimIndex = in.readInt();
+                if (claimIndex != CompactSwapSerializer.NO_CLAIM) {
+                    final ResourceClaim resourceClaim = header.resourceClaims[claimIndex];
+                    final StandardContentClaim contentClaim = new StandardContentClaim(resourceClaim, in.readLong());
+                    contentClaim.setLength(in.readLong());
+                    builder.contentClaim(contentClaim);
+                    builder.contentClaimOffset(in.readLong());
+                    resourceClaims.add(resourceClaim);
+                }
+
+                final int attributeCount = in.readInt();
+                for (int j = 0; j < attributeCount; j++) {
+                    final int nameIndex = in.readInt();
+                    final String name;
+                    if (nameIndex == attributeNames.size()) {
+                        name = readString(in);
+                        attributeNames.add(name);
+                    } else {
+                        name = attributeNames.get(nameIndex);
+                    }
+
+                    builder.addAttribute(name, readString(in));
+                }
+
+                flowFiles.add(builder.build());
+            } catch (final EOFException eof) {
+                final SwapSummary swapSummary = new StandardSwapSummary(header.queueSize, header.maxFlowFileId, resourceClaims);
+                final SwapContents partialContents = new StandardSwapContents(swapSummary, flowFiles);
+                throw new IncompleteSwapFileException(swapLocation, partialContents);
+            }
+        }
+
+        final SwapSummary swapSummary = new StandardSwapSummary(header.queueSize, header.maxFlowFileId, resourceClaims);
+        return new StandardSwapContents(swapSummary, flowFiles);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        StreamUtils.fillBuffer(in, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static String getSerializationName() {
+        return CompactSwapSerializer.SERIALIZATION_NAME;
+    }
+
+    private static class Header {
+        private int encodingVersion;
+        private int flags;
+        private QueueSize queueSize;
+        private Long maxFlowFileId;
+        private ResourceClaim[] resourceClaims;
+        private int[] claimReferenceCounts;
+    }
+}
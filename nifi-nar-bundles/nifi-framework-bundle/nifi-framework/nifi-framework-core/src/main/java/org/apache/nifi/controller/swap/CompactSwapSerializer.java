@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * <p>
+ * Writes swap files in a compact binary format. The file begins with a header that contains everything needed to build the
+ * Swap Summary: the queue identifier, the number and total size of the FlowFiles, the largest FlowFile ID, and each distinct
+ * Resource Claim along with the number of FlowFiles that reference it. The header is followed by the FlowFiles themselves,
+ * which may optionally be compressed. Each FlowFile refers to its Resource Claim by its index in the header, and each attribute
+ * name is written only the first time that it is encountered and referred to by index thereafter.
+ * </p>
+ *
+ * <p>
+ * The format is as follows:
+ * </p>
+ *
+ * <pre>
+ * int     encoding version
+ * byte    flags (FLAG_COMPRESSED)
+ * UTF     queue identifier
+ * int     FlowFile count
+ * long    total content size
+ * long    max FlowFile ID, or -1 if there are no FlowFiles
+ * int     number of Resource Claims, followed by that many of:
+ *   UTF     container
+ *   UTF     section
+ *   UTF     identifier
+ *   boolean loss tolerant
+ *   int     number of FlowFiles referencing the claim
+ * FlowFiles, each of which is:
+ *   long    id, entry date, lineage start date, lineage start index
+ *   boolean whether or not the last queued date is known. If true, followed by:
+ *     long    last queued date, queue date index
+ *   long    size
+ *   int     Resource Claim index, or -1 if there is no Content Claim. If not -1, followed by:
+ *     long    resource claim offset, content claim length, content claim offset
+ *   int     number of attributes, followed by that many of:
+ *     int     attribute name index. If equal to the number of names seen so far, followed by the name as a string
+ *     string  attribute value
+ * </pre>
+ *
+ * <p>
+ * Strings in the FlowFile section are written as an int byte length followed by the UTF-8 bytes, or a length of -1 for a null value.
+ * </p>
+ */
+public class CompactSwapSerializer implements SwapSerializer {
+    static final String SERIALIZATION_NAME = "Compact Swap Serialization";
+    static final int ENCODING_VERSION = 2;
+    static final int FLAG_COMPRESSED = 0x01;
+    static final int NO_CLAIM = -1;
+
+    private final boolean compress;
+
+    public CompactSwapSerializer() {
+        this(false);
+    }
+
+    public CompactSwapSerializer(final boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public void serializeFlowFiles(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final String swapLocation, final OutputStream destination) throws IOException {
+        long contentSize = 0L;
+        long maxFlowFileId = -1L;
+        final Map<ResourceClaim, Integer> claimCounts = new LinkedHashMap<>();
+        for (final FlowFileRecord flowFile : toSwap) {
+            contentSize += flowFile.getSize();
+            if (flowFile.getId() > maxFlowFileId) {
+                maxFlowFileId = flowFile.getId();
+            }
+
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim != null) {
+                claimCounts.merge(contentClaim.getResourceClaim(), 1, Integer::sum);
+            }
+        }
+
+        final DataOutputStream headerOut = new DataOutputStream(destination);
+        headerOut.writeInt(ENCODING_VERSION);
+        headerOut.writeByte(compress ? FLAG_COMPRESSED : 0);
+        headerOut.writeUTF(queue.getIdentifier());
+        headerOut.writeInt(toSwap.size());
+        headerOut.writeLong(contentSize);
+        headerOut.writeLong(maxFlowFileId);
+
+        headerOut.writeInt(claimCounts.size());
+        final Map<ResourceClaim, Integer> claimIndices = new HashMap<>(claimCounts.size());
+        for (final Map.Entry<ResourceClaim, Integer> entry : claimCounts.entrySet()) {
+            final ResourceClaim resourceClaim = entry.getKey();
+            headerOut.writeUTF(resourceClaim.getContainer());
+            headerOut.writeUTF(resourceClaim.getSection());
+            headerOut.writeUTF(resourceClaim.getId());
+            headerOut.writeBoolean(resourceClaim.isLossTolerant());
+            headerOut.writeInt(entry.getValue());
+            claimIndices.put(resourceClaim, claimIndices.size());
+        }
+        headerOut.flush();
+
+        if (compress) {
+            final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                final DeflaterOutputStream deflaterOut = new DeflaterOutputStream(destination, deflater, 65536);
+                final DataOutputStream bodyOut = new DataOutputStream(deflaterOut);
+                writeFlowFiles(toSwap, claimIndices, bodyOut);
+                bodyOut.flush();
+                deflaterOut.finish();
+            } finally {
+                deflater.end();
+            }
+        } else {
+            writeFlowFiles(toSwap, claimIndices, headerOut);
+        }
+
+        destination.flush();
+    }
+
+    private void writeFlowFiles(final List<FlowFileRecord> toSwap, final Map<ResourceClaim, Integer> claimIndices, final DataOutputStream out) throws IOException {
+        final Map<String, Integer> attributeNameIndices = new HashMap<>();
+
+        for (final FlowFileRecord flowFile : toSwap) {
+            out.writeLong(flowFile.getId());
+            out.writeLong(flowFile.getEntryDate());
+            out.writeLong(flowFile.getLineageStartDate());
+            out.writeLong(flowFile.getLineageStartIndex());
+
+            final Long lastQueueDate = flowFile.getLastQueueDate();
+            out.writeBoolean(lastQueueDate != null);
+            if (lastQueueDate != null) {
+                out.writeLong(lastQueueDate);
+                out.writeLong(flowFile.getQueueDateIndex());
+            }
+
+            out.writeLong(flowFile.getSize());
+
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim == null) {
+                out.writeInt(NO_CLAIM);
+            } else {
+                out.writeInt(claimIndices.get(contentClaim.getResourceClaim()));
+                out.writeLong(contentClaim.getOffset());
+                out.writeLong(contentClaim.getLength());
+                out.writeLong(flowFile.getContentClaimOffset());
+            }
+
+            final Map<String, String> attributes = flowFile.getAttributes();
+            out.writeInt(attributes.size());
+            for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+                final String name = entry.getKey();
+                final Integer nameIndex = attributeNameIndices.get(name);
+                if (nameIndex == null) {
+                    final int newIndex = attributeNameIndices.size();
+                    attributeNameIndices.put(name, newIndex);
+                    out.writeInt(newIndex);
+                    writeString(name, out);
+                } else {
+                    out.writeInt(nameIndex);
+                }
+
+                writeString(entry.getValue(), out);
+            }
+        }
+    }
+
+    private static void writeString(final String value, final DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public String getSerializationName() {
+        return SERIALIZATION_NAME;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.tasks;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Determines the Run Duration of a component that supports session batching, based on how the component behaved in its previous runs, rather than
+ * using a fixed Run Duration. The Run Duration bounds how long a FlowFile may be held in an uncommitted session, so it is kept below a target latency.
+ * </p>
+ *
+ * <p>
+ * The Run Duration is increased in small steps while runs end with FlowFiles still queued for the component, as a longer batch would have let the
+ * component process more of them in the same session. It is halved when downstream back pressure is applied, as a longer batch would only hold on to
+ * FlowFiles that cannot be sent anywhere, and it is dropped to zero if a single invocation of the component takes longer than the target latency, as
+ * batching would then only add latency. When a run ends because the component has no more work to do, the Run Duration is left unchanged.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe, so that it can be shared by all of the concurrent tasks of a component.
+ * </p>
+ */
+public class AdaptiveRunDuration {
+    private static final int INCREASE_STEPS = 10;
+
+    private final long targetLatencyNanos;
+    private final long stepNanos;
+    private final AtomicLong runDurationNanos = new AtomicLong(0L);
+
+    /**
+     * @param targetLatencyNanos the latency, in nanoseconds, that a FlowFile should not be held in an uncommitted session for longer than
+     */
+    public AdaptiveRunDuration(final long targetLatencyNanos) {
+        if (targetLatencyNanos <= 0L) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.stepNanos = Math.max(1L, targetLatencyNanos / INCREASE_STEPS);
+    }
+
+    /**
+     * @return the Run Duration, in nanoseconds, that the next run of the component should use
+     */
+    public long getRunDurationNanos() {
+        return runDurationNanos.get();
+    }
+
+    /**
+     * @return the target latency, in nanoseconds
+     */
+    public long getTargetLatencyNanos() {
+        return targetLatencyNanos;
+    }
+
+    /**
+     * Adjusts the Run Duration based on the outcome of a run of the component
+     *
+     * @param invocations the number of times that the component was triggered during the run
+     * @param processingNanos the number of nanoseconds that the run took
+     * @param workRemaining whether or not the component still had work to do, such as FlowFiles queued, when the run ended
+     * @param backPressureApplied whether or not downstream back pressure was applied to the component when the run ended
+     */
+    public void onRunComplete(final int invocations, final long processingNanos, final boolean workRemaining, final boolean backPressureApplied) {
+        if (invocations < 1) {
+            return;
+        }
+
+        final long invocationNanos = processingNanos / invocations;
+        if (invocationNanos >= targetLatencyNanos) {
+            runDurationNanos.set(0L);
+        } else if (backPressureApplied) {
+            runDurationNanos.updateAndGet(current -> current / 2 < stepNanos ? 0L : current / 2);
+        } else if (workRemaining) {
+            // A FlowFile may be held for the entire Run Duration plus one invocation, so leave room for that invocation.
+            final long maxRunDurationNanos = targetLatencyNanos - invocationNanos;
+            runDurationNanos.updateAndGet(current -> Math.min(maxRunDurationNanos, current + stepNanos));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveRunDuration[runDurationNanos=" + runDurationNanos.get() + ", targetLatencyNanos=" + targetLatencyNanos + "]";
+    }
+}
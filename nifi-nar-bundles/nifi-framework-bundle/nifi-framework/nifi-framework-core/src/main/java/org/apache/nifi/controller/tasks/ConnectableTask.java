@@ -68,13 +68,25 @@ public class ConnectableTask {
     private final ProcessContext processContext;
     private final FlowController flowController;
     private final int numRelationships;
+    private final AdaptiveRunDuration adaptiveRunDuration;
 
 
     public ConnectableTask(final SchedulingAgent schedulingAgent, final Connectable connectable,
             final FlowController flowController, final RepositoryContextFactory contextFactory, final LifecycleState scheduleState,
             final StringEncryptor encryptor) {
+        this(schedulingAgent, connectable, flowController, contextFactory, scheduleState, encryptor, null);
+    }
+
+    /**
+     * @param adaptiveRunDuration determines the Run Duration to use instead of the component's configured Run Duration, or <code>null</code> to use
+     * the configured Run Duration
+     */
+    public ConnectableTask(final SchedulingAgent schedulingAgent, final Connectable connectable,
+            final FlowController flowController, final RepositoryContextFactory contextFactory, final LifecycleState scheduleState,
+            final StringEncryptor encryptor, final AdaptiveRunDuration adaptiveRunDuration) {
 
         this.schedulingAgent = schedulingAgent;
+        this.adaptiveRunDuration = adaptiveRunDuration;
         this.connectable = connectable;
         this.scheduleState = scheduleState;
         this.numRelationships = connectable.getRelationships().size();
@@ -142,6 +154,15 @@ public class ConnectableTask {
         return isSourceComponent || Connectables.flowFilesQueued(connectable);
     }
 
+    private boolean isRelationshipAvailabilitySatisfied() {
+        if (numRelationships == 0) {
+            return true;
+        }
+
+        final int requiredNumberOfAvailableRelationships = connectable.isTriggerWhenAnyDestinationAvailable() ? 1 : numRelationships;
+        return repositoryContext.isRelationshipAvailabilitySatisfied(requiredNumberOfAvailableRelationships);
+    }
+
     private boolean isBackPressureEngaged() {
         return connectable.getIncomingConnections().stream()
             .filter(con -> con.getSource() == connectable)
@@ -150,6 +171,17 @@ public class ConnectableTask {
     }
 
     public InvocationResult invoke() {
+        return invoke(0L);
+    }
+
+    /**
+     * Triggers the component, if it has work to do
+     *
+     * @param taskWaitNanos the number of nanoseconds that the task waited for a thread after it was due to run, which is recorded
+     * against the component if it is triggered
+     * @return the result of the invocation
+     */
+    public InvocationResult invoke(final long taskWaitNanos) {
         if (scheduleState.isTerminated()) {
             logger.debug("Will not trigger {} because task is terminated", connectable);
             return InvocationResult.DO_NOT_YIELD;
@@ -170,20 +202,17 @@ public class ConnectableTask {
         // Make sure processor has work to do.
         if (!isWorkToDo()) {
             logger.debug("Yielding {} because it has no work to do", connectable);
-            return InvocationResult.yield("No work to do");
+            return InvocationResult.NO_WORK;
         }
 
-        if (numRelationships > 0) {
-            final int requiredNumberOfAvailableRelationships = connectable.isTriggerWhenAnyDestinationAvailable() ? 1 : numRelationships;
-            if (!repositoryContext.isRelationshipAvailabilitySatisfied(requiredNumberOfAvailableRelationships)) {
-                logger.debug("Yielding {} because Backpressure is Applied", connectable);
-                return InvocationResult.yield("Backpressure Applied");
-            }
+        if (!isRelationshipAvailabilitySatisfied()) {
+            logger.debug("Yielding {} because Backpressure is Applied", connectable);
+            return InvocationResult.BACKPRESSURE_APPLIED;
         }
 
         logger.debug("Triggering {}", connectable);
 
-        final long batchNanos = connectable.getRunDuration(TimeUnit.NANOSECONDS);
+        final long batchNanos = adaptiveRunDuration == null ? connectable.getRunDuration(TimeUnit.NANOSECONDS) : adaptiveRunDuration.getRunDurationNanos();
         final ProcessSessionFactory sessionFactory;
         final StandardProcessSession rawSession;
         final boolean batch;
@@ -237,10 +266,7 @@ public class ConnectableTask {
                         break;
                     }
 
-                    if (numRelationships > 0) {
-                        final int requiredNumberOfAvailableRelationships = connectable.isTriggerWhenAnyDestinationAvailable() ? 1 : numRelationships;
-                        shouldRun = repositoryContext.isRelationshipAvailabilitySatisfied(requiredNumberOfAvailableRelationships);
-                    }
+                    shouldRun = isRelationshipAvailabilitySatisfied();
                 }
             } catch (final TerminatedTaskException tte) {
                 final ComponentLog procLog = new SimpleProcessLogger(connectable.getIdentifier(), connectable.getRunnableComponent());
@@ -276,9 +302,15 @@ public class ConnectableTask {
 
                 final long processingNanos = System.nanoTime() - startNanos;
 
+                if (adaptiveRunDuration != null) {
+                    final boolean workRemaining = !isYielded() && isWorkToDo();
+                    adaptiveRunDuration.onRunComplete(invocationCount, processingNanos, workRemaining, !isRelationshipAvailabilitySatisfied());
+                }
+
                 try {
                     final StandardFlowFileEvent procEvent = new StandardFlowFileEvent();
                     procEvent.setProcessingNanos(processingNanos);
+                    procEvent.setTaskWaitNanos(taskWaitNanos);
                     procEvent.setInvocations(invocationCount);
                     repositoryContext.getFlowFileEventRepository().updateRepository(procEvent, connectable.getIdentifier());
                 } catch (final IOException e) {
@@ -35,6 +35,10 @@ public interface InvocationResult {
         }
     };
 
+    public static InvocationResult NO_WORK = yield("No work to do");
+
+    public static InvocationResult BACKPRESSURE_APPLIED = yield("Backpressure Applied");
+
     public static InvocationResult yield(final String explanation) {
         return new InvocationResult() {
             @Override
@@ -345,6 +345,19 @@ public class FingerprintFactory {
         return builder;
     }
 
+    private void addProvenanceCapturePolicyFingerprint(final StringBuilder builder, final Element policyElem) {
+        appendFirstValue(builder, DomUtils.getChildNodesByTagName(policyElem, "lineageOnly"));
+        for (final Element samplingRateElem : DomUtils.getChildElementsByTagName(policyElem, "samplingRate")) {
+            builder.append(samplingRateElem.getAttribute("eventType")).append("=").append(samplingRateElem.getTextContent());
+        }
+        for (final Element attributeElem : DomUtils.getChildElementsByTagName(policyElem, "includedAttribute")) {
+            builder.append("+").append(attributeElem.getTextContent());
+        }
+        for (final Element attributeElem : DomUtils.getChildElementsByTagName(policyElem, "excludedAttribute")) {
+            builder.append("-").append(attributeElem.getTextContent());
+        }
+    }
+
     StringBuilder addProcessGroupFingerprint(final StringBuilder builder, final Element processGroupElem, final FlowEncodingVersion encodingVersion) throws FingerprintException {
         // id
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "id"));
@@ -352,6 +365,14 @@ public class FingerprintFactory {
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "parameterContextId"));
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "flowfileConcurrency"));
         appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "flowfileOutboundPolicy"));
+        appendFirstValue(builder, DomUtils.getChildNodesByTagName(processGroupElem, "maxTimerDrivenThreadCount"));
+
+        final Element provenanceCapturePolicy = DomUtils.getChild(processGroupElem, "provenanceCapturePolicy");
+        if (provenanceCapturePolicy == null) {
+            builder.append("NO_PROVENANCE_CAPTURE_POLICY");
+        } else {
+            addProvenanceCapturePolicyFingerprint(builder, provenanceCapturePolicy);
+        }
 
         final Element versionControlInfo = DomUtils.getChild(processGroupElem, "versionControlInformation");
         if (versionControlInfo == null) {
@@ -40,12 +40,22 @@ import java.io.OutputStream;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
-import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class TestFileSystemSwapManager {
@@ -79,9 +89,9 @@ public class TestFileSystemSwapManager {
 
         final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
         Mockito.doThrow(new IOException("Intentional IOException for unit test"))
-            .when(flowFileRepo).updateRepository(anyCollection());
+            .when(flowFileRepo).swapFlowFilesOut(anyList(), any(FlowFileQueue.class), anyString());
 
-        final FileSystemSwapManager swapManager = createSwapManager();
+        final FileSystemSwapManager swapManager = createSwapManager(flowFileRepo);
 
         final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
         for (int i=0; i < 10000; i++) {
@@ -146,6 +156,192 @@ public class TestFileSystemSwapManager {
         assertEquals(10000, contents.getFlowFiles().size());
     }
 
+    @Test
+    public void testBackgroundSwapOutThenSwapIn() throws IOException {
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        final FileSystemSwapManager swapManager = new FileSystemSwapManager(Paths.get("target/background-swap"), 2, true);
+        initialize(swapManager, flowFileRepo);
+
+        final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            flowFileRecords.add(new MockFlowFileRecord(i));
+        }
+
+        final String swapLocation = swapManager.swapOut(flowFileRecords, flowFileQueue, "partition-1");
+        assertNotNull(swapLocation);
+        assertEquals(10000, swapManager.getSwapSummary(swapLocation).getQueueSize().getObjectCount());
+
+        final SwapContents contents = swapManager.swapIn(swapLocation, flowFileQueue);
+        assertEquals(10000, contents.getFlowFiles().size());
+        for (int i = 0; i < 10000; i++) {
+            assertSame(flowFileRecords.get(i), contents.getFlowFiles().get(i));
+        }
+
+        verify(flowFileRepo).swapFlowFilesOut(anyList(), eq(flowFileQueue), eq(swapLocation));
+        verify(flowFileRepo).swapFlowFilesIn(eq(swapLocation), anyList(), eq(flowFileQueue));
+        assertFalse(new File(swapLocation).exists());
+        swapManager.shutdown();
+    }
+
+    @Test(timeout = 30_000)
+    public void testPurgeCancelsPendingBackgroundSwapOuts() throws IOException, InterruptedException {
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        // Hold the only swap I/O thread in the first swap out, so that the second is still waiting for a thread when the queue is purged
+        final CountDownLatch swapOutStarted = new CountDownLatch(1);
+        final CountDownLatch releaseSwapOut = new CountDownLatch(1);
+        final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        Mockito.doAnswer(invocation -> {
+            swapOutStarted.countDown();
+            releaseSwapOut.await();
+            return null;
+        }).when(flowFileRepo).swapFlowFilesOut(anyList(), any(FlowFileQueue.class), anyString());
+
+        final File swapDirectory = new File("target/purge-swap/swap");
+        deleteSwapFiles(swapDirectory);
+        final FileSystemSwapManager swapManager = new FileSystemSwapManager(Paths.get("target/purge-swap"), 1, false);
+        initialize(swapManager, flowFileRepo);
+
+        final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            flowFileRecords.add(new MockFlowFileRecord(i));
+        }
+
+        swapManager.swapOut(flowFileRecords, flowFileQueue, "partition-1");
+        swapOutStarted.await();
+        swapManager.swapOut(flowFileRecords, flowFileQueue, "partition-1");
+
+        final Thread purgeThread = new Thread(swapManager::purge);
+        purgeThread.start();
+
+        // The purge must wait for the swap file that is being written, rather than leave it behind
+        purgeThread.join(500L);
+        assertTrue(purgeThread.isAlive());
+        releaseSwapOut.countDown();
+        purgeThread.join();
+
+        verify(flowFileRepo).swapFlowFilesOut(anyList(), any(FlowFileQueue.class), anyString());
+        assertEquals(0, swapDirectory.listFiles().length);
+        swapManager.shutdown();
+    }
+
+    private void deleteSwapFiles(final File swapDirectory) {
+        final File[] files = swapDirectory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testFailedBackgroundSwapOutKeepsFlowFilesInMemory() throws IOException {
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        Mockito.doThrow(new IOException("Intentional IOException for unit test"))
+            .when(flowFileRepo).swapFlowFilesOut(anyList(), any(FlowFileQueue.class), anyString());
+
+        final FileSystemSwapManager swapManager = new FileSystemSwapManager(Paths.get("target/background-swap"), 2, false);
+        initialize(swapManager, flowFileRepo);
+
+        final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            flowFileRecords.add(new MockFlowFileRecord(i));
+        }
+
+        // The failure happens in the background, so the FlowFiles must still be returned when they are swapped in
+        final String swapLocation = swapManager.swapOut(flowFileRecords, flowFileQueue, "partition-1");
+        final SwapContents contents = swapManager.swapIn(swapLocation, flowFileQueue);
+        assertEquals(10000, contents.getFlowFiles().size());
+
+        verify(flowFileRepo, never()).swapFlowFilesIn(anyString(), anyList(), any(FlowFileQueue.class));
+        assertFalse(new File(swapLocation).exists());
+        swapManager.shutdown();
+    }
+
+    @Test
+    public void testPrefetchThenSwapIn() throws IOException {
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+
+        // Write the swap file synchronously, then read it back with a Swap Manager that prefetches
+        final FileSystemSwapManager writingSwapManager = new FileSystemSwapManager(Paths.get("target/prefetch-swap"));
+        initialize(writingSwapManager, flowFileRepo);
+
+        final List<FlowFileRecord> flowFileRecords = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            flowFileRecords.add(new MockFlowFileRecord(i));
+        }
+
+        final String swapLocation = writingSwapManager.swapOut(flowFileRecords, flowFileQueue, null);
+        assertTrue(new File(swapLocation).exists());
+
+        final FileSystemSwapManager prefetchingSwapManager = new FileSystemSwapManager(Paths.get("target/prefetch-swap"), 2, false);
+        initialize(prefetchingSwapManager, flowFileRepo);
+        prefetchingSwapManager.prefetch(swapLocation, flowFileQueue);
+
+        final SwapContents contents = prefetchingSwapManager.swapIn(swapLocation, flowFileQueue);
+        assertEquals(10000, contents.getFlowFiles().size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(flowFileRecords.get(i).getId(), contents.getFlowFiles().get(i).getId());
+            assertEquals(flowFileRecords.get(i).getSize(), contents.getFlowFiles().get(i).getSize());
+        }
+
+        verify(flowFileRepo).swapFlowFilesIn(eq(swapLocation), anyList(), eq(flowFileQueue));
+        assertFalse(new File(swapLocation).exists());
+        prefetchingSwapManager.shutdown();
+    }
+
+    @Test
+    public void testPrefetchesDiscardedWhenSwapFilesRemoved() throws IOException {
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        when(flowFileRepo.isValidSwapLocationSuffix(anyString())).thenReturn(true);
+
+        final FileSystemSwapManager writingSwapManager = new FileSystemSwapManager(Paths.get("target/prefetch-discard-swap"));
+        initialize(writingSwapManager, flowFileRepo);
+        writingSwapManager.purge();
+
+        final List<String> swapLocations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            swapLocations.add(writingSwapManager.swapOut(Collections.singletonList(new MockFlowFileRecord(i)), flowFileQueue, null));
+        }
+
+        final FileSystemSwapManager prefetchingSwapManager = new FileSystemSwapManager(Paths.get("target/prefetch-discard-swap"), 1, false);
+        initialize(prefetchingSwapManager, flowFileRepo);
+        prefetchingSwapManager.prefetch(swapLocations.get(0), flowFileQueue);
+        prefetchingSwapManager.prefetch(swapLocations.get(1), flowFileQueue);
+        assertTrue(prefetchingSwapManager.isPrefetched(swapLocations.get(0)));
+        assertTrue(prefetchingSwapManager.isPrefetched(swapLocations.get(1)));
+
+        // The prefetched swap files are swapped in elsewhere, which must not prevent other swap files from being prefetched
+        writingSwapManager.swapIn(swapLocations.get(0), flowFileQueue);
+        writingSwapManager.swapIn(swapLocations.get(1), flowFileQueue);
+        prefetchingSwapManager.prefetch(swapLocations.get(2), flowFileQueue);
+        assertTrue(prefetchingSwapManager.isPrefetched(swapLocations.get(2)));
+        assertFalse(prefetchingSwapManager.isPrefetched(swapLocations.get(0)));
+        assertFalse(prefetchingSwapManager.isPrefetched(swapLocations.get(1)));
+
+        prefetchingSwapManager.purge();
+        assertFalse(prefetchingSwapManager.isPrefetched(swapLocations.get(2)));
+
+        // Once shut down, the Swap Manager no longer prefetches swap files
+        prefetchingSwapManager.shutdown();
+        prefetchingSwapManager.prefetch(swapLocations.get(3), flowFileQueue);
+        assertFalse(prefetchingSwapManager.isPrefetched(swapLocations.get(3)));
+    }
+
     private FileSystemSwapManager createSwapManager() {
         final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
         return createSwapManager(flowFileRepo);
@@ -153,6 +349,11 @@ public class TestFileSystemSwapManager {
 
     private FileSystemSwapManager createSwapManager(final FlowFileRepository flowFileRepo) {
         final FileSystemSwapManager swapManager = new FileSystemSwapManager();
+        initialize(swapManager, flowFileRepo);
+        return swapManager;
+    }
+
+    private void initialize(final FileSystemSwapManager swapManager, final FlowFileRepository flowFileRepo) {
         final ResourceClaimManager resourceClaimManager = new NopResourceClaimManager();
         swapManager.initialize(new SwapManagerInitializationContext() {
             @Override
@@ -170,8 +371,6 @@ public class TestFileSystemSwapManager {
                 return EventReporter.NO_OP;
             }
         });
-
-        return swapManager;
     }
 
     public class NopResourceClaimManager implements ResourceClaimManager {
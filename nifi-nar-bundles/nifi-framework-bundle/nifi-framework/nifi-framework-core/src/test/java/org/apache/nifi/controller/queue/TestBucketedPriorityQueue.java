@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.MockSwapManager;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+import org.apache.nifi.prioritizer.FirstInFirstOutPrioritizer;
+import org.apache.nifi.processor.FlowFileFilter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class TestBucketedPriorityQueue {
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+    private final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+    private final DropFlowFileAction dropAction = (flowFiles, requestor) -> new QueueSize(flowFiles.size(), flowFiles.stream().mapToLong(FlowFileRecord::getSize).sum());
+
+    private MockSwapManager swapManager;
+
+    @Before
+    public void setup() {
+        swapManager = new MockSwapManager();
+        when(flowFileQueue.getIdentifier()).thenReturn("unit-test");
+    }
+
+    private FlowFileRecord createFlowFile(final String priority) {
+        return createFlowFile(priority, -1L);
+    }
+
+    private FlowFileRecord createFlowFile(final String priority, final long penaltyExpiration) {
+        return new StandardFlowFileRecord.Builder()
+            .id(idGenerator.getAndIncrement())
+            .addAttribute("priority", priority)
+            .addAttribute("group", priority.substring(0, 1))
+            .size(10L)
+            .penaltyExpirationTime(penaltyExpiration)
+            .build();
+    }
+
+    @Test
+    public void testOrderedByKeyThenArrival() {
+        final BucketedPriorityQueue queue = new BucketedPriorityQueue(Collections.singletonList(new AttributePrioritizer("priority")));
+        final FlowFileRecord b1 = createFlowFile("b");
+        final FlowFileRecord a1 = createFlowFile("a");
+        final FlowFileRecord c1 = createFlowFile("c");
+        final FlowFileRecord a2 = createFlowFile("a");
+        final FlowFileRecord b2 = createFlowFile("b");
+        queue.addAll(Arrays.asList(b1, a1, c1, a2, b2));
+
+        assertEquals(5, queue.size());
+        assertSame(a1, queue.peek());
+        assertEquals(Arrays.asList(a1, a2, b1, b2, c1), new ArrayList<>(queue));
+
+        for (final FlowFileRecord expected : Arrays.asList(a1, a2, b1, b2, c1)) {
+            assertSame(expected, queue.poll());
+        }
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    @Test
+    public void testMultiplePrioritizers() {
+        final BucketedPriorityQueue queue = new BucketedPriorityQueue(Arrays.asList(new AttributePrioritizer("group"), new AttributePrioritizer("priority")));
+        final FlowFileRecord b2 = createFlowFile("b2");
+        final FlowFileRecord a2 = createFlowFile("a2");
+        final FlowFileRecord b1 = createFlowFile("b1");
+        final FlowFileRecord a1 = createFlowFile("a1");
+        queue.addAll(Arrays.asList(b2, a2, b1, a1));
+
+        for (final FlowFileRecord expected : Arrays.asList(a1, a2, b1, b2)) {
+            assertSame(expected, queue.poll());
+        }
+    }
+
+    @Test
+    public void testPenalizedFlowFilesReturnedLast() {
+        final BucketedPriorityQueue queue = new BucketedPriorityQueue(Collections.singletonList(new AttributePrioritizer("priority")));
+        final long now = System.currentTimeMillis();
+        final FlowFileRecord penalizedLater = createFlowFile("a", now + 120_000L);
+        final FlowFileRecord penalizedSooner = createFlowFile("a", now + 60_000L);
+        final FlowFileRecord unpenalized = createFlowFile("z");
+        queue.addAll(Arrays.asList(penalizedLater, penalizedSooner, unpenalized));
+
+        assertSame(unpenalized, queue.poll());
+        assertSame(penalizedSooner, queue.poll());
+        assertSame(penalizedLater, queue.poll());
+        assertTrue(queue.isEmpty());
+
+        // A FlowFile whose penalty has expired is ordered by its key, like any other.
+        final FlowFileRecord penaltyExpired = createFlowFile("z", now - 1000L);
+        final FlowFileRecord first = createFlowFile("a");
+        queue.add(penaltyExpired);
+        queue.add(first);
+        assertSame(first, queue.poll());
+        assertSame(penaltyExpired, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testExpiredPenaltyOrderedByPriority() throws InterruptedException {
+        final BucketedPriorityQueue queue = new BucketedPriorityQueue(Collections.singletonList(new AttributePrioritizer("priority")));
+        final FlowFileRecord lowPriority = createFlowFile("z", System.currentTimeMillis() + 50L);
+        final FlowFileRecord highPriority = createFlowFile("a");
+        final FlowFileRecord alsoLowPriority = createFlowFile("z");
+        queue.addAll(Arrays.asList(lowPriority, highPriority, alsoLowPriority));
+
+        Thread.sleep(100L);
+
+        // Once its penalty has expired, a FlowFile must not be returned ahead of FlowFiles with a higher priority
+        assertSame(highPriority, queue.peek());
+        assertSame(highPriority, queue.poll());
+        assertSame(lowPriority, queue.poll());
+        assertSame(alsoLowPriority, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testRolledBackFlowFilesKeepQueueDateOrder() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local");
+        queue.setPriorities(Collections.singletonList(new FirstInFirstOutPrioritizer()));
+
+        final long queueDate = System.currentTimeMillis();
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final FlowFileRecord flowFile = new StandardFlowFileRecord.Builder()
+                .id(idGenerator.getAndIncrement())
+                .size(10L)
+                .lastQueued(queueDate, i)
+                .build();
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+
+        // A rollback puts the polled FlowFiles back into the queue, after which they must again be the first to be polled
+        final List<FlowFileRecord> polled = queue.poll(3, new HashSet<>(), 0L);
+        assertEquals(flowFiles.subList(0, 3), polled);
+        queue.putAll(polled);
+
+        for (final FlowFileRecord expected : flowFiles) {
+            assertSame(expected, queue.poll(new HashSet<>(), 0L));
+        }
+    }
+
+    @Test
+    public void testRolledBackFlowFilesOrderedAheadOfNewerFlowFiles() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local");
+        queue.setPriorities(Collections.singletonList(new AttributePrioritizer("priority")));
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final FlowFileRecord flowFile = createFlowFile("a");
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+
+        // Put the polled FlowFiles back in an arbitrary order, as a rollback may, after newer FlowFiles with the same key have been queued
+        final List<FlowFileRecord> polled = queue.poll(4, new HashSet<>(), 0L);
+        assertEquals(flowFiles.subList(0, 4), polled);
+        for (int i = 0; i < 3; i++) {
+            final FlowFileRecord flowFile = createFlowFile("a");
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+        queue.putAll(Arrays.asList(polled.get(2), polled.get(0), polled.get(3), polled.get(1)));
+
+        for (final FlowFileRecord expected : flowFiles) {
+            assertSame(expected, queue.poll(new HashSet<>(), 0L));
+        }
+    }
+
+    @Test
+    public void testAddOutOfOrderSameOrderAsQueuePrioritizer() {
+        final List<FlowFilePrioritizer> prioritizers = Collections.singletonList(new AttributePrioritizer("priority"));
+        final BucketedPriorityQueue bucketed = new BucketedPriorityQueue(prioritizers);
+        final PriorityQueue<FlowFileRecord> heap = new PriorityQueue<>(new QueuePrioritizer(prioritizers));
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        final Random random = new Random(1L);
+        for (int i = 0; i < 1_000; i++) {
+            flowFiles.add(createFlowFile(String.valueOf((char) ('a' + random.nextInt(3)))));
+        }
+        Collections.shuffle(flowFiles, random);
+
+        for (final FlowFileRecord flowFile : flowFiles) {
+            bucketed.add(flowFile);
+            heap.add(flowFile);
+        }
+
+        while (!heap.isEmpty()) {
+            assertSame(heap.poll(), bucketed.poll());
+        }
+        assertTrue(bucketed.isEmpty());
+    }
+
+    @Test
+    public void testOfferFirstPreservesOrder() {
+        final BucketedPriorityQueue queue = new BucketedPriorityQueue(Collections.singletonList(new AttributePrioritizer("priority")));
+        final FlowFileRecord a1 = createFlowFile("a");
+        final FlowFileRecord a2 = createFlowFile("a");
+        final FlowFileRecord b1 = createFlowFile("b");
+        final FlowFileRecord a3 = createFlowFile("a");
+        queue.add(a3);
+
+        queue.offerFirst(Arrays.asList(a1, a2, b1));
+        assertEquals(4, queue.size());
+        for (final FlowFileRecord expected : Arrays.asList(a1, a2, a3, b1)) {
+            assertSame(expected, queue.poll());
+        }
+    }
+
+    @Test
+    public void testSameOrderAsQueuePrioritizer() {
+        final List<FlowFilePrioritizer> prioritizers = Collections.singletonList(new AttributePrioritizer("priority"));
+        final BucketedPriorityQueue bucketed = new BucketedPriorityQueue(prioritizers);
+        final PriorityQueue<FlowFileRecord> heap = new PriorityQueue<>(new QueuePrioritizer(prioritizers));
+
+        final Random random = new Random(1L);
+        for (int i = 0; i < 10_000; i++) {
+            final FlowFileRecord flowFile = createFlowFile(String.valueOf((char) ('a' + random.nextInt(20))));
+            bucketed.add(flowFile);
+            heap.add(flowFile);
+
+            // Interleave polls with additions so that buckets are emptied and re-created
+            if (random.nextInt(4) == 0) {
+                assertSame(heap.poll(), bucketed.poll());
+            }
+        }
+
+        assertEquals(heap.size(), bucketed.size());
+        while (!heap.isEmpty()) {
+            assertSame(heap.poll(), bucketed.poll());
+        }
+        assertTrue(bucketed.isEmpty());
+    }
+
+    @Test
+    public void testSupportedPrioritizers() {
+        assertFalse(BucketedPriorityQueue.isSupported(Collections.emptyList()));
+        assertTrue(BucketedPriorityQueue.isSupported(Collections.singletonList(new AttributePrioritizer("priority"))));
+
+        final FlowFilePrioritizer prioritizer = (o1, o2) -> 0;
+        assertFalse(BucketedPriorityQueue.isSupported(Arrays.asList(new AttributePrioritizer("priority"), prioritizer)));
+    }
+
+    @Test
+    public void testSwapOutAndSwapInSameOrderAsPriorityQueue() {
+        final AttributePrioritizer keyedPrioritizer = new AttributePrioritizer("priority");
+        final SwappablePriorityQueue bucketed = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local");
+        bucketed.setPriorities(Collections.singletonList(keyedPrioritizer));
+
+        // A prioritizer that orders FlowFiles the same way but is not keyed, so the queue uses a PriorityQueue
+        final FlowFilePrioritizer heapPrioritizer = keyedPrioritizer::compare;
+        final SwappablePriorityQueue heap = new SwappablePriorityQueue(new MockSwapManager(), 10_000, null, flowFileQueue, dropAction, "local");
+        heap.setPriorities(Collections.singletonList(heapPrioritizer));
+
+        final Random random = new Random(1L);
+        for (int i = 0; i < 35_000; i++) {
+            final FlowFileRecord flowFile = createFlowFile(String.valueOf((char) ('a' + random.nextInt(5))));
+            bucketed.put(flowFile);
+            heap.put(flowFile);
+        }
+
+        assertEquals(35_000, bucketed.size().getObjectCount());
+        assertEquals(2, swapManager.swapOutCalledCount);
+        assertEquals(10_000, bucketed.getActiveFlowFiles().size());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        for (int i = 0; i < 35_000; i++) {
+            final FlowFileRecord polled = bucketed.poll(expired, 0L);
+            assertSame(heap.poll(expired, 0L), polled);
+            bucketed.acknowledge(polled);
+        }
+
+        assertTrue(expired.isEmpty());
+        assertTrue(bucketed.isEmpty());
+        assertEquals(0, bucketed.getFlowFileQueueSize().getSwapFileCount());
+    }
+
+    @Test
+    public void testPollWithFilterKeepsOrder() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local");
+        queue.setPriorities(Collections.singletonList(new AttributePrioritizer("priority")));
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final FlowFileRecord flowFile = createFlowFile("a");
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+
+        final List<FlowFileRecord> selected = queue.poll(flowFile -> flowFile.getId() % 2 == 0
+            ? FlowFileFilter.FlowFileFilterResult.ACCEPT_AND_CONTINUE : FlowFileFilter.FlowFileFilterResult.REJECT_AND_CONTINUE, new HashSet<>(), 0L);
+        assertEquals(5, selected.size());
+
+        for (int i = 1; i < 10; i += 2) {
+            assertSame(flowFiles.get(i), queue.poll(new HashSet<>(), 0L));
+        }
+    }
+
+
+    /**
+     * Orders FlowFiles lexicographically by the value of an attribute.
+     */
+    private static class AttributePrioritizer implements KeyedFlowFilePrioritizer {
+        private final String attribute;
+
+        AttributePrioritizer(final String attribute) {
+            this.attribute = attribute;
+        }
+
+        @Override
+        public Comparable<?> getPriorityKey(final FlowFile flowFile) {
+            return flowFile.getAttribute(attribute);
+        }
+
+        @Override
+        public int compare(final FlowFile o1, final FlowFile o2) {
+            return o1.getAttribute(attribute).compareTo(o2.getAttribute(attribute));
+        }
+    }
+}
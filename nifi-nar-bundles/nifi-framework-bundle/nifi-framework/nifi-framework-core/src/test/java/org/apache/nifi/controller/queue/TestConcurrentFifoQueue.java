@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.queue;
+
+import org.apache.nifi.controller.MockSwapManager;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.FlowFilePrioritizer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class TestConcurrentFifoQueue {
+    private final AtomicLong idGenerator = new AtomicLong(0L);
+    private final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+    private final DropFlowFileAction dropAction = (flowFiles, requestor) -> new QueueSize(flowFiles.size(), flowFiles.stream().mapToLong(FlowFileRecord::getSize).sum());
+
+    private MockSwapManager swapManager;
+
+    @Before
+    public void setup() {
+        swapManager = new MockSwapManager();
+        when(flowFileQueue.getIdentifier()).thenReturn("unit-test");
+    }
+
+    private FlowFileRecord createFlowFile() {
+        return createFlowFile(-1L);
+    }
+
+    private FlowFileRecord createFlowFile(final long penaltyExpiration) {
+        return new StandardFlowFileRecord.Builder()
+            .id(idGenerator.getAndIncrement())
+            .size(10L)
+            .penaltyExpirationTime(penaltyExpiration)
+            .build();
+    }
+
+    private FlowFileRecord createFlowFile(final long penaltyExpiration, final long lastQueueDate) {
+        return new StandardFlowFileRecord.Builder()
+            .id(idGenerator.getAndIncrement())
+            .size(10L)
+            .penaltyExpirationTime(penaltyExpiration)
+            .lastQueued(lastQueueDate, 0L)
+            .build();
+    }
+
+    @Test
+    public void testOrderedByArrival() {
+        final ConcurrentFifoQueue queue = new ConcurrentFifoQueue();
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final FlowFileRecord flowFile = createFlowFile();
+            flowFiles.add(flowFile);
+            queue.add(flowFile);
+        }
+
+        assertEquals(100, queue.size());
+        for (final FlowFileRecord expected : flowFiles) {
+            assertSame(expected, queue.peek());
+            assertSame(expected, queue.poll());
+        }
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testPenalizedFlowFilesReturnedLast() {
+        final ConcurrentFifoQueue queue = new ConcurrentFifoQueue();
+        final long now = System.currentTimeMillis();
+        final FlowFileRecord penalizedLater = createFlowFile(now + 120_000L);
+        final FlowFileRecord penalizedSooner = createFlowFile(now + 60_000L);
+        final FlowFileRecord penaltyExpired = createFlowFile(now - 1000L);
+        final FlowFileRecord unpenalized = createFlowFile();
+
+        queue.add(penalizedLater);
+        queue.add(penalizedSooner);
+        queue.add(unpenalized);
+        assertEquals(3, queue.size());
+
+        assertSame(unpenalized, queue.poll());
+
+        // A penalized FlowFile is returned only when nothing else is available, and must be added back by the caller.
+        final FlowFileRecord polled = queue.poll();
+        assertSame(penalizedSooner, polled);
+        assertTrue(polled.isPenalized());
+        queue.add(polled);
+
+        queue.add(penaltyExpired);
+        assertSame(penaltyExpired, queue.peek());
+        assertSame(penaltyExpired, queue.poll());
+        assertEquals(2, queue.size());
+        assertFalse(queue.isEmpty());
+    }
+
+    @Test
+    public void testExpiredPenaltiesReturnedInArrivalOrder() throws InterruptedException {
+        final ConcurrentFifoQueue queue = new ConcurrentFifoQueue();
+        final long now = System.currentTimeMillis();
+        final FlowFileRecord first = createFlowFile(-1L, now - 4000L);
+        final FlowFileRecord second = createFlowFile(now + 60L, now - 3000L);
+        final FlowFileRecord third = createFlowFile(now + 50L, now - 2000L);
+        final FlowFileRecord fourth = createFlowFile(-1L, now - 1000L);
+
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+        queue.add(fourth);
+
+        Thread.sleep(100L);
+
+        // Once their penalties have expired, FlowFiles are returned in the order in which they were queued, regardless of when their penalties expired
+        assertSame(first, queue.peek());
+        assertSame(first, queue.poll());
+        assertSame(second, queue.peek());
+        assertSame(second, queue.poll());
+        assertSame(third, queue.poll());
+        assertSame(fourth, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testOfferFirstPreservesOrder() {
+        final ConcurrentFifoQueue queue = new ConcurrentFifoQueue();
+        final FlowFileRecord first = createFlowFile();
+        final FlowFileRecord second = createFlowFile();
+        final FlowFileRecord third = createFlowFile();
+        queue.add(third);
+
+        queue.offerFirst(Arrays.asList(first, second));
+        assertEquals(3, queue.size());
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertSame(third, queue.poll());
+    }
+
+    @Test
+    public void testFifoOnlyPrioritizers() {
+        assertTrue(ConcurrentFifoQueue.isFifoOnly(Collections.emptyList()));
+
+        final FlowFilePrioritizer prioritizer = new FlowFilePrioritizer() {
+            @Override
+            public int compare(final FlowFile o1, final FlowFile o2) {
+                return 0;
+            }
+        };
+        assertFalse(ConcurrentFifoQueue.isFifoOnly(Collections.singletonList(prioritizer)));
+    }
+
+    @Test
+    public void testSwapOutAndSwapInKeepsOrder() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local", true);
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>();
+        for (int i = 0; i < 35_000; i++) {
+            final FlowFileRecord flowFile = createFlowFile();
+            flowFiles.add(flowFile);
+            queue.put(flowFile);
+        }
+
+        assertEquals(35_000, queue.size().getObjectCount());
+        assertEquals(2, swapManager.swapOutCalledCount);
+        assertEquals(10_000, queue.getActiveFlowFiles().size());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        for (final FlowFileRecord expected : flowFiles) {
+            final FlowFileRecord polled = queue.poll(expired, 0L);
+            assertSame(expected, polled);
+            queue.acknowledge(polled);
+        }
+
+        assertTrue(expired.isEmpty());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getFlowFileQueueSize().getSwapFileCount());
+    }
+
+    @Test
+    public void testSwitchToPrioritizedQueue() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local", true);
+        for (int i = 0; i < 10; i++) {
+            queue.put(createFlowFile());
+        }
+
+        // Order by descending ID
+        queue.setPriorities(Collections.singletonList((o1, o2) -> Long.compare(o2.getId(), o1.getId())));
+        assertEquals(9L, queue.poll(new HashSet<>(), 0L).getId());
+
+        queue.setPriorities(Collections.emptyList());
+        final List<FlowFileRecord> polled = queue.poll(100, new HashSet<>(), 0L);
+        assertEquals(9, polled.size());
+        assertEquals(10, queue.getFlowFileQueueSize().getUnacknowledgedCount());
+    }
+
+    @Test
+    public void testExpiration() {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 10_000, null, flowFileQueue, dropAction, "local", true);
+        queue.put(new StandardFlowFileRecord.Builder().id(idGenerator.getAndIncrement()).entryDate(System.currentTimeMillis() - 60_000L).size(10L).build());
+        queue.put(createFlowFile());
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        final FlowFileRecord polled = queue.poll(expired, 30_000L);
+        assertEquals(1L, polled.getId());
+        assertEquals(1, expired.size());
+        assertEquals(0, queue.getFlowFileQueueSize().getActiveCount());
+        assertEquals(1, queue.getFlowFileQueueSize().getUnacknowledgedCount());
+    }
+
+    @Test(timeout = 60_000)
+    public void testSizeNeverNegativeWhileOfferingAndPolling() throws InterruptedException {
+        final ConcurrentFifoQueue queue = new ConcurrentFifoQueue();
+        final int flowFileCount = 200_000;
+        final AtomicInteger negativeSizes = new AtomicInteger(0);
+        final AtomicInteger polledCount = new AtomicInteger(0);
+
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < flowFileCount; i++) {
+                queue.offer(createFlowFile());
+            }
+        });
+        final Thread consumer = new Thread(() -> {
+            while (polledCount.get() < flowFileCount) {
+                if (queue.poll() != null) {
+                    polledCount.incrementAndGet();
+                }
+                if (queue.size() < 0) {
+                    negativeSizes.incrementAndGet();
+                }
+            }
+        });
+
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+
+        assertEquals(0, negativeSizes.get());
+        assertEquals(0, queue.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(timeout = 60_000)
+    public void testConcurrentPutAndPoll() throws InterruptedException {
+        final SwappablePriorityQueue queue = new SwappablePriorityQueue(swapManager, 20_000, null, flowFileQueue, dropAction, "local", true);
+        final int threadCount = 8;
+        final int flowFilesPerThread = 25_000;
+
+        final AtomicInteger polledCount = new AtomicInteger(0);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(threadCount * 2);
+        for (int t = 0; t < threadCount; t++) {
+            final Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < flowFilesPerThread; i++) {
+                        queue.put(createFlowFile());
+                    }
+                } catch (final Throwable t1) {
+                    failure.compareAndSet(null, t1);
+                } finally {
+                    latch.countDown();
+                }
+            });
+
+            final Thread consumer = new Thread(() -> {
+                try {
+                    final Set<FlowFileRecord> expired = new HashSet<>();
+                    while (polledCount.get() < threadCount * flowFilesPerThread && failure.get() == null) {
+                        final List<FlowFileRecord> polled = queue.poll(10, expired, 0L);
+                        if (!polled.isEmpty()) {
+                            queue.acknowledge(polled);
+                            polledCount.addAndGet(polled.size());
+                        }
+                    }
+                } catch (final Throwable t1) {
+                    failure.compareAndSet(null, t1);
+                } finally {
+                    latch.countDown();
+                }
+            });
+
+            producer.start();
+            consumer.start();
+        }
+
+        latch.await();
+
+        assertNull(failure.get());
+        assertEquals(threadCount * flowFilesPerThread, polledCount.get());
+        assertTrue(queue.isEmpty());
+
+        final FlowFileQueueSize size = queue.getFlowFileQueueSize();
+        assertEquals(0, size.getActiveCount());
+        assertEquals(0L, size.getActiveBytes());
+        assertEquals(0, size.getSwappedCount());
+        assertEquals(0, size.getUnacknowledgedCount());
+    }
+}
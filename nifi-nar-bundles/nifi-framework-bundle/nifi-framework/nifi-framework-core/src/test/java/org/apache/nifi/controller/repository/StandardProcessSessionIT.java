@@ -46,6 +46,7 @@ import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.io.StreamCallback;
 import org.apache.nifi.provenance.MockProvenanceRepository;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
 import org.apache.nifi.provenance.ProvenanceEventType;
@@ -72,10 +73,14 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -86,6 +91,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -101,6 +107,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -277,6 +284,13 @@ public class StandardProcessSessionIT {
             }
         }).when(connection).poll(any(FlowFileFilter.class), any(Set.class));
 
+        Mockito.doAnswer(new Answer<List<FlowFileRecord>>() {
+            @Override
+            public List<FlowFileRecord> answer(InvocationOnMock invocation) throws Throwable {
+                return localFlowFileQueue.poll((int) invocation.getArgument(0), invocation.getArgument(1));
+            }
+        }).when(connection).poll(anyInt(), any(Set.class));
+
         Mockito.when(connection.getIdentifier()).thenReturn("conn-uuid");
         return connection;
     }
@@ -737,8 +751,8 @@ public class StandardProcessSessionIT {
         session.get(1);
         session.get(1);
 
-        verify(conn1, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
-        verify(conn2, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
+        verify(conn1, times(1)).poll(anyInt(), any(Set.class));
+        verify(conn2, times(1)).poll(anyInt(), any(Set.class));
     }
 
     @Test
@@ -769,8 +783,32 @@ public class StandardProcessSessionIT {
 
         assertEquals(1, result.size());
 
-        verify(conn1, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
-        verify(conn2, times(1)).poll(any(FlowFileFilter.class), any(Set.class));
+        verify(conn1, times(1)).poll(anyInt(), any(Set.class));
+        verify(conn2, times(1)).poll(anyInt(), any(Set.class));
+    }
+
+    @Test
+    public void testGetWithCountPollsBatchAndRollbackRequeuesBatch() {
+        final StandardFlowFileRecord.Builder recordBuilder = new StandardFlowFileRecord.Builder()
+            .entryDate(System.currentTimeMillis())
+            .size(10L);
+
+        for (int i = 0; i < 100; i++) {
+            flowFileQueue.put(recordBuilder.id(i).addAttribute("uuid", UUID.randomUUID().toString()).build());
+        }
+
+        final List<FlowFile> flowFiles = session.get(40);
+        assertEquals(40, flowFiles.size());
+        assertTrue(flowFileQueue.isUnacknowledgedFlowFile());
+        verify(flowFileQueue, times(1)).poll(Mockito.eq(40), any(Set.class));
+
+        session.rollback();
+        assertFalse(flowFileQueue.isUnacknowledgedFlowFile());
+        assertEquals(100, flowFileQueue.size().getObjectCount());
+        assertEquals(1000L, flowFileQueue.size().getByteCount());
+        verify(flowFileQueue, times(1)).putAll(Mockito.anyCollection());
+
+        assertEquals(100, session.get(1000).size());
     }
 
     @Test
@@ -1085,6 +1123,37 @@ public class StandardProcessSessionIT {
         }
     }
 
+    @Test
+    public void testExportToChannel() throws IOException {
+        final ContentClaim claim = contentRepo.create(false);
+        final FlowFileRecord flowFileRecord = new StandardFlowFileRecord.Builder()
+                .contentClaim(claim)
+                .addAttribute("uuid", "12345678-1234-1234-1234-123456789012")
+                .entryDate(System.currentTimeMillis())
+                .build();
+        flowFileQueue.put(flowFileRecord);
+        FlowFile flowFile = session.get();
+        assertNotNull(flowFile);
+
+        flowFile = session.write(flowFile, out -> out.write("Hello World".getBytes()));
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        session.exportTo(flowFile, Channels.newChannel(os));
+        assertEquals("Hello World", new String(os.toByteArray()));
+
+        // should throw ProcessException, not FlowFileAccessException, because the IOException comes from the channel rather than the repository
+        final WritableByteChannel failingChannel = Mockito.mock(WritableByteChannel.class);
+        when(failingChannel.isOpen()).thenReturn(true);
+        when(failingChannel.write(any())).thenThrow(new IOException("Intentional Unit Test Exception"));
+        try {
+            session.exportTo(flowFile, failingChannel);
+            Assert.fail("Expected ProcessException");
+        } catch (FlowFileAccessException e) {
+            Assert.fail("Expected ProcessException but got FlowFileAccessException");
+        } catch (ProcessException e) {
+        }
+    }
+
     @Test
     public void testReadAfterSessionClosesStream() throws IOException {
         final ContentClaim claim = contentRepo.create(false);
@@ -2043,6 +2112,31 @@ public class StandardProcessSessionIT {
         assertEquals(ProvenanceEventType.ATTRIBUTES_MODIFIED, event.getEventType());
     }
 
+    @Test
+    public void testAttributesModifiedNotEmittedForSampledOutRoute() throws IOException {
+        final ProvenanceCapturePolicy capturePolicy = new ProvenanceCapturePolicy(Collections.singletonMap(ProvenanceEventType.ROUTE, 0D),
+            Collections.emptySet(), Collections.emptySet(), false);
+        when(connectable.getProcessGroup().getEffectiveProvenanceCapturePolicy()).thenReturn(capturePolicy);
+        context = new StandardRepositoryContext(connectable, new AtomicLong(0L), contentRepo, flowFileRepo, flowFileEventRepository, counterRepository, provenanceRepo, stateManager);
+        session = new StandardProcessSession(context, () -> false);
+
+        final FlowFileRecord flowFile = new StandardFlowFileRecord.Builder()
+                .id(1L)
+                .addAttribute("uuid", "000000000000-0000-0000-0000-00000000")
+                .build();
+        this.flowFileQueue.put(flowFile);
+
+        final Relationship relationship = new Relationship.Builder().name("A").build();
+        FlowFile existingFlowFile = session.get();
+        existingFlowFile = session.putAttribute(existingFlowFile, "attr", "a");
+        session.getProvenanceReporter().route(existingFlowFile, relationship);
+        session.transfer(existingFlowFile, relationship);
+        session.commit();
+
+        // The ROUTE event is not captured, and no ATTRIBUTES_MODIFIED event is emitted in its place
+        assertTrue(provenanceRepo.getEvents(0L, 10000).isEmpty());
+    }
+
     @Test
     public void testReadFromInputStream() throws IOException {
         FlowFile flowFile = session.create();
@@ -2784,6 +2878,13 @@ public class StandardProcessSessionIT {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public long exportTo(ContentClaim claim, WritableByteChannel destination, long offset, long length) throws IOException {
+            try (final FileChannel fileChannel = FileChannel.open(getPath(claim), StandardOpenOption.READ)) {
+                return fileChannel.transferTo(claim.getOffset() + offset, length, destination);
+            }
+        }
+
         @Override
         public long size(ContentClaim claim) throws IOException {
             return Files.size(getPath(claim));
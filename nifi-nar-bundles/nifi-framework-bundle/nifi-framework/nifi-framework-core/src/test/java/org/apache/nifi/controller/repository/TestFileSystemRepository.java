@@ -35,6 +35,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -67,6 +72,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.slf4j.LoggerFactory;
 
 public class TestFileSystemRepository {
@@ -217,6 +223,82 @@ public class TestFileSystemRepository {
         }
     }
 
+    @Test
+    public void testMappedReadOfResourceClaimNoLongerWritable() throws IOException {
+        shutdown();
+
+        final Map<String, String> addProps = new HashMap<>();
+        addProps.put(NiFiProperties.CONTENT_REPOSITORY_MAPPED_READ_ENABLED, "true");
+        addProps.put(NiFiProperties.CONTENT_REPOSITORY_MAPPED_READ_MAX_SIZE, "16 MB");
+        final NiFiProperties localProps = NiFiProperties.createBasicNiFiProperties(TestFileSystemRepository.class.getResource("/conf/nifi.properties").getFile(), addProps);
+        repository = new FileSystemRepository(localProps);
+        repository.initialize(claimManager);
+        repository.purge();
+
+        final MappedResourceClaimCache mappedClaimCache = repository.getMappedClaimCache();
+        assertNotNull(mappedClaimCache);
+
+        final File contentFile = new File("target/content_repository/0/0.bin");
+        try (final OutputStream fos = new FileOutputStream(contentFile)) {
+            fos.write("Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ResourceClaim resourceClaim = claimManager.newResourceClaim("default", "0", "0.bin", false, false);
+        final StandardContentClaim helloClaim = new StandardContentClaim(resourceClaim, 0);
+        helloClaim.setLength(5);
+        final StandardContentClaim worldClaim = new StandardContentClaim(resourceClaim, 6);
+        worldClaim.setLength(5);
+
+        try (final InputStream in = repository.read(helloClaim)) {
+            assertEquals("Hello", new String(readFully(in, 5), StandardCharsets.UTF_8));
+        }
+        assertTrue(mappedClaimCache.isMapped(resourceClaim));
+        assertEquals(11, mappedClaimCache.getMappedBytes());
+
+        try (final InputStream in = repository.read(worldClaim)) {
+            assertEquals("World", new String(readFully(in, 5), StandardCharsets.UTF_8));
+        }
+        assertEquals(11, mappedClaimCache.getMappedBytes());
+
+        // A claim that extends beyond the end of the file is not mapped, and the usual error is reported.
+        final StandardContentClaim missingContentClaim = new StandardContentClaim(resourceClaim, 12);
+        missingContentClaim.setLength(1);
+        try {
+            repository.read(missingContentClaim);
+            Assert.fail("Did not throw ContentNotFoundException");
+        } catch (final ContentNotFoundException cnfe) {
+            // Expected
+        }
+
+        assertTrue(repository.remove(helloClaim));
+        assertFalse(mappedClaimCache.isMapped(resourceClaim));
+        assertEquals(0, mappedClaimCache.getMappedBytes());
+        assertFalse(contentFile.exists());
+    }
+
+    @Test
+    public void testWritableResourceClaimNotMapped() throws IOException {
+        shutdown();
+
+        final Map<String, String> addProps = new HashMap<>();
+        addProps.put(NiFiProperties.CONTENT_REPOSITORY_MAPPED_READ_ENABLED, "true");
+        final NiFiProperties localProps = NiFiProperties.createBasicNiFiProperties(TestFileSystemRepository.class.getResource("/conf/nifi.properties").getFile(), addProps);
+        repository = new FileSystemRepository(localProps);
+        repository.initialize(claimManager);
+        repository.purge();
+
+        final ContentClaim claim = repository.create(false);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write("Hello".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertTrue(claim.getResourceClaim().isWritable());
+        try (final InputStream in = repository.read(claim)) {
+            assertEquals("Hello", new String(readFully(in, 5), StandardCharsets.UTF_8));
+        }
+        assertFalse(repository.getMappedClaimCache().isMapped(claim.getResourceClaim()));
+    }
+
     @Test
     public void testBogusFile() throws IOException {
         repository.shutdown();
@@ -453,6 +535,90 @@ public class TestFileSystemRepository {
         assertTrue(Arrays.equals(Files.readAllBytes(helloWorldFile.toPath()), data));
     }
 
+    @Test
+    public void testExportToChannel() throws IOException {
+        final ContentClaim claim = repository.create(true);
+
+        try (final OutputStream out = repository.write(claim)) {
+            Files.copy(helloWorldFile.toPath(), out);
+        }
+
+        final byte[] expected = Files.readAllBytes(helloWorldFile.toPath());
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        assertEquals(expected.length, repository.exportTo(claim, Channels.newChannel(baos), 0, expected.length));
+        assertArrayEquals(expected, baos.toByteArray());
+
+        final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+        assertEquals(5, repository.exportTo(claim, Channels.newChannel(partial), 6, 5));
+        assertArrayEquals(Arrays.copyOfRange(expected, 6, 11), partial.toByteArray());
+    }
+
+    @Test
+    public void testExportToChannelToFile() throws IOException {
+        final ContentClaim firstClaim = repository.create(false);
+        try (final OutputStream out = repository.write(firstClaim)) {
+            out.write("Hello".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // The second claim shares the first claim's Resource Claim, so its content starts at a non-zero offset in the file.
+        final ContentClaim secondClaim = repository.create(false);
+        try (final OutputStream out = repository.write(secondClaim)) {
+            out.write("World".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(firstClaim.getResourceClaim(), secondClaim.getResourceClaim());
+
+        final Path destination = new File("target/testExportToChannelToFile.txt").toPath();
+        try (final FileChannel destinationChannel = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            assertEquals(5, repository.exportTo(secondClaim, destinationChannel, 0, 5));
+        }
+
+        assertEquals("World", new String(Files.readAllBytes(destination), StandardCharsets.UTF_8));
+        Files.delete(destination);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExportToNonBlockingChannelRejected() throws IOException {
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write("Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final Pipe pipe = Pipe.open();
+        try (final Pipe.SinkChannel sink = pipe.sink();
+             final Pipe.SourceChannel source = pipe.source()) {
+            sink.configureBlocking(false);
+            repository.exportTo(claim, sink, 0, 11);
+        }
+    }
+
+    @Test(timeout = 10000, expected = IOException.class)
+    public void testExportToChannelAcceptingNoBytes() throws IOException {
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            out.write("Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final WritableByteChannel stalledChannel = Mockito.mock(WritableByteChannel.class);
+        Mockito.when(stalledChannel.isOpen()).thenReturn(true);
+        Mockito.when(stalledChannel.write(Mockito.any(ByteBuffer.class))).thenReturn(0);
+
+        repository.exportTo(claim, stalledChannel, 0, 11);
+    }
+
+    @Test(expected = ContentNotFoundException.class)
+    public void testExportToChannelResourceClaimTooShort() throws IOException {
+        final File contentFile = new File("target/content_repository/0/0.bin");
+        try (final OutputStream fos = new FileOutputStream(contentFile)) {
+            fos.write("Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ResourceClaim resourceClaim = new StandardResourceClaim(claimManager, "default", "0", "0.bin", false);
+        final StandardContentClaim contentClaim = new StandardContentClaim(resourceClaim, 6);
+        contentClaim.setLength(10);
+
+        repository.exportTo(contentClaim, Channels.newChannel(new ByteArrayOutputStream()), 0, 10);
+    }
+
     @Test
     public void testExportToFile() throws IOException {
         final ContentClaim claim = repository.create(true);
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestMappedResourceClaimCache {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final ResourceClaimManager claimManager = new StandardResourceClaimManager();
+    private Path file;
+    private ResourceClaim resourceClaim;
+
+    @Before
+    public void setup() throws IOException {
+        file = createFile("1.bin", "The quick brown fox jumps over the lazy dog");
+        resourceClaim = claimManager.newResourceClaim("default", "1", "1.bin", false, false);
+    }
+
+    private Path createFile(final String name, final String content) throws IOException {
+        final Path path = tempFolder.getRoot().toPath().resolve(name);
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Test
+    public void testStreamReadsOnlyRequestedRange() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        try (final InputStream in = cache.read(resourceClaim, file, 4, 5)) {
+            assertNotNull(in);
+            assertEquals(5, in.available());
+            assertEquals('q', in.read());
+
+            final byte[] buffer = new byte[16];
+            assertEquals(4, in.read(buffer));
+            assertEquals("uick", new String(buffer, 0, 4, StandardCharsets.UTF_8));
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(buffer));
+            assertEquals(0, in.available());
+        }
+    }
+
+    @Test
+    public void testMarkResetAndSkip() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        try (final InputStream in = cache.read(resourceClaim, file, 10, 9)) {
+            assertTrue(in.markSupported());
+            assertEquals(6, in.skip(6));
+            in.mark(16);
+
+            final byte[] buffer = new byte[3];
+            assertEquals(3, in.read(buffer));
+            assertArrayEquals("fox".getBytes(StandardCharsets.UTF_8), buffer);
+            assertEquals(0, in.skip(10));
+
+            in.reset();
+            assertEquals('f', in.read());
+        }
+    }
+
+    @Test
+    public void testReadAfterCloseFails() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        final InputStream in = cache.read(resourceClaim, file, 0, 3);
+        in.close();
+        in.close();
+
+        try {
+            in.read();
+            fail("Expected IOException when reading from a closed stream");
+        } catch (final IOException expected) {
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testConcurrentCloseReleasesMappingOnce() throws IOException, InterruptedException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        try (final InputStream other = cache.read(resourceClaim, file, 4, 5)) {
+            final InputStream in = cache.read(resourceClaim, file, 0, 3);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> closers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final Thread closer = new Thread(() -> {
+                    try {
+                        start.await();
+                        in.close();
+                    } catch (final Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                closer.start();
+                closers.add(closer);
+            }
+
+            start.countDown();
+            for (final Thread closer : closers) {
+                closer.join();
+            }
+
+            // Releasing the mapping more than once would have unmapped it while it is still cached and in use by the other stream
+            cache.evict(resourceClaim);
+            final byte[] buffer = new byte[5];
+            assertEquals(5, other.read(buffer));
+            assertEquals("quick", new String(buffer, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testCloseWhileReading() throws IOException, InterruptedException {
+        final byte[] content = new byte[1024 * 1024];
+        final Path largeFile = tempFolder.getRoot().toPath().resolve("large.bin");
+        Files.write(largeFile, content);
+        final ResourceClaim largeClaim = claimManager.newResourceClaim("default", "1", "large.bin", false, false);
+
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(content.length, content.length);
+        final InputStream in = cache.read(largeClaim, largeFile, 0, content.length);
+        cache.evict(largeClaim);
+
+        // The stream now holds the only reference to the mapping, so closing it while another thread reads must not unmap the buffer mid-read
+        final AtomicBoolean failedWhenClosed = new AtomicBoolean(false);
+        final CountDownLatch reading = new CountDownLatch(1);
+        final Thread reader = new Thread(() -> {
+            final byte[] buffer = new byte[content.length];
+            try {
+                in.mark(content.length);
+                while (true) {
+                    in.read(buffer);
+                    in.reset();
+                    reading.countDown();
+                }
+            } catch (final IOException e) {
+                failedWhenClosed.set(true);
+            }
+        });
+        reader.start();
+
+        reading.await();
+        in.close();
+        reader.join();
+
+        assertTrue(failedWhenClosed.get());
+    }
+
+    @Test
+    public void testMappingSharedByStreams() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        try (final InputStream first = cache.read(resourceClaim, file, 0, 3);
+             final InputStream second = cache.read(resourceClaim, file, 40, 3)) {
+            assertEquals(Files.size(file), cache.getMappedBytes());
+            assertEquals('T', first.read());
+            assertEquals('d', second.read());
+        }
+    }
+
+    @Test
+    public void testRangeBeyondFileNotMapped() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        assertNull(cache.read(resourceClaim, file, 40, 10));
+        assertFalse(cache.isMapped(resourceClaim));
+    }
+
+    @Test
+    public void testFileLargerThanMaxMappingSizeNotMapped() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 16);
+
+        assertNull(cache.read(resourceClaim, file, 0, 3));
+        assertFalse(cache.isMapped(resourceClaim));
+        assertEquals(0, cache.getMappedBytes());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedMappingEvicted() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(100, 100);
+        final Path secondFile = createFile("2.bin", "The quick brown fox jumps over the lazy dog");
+        final ResourceClaim secondClaim = claimManager.newResourceClaim("default", "1", "2.bin", false, false);
+        final Path thirdFile = createFile("3.bin", "The quick brown fox jumps over the lazy dog");
+        final ResourceClaim thirdClaim = claimManager.newResourceClaim("default", "1", "3.bin", false, false);
+
+        cache.read(resourceClaim, file, 0, 1).close();
+        cache.read(secondClaim, secondFile, 0, 1).close();
+        cache.read(resourceClaim, file, 0, 1).close();
+        assertEquals(86, cache.getMappedBytes());
+
+        // The second claim is now the least recently used, so it is evicted to make room for the third
+        try (final InputStream in = cache.read(thirdClaim, thirdFile, 0, 3)) {
+            assertTrue(cache.isMapped(resourceClaim));
+            assertFalse(cache.isMapped(secondClaim));
+            assertTrue(cache.isMapped(thirdClaim));
+            assertEquals(86, cache.getMappedBytes());
+        }
+    }
+
+    @Test
+    public void testStreamUsableAfterEviction() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+
+        try (final InputStream in = cache.read(resourceClaim, file, 4, 5)) {
+            cache.evict(resourceClaim);
+            assertFalse(cache.isMapped(resourceClaim));
+            assertEquals(0, cache.getMappedBytes());
+
+            final byte[] buffer = new byte[5];
+            assertEquals(5, in.read(buffer));
+            assertEquals("quick", new String(buffer, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        final MappedResourceClaimCache cache = new MappedResourceClaimCache(1024, 1024);
+        cache.read(resourceClaim, file, 0, 1).close();
+        assertTrue(cache.isMapped(resourceClaim));
+
+        cache.clear();
+        assertFalse(cache.isMapped(resourceClaim));
+        assertEquals(0, cache.getMappedBytes());
+    }
+}
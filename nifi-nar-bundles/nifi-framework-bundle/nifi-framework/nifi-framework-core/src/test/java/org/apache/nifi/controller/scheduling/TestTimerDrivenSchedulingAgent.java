@@ -0,0 +1,444 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import org.apache.nifi.components.state.StateManagerProvider;
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.ConnectableType;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.ProcessorNode;
+import org.apache.nifi.controller.ScheduledState;
+import org.apache.nifi.controller.repository.FlowFileEvent;
+import org.apache.nifi.controller.repository.FlowFileEventRepository;
+import org.apache.nifi.controller.repository.RepositoryContext;
+import org.apache.nifi.controller.repository.StandardRepositoryContext;
+import org.apache.nifi.controller.tasks.AdaptiveRunDuration;
+import org.apache.nifi.encrypt.StringEncryptor;
+import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.groups.ProcessGroup;
+import org.apache.nifi.nar.ExtensionManager;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.processor.Processor;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestTimerDrivenSchedulingAgent {
+
+    private FlowController flowController;
+    private RepositoryContextFactory contextFactory;
+    private FlowEngine flowEngine;
+    private FlowFileEventRepository flowFileEventRepository;
+    private TimerDrivenSchedulingAgent agent;
+
+    @Before
+    public void setup() {
+        flowController = Mockito.mock(FlowController.class);
+        Mockito.when(flowController.getStateManagerProvider()).thenReturn(Mockito.mock(StateManagerProvider.class));
+        Mockito.when(flowController.getExtensionManager()).thenReturn(Mockito.mock(ExtensionManager.class));
+
+        final RepositoryContext repoContext = Mockito.mock(StandardRepositoryContext.class);
+        flowFileEventRepository = Mockito.mock(FlowFileEventRepository.class);
+        Mockito.when(repoContext.getFlowFileEventRepository()).thenReturn(flowFileEventRepository);
+
+        contextFactory = Mockito.mock(RepositoryContextFactory.class);
+        Mockito.when(contextFactory.newProcessContext(Mockito.any(Connectable.class), Mockito.any(AtomicLong.class))).thenReturn(repoContext);
+
+        // A single Timer Driven thread, so that I/O-bound tasks can only run concurrently if they are not blocking it
+        flowEngine = new FlowEngine(1, "Timer-Driven Process", true);
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties(null, Collections.emptyMap());
+        agent = new TimerDrivenSchedulingAgent(flowController, flowEngine, contextFactory, Mockito.mock(StringEncryptor.class), nifiProperties);
+    }
+
+    @After
+    public void shutdown() {
+        agent.shutdown();
+    }
+
+    private ProcessorNode createProcessorNode(final boolean ioBound, final int concurrentTasks) {
+        final ProcessorNode procNode = Mockito.mock(ProcessorNode.class);
+        Mockito.when(procNode.getIdentifier()).thenReturn("1234");
+        Mockito.when(procNode.getConnectableType()).thenReturn(ConnectableType.PROCESSOR);
+        Mockito.when(procNode.getRunnableComponent()).thenReturn(Mockito.mock(Processor.class));
+        Mockito.when(procNode.getScheduledState()).thenReturn(ScheduledState.RUNNING);
+        Mockito.when(procNode.getMaxConcurrentTasks()).thenReturn(concurrentTasks);
+        Mockito.when(procNode.getSchedulingPeriod(Mockito.any(TimeUnit.class))).thenAnswer(invocation -> invocation.<TimeUnit>getArgument(0).convert(1L, TimeUnit.MILLISECONDS));
+        Mockito.when(procNode.isIOBound()).thenReturn(ioBound);
+        return procNode;
+    }
+
+    private ProcessGroup createProcessGroup(final String id, final int maxTimerDrivenThreadCount, final ProcessGroup parent) {
+        final ProcessGroup group = Mockito.mock(ProcessGroup.class);
+        Mockito.when(group.getIdentifier()).thenReturn(id);
+        Mockito.when(group.getMaxTimerDrivenThreadCount()).thenReturn(maxTimerDrivenThreadCount);
+        Mockito.when(group.getParent()).thenReturn(parent);
+        return group;
+    }
+
+    @Test(timeout = 20000)
+    public void testIOBoundProcessorInvokedOnIOThreads() throws InterruptedException {
+        final int concurrentTasks = 4;
+        final ProcessorNode procNode = createProcessorNode(true, concurrentTasks);
+
+        final CountDownLatch allInvoked = new CountDownLatch(concurrentTasks);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger maxInFlight = new AtomicInteger(0);
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        Mockito.doAnswer(invocation -> {
+            threadNames.add(Thread.currentThread().getName());
+            final int count = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(count, Math::max);
+            allInvoked.countDown();
+
+            try {
+                release.await();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+
+        // All of the concurrent tasks are blocked at once, even though there is only a single Timer Driven thread
+        assertTrue(allInvoked.await(10, TimeUnit.SECONDS));
+
+        // The Timer Driven thread is still free to run other tasks
+        final CountDownLatch otherTaskRun = new CountDownLatch(1);
+        flowEngine.execute(otherTaskRun::countDown);
+        assertTrue(otherTaskRun.await(10, TimeUnit.SECONDS));
+
+        // No more than one invocation per concurrent task is in flight at once
+        Thread.sleep(100L);
+        assertEquals(concurrentTasks, maxInFlight.get());
+
+        agent.unschedule(procNode, scheduleState);
+        release.countDown();
+
+        assertEquals(concurrentTasks, threadNames.size());
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("Timer-Driven I/O Thread")));
+    }
+
+    @Test(timeout = 20000)
+    public void testIOBoundProcessorInvokedRepeatedly() throws InterruptedException {
+        final ProcessorNode procNode = createProcessorNode(true, 1);
+
+        final CountDownLatch invoked = new CountDownLatch(5);
+        Mockito.doAnswer(invocation -> {
+            invoked.countDown();
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+        assertTrue(invoked.await(10, TimeUnit.SECONDS));
+
+        agent.unschedule(procNode, scheduleState);
+        assertTrue(scheduleState.getFutures().stream().allMatch(future -> future.isCancelled() || future.isDone()));
+    }
+
+    @Test(timeout = 20000)
+    public void testIOThreadsBounded() throws InterruptedException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.IO_BOUND_PROCESSOR_MAX_THREADS, "1");
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties(null, properties);
+        final TimerDrivenSchedulingAgent boundedAgent = new TimerDrivenSchedulingAgent(flowController, flowEngine, contextFactory, Mockito.mock(StringEncryptor.class), nifiProperties);
+
+        // More concurrent tasks than there are I/O threads and room in their queue, so that at least one invocation is rejected
+        final int concurrentTasks = 3;
+        final ProcessorNode procNode = createProcessorNode(true, concurrentTasks);
+
+        final CountDownLatch firstInvoked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger maxInFlight = new AtomicInteger(0);
+        final AtomicInteger invocations = new AtomicInteger(0);
+
+        Mockito.doAnswer(invocation -> {
+            final int count = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(count, Math::max);
+            invocations.incrementAndGet();
+            firstInvoked.countDown();
+
+            try {
+                release.await();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        final LifecycleState scheduleState = new LifecycleState();
+        try {
+            boundedAgent.schedule(procNode, scheduleState);
+            assertTrue(firstInvoked.await(10, TimeUnit.SECONDS));
+
+            // Rejected invocations keep being retried, but only a single I/O thread is ever used
+            Thread.sleep(200L);
+            assertEquals(1, invocations.get());
+            assertEquals(1, boundedAgent.getActiveThreadCount());
+
+            // Once the thread is free, all of the tasks, including those that were rejected, are invoked again
+            release.countDown();
+            while (invocations.get() < concurrentTasks * 2) {
+                Thread.sleep(10L);
+            }
+
+            assertEquals(1, maxInFlight.get());
+        } finally {
+            boundedAgent.unschedule(procNode, scheduleState);
+            release.countDown();
+            boundedAgent.shutdown();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testProcessorNotIOBoundInvokedOnTimerDrivenThreads() throws InterruptedException {
+        final ProcessorNode procNode = createProcessorNode(false, 1);
+
+        final CountDownLatch invoked = new CountDownLatch(1);
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        Mockito.doAnswer(invocation -> {
+            threadNames.add(Thread.currentThread().getName());
+            invoked.countDown();
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+        assertTrue(invoked.await(10, TimeUnit.SECONDS));
+        agent.unschedule(procNode, scheduleState);
+
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("Timer-Driven Process Thread")));
+    }
+
+    @Test(timeout = 20000)
+    public void testFlowEngineOfNearestGroupWithThreadCountUsed() {
+        final ProcessGroup rootGroup = createProcessGroup("root", 0, null);
+        final ProcessGroup tenantGroup = createProcessGroup("tenant", 2, rootGroup);
+        final ProcessGroup childGroup = createProcessGroup("child", 0, tenantGroup);
+
+        final ProcessorNode rootProcessor = createProcessorNode(false, 1);
+        Mockito.when(rootProcessor.getProcessGroup()).thenReturn(rootGroup);
+        final ProcessorNode tenantProcessor = createProcessorNode(false, 1);
+        Mockito.when(tenantProcessor.getProcessGroup()).thenReturn(tenantGroup);
+        final ProcessorNode childProcessor = createProcessorNode(false, 1);
+        Mockito.when(childProcessor.getProcessGroup()).thenReturn(childGroup);
+
+        final LifecycleState rootState = new LifecycleState();
+        final LifecycleState childState = new LifecycleState();
+        agent.schedule(rootProcessor, rootState);
+        agent.schedule(childProcessor, childState);
+        try {
+            // Neither the root group nor the child group has a thread count, so only the tenant group gets a Thread Pool, which the child uses
+            assertNull(agent.getGroupFlowEngine("root"));
+            assertNull(agent.getGroupFlowEngine("child"));
+
+            final FlowEngine tenantEngine = agent.getGroupFlowEngine("tenant");
+            assertNotNull(tenantEngine);
+            assertNotSame(flowEngine, tenantEngine);
+            assertEquals(2, tenantEngine.getCorePoolSize());
+
+            // Scheduling another component of the group with a changed thread count resizes the group's Thread Pool
+            Mockito.when(tenantGroup.getMaxTimerDrivenThreadCount()).thenReturn(4);
+            final LifecycleState tenantState = new LifecycleState();
+            agent.schedule(tenantProcessor, tenantState);
+            try {
+                assertSame(tenantEngine, agent.getGroupFlowEngine("tenant"));
+                assertEquals(4, tenantEngine.getCorePoolSize());
+            } finally {
+                agent.unschedule(tenantProcessor, tenantState);
+            }
+        } finally {
+            agent.unschedule(rootProcessor, rootState);
+            agent.unschedule(childProcessor, childState);
+        }
+
+        assertNull(agent.getGroupFlowEngine("tenant"));
+    }
+
+    @Test(timeout = 20000)
+    public void testProcessorInGroupInvokedOnGroupThreads() throws InterruptedException {
+        final ProcessGroup group = createProcessGroup("tenant", 1, null);
+        final ProcessorNode procNode = createProcessorNode(false, 1);
+        Mockito.when(procNode.getProcessGroup()).thenReturn(group);
+
+        final CountDownLatch invoked = new CountDownLatch(1);
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        Mockito.doAnswer(invocation -> {
+            threadNames.add(Thread.currentThread().getName());
+            invoked.countDown();
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        // Occupy the shared Timer Driven thread, so that the Processor can only run if it has a thread of its own
+        final CountDownLatch releaseSharedThread = new CountDownLatch(1);
+        flowEngine.execute(() -> {
+            try {
+                releaseSharedThread.await();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+        try {
+            assertTrue(invoked.await(10, TimeUnit.SECONDS));
+        } finally {
+            agent.unschedule(procNode, scheduleState);
+            releaseSharedThread.countDown();
+        }
+
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("Timer-Driven Process Group tenant Thread")));
+    }
+
+    @Test(timeout = 20000)
+    public void testGroupThreadPoolShutDownWhenLastComponentUnscheduled() {
+        final ProcessGroup group = createProcessGroup("tenant", 1, null);
+        final ProcessorNode firstProcessor = createProcessorNode(false, 1);
+        Mockito.when(firstProcessor.getProcessGroup()).thenReturn(group);
+        final ProcessorNode secondProcessor = createProcessorNode(true, 1);
+        Mockito.when(secondProcessor.getProcessGroup()).thenReturn(group);
+
+        final LifecycleState firstState = new LifecycleState();
+        final LifecycleState secondState = new LifecycleState();
+        agent.schedule(firstProcessor, firstState);
+        agent.schedule(secondProcessor, secondState);
+
+        final FlowEngine groupEngine = agent.getGroupFlowEngine("tenant");
+        assertNotNull(groupEngine);
+        assertNotSame(flowEngine, groupEngine);
+
+        // The Thread Pool is kept while any of the group's components is still scheduled
+        agent.unschedule(firstProcessor, firstState);
+        assertSame(groupEngine, agent.getGroupFlowEngine("tenant"));
+        assertFalse(groupEngine.isShutdown());
+
+        agent.unschedule(secondProcessor, secondState);
+        assertNull(agent.getGroupFlowEngine("tenant"));
+        assertTrue(groupEngine.isShutdown());
+        assertFalse(flowEngine.isShutdown());
+
+        // Scheduling a component of the group again creates a new Thread Pool for it
+        agent.schedule(firstProcessor, firstState);
+        try {
+            final FlowEngine newGroupEngine = agent.getGroupFlowEngine("tenant");
+            assertNotNull(newGroupEngine);
+            assertNotSame(groupEngine, newGroupEngine);
+            assertFalse(newGroupEngine.isShutdown());
+        } finally {
+            agent.unschedule(firstProcessor, firstState);
+        }
+
+        assertNull(agent.getGroupFlowEngine("tenant"));
+    }
+
+    @Test(timeout = 20000)
+    public void testTaskWaitTimeRecorded() throws InterruptedException, IOException {
+        final ProcessorNode procNode = createProcessorNode(false, 1);
+
+        final CountDownLatch invoked = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            invoked.countDown();
+            return null;
+        }).when(procNode).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        final AtomicLong maxTaskWaitNanos = new AtomicLong(0L);
+        Mockito.doAnswer(invocation -> {
+            final FlowFileEvent event = invocation.getArgument(0);
+            maxTaskWaitNanos.accumulateAndGet(event.getTaskWaitNanoseconds(), Math::max);
+            return null;
+        }).when(flowFileEventRepository).updateRepository(Mockito.any(FlowFileEvent.class), Mockito.anyString());
+
+        // Occupy the only Timer Driven thread for a while, so that the Processor's first task has to wait for it
+        flowEngine.execute(() -> {
+            try {
+                Thread.sleep(200L);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        final LifecycleState scheduleState = new LifecycleState();
+        agent.schedule(procNode, scheduleState);
+        assertTrue(invoked.await(10, TimeUnit.SECONDS));
+        agent.unschedule(procNode, scheduleState);
+
+        // The repository is updated after onTrigger returns, so wait for the update
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (maxTaskWaitNanos.get() == 0L && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+
+        assertTrue(maxTaskWaitNanos.get() >= TimeUnit.MILLISECONDS.toNanos(100L));
+    }
+
+    @Test
+    public void testAdaptiveRunDurationOnlyForBatchingProcessorsWithoutRunDuration() {
+        final ProcessorNode batching = createProcessorNode(false, 1);
+        Mockito.when(batching.isSessionBatchingSupported()).thenReturn(true);
+
+        final ProcessorNode configured = createProcessorNode(false, 1);
+        Mockito.when(configured.isSessionBatchingSupported()).thenReturn(true);
+        Mockito.when(configured.getRunDuration(Mockito.any(TimeUnit.class))).thenAnswer(invocation -> invocation.<TimeUnit>getArgument(0).convert(50L, TimeUnit.MILLISECONDS));
+
+        final ProcessorNode notBatching = createProcessorNode(false, 1);
+
+        // Adaptive Run Duration is disabled by default
+        assertNull(agent.createAdaptiveRunDuration(batching));
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.ADAPTIVE_RUN_DURATION_ENABLED, "true");
+        properties.put(NiFiProperties.ADAPTIVE_RUN_DURATION_TARGET_LATENCY, "40 millis");
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties(null, properties);
+        final TimerDrivenSchedulingAgent adaptiveAgent = new TimerDrivenSchedulingAgent(flowController, flowEngine, contextFactory, Mockito.mock(StringEncryptor.class), nifiProperties);
+
+        final AdaptiveRunDuration adaptiveRunDuration = adaptiveAgent.createAdaptiveRunDuration(batching);
+        assertNotNull(adaptiveRunDuration);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(40L), adaptiveRunDuration.getTargetLatencyNanos());
+
+        // A Processor's configured Run Duration is honored, and Processors that do not support batching cannot batch
+        assertNull(adaptiveAgent.createAdaptiveRunDuration(configured));
+        assertNull(adaptiveAgent.createAdaptiveRunDuration(notBatching));
+    }
+}
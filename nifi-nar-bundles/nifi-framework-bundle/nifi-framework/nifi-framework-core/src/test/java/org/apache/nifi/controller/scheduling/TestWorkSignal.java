@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestWorkSignal {
+
+    @Test
+    public void testSignalWakesParkedTasksOnce() {
+        final WorkSignal workSignal = new WorkSignal();
+        final AtomicInteger firstWakes = new AtomicInteger(0);
+        final AtomicInteger secondWakes = new AtomicInteger(0);
+        final Runnable first = firstWakes::incrementAndGet;
+        final Runnable second = secondWakes::incrementAndGet;
+
+        assertTrue(workSignal.park(first, workSignal.getSignalCount()));
+        assertTrue(workSignal.park(second, workSignal.getSignalCount()));
+        assertEquals(2, workSignal.getParkedCount());
+
+        workSignal.signal();
+        assertEquals(1, firstWakes.get());
+        assertEquals(1, secondWakes.get());
+        assertEquals(0, workSignal.getParkedCount());
+
+        workSignal.signal();
+        assertEquals(1, firstWakes.get());
+        assertEquals(1, secondWakes.get());
+    }
+
+    @Test
+    public void testSignalBeforeParkWakesImmediately() {
+        final WorkSignal workSignal = new WorkSignal();
+        final AtomicInteger wakes = new AtomicInteger(0);
+
+        final long signalCount = workSignal.getSignalCount();
+        workSignal.signal();
+
+        assertFalse(workSignal.park(wakes::incrementAndGet, signalCount));
+        assertEquals(1, wakes.get());
+        assertEquals(0, workSignal.getParkedCount());
+    }
+
+    @Test
+    public void testUnparkedTaskNotWoken() {
+        final WorkSignal workSignal = new WorkSignal();
+        final AtomicInteger wakes = new AtomicInteger(0);
+        final Runnable wakeAction = wakes::incrementAndGet;
+
+        workSignal.park(wakeAction, workSignal.getSignalCount());
+        workSignal.unpark(wakeAction);
+        workSignal.signal();
+
+        assertEquals(0, wakes.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testNoSignalLostWhenParkingConcurrently() throws InterruptedException {
+        final WorkSignal workSignal = new WorkSignal();
+        final int iterations = 10_000;
+
+        for (int i = 0; i < iterations; i++) {
+            final CountDownLatch woken = new CountDownLatch(1);
+            final long signalCount = workSignal.getSignalCount();
+
+            final Thread signaller = new Thread(workSignal::signal);
+            signaller.start();
+            workSignal.park(woken::countDown, signalCount);
+            signaller.join();
+
+            // Whether the signal came before or after the task parked, the task must have been woken
+            assertTrue(woken.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.nifi.groups.ProcessGroupCounts;
 import org.apache.nifi.groups.RemoteProcessGroup;
 import org.apache.nifi.parameter.ParameterContext;
 import org.apache.nifi.parameter.ParameterUpdate;
+import org.apache.nifi.provenance.ProvenanceCapturePolicy;
 import org.apache.nifi.registry.VariableRegistry;
 import org.apache.nifi.registry.flow.FlowRegistryClient;
 import org.apache.nifi.registry.flow.VersionControlInformation;
@@ -785,6 +786,24 @@ public class MockProcessGroup implements ProcessGroup {
     public void setFlowFileOutboundPolicy(final FlowFileOutboundPolicy outboundPolicy) {
     }
 
+    @Override
+    public int getMaxTimerDrivenThreadCount() {
+        return 0;
+    }
+
+    @Override
+    public void setMaxTimerDrivenThreadCount(final int maxThreadCount) {
+    }
+
+    @Override
+    public ProvenanceCapturePolicy getProvenanceCapturePolicy() {
+        return null;
+    }
+
+    @Override
+    public void setProvenanceCapturePolicy(final ProvenanceCapturePolicy policy) {
+    }
+
     @Override
     public boolean isDataQueued() {
         return false;
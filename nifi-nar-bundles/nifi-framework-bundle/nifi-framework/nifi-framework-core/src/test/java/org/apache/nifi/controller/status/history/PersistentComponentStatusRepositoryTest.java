@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import org.apache.nifi.controller.status.NodeStatus;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessorStatus;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentComponentStatusRepositoryTest {
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1L);
+    private static final MetricDescriptor<?> BYTES_READ = ProcessorStatusDescriptor.BYTES_READ.getDescriptor();
+
+    // Start on an hour boundary so that the segments that the captures fall into are predictable
+    private static final long START = TimeUnit.HOURS.toMillis(TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis()) - 24);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private PersistentComponentStatusRepository createRepository(final String retention, final String downsampledInterval) throws IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(PersistentComponentStatusRepository.DIRECTORY_PROPERTY, new File(tempFolder.getRoot(), "status").getAbsolutePath());
+        properties.put(PersistentComponentStatusRepository.RETENTION_PROPERTY, retention);
+        properties.put(PersistentComponentStatusRepository.DOWNSAMPLED_INTERVAL_PROPERTY, downsampledInterval);
+        return new PersistentComponentStatusRepository(NiFiProperties.createBasicNiFiProperties(null, properties));
+    }
+
+    private ProcessGroupStatus createRootGroupStatus(final long bytesRead, final Map<String, Long> counters) {
+        final ProcessorStatus processorStatus = new ProcessorStatus();
+        processorStatus.setId("processor-1");
+        processorStatus.setGroupId("root");
+        processorStatus.setName("My Processor");
+        processorStatus.setType("GenerateFlowFile");
+        processorStatus.setBytesRead(bytesRead);
+        processorStatus.setCounters(counters);
+
+        final ProcessGroupStatus groupStatus = new ProcessGroupStatus();
+        groupStatus.setId("root");
+        groupStatus.setName("NiFi Flow");
+        groupStatus.setInputCount(0);
+        groupStatus.setInputContentSize(0L);
+        groupStatus.setOutputCount(0);
+        groupStatus.setOutputContentSize(0L);
+        groupStatus.setActiveThreadCount(0);
+        groupStatus.setTerminatedThreadCount(0);
+        groupStatus.setQueuedCount(0);
+        groupStatus.setQueuedContentSize(0L);
+        groupStatus.setBytesRead(bytesRead);
+        groupStatus.setBytesWritten(0L);
+        groupStatus.setProcessorStatus(Collections.singletonList(processorStatus));
+        return groupStatus;
+    }
+
+    private void capture(final PersistentComponentStatusRepository repository, final long timestamp, final long bytesRead) {
+        repository.capture(new NodeStatus(), createRootGroupStatus(bytesRead, null), Collections.emptyList(), new Date(timestamp));
+    }
+
+    @Test
+    public void testCaptureAndQuery() throws IOException {
+        final PersistentComponentStatusRepository repository = createRepository("1 day", "1 hour");
+        capture(repository, START, 100L);
+        capture(repository, START + ONE_MINUTE, 0L);
+        capture(repository, START + 2 * ONE_MINUTE, 300L);
+
+        final StatusHistory history = repository.getProcessorStatusHistory("processor-1", null, null, Integer.MAX_VALUE, false);
+        assertEquals("My Processor", history.getComponentDetails().get(ComponentStatusRepository.COMPONENT_DETAIL_NAME));
+        assertEquals("GenerateFlowFile", history.getComponentDetails().get(ComponentStatusRepository.COMPONENT_DETAIL_TYPE));
+
+        final List<StatusSnapshot> snapshots = history.getStatusSnapshots();
+        assertEquals(3, snapshots.size());
+        assertEquals(100L, snapshots.get(0).getStatusMetric(BYTES_READ).longValue());
+        assertEquals(START, snapshots.get(0).getTimestamp().getTime());
+
+        // The status was empty in the second capture, so nothing was stored for it, but the capture is still part of the history
+        assertTrue(snapshots.get(1) instanceof EmptyStatusSnapshot);
+        assertEquals(0L, snapshots.get(1).getStatusMetric(BYTES_READ).longValue());
+        assertEquals(300L, snapshots.get(2).getStatusMetric(BYTES_READ).longValue());
+
+        // Only the most recent data points are returned when fewer are preferred, and the period is honored
+        assertEquals(2, repository.getProcessorStatusHistory("processor-1", null, null, 2, false).getStatusSnapshots().size());
+        assertEquals(2, repository.getProcessorStatusHistory("processor-1", new Date(START + ONE_MINUTE), null, Integer.MAX_VALUE, false).getStatusSnapshots().size());
+
+        final StatusHistory groupHistory = repository.getProcessGroupStatusHistory("root", null, null, Integer.MAX_VALUE);
+        assertEquals(300L, groupHistory.getStatusSnapshots().get(2).getStatusMetric(ProcessGroupStatusDescriptor.BYTES_READ.getDescriptor()).longValue());
+    }
+
+    @Test
+    public void testShutdownThenReload() throws IOException {
+        final PersistentComponentStatusRepository repository = createRepository("1 day", "1 hour");
+        capture(repository, START, 100L);
+        repository.shutdown();
+
+        // Nothing is captured once the repository has been shut down
+        capture(repository, START + ONE_MINUTE, 200L);
+
+        final PersistentComponentStatusRepository reloaded = createRepository("1 day", "1 hour");
+        final List<StatusSnapshot> snapshots = reloaded.getProcessorStatusHistory("processor-1", null, null, Integer.MAX_VALUE, false).getStatusSnapshots();
+        assertEquals(1, snapshots.size());
+        assertEquals(100L, snapshots.get(0).getStatusMetric(BYTES_READ).longValue());
+        reloaded.shutdown();
+    }
+
+    @Test
+    public void testUnknownComponentHasEmptyHistory() throws IOException {
+        final PersistentComponentStatusRepository repository = createRepository("1 day", "1 hour");
+        capture(repository, START, 100L);
+
+        final StatusHistory history = repository.getProcessorStatusHistory("unknown", null, null, Integer.MAX_VALUE, false);
+        assertTrue(history.getStatusSnapshots().isEmpty());
+        assertTrue(history.getComponentDetails().isEmpty());
+    }
+
+    @Test
+    public void testCounters() throws IOException {
+        final PersistentComponentStatusRepository repository = createRepository("1 day", "1 hour");
+        repository.capture(new NodeStatus(), createRootGroupStatus(100L, Collections.singletonMap("Files Generated", 7L)), Collections.emptyList(), new Date(START));
+
+        final StatusSnapshot withCounters = repository.getProcessorStatusHistory("processor-1", null, null, Integer.MAX_VALUE, true).getStatusSnapshots().get(0);
+        final MetricDescriptor<?> counter = withCounters.getMetricDescriptors().stream().filter(MetricDescriptor::isCounter).findFirst().get();
+        assertEquals("Files Generated", counter.getField());
+        assertEquals(7L, withCounters.getStatusMetric(counter).longValue());
+
+        final StatusSnapshot withoutCounters = repository.getProcessorStatusHistory("processor-1", null, null, Integer.MAX_VALUE, false).getStatusSnapshots().get(0);
+        assertTrue(withoutCounters.getMetricDescriptors().stream().noneMatch(MetricDescriptor::isCounter));
+    }
+
+    @Test
+    public void testHistorySurvivesRestart() throws IOException {
+        PersistentComponentStatusRepository repository = createRepository("1 day", "1 hour");
+
+        // Capture for more than an hour so that the first hour is written as a columnar segment
+        for (int i = 0; i < 90; i++) {
+            capture(repository, START + i * ONE_MINUTE, i + 1);
+        }
+
+        repository = createRepository("1 day", "1 hour");
+        capture(repository, START + 90 * ONE_MINUTE, 91L);
+
+        final List<StatusSnapshot> snapshots = repository.getProcessorStatusHistory("processor-1", null, null, Integer.MAX_VALUE, false).getStatusSnapshots();
+        assertEquals(91, snapshots.size());
+        for (int i = 0; i < 91; i++) {
+            assertEquals(START + i * ONE_MINUTE, snapshots.get(i).getTimestamp().getTime());
+            assertEquals(i + 1, snapshots.get(i).getStatusMetric(BYTES_READ).longValue());
+        }
+    }
+
+    @Test
+    public void testDownsampledHistoryBeyondRetention() throws IOException {
+        final PersistentComponentStatusRepository repository = createRepository("1 hour", "10 mins");
+
+        // Three hours of captures, of which only the last hour or so is kept at full resolution
+        final int captures = 180;
+        for (int i = 0; i < captures; i++) {
+            capture(repository, START + i * ONE_MINUTE, i + 1);
+        }
+
+        final List<StatusSnapshot> snapshots = repository.getProcessorStatusHistory("processor-1", null, null, Integer.MAX_VALUE, false).getStatusSnapshots();
+        final StatusSnapshot first = snapshots.get(0);
+        assertEquals(START, first.getTimestamp().getTime());
+
+        // The average of 1 through 10, rounded
+        assertEquals(6L, first.getStatusMetric(BYTES_READ).longValue());
+        assertEquals(START + 10 * ONE_MINUTE, snapshots.get(1).getTimestamp().getTime());
+        assertEquals(16L, snapshots.get(1).getStatusMetric(BYTES_READ).longValue());
+
+        // The most recent captures are at full resolution
+        final StatusSnapshot last = snapshots.get(snapshots.size() - 1);
+        assertEquals(START + (captures - 1) * ONE_MINUTE, last.getTimestamp().getTime());
+        assertEquals(captures, last.getStatusMetric(BYTES_READ).longValue());
+
+        // Timestamps are in ascending order, and the downsampled data points do not overlap those at full resolution
+        for (int i = 1; i < snapshots.size(); i++) {
+            assertTrue(snapshots.get(i).getTimestamp().after(snapshots.get(i - 1).getTimestamp()));
+        }
+        assertTrue(snapshots.size() < captures);
+    }
+
+    @Test
+    public void testNodeStatusHistoryKept() throws IOException {
+        final PersistentComponentStatusRepository repository = createRepository("1 day", "1 hour");
+        capture(repository, START, 100L);
+        capture(repository, START + ONE_MINUTE, 100L);
+
+        assertEquals(2, repository.getNodeStatusHistory().getStatusSnapshots().size());
+        assertTrue(repository.getProcessorStatusHistory("processor-1", new Date(START + 2 * ONE_MINUTE), null, Integer.MAX_VALUE, false).getStatusSnapshots().isEmpty());
+    }
+}
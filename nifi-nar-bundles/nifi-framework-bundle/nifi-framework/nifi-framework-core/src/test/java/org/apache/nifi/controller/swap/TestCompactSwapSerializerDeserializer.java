@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.IncompleteSwapFileException;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestCompactSwapSerializerDeserializer {
+    private static final String SWAP_LOCATION = "target/testCompactRoundTrip.swap";
+
+    private final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+    private final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+
+    @Before
+    public void setup() {
+        MockFlowFile.resetIdGenerator();
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+    }
+
+    private List<FlowFileRecord> createFlowFiles() {
+        final List<FlowFileRecord> toSwap = new ArrayList<>(10000);
+        final List<ContentClaim> contentClaims = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            contentClaims.add(MockFlowFile.createContentClaim("claim-" + i, resourceClaimManager));
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            final Map<String, String> attrs = new HashMap<>();
+            attrs.put("i", String.valueOf(i));
+            attrs.put("filename", "file-" + i + ".txt");
+            if (i % 2 == 0) {
+                attrs.put("even", "true");
+            }
+
+            final ContentClaim contentClaim = i % 10 == 0 ? null : contentClaims.get(i % 7);
+            toSwap.add(new MockFlowFile(attrs, i, contentClaim));
+        }
+
+        return toSwap;
+    }
+
+    private byte[] serialize(final List<FlowFileRecord> toSwap, final boolean compress) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new CompactSwapSerializer(compress).serializeFlowFiles(toSwap, flowFileQueue, SWAP_LOCATION, baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testSummaryReadFromHeader() throws IOException {
+        final List<FlowFileRecord> toSwap = createFlowFiles();
+        final byte[] serialized = serialize(toSwap, false);
+
+        // Only the header is needed to produce the summary, so the summary must be readable from a truncated file.
+        final byte[] headerOnly = Arrays.copyOf(serialized, 1024);
+        final SwapSummary swapSummary = new CompactSwapDeserializer().getSwapSummary(new DataInputStream(new ByteArrayInputStream(headerOnly)), SWAP_LOCATION, resourceClaimManager);
+
+        assertEquals(10000, swapSummary.getQueueSize().getObjectCount());
+        assertEquals(toSwap.stream().mapToLong(FlowFileRecord::getSize).sum(), swapSummary.getQueueSize().getByteCount());
+        assertEquals(9999, swapSummary.getMaxFlowFileId().intValue());
+
+        final List<ResourceClaim> resourceClaims = swapSummary.getResourceClaims();
+        assertEquals(9000, resourceClaims.size());
+        assertFalse(resourceClaims.stream().anyMatch(claim -> claim == null));
+        final long claimZeroReferences = toSwap.stream().filter(flowFile -> flowFile.getContentClaim() != null && flowFile.getId() % 7 == 0).count();
+        assertEquals(claimZeroReferences, resourceClaims.stream().filter(claim -> claim.getId().equals("claim-0")).count());
+
+        final Set<ResourceClaim> uniqueClaims = new HashSet<>(resourceClaims);
+        assertEquals(7, uniqueClaims.size());
+    }
+
+    @Test
+    public void testRoundTripUncompressed() throws IOException {
+        verifyRoundTrip(false);
+    }
+
+    @Test
+    public void testRoundTripCompressed() throws IOException {
+        verifyRoundTrip(true);
+    }
+
+    private void verifyRoundTrip(final boolean compress) throws IOException {
+        final List<FlowFileRecord> toSwap = createFlowFiles();
+        final byte[] serialized = serialize(toSwap, compress);
+
+        final SwapContents contents = new CompactSwapDeserializer().deserializeFlowFiles(new DataInputStream(new ByteArrayInputStream(serialized)),
+            SWAP_LOCATION, flowFileQueue, resourceClaimManager);
+
+        assertEquals(10000, contents.getSummary().getQueueSize().getObjectCount());
+        assertEquals(9999, contents.getSummary().getMaxFlowFileId().intValue());
+        assertEquals(9000, contents.getSummary().getResourceClaims().size());
+        assertEquals(10000, contents.getFlowFiles().size());
+
+        for (int i = 0; i < toSwap.size(); i++) {
+            final FlowFileRecord original = toSwap.get(i);
+            final FlowFileRecord restored = contents.getFlowFiles().get(i);
+
+            assertEquals(original.getId(), restored.getId());
+            assertEquals(original.getEntryDate(), restored.getEntryDate());
+            assertEquals(original.getLineageStartDate(), restored.getLineageStartDate());
+            assertEquals(original.getLastQueueDate(), restored.getLastQueueDate());
+            assertEquals(original.getSize(), restored.getSize());
+            assertEquals(original.getAttributes(), restored.getAttributes());
+
+            if (original.getContentClaim() == null) {
+                assertNull(restored.getContentClaim());
+            } else {
+                assertEquals(original.getContentClaim(), restored.getContentClaim());
+                assertEquals(original.getContentClaim().getLength(), restored.getContentClaim().getLength());
+                assertEquals(original.getContentClaimOffset(), restored.getContentClaimOffset());
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownLastQueueDateNotRestoredAsEpoch() throws IOException {
+        final FlowFileRecord flowFile = new MockFlowFile(new HashMap<>(), 10L, (ContentClaim) null) {
+            @Override
+            public Long getLastQueueDate() {
+                return null;
+            }
+        };
+
+        final long swapInTime = System.currentTimeMillis();
+        final SwapContents contents = new CompactSwapDeserializer().deserializeFlowFiles(
+            new DataInputStream(new ByteArrayInputStream(serialize(Collections.singletonList(flowFile), false))), SWAP_LOCATION, flowFileQueue, resourceClaimManager);
+
+        final FlowFileRecord restored = contents.getFlowFiles().get(0);
+        assertEquals(flowFile.getId(), restored.getId());
+        assertTrue(restored.getLastQueueDate() >= swapInTime);
+    }
+
+    @Test
+    public void testCompressionReducesSize() throws IOException {
+        final List<FlowFileRecord> toSwap = createFlowFiles();
+        assertTrue(serialize(toSwap, true).length < serialize(toSwap, false).length);
+    }
+
+    @Test
+    public void testIncompleteSwapFile() throws IOException {
+        final List<FlowFileRecord> toSwap = createFlowFiles();
+        final byte[] serialized = serialize(toSwap, false);
+        final byte[] truncated = Arrays.copyOf(serialized, serialized.length / 2);
+
+        try {
+            new CompactSwapDeserializer().deserializeFlowFiles(new DataInputStream(new ByteArrayInputStream(truncated)), SWAP_LOCATION, flowFileQueue, resourceClaimManager);
+            fail("Expected IncompleteSwapFileException");
+        } catch (final IncompleteSwapFileException isfe) {
+            final List<FlowFileRecord> partial = isfe.getPartialContents().getFlowFiles();
+            assertFalse(partial.isEmpty());
+            assertTrue(partial.size() < 10000);
+            assertEquals(toSwap.get(partial.size() - 1).getId(), partial.get(partial.size() - 1).getId());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.tasks;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAdaptiveRunDuration {
+
+    private static final long TARGET_NANOS = 1_000_000L;
+    private static final long STEP_NANOS = TARGET_NANOS / 10;
+
+    @Test
+    public void testIncreasesWhileWorkRemains() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(TARGET_NANOS);
+        assertEquals(0L, runDuration.getRunDurationNanos());
+
+        runDuration.onRunComplete(1, 1_000L, true, false);
+        assertEquals(STEP_NANOS, runDuration.getRunDurationNanos());
+
+        runDuration.onRunComplete(10, 10_000L, true, false);
+        assertEquals(2 * STEP_NANOS, runDuration.getRunDurationNanos());
+    }
+
+    @Test
+    public void testUnchangedWhenNoWorkRemains() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(TARGET_NANOS);
+        runDuration.onRunComplete(1, 1_000L, true, false);
+
+        runDuration.onRunComplete(5, 5_000L, false, false);
+        assertEquals(STEP_NANOS, runDuration.getRunDurationNanos());
+
+        // Runs in which the component was not triggered tell us nothing
+        runDuration.onRunComplete(0, 0L, true, true);
+        assertEquals(STEP_NANOS, runDuration.getRunDurationNanos());
+    }
+
+    @Test
+    public void testNeverExceedsTargetLatency() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(TARGET_NANOS);
+        final long invocationNanos = 50_000L;
+
+        for (int i = 0; i < 100; i++) {
+            runDuration.onRunComplete(1, invocationNanos, true, false);
+        }
+
+        // Room is left for one more invocation so that a FlowFile is not held for longer than the target latency
+        assertEquals(TARGET_NANOS - invocationNanos, runDuration.getRunDurationNanos());
+    }
+
+    @Test
+    public void testHalvedWhenBackPressureApplied() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(TARGET_NANOS);
+        for (int i = 0; i < 8; i++) {
+            runDuration.onRunComplete(1, 1_000L, true, false);
+        }
+        assertEquals(8 * STEP_NANOS, runDuration.getRunDurationNanos());
+
+        runDuration.onRunComplete(10, 10_000L, true, true);
+        assertEquals(4 * STEP_NANOS, runDuration.getRunDurationNanos());
+
+        runDuration.onRunComplete(10, 10_000L, true, true);
+        runDuration.onRunComplete(10, 10_000L, true, true);
+        assertEquals(STEP_NANOS, runDuration.getRunDurationNanos());
+
+        // Once less than a single step remains, batching is stopped altogether
+        runDuration.onRunComplete(10, 10_000L, true, true);
+        assertEquals(0L, runDuration.getRunDurationNanos());
+    }
+
+    @Test
+    public void testSlowInvocationStopsBatching() {
+        final AdaptiveRunDuration runDuration = new AdaptiveRunDuration(TARGET_NANOS);
+        for (int i = 0; i < 5; i++) {
+            runDuration.onRunComplete(1, 1_000L, true, false);
+        }
+        assertTrue(runDuration.getRunDurationNanos() > 0L);
+
+        runDuration.onRunComplete(1, 2 * TARGET_NANOS, true, false);
+        assertEquals(0L, runDuration.getRunDurationNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTargetLatencyMustBePositive() {
+        new AdaptiveRunDuration(0L);
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * An immutable Map of FlowFile attributes that stores its values in an array and its keys in a {@link KeyLayout} that is shared
+ * by all attribute maps that have the same keys, added in the same order. Because nearly every FlowFile in a flow carries one of
+ * a small number of distinct sets of attribute keys, this means that each FlowFile pays only for an array of values rather than for
+ * a hash table with an entry object per attribute. Layouts are created by appending keys to a parent layout and are cached as
+ * transitions on that parent, so the String instances used as keys are shared as well.
+ * </p>
+ *
+ * <p>
+ * Maps are never modified once created. Changes are made through an {@link Editor}, which copies the array of values only when
+ * it is first modified, so a FlowFile that is cloned or whose attributes are not changed shares its values with its source.
+ * </p>
+ *
+ * <b>Immutable - Thread Safe</b>
+ */
+final class CompactAttributeMap extends AbstractMap<String, String> {
+    /**
+     * Layouts with at most this many keys are searched linearly, rather than through an index.
+     */
+    private static final int MAX_UNINDEXED_KEYS = 8;
+
+    /**
+     * The maximum number of distinct transitions that are cached for any one layout. This prevents a flow that generates
+     * attribute names dynamically from growing a single layout's transitions without bound.
+     */
+    private static final int MAX_TRANSITIONS_PER_LAYOUT = 64;
+
+    /**
+     * The maximum number of layouts that are cached across the JVM. Once reached, new layouts are still created but are not
+     * shared, so they are garbage collected along with the FlowFiles that use them.
+     */
+    private static final int MAX_CACHED_LAYOUTS = 10_000;
+
+    private static final AtomicInteger cachedLayoutCount = new AtomicInteger(0);
+    private static final KeyLayout EMPTY_LAYOUT = new KeyLayout(new String[0], true);
+    private static final String[] NO_VALUES = new String[0];
+
+    static final CompactAttributeMap EMPTY = new CompactAttributeMap(EMPTY_LAYOUT, NO_VALUES);
+
+    private final KeyLayout layout;
+    private final String[] values;
+
+    private CompactAttributeMap(final KeyLayout layout, final String[] values) {
+        this.layout = layout;
+        this.values = values;
+    }
+
+    /**
+     * Returns a CompactAttributeMap that contains the same entries as the given map. Entries that have a <code>null</code> key or
+     * value are ignored.
+     *
+     * @param attributes the attributes to copy
+     * @return a CompactAttributeMap with the same entries
+     */
+    static CompactAttributeMap copyOf(final Map<String, String> attributes) {
+        if (attributes instanceof CompactAttributeMap) {
+            return (CompactAttributeMap) attributes;
+        }
+        if (attributes == null || attributes.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Editor editor = EMPTY.edit();
+        editor.putAll(attributes);
+        return editor.build();
+    }
+
+    /**
+     * @return an Editor whose initial state is this map
+     */
+    Editor edit() {
+        return new Editor(this);
+    }
+
+    KeyLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return layout.indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(final Object key) {
+        final int index = layout.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    private class EntryIterator implements Iterator<Entry<String, String>> {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (index >= values.length) {
+                throw new NoSuchElementException();
+            }
+
+            final Entry<String, String> entry = new SimpleImmutableEntry<>(layout.keys[index], values[index]);
+            index++;
+            return entry;
+        }
+    }
+
+
+    /**
+     * An ordered set of attribute keys, along with the layouts that can be reached from it by appending a single key.
+     */
+    static final class KeyLayout {
+        private final String[] keys;
+        private final Map<String, Integer> index;
+        private final ConcurrentMap<String, KeyLayout> transitions;
+
+        private KeyLayout(final String[] keys, final boolean cached) {
+            this.keys = keys;
+            this.transitions = cached ? new ConcurrentHashMap<>(4) : null;
+
+            if (keys.length > MAX_UNINDEXED_KEYS) {
+                index = new HashMap<>(keys.length * 2);
+                for (int i = 0; i < keys.length; i++) {
+                    index.put(keys[i], i);
+                }
+            } else {
+                index = null;
+            }
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        int indexOf(final Object key) {
+            if (index != null) {
+                final Integer i = index.get(key);
+                return i == null ? -1 : i;
+            }
+
+            for (int i = 0; i < keys.length; i++) {
+                final String existing = keys[i];
+                if (existing == key || existing.equals(key)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Returns the layout that contains all of the keys of this layout followed by the given key, which must not
+         * already be part of this layout.
+         */
+        KeyLayout append(final String key) {
+            if (transitions != null) {
+                final KeyLayout existing = transitions.get(key);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+
+            final String[] appendedKeys = Arrays.copyOf(keys, keys.length + 1);
+            appendedKeys[keys.length] = key;
+
+            final boolean cache = transitions != null && transitions.size() < MAX_TRANSITIONS_PER_LAYOUT && cachedLayoutCount.get() < MAX_CACHED_LAYOUTS;
+            final KeyLayout appended = new KeyLayout(appendedKeys, cache);
+            if (!cache) {
+                return appended;
+            }
+
+            final KeyLayout raced = transitions.putIfAbsent(key, appended);
+            if (raced != null) {
+                return raced;
+            }
+
+            cachedLayoutCount.incrementAndGet();
+            return appended;
+        }
+
+        /**
+         * Returns the layout that contains the keys of this layout for which the given mask is <code>true</code>, in the same order.
+         */
+        KeyLayout retain(final boolean[] mask) {
+            KeyLayout retained = EMPTY_LAYOUT;
+            for (int i = 0; i < keys.length; i++) {
+                if (mask[i]) {
+                    retained = retained.append(keys[i]);
+                }
+            }
+
+            return retained;
+        }
+    }
+
+
+    /**
+     * Accumulates changes to a CompactAttributeMap. The values of the source map are copied only when they are first changed, and
+     * no layout is created for a key that is overwritten rather than added. An Editor is not thread-safe.
+     */
+    static final class Editor {
+        private KeyLayout layout;
+        private String[] values;
+        private int size;
+        private boolean valuesOwned = false;
+        private CompactAttributeMap built;
+
+        private Editor(final CompactAttributeMap source) {
+            this.layout = source.layout;
+            this.values = source.values;
+            this.size = source.values.length;
+            this.built = source;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String get(final String key) {
+            final int index = layout.indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        void put(final String key, final String value) {
+            final int index = layout.indexOf(key);
+            if (index >= 0) {
+                if (value.equals(values[index])) {
+                    return;
+                }
+
+                ensureOwned(size);
+                values[index] = value;
+            } else {
+                ensureOwned(size + 1);
+                layout = layout.append(key);
+                values[size++] = value;
+            }
+
+            built = null;
+        }
+
+        void putAll(final Map<String, String> attributes) {
+            if (size == 0 && attributes instanceof CompactAttributeMap) {
+                // Share the other map's layout and values until they are changed.
+                final CompactAttributeMap other = (CompactAttributeMap) attributes;
+                layout = other.layout;
+                values = other.values;
+                size = other.values.length;
+                valuesOwned = false;
+                built = other;
+                return;
+            }
+
+            for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+                final String key = entry.getKey();
+                final String value = entry.getValue();
+                if (key != null && value != null) {
+                    put(key, value);
+                }
+            }
+        }
+
+        void remove(final String key) {
+            final int index = layout.indexOf(key);
+            if (index < 0) {
+                return;
+            }
+
+            final boolean[] mask = new boolean[size];
+            Arrays.fill(mask, true);
+            mask[index] = false;
+            retain(mask, size - 1);
+        }
+
+        void removeIf(final Predicate<String> keyFilter) {
+            final boolean[] mask = new boolean[size];
+            int retainedCount = 0;
+            for (int i = 0; i < size; i++) {
+                mask[i] = !keyFilter.test(layout.keys[i]);
+                if (mask[i]) {
+                    retainedCount++;
+                }
+            }
+
+            if (retainedCount < size) {
+                retain(mask, retainedCount);
+            }
+        }
+
+        private void retain(final boolean[] mask, final int retainedCount) {
+            final String[] retainedValues = new String[retainedCount];
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (mask[i]) {
+                    retainedValues[j++] = values[i];
+                }
+            }
+
+            layout = layout.retain(mask);
+            values = retainedValues;
+            size = retainedCount;
+            valuesOwned = true;
+            built = null;
+        }
+
+        private void ensureOwned(final int minCapacity) {
+            if (valuesOwned && values.length >= minCapacity) {
+                return;
+            }
+
+            // When the values are shared, allocate exactly what is needed, as most edits are a single change followed by build().
+            // Otherwise, grow geometrically so that a series of additions does not copy the values each time.
+            final int capacity = valuesOwned ? Math.max(minCapacity, values.length + (values.length >> 1) + 1) : minCapacity;
+            values = Arrays.copyOf(values, capacity);
+            valuesOwned = true;
+        }
+
+        /**
+         * @return an immutable map containing the current state of this Editor. The Editor may continue to be used, and changes
+         * made to it afterward are not reflected in the returned map.
+         */
+        CompactAttributeMap build() {
+            if (built != null) {
+                return built;
+            }
+
+            if (size == 0) {
+                built = EMPTY;
+            } else {
+                final String[] builtValues = values.length == size ? values : Arrays.copyOf(values, size);
+                built = new CompactAttributeMap(layout, builtValues);
+            }
+
+            // The values are now referenced by the built map, so they must be copied before being changed again.
+            values = built.values;
+            valuesOwned = false;
+            return built;
+        }
+    }
+}
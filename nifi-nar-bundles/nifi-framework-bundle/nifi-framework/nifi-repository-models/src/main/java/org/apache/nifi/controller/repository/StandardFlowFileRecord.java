@@ -24,10 +24,7 @@ import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -37,6 +34,11 @@ import java.util.regex.Pattern;
  * A flow file is a logical notion of an item in a flow with its associated attributes and identity which can be used as a reference for its actual content.
  * </p>
  *
+ * <p>
+ * Attributes are held in a {@link CompactAttributeMap} so that FlowFiles with the same attribute keys share those keys, and a FlowFile
+ * that is created from another shares its attribute values until they are changed.
+ * </p>
+ *
  * <b>Immutable - Thread Safe</b>
  *
  */
@@ -48,7 +50,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
     private final long lineageStartIndex;
     private final long size;
     private final long penaltyExpirationMs;
-    private final Map<String, String> attributes;
+    private final CompactAttributeMap attributes;
     private final ContentClaim claim;
     private final long claimOffset;
     private final long lastQueueDate;
@@ -56,7 +58,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
 
     private StandardFlowFileRecord(final Builder builder) {
         this.id = builder.bId;
-        this.attributes = builder.bAttributes == null ? Collections.emptyMap() : builder.bAttributes;
+        this.attributes = builder.bAttributes.build();
         this.entryDate = builder.bEntryDate;
         this.lineageStartDate = builder.bLineageStartDate;
         this.lineageStartIndex = builder.bLineageStartIndex;
@@ -105,7 +107,8 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
 
     @Override
     public Map<String, String> getAttributes() {
-        return Collections.unmodifiableMap(this.attributes);
+        // The map is immutable, so there is no need to wrap it in an UnmodifiableMap.
+        return this.attributes;
     }
 
     @Override
@@ -179,8 +182,7 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
         private long bClaimOffset = 0L;
         private long bLastQueueDate = System.currentTimeMillis();
         private long bQueueDateIndex = 0L;
-        private Map<String, String> bAttributes;
-        private boolean bAttributesCopied = false;
+        private CompactAttributeMap.Editor bAttributes = CompactAttributeMap.EMPTY.edit();
 
         public Builder id(final long id) {
             bId = id;
@@ -210,39 +212,23 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
             return this;
         }
 
-        private Map<String, String> initializeAttributes() {
-            if (bAttributes == null) {
-                bAttributes = new HashMap<>();
-                bAttributesCopied = true;
-            } else if (!bAttributesCopied) {
-                bAttributes = new HashMap<>(bAttributes);
-                bAttributesCopied = true;
-            }
-
-            return bAttributes;
-        }
-
         public Builder addAttribute(final String key, final String value) {
             if (key != null && value != null) {
-                initializeAttributes().put(FlowFile.KeyValidator.validateKey(key), value);
+                bAttributes.put(FlowFile.KeyValidator.validateKey(key), value);
             }
             return this;
         }
 
         public Builder addAttributes(final Map<String, String> attributes) {
-            final Map<String, String> initializedAttributes = initializeAttributes();
-
             if (null != attributes) {
-                for (final String key : attributes.keySet()) {
-                    FlowFile.KeyValidator.validateKey(key);
-                }
-                for (final Map.Entry<String, String> entry : attributes.entrySet()) {
-                    final String key = entry.getKey();
-                    final String value = entry.getValue();
-                    if (key != null && value != null) {
-                        initializedAttributes.put(key, value);
+                // The keys of a CompactAttributeMap have already been validated when they were added to it.
+                if (!(attributes instanceof CompactAttributeMap)) {
+                    for (final String key : attributes.keySet()) {
+                        FlowFile.KeyValidator.validateKey(key);
                     }
                 }
+
+                bAttributes.putAll(attributes);
             }
             return this;
         }
@@ -254,39 +240,22 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
                         continue;
                     }
 
-                    initializeAttributes().remove(key);
+                    bAttributes.remove(key);
                 }
             }
             return this;
         }
 
         public Builder removeAttributes(final Set<String> keys) {
-            if (keys != null) {
-                for (final String key : keys) {
-                    if (CoreAttributes.UUID.key().equals(key)) {
-                        continue;
-                    }
-
-                    initializeAttributes().remove(key);
-                }
+            if (keys != null && !keys.isEmpty()) {
+                bAttributes.removeIf(key -> keys.contains(key) && !CoreAttributes.UUID.key().equals(key));
             }
             return this;
         }
 
         public Builder removeAttributes(final Pattern keyPattern) {
             if (keyPattern != null) {
-                final Iterator<String> iterator = initializeAttributes().keySet().iterator();
-                while (iterator.hasNext()) {
-                    final String key = iterator.next();
-
-                    if (CoreAttributes.UUID.key().equals(key)) {
-                        continue;
-                    }
-
-                    if (keyPattern.matcher(key).matches()) {
-                        iterator.remove();
-                    }
-                }
+                bAttributes.removeIf(key -> !CoreAttributes.UUID.key().equals(key) && keyPattern.matcher(key).matches());
             }
             return this;
         }
@@ -318,13 +287,12 @@ public final class StandardFlowFileRecord implements FlowFile, FlowFileRecord {
             bLineageIdentifiers.clear();
             bPenaltyExpirationMs = specFlowFile.getPenaltyExpirationMillis();
             bSize = specFlowFile.getSize();
-            // If this is a StandardFlowFileRecord, access the attributes map directly. Do not use the
-            // getAttributes() method, because that will wrap the original in an UnmodifiableMap. As a result,
-            // a Processor that continually calls session.append() for instance will have a FlowFile whose attributes
-            // Map is wrapped thousands of times until it hits a StackOverflowError. We want the getter to return
-            // UnmodifiableMap, though, so that Processors cannot directly modify that Map.
-            bAttributes = specFlowFile instanceof StandardFlowFileRecord ? ((StandardFlowFileRecord) specFlowFile).attributes : specFlowFile.getAttributes();
-            bAttributesCopied = false;
+            // If this is a StandardFlowFileRecord, start from its attributes map directly so that the new FlowFile
+            // shares the keys and values of the original until they are changed. Any other FlowFile's attributes
+            // are copied into a CompactAttributeMap.
+            final CompactAttributeMap specAttributes = specFlowFile instanceof StandardFlowFileRecord
+                ? ((StandardFlowFileRecord) specFlowFile).attributes : CompactAttributeMap.copyOf(specFlowFile.getAttributes());
+            bAttributes = specAttributes.edit();
             bClaim = specFlowFile.getContentClaim();
             bClaimOffset = specFlowFile.getContentClaimOffset();
             bLastQueueDate = specFlowFile.getLastQueueDate();
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestCompactAttributeMap {
+
+    @Test
+    public void testEqualsHashMap() {
+        final Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            expected.put("key" + i, "value" + i);
+        }
+
+        final CompactAttributeMap map = CompactAttributeMap.copyOf(expected);
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(20, map.size());
+        assertEquals("value7", map.get("key7"));
+        assertTrue(map.containsKey("key19"));
+        assertFalse(map.containsKey("key20"));
+        assertNull(map.get("key20"));
+        assertNull(map.get(null));
+    }
+
+    @Test
+    public void testIterationOrderIsInsertionOrder() {
+        final Map<String, String> source = new LinkedHashMap<>();
+        source.put("c", "1");
+        source.put("a", "2");
+        source.put("b", "3");
+
+        final CompactAttributeMap map = CompactAttributeMap.copyOf(source);
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(map.keySet()));
+        assertEquals(Arrays.asList("1", "2", "3"), new ArrayList<>(map.values()));
+    }
+
+    @Test
+    public void testMapIsImmutable() {
+        final CompactAttributeMap map = CompactAttributeMap.copyOf(Collections.singletonMap("a", "b"));
+
+        try {
+            map.put("c", "d");
+            fail("Was able to modify map");
+        } catch (final UnsupportedOperationException expected) {
+        }
+
+        try {
+            map.keySet().remove("a");
+            fail("Was able to modify map");
+        } catch (final UnsupportedOperationException expected) {
+        }
+
+        try {
+            map.entrySet().iterator().next().setValue("c");
+            fail("Was able to modify map");
+        } catch (final UnsupportedOperationException expected) {
+        }
+
+        assertEquals("b", map.get("a"));
+    }
+
+    @Test
+    public void testSameKeysShareLayout() {
+        final CompactAttributeMap.Editor first = CompactAttributeMap.EMPTY.edit();
+        first.put("filename", "a.txt");
+        first.put("path", "./");
+
+        final CompactAttributeMap.Editor second = CompactAttributeMap.EMPTY.edit();
+        second.put(new String("filename"), "b.txt");
+        second.put(new String("path"), "./");
+
+        assertSame(first.build().getLayout(), second.build().getLayout());
+    }
+
+    @Test
+    public void testEditorDoesNotModifySource() {
+        final CompactAttributeMap.Editor editor = CompactAttributeMap.EMPTY.edit();
+        editor.put("a", "1");
+        editor.put("b", "2");
+        final CompactAttributeMap original = editor.build();
+
+        final CompactAttributeMap.Editor childEditor = original.edit();
+        childEditor.put("a", "changed");
+        childEditor.put("c", "3");
+        childEditor.remove("b");
+        final CompactAttributeMap child = childEditor.build();
+
+        assertEquals(2, original.size());
+        assertEquals("1", original.get("a"));
+        assertEquals("2", original.get("b"));
+        assertNull(original.get("c"));
+
+        assertEquals(2, child.size());
+        assertEquals("changed", child.get("a"));
+        assertNull(child.get("b"));
+        assertEquals("3", child.get("c"));
+
+        // Continuing to edit after build() must not affect the map that was built.
+        childEditor.put("a", "again");
+        assertEquals("changed", child.get("a"));
+        assertEquals("again", childEditor.build().get("a"));
+    }
+
+    @Test
+    public void testUnchangedEditReturnsSameMap() {
+        final CompactAttributeMap map = CompactAttributeMap.copyOf(Collections.singletonMap("a", "1"));
+
+        final CompactAttributeMap.Editor editor = map.edit();
+        editor.put("a", "1");
+        editor.remove("not-present");
+        assertSame(map, editor.build());
+    }
+
+    @Test
+    public void testRemoveIf() {
+        final CompactAttributeMap.Editor editor = CompactAttributeMap.EMPTY.edit();
+        for (int i = 0; i < 12; i++) {
+            editor.put("key" + i, "value" + i);
+        }
+
+        final Pattern pattern = Pattern.compile("key1\\d*");
+        editor.removeIf(key -> pattern.matcher(key).matches());
+        final CompactAttributeMap map = editor.build();
+
+        assertEquals(new HashSet<>(Arrays.asList("key0", "key2", "key3", "key4", "key5", "key6", "key7", "key8", "key9")), map.keySet());
+        assertEquals("value9", map.get("key9"));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        final CompactAttributeMap.Editor editor = CompactAttributeMap.EMPTY.edit();
+        editor.put("a", "1");
+        editor.remove("a");
+        final CompactAttributeMap map = editor.build();
+        assertTrue(map.isEmpty());
+        assertSame(CompactAttributeMap.EMPTY, map);
+    }
+
+    @Test
+    public void testManyDistinctKeysRemainCorrect() {
+        // More distinct keys than can be cached as transitions of a single layout.
+        final List<CompactAttributeMap> maps = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final CompactAttributeMap.Editor editor = CompactAttributeMap.EMPTY.edit();
+            editor.put("common", "x");
+            editor.put("unique-" + i, String.valueOf(i));
+            maps.add(editor.build());
+        }
+
+        for (int i = 0; i < 500; i++) {
+            final CompactAttributeMap map = maps.get(i);
+            assertEquals(2, map.size());
+            assertEquals(String.valueOf(i), map.get("unique-" + i));
+            assertNull(map.get("unique-" + (i + 1)));
+        }
+    }
+
+    @Test
+    public void testFlowFileRecordSharesAttributesWithSource() {
+        final FlowFileRecord original = new StandardFlowFileRecord.Builder()
+            .id(1L)
+            .addAttribute(CoreAttributes.UUID.key(), "11111111-1111-1111-1111-111111111111")
+            .addAttribute("abc", "xyz")
+            .build();
+
+        final FlowFileRecord penalized = new StandardFlowFileRecord.Builder().fromFlowFile(original).penaltyExpirationTime(5L).build();
+        assertSame(original.getAttributes(), penalized.getAttributes());
+
+        final FlowFileRecord updated = new StandardFlowFileRecord.Builder().fromFlowFile(original).addAttribute("abc", "123").build();
+        assertEquals("xyz", original.getAttribute("abc"));
+        assertEquals("123", updated.getAttribute("abc"));
+        assertSame(((CompactAttributeMap) original.getAttributes()).getLayout(), ((CompactAttributeMap) updated.getAttributes()).getLayout());
+
+        final FlowFileRecord removed = new StandardFlowFileRecord.Builder().fromFlowFile(original)
+            .removeAttributes(new HashSet<>(Arrays.asList(CoreAttributes.UUID.key(), "abc")))
+            .build();
+        assertEquals(Collections.singletonMap(CoreAttributes.UUID.key(), "11111111-1111-1111-1111-111111111111"), removed.getAttributes());
+    }
+}
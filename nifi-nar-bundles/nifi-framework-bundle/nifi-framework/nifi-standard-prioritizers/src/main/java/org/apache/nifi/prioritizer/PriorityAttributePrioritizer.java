@@ -18,8 +18,8 @@ package org.apache.nifi.prioritizer;
 
 import java.util.regex.Pattern;
 
+import org.apache.nifi.controller.queue.KeyedFlowFilePrioritizer;
 import org.apache.nifi.flowfile.FlowFile;
-import org.apache.nifi.flowfile.FlowFilePrioritizer;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 
 /**
@@ -32,9 +32,10 @@ import org.apache.nifi.flowfile.attributes.CoreAttributes;
  * attributes is an integer, then the lowest number wins 4. the "priority"
  * attributes are compared lexicographically and the lowest wins
  */
-public class PriorityAttributePrioritizer implements FlowFilePrioritizer {
+public class PriorityAttributePrioritizer implements KeyedFlowFilePrioritizer {
 
     private static final Pattern intPattern = Pattern.compile("-?\\d+");
+    private static final PriorityKey NO_PRIORITY_KEY = new PriorityKey(PriorityKey.NO_PRIORITY, 0L, null);
 
     @Override
     public int compare(FlowFile o1, FlowFile o2) {
@@ -83,4 +84,80 @@ public class PriorityAttributePrioritizer implements FlowFilePrioritizer {
         }
     }
 
+    @Override
+    public Comparable<?> getPriorityKey(final FlowFile flowFile) {
+        final String priority = flowFile.getAttribute(CoreAttributes.PRIORITY.key());
+        if (priority == null) {
+            return NO_PRIORITY_KEY;
+        }
+
+        final String trimmed = priority.trim();
+        if (intPattern.matcher(trimmed).matches()) {
+            long value;
+            try {
+                value = Long.parseLong(trimmed);
+            } catch (final NumberFormatException e) {
+                // too large to be a long; order it before or after all other numbers
+                value = trimmed.startsWith("-") ? Long.MIN_VALUE : Long.MAX_VALUE;
+            }
+
+            return new PriorityKey(PriorityKey.NUMERIC_PRIORITY, value, null);
+        }
+
+        return new PriorityKey(PriorityKey.TEXT_PRIORITY, 0L, priority);
+    }
+
+    /**
+     * Orders numeric priorities first, from lowest to highest, then textual priorities lexicographically, then FlowFiles that
+     * have no priority, consistent with {@link #compare(FlowFile, FlowFile)}.
+     */
+    private static final class PriorityKey implements Comparable<PriorityKey> {
+        private static final int NUMERIC_PRIORITY = 0;
+        private static final int TEXT_PRIORITY = 1;
+        private static final int NO_PRIORITY = 2;
+
+        private final int type;
+        private final long number;
+        private final String text;
+
+        private PriorityKey(final int type, final long number, final String text) {
+            this.type = type;
+            this.number = number;
+            this.text = text;
+        }
+
+        @Override
+        public int compareTo(final PriorityKey other) {
+            if (type != other.type) {
+                return Integer.compare(type, other.type);
+            }
+
+            switch (type) {
+                case NUMERIC_PRIORITY:
+                    return Long.compare(number, other.number);
+                case TEXT_PRIORITY:
+                    return text.compareTo(other.text);
+                default:
+                    return 0;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PriorityKey)) {
+                return false;
+            }
+
+            return compareTo((PriorityKey) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return type == TEXT_PRIORITY ? text.hashCode() : 31 * type + Long.hashCode(number);
+        }
+    }
+
 }
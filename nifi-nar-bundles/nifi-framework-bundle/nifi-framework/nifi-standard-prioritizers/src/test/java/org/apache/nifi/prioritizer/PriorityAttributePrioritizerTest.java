@@ -18,7 +18,9 @@ package org.apache.nifi.prioritizer;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -106,6 +108,32 @@ public class PriorityAttributePrioritizerTest {
         assertEquals(1, prioritizer.compare(ffPri1, ffPriLN));
     }
 
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testPriorityKeyConsistentWithCompare() {
+        final Processor processor = new SimpleProcessor();
+        final AtomicLong idGenerator = new AtomicLong(0L);
+        final MockProcessSession session = new MockProcessSession(new SharedSessionState(processor, idGenerator), Mockito.mock(Processor.class));
+
+        final List<MockFlowFile> flowFiles = new ArrayList<>();
+        flowFiles.add(session.create());
+        for (final Map<String, String> attributes : new Map[] {attrsPri1, attrsPri2, attrsPrin1, attrsPriA, attrsPriB, attrsPriLP, attrsPriLN}) {
+            final MockFlowFile flowFile = session.create();
+            flowFile.putAttributes(attributes);
+            flowFiles.add(flowFile);
+        }
+
+        final PriorityAttributePrioritizer prioritizer = new PriorityAttributePrioritizer();
+        for (final MockFlowFile a : flowFiles) {
+            for (final MockFlowFile b : flowFiles) {
+                final Comparable keyA = prioritizer.getPriorityKey(a);
+                final Comparable keyB = prioritizer.getPriorityKey(b);
+                assertEquals(Integer.signum(prioritizer.compare(a, b)), Integer.signum(keyA.compareTo(keyB)));
+                assertEquals(keyA.compareTo(keyB) == 0, keyA.equals(keyB));
+            }
+        }
+    }
+
     public class SimpleProcessor extends AbstractProcessor {
 
         @Override
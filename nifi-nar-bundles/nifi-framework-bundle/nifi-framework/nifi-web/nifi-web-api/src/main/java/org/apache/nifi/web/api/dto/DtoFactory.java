@@ -100,6 +100,7 @@ import org.apache.nifi.controller.queue.RemoteQueuePartitionDiagnostics;
 import org.apache.nifi.controller.repository.FlowFileRecord;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.serialization.ProvenanceCapturePolicyMapper;
 import org.apache.nifi.controller.service.ControllerServiceNode;
 import org.apache.nifi.controller.service.ControllerServiceProvider;
 import org.apache.nifi.controller.state.SortedStateUtils;
@@ -2507,6 +2508,8 @@ public final class DtoFactory {
         dto.setVersionControlInformation(createVersionControlInformationDto(group));
         dto.setFlowfileConcurrency(group.getFlowFileConcurrency().name());
         dto.setFlowfileOutboundPolicy(group.getFlowFileOutboundPolicy().name());
+        dto.setMaxTimerDrivenThreadCount(group.getMaxTimerDrivenThreadCount());
+        dto.setProvenanceCapturePolicy(ProvenanceCapturePolicyMapper.toDto(group.getProvenanceCapturePolicy()));
 
         final ParameterContext parameterContext = group.getParameterContext();
         if (parameterContext != null) {
@@ -4330,6 +4333,8 @@ public final class DtoFactory {
         copy.setVersionedComponentId(original.getVersionedComponentId());
         copy.setFlowfileConcurrency(original.getFlowfileConcurrency());
         copy.setFlowfileOutboundPolicy(original.getFlowfileOutboundPolicy());
+        copy.setMaxTimerDrivenThreadCount(original.getMaxTimerDrivenThreadCount());
+        copy.setProvenanceCapturePolicy(original.getProvenanceCapturePolicy());
 
         copy.setRunningCount(original.getRunningCount());
         copy.setStoppedCount(original.getStoppedCount());
@@ -26,6 +26,7 @@ import org.apache.nifi.controller.ProcessorNode;
 import org.apache.nifi.controller.ScheduledState;
 import org.apache.nifi.controller.flow.FlowManager;
 import org.apache.nifi.controller.queue.DropFlowFileStatus;
+import org.apache.nifi.controller.serialization.ProvenanceCapturePolicyMapper;
 import org.apache.nifi.controller.service.ControllerServiceNode;
 import org.apache.nifi.controller.service.ControllerServiceState;
 import org.apache.nifi.groups.FlowFileConcurrency;
@@ -373,6 +374,12 @@ public class StandardProcessGroupDAO extends ComponentDAO implements ProcessGrou
         if (flowFileOutboundPolicy != null) {
             group.setFlowFileOutboundPolicy(flowFileOutboundPolicy);
         }
+        if (isNotNull(processGroupDTO.getMaxTimerDrivenThreadCount())) {
+            group.setMaxTimerDrivenThreadCount(processGroupDTO.getMaxTimerDrivenThreadCount());
+        }
+        if (isNotNull(processGroupDTO.getProvenanceCapturePolicy())) {
+            group.setProvenanceCapturePolicy(ProvenanceCapturePolicyMapper.toPolicy(processGroupDTO.getProvenanceCapturePolicy()));
+        }
         group.onComponentModified();
         return group;
     }
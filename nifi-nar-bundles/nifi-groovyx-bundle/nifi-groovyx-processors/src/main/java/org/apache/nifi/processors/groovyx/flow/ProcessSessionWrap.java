@@ -36,6 +36,7 @@ import org.apache.nifi.provenance.ProvenanceReporter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -922,6 +923,23 @@ public abstract class ProcessSessionWrap implements ProcessSession {
         s.exportTo(flowFile, destination);
     }
 
+    /**
+     * Writes the content of the given FlowFile to the given destination channel
+     *
+     * @param flowFile    to export the content of
+     * @param destination to export the content to
+     * @throws IllegalStateException     if detected that this method is being called from within a callback of another method in this session and for the given FlowFile(s)
+     * @throws FlowFileHandlingException if the given FlowFile is already transferred or removed or doesn't belong to this session. Automatic rollback will occur.
+     * @throws MissingFlowFileException  if the given FlowFile content cannot be found. The FlowFile should no longer be reference, will be internally destroyed, and the session is automatically
+     *                                   rolled back and what is left of the FlowFile is destroyed.
+     * @throws FlowFileAccessException   if some IO problem occurs accessing FlowFile content
+     */
+    @Override
+    public void exportTo(FlowFile flowFile, WritableByteChannel destination) {
+        flowFile = unwrap(flowFile);
+        s.exportTo(flowFile, destination);
+    }
+
     /**
      * Returns a ProvenanceReporter that is tied to this ProcessSession.
      *
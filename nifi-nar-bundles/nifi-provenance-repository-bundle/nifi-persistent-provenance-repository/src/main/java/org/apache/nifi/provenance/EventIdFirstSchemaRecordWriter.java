@@ -146,6 +146,7 @@ public class EventIdFirstSchemaRecordWriter extends CompressableRecordWriter {
                     final ByteArrayOutputStream baos = bados.getByteArrayOutputStream();
                     out.writeInt(baos.size());
                     baos.writeTo(out);
+                    addToBlockSummary(record);
 
                     recordCount.incrementAndGet();
                     endBytes = getBytesWritten();
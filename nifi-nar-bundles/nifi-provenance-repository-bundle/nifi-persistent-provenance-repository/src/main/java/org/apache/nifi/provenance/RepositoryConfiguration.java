@@ -40,6 +40,9 @@ public class RepositoryConfiguration {
     public static final String CONCURRENT_MERGE_THREADS = "nifi.provenance.repository.concurrent.merge.threads";
     public static final String WARM_CACHE_FREQUENCY = "nifi.provenance.repository.warm.cache.frequency";
     public static final String MAINTENACE_FREQUENCY = "nifi.provenance.repository.maintenance.frequency";
+    public static final String BLOCK_SUMMARIES_ENABLED = "nifi.provenance.repository.block.summaries.enabled";
+    public static final String INDEX_QUEUE_SIZE = "nifi.provenance.repository.index.queue.size";
+    public static final String INDEX_BATCH_SIZE = "nifi.provenance.repository.index.batch.size";
 
     private final Map<String, File> storageDirectories = new LinkedHashMap<>();
     private long recordLifeMillis = TimeUnit.MILLISECONDS.convert(24, TimeUnit.HOURS);
@@ -64,8 +67,11 @@ public class RepositoryConfiguration {
     private List<SearchableField> searchableAttributes = new ArrayList<>();
     private boolean compress = true;
     private boolean alwaysSync = false;
+    private boolean blockSummaryEnabled = false;
     private int queryThreadPoolSize = 2;
     private int indexThreadPoolSize = 1;
+    private int indexQueueSize = 10_000;
+    private int indexBatchSize = 1_000;
     private boolean allowRollover = true;
     private int concurrentMergeThreads = 4;
     private Integer warmCacheFrequencyMinutes = null;
@@ -233,6 +239,22 @@ public class RepositoryConfiguration {
         this.compress = compress;
     }
 
+    /**
+     * @return whether or not the Table of Contents of each event file stores a summary of
+     * the events in each block, which allows blocks to be skipped when scanning event files
+     */
+    public boolean isBlockSummaryEnabled() {
+        return blockSummaryEnabled;
+    }
+
+    /**
+     * @param blockSummaryEnabled if true, a summary of each block will be stored in the
+     * Table of Contents of the event file
+     */
+    public void setBlockSummaryEnabled(final boolean blockSummaryEnabled) {
+        this.blockSummaryEnabled = blockSummaryEnabled;
+    }
+
     /**
      * @return the number of threads to use to query the repo
      */
@@ -261,6 +283,34 @@ public class RepositoryConfiguration {
         this.indexThreadPoolSize = indexThreadPoolSize;
     }
 
+    /**
+     * @return the maximum number of events that may be waiting to be indexed before storing further events blocks until indexing catches up
+     */
+    public int getIndexQueueSize() {
+        return indexQueueSize;
+    }
+
+    public void setIndexQueueSize(final int indexQueueSize) {
+        if (indexQueueSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.indexQueueSize = indexQueueSize;
+    }
+
+    /**
+     * @return the maximum number of events that a single indexing thread writes to the index at a time
+     */
+    public int getIndexBatchSize() {
+        return indexBatchSize;
+    }
+
+    public void setIndexBatchSize(final int indexBatchSize) {
+        if (indexBatchSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.indexBatchSize = indexBatchSize;
+    }
+
     public void setConcurrentMergeThreads(final int mergeThreads) {
         this.concurrentMergeThreads = mergeThreads;
     }
@@ -440,6 +490,8 @@ public class RepositoryConfiguration {
         final String shardSize = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEX_SHARD_SIZE, "500 MB");
         final int queryThreads = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_QUERY_THREAD_POOL_SIZE, 2);
         final int indexThreads = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_INDEX_THREAD_POOL_SIZE, 2);
+        final int indexQueueSize = nifiProperties.getIntegerProperty(INDEX_QUEUE_SIZE, 10_000);
+        final int indexBatchSize = nifiProperties.getIntegerProperty(INDEX_BATCH_SIZE, 1_000);
         final int journalCount = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_JOURNAL_COUNT, 16);
         final int concurrentMergeThreads = nifiProperties.getIntegerProperty(CONCURRENT_MERGE_THREADS, 2);
         final String warmCacheFrequency = nifiProperties.getProperty(WARM_CACHE_FREQUENCY);
@@ -454,6 +506,7 @@ public class RepositoryConfiguration {
         final String indexedAttrString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_ATTRIBUTES);
 
         final Boolean alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty("nifi.provenance.repository.always.sync", "false"));
+        final boolean blockSummaryEnabled = Boolean.parseBoolean(nifiProperties.getProperty(BLOCK_SUMMARIES_ENABLED, "false"));
 
         final int defaultMaxAttrChars = 65536;
         final String maxAttrLength = nifiProperties.getProperty("nifi.provenance.repository.max.attribute.length", String.valueOf(defaultMaxAttrChars));
@@ -492,6 +545,8 @@ public class RepositoryConfiguration {
         config.setMaxStorageCapacity(maxStorageBytes);
         config.setQueryThreadPoolSize(queryThreads);
         config.setIndexThreadPoolSize(indexThreads);
+        config.setIndexQueueSize(indexQueueSize);
+        config.setIndexBatchSize(indexBatchSize);
         config.setJournalCount(journalCount);
         config.setMaxAttributeChars(maxAttrChars);
         config.setConcurrentMergeThreads(concurrentMergeThreads);
@@ -508,6 +563,7 @@ public class RepositoryConfiguration {
         }
 
         config.setAlwaysSync(alwaysSync);
+        config.setBlockSummaryEnabled(blockSummaryEnabled);
 
         config.setDebugFrequency(nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_REPO_DEBUG_FREQUENCY, config.getDebugFrequency()));
 
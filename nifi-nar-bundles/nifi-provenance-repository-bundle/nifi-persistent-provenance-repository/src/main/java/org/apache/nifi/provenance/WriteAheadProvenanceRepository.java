@@ -120,7 +120,7 @@ public class WriteAheadProvenanceRepository implements ProvenanceRepository {
     public synchronized void initialize(final EventReporter eventReporter, final Authorizer authorizer, final ProvenanceAuthorizableFactory resourceFactory,
         final IdentifierLookup idLookup) throws IOException {
         final RecordWriterFactory recordWriterFactory = (file, idGenerator, compressed, createToc) -> {
-            final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
+            final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false, config.isBlockSummaryEnabled()) : null;
             return new EventIdFirstSchemaRecordWriter(file, idGenerator, tocWriter, compressed, BLOCK_SIZE, idLookup);
         };
 
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +46,7 @@ public class EventIndexTask implements Runnable {
     private static final String EVENT_CATEGORY = "Provenance Repository";
     public static final int MAX_DOCUMENTS_PER_THREAD = 100;
     public static final int DEFAULT_MAX_EVENTS_PER_COMMIT = 1_000_000;
+    private static final long POLL_INTERVAL_MILLIS = 10L;
 
     private final BlockingQueue<StoredDocument> documentQueue;
     private final IndexManager indexManager;
@@ -53,15 +55,23 @@ public class EventIndexTask implements Runnable {
     private final IndexDirectoryManager directoryManager;
     private final EventReporter eventReporter;
     private final int commitThreshold;
+    private final int maxDocumentsPerBatch;
 
     private volatile CompletableFuture<Void> shutdownComplete;
+    private volatile List<StoredDocument> documentsInFlight = Collections.emptyList();
 
     public EventIndexTask(final BlockingQueue<StoredDocument> documentQueue, final IndexManager indexManager,
         final IndexDirectoryManager directoryManager, final int maxEventsPerCommit, final EventReporter eventReporter) {
+        this(documentQueue, indexManager, directoryManager, maxEventsPerCommit, MAX_DOCUMENTS_PER_THREAD, eventReporter);
+    }
+
+    public EventIndexTask(final BlockingQueue<StoredDocument> documentQueue, final IndexManager indexManager,
+        final IndexDirectoryManager directoryManager, final int maxEventsPerCommit, final int maxDocumentsPerBatch, final EventReporter eventReporter) {
         this.documentQueue = documentQueue;
         this.indexManager = indexManager;
         this.directoryManager = directoryManager;
         this.commitThreshold = maxEventsPerCommit;
+        this.maxDocumentsPerBatch = maxDocumentsPerBatch;
         this.eventReporter = eventReporter;
     }
 
@@ -74,36 +84,48 @@ public class EventIndexTask implements Runnable {
         return shutdownComplete;
     }
 
-    private void fetchDocuments(final List<StoredDocument> destination) throws InterruptedException {
-        // We want to fetch up to INDEX_BUFFER_SIZE documents at a time. However, we don't want to continually
-        // call #drainTo on the queue. So we call poll, blocking for up to 1 second. If we get any event, then
-        // we will call drainTo to gather the rest. If we get no events, then we just return, having gathered
-        // no events.
-        StoredDocument firstDoc = documentQueue.poll(10, TimeUnit.MILLISECONDS);
-        if (firstDoc == null) {
-            return;
+    /**
+     * Returns the documents that this task has taken from the queue but has not yet finished indexing. The documents are published before they are
+     * taken from the queue, so a caller that copies the queue before calling this method sees every document that has not yet been indexed.
+     *
+     * @return the documents that this task has taken from the queue but has not yet finished indexing
+     */
+    public List<StoredDocument> getDocumentsInFlight() {
+        final List<StoredDocument> inFlight = documentsInFlight;
+        synchronized (inFlight) {
+            return new ArrayList<>(inFlight);
         }
+    }
 
-        destination.add(firstDoc);
-        documentQueue.drainTo(destination, MAX_DOCUMENTS_PER_THREAD - 1);
+    private List<StoredDocument> fetchDocuments() throws InterruptedException {
+        // Publish the list before draining the queue into it, so that a document is always either in the queue or in flight.
+        // The queue is drained rather than polled because poll() would remove a document before it could be added to the list.
+        final List<StoredDocument> destination = Collections.synchronizedList(new ArrayList<>(maxDocumentsPerBatch));
+        documentsInFlight = destination;
+
+        final int drained = documentQueue.drainTo(destination, maxDocumentsPerBatch);
+        if (drained == 0) {
+            documentsInFlight = Collections.emptyList();
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+
+        return destination;
     }
 
     @Override
     public void run() {
-        final List<StoredDocument> toIndex = new ArrayList<>(MAX_DOCUMENTS_PER_THREAD);
-
         while (!shutdown) {
             try {
-                // Get the Documents that we want to index.
-                toIndex.clear();
-                fetchDocuments(toIndex);
-
+                // Get the Documents that we want to index. Queries search the documents in flight, as well as those in the queue,
+                // until they have been written to the index.
+                final List<StoredDocument> toIndex = fetchDocuments();
                 if (toIndex.isEmpty()) {
                     continue;
                 }
 
                 // Write documents to the currently active index.
                 final Map<String, List<StoredDocument>> docsByPartition = toIndex.stream()
+                    .filter(this::isIndexable)
                     .collect(Collectors.groupingBy(doc -> doc.getStorageSummary().getPartitionName().get()));
 
                 for (final Map.Entry<String, List<StoredDocument>> entry : docsByPartition.entrySet()) {
@@ -115,6 +137,8 @@ public class EventIndexTask implements Runnable {
             } catch (final Exception e) {
                 logger.error("Failed to index Provenance Events", e);
                 eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to index Provenance Events. See logs for more information.");
+            } finally {
+                documentsInFlight = Collections.emptyList();
             }
         }
 
@@ -125,6 +149,15 @@ public class EventIndexTask implements Runnable {
     }
 
 
+    private boolean isIndexable(final StoredDocument storedDocument) {
+        if (storedDocument.getDocument() == null) {
+            logger.debug("Received Provenance Event {} to index but it contained no information that should be indexed, so skipping it", storedDocument.getStorageSummary().getEventId());
+            return false;
+        }
+
+        return true;
+    }
+
     /**
      * Re-indexes the documents given. The IndexableDocument's provided are required to have the IndexDirectory provided.
      */
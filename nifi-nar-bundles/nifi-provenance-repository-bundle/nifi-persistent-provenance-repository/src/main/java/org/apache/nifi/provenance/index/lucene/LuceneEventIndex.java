@@ -91,7 +91,7 @@ public class LuceneEventIndex implements EventIndex {
 
     private final ConcurrentMap<String, AsyncQuerySubmission> querySubmissionMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, AsyncLineageSubmission> lineageSubmissionMap = new ConcurrentHashMap<>();
-    private final BlockingQueue<StoredDocument> documentQueue = new LinkedBlockingQueue<>(1000);
+    private final BlockingQueue<StoredDocument> documentQueue;
     private final List<EventIndexTask> indexTasks = Collections.synchronizedList(new ArrayList<>());
     private final ExecutorService queryExecutor;
     private final ExecutorService indexExecutor;
@@ -119,6 +119,7 @@ public class LuceneEventIndex implements EventIndex {
 
     public LuceneEventIndex(final RepositoryConfiguration config, final IndexManager indexManager, final int maxEventsPerCommit, final EventReporter eventReporter) {
         this.eventReporter = eventReporter;
+        documentQueue = new LinkedBlockingQueue<>(config.getIndexQueueSize());
         queryExecutor = Executors.newFixedThreadPool(config.getQueryThreadPoolSize(), new NamedThreadFactory("Provenance Query"));
         indexExecutor = Executors.newFixedThreadPool(config.getIndexThreadPoolSize(), new NamedThreadFactory("Index Provenance Events"));
         cacheWarmerExecutor = Executors.newScheduledThreadPool(config.getStorageDirectories().size(), new NamedThreadFactory("Warm Lucene Index", true));
@@ -143,7 +144,7 @@ public class LuceneEventIndex implements EventIndex {
         }
 
         for (int i = 0; i < numIndexThreads; i++) {
-            final EventIndexTask task = new EventIndexTask(documentQueue, indexManager, directoryManager, maxEventsPerCommit, eventReporter);
+            final EventIndexTask task = new EventIndexTask(documentQueue, indexManager, directoryManager, maxEventsPerCommit, config.getIndexBatchSize(), eventReporter);
             indexTasks.add(task);
             indexExecutor.submit(task);
         }
@@ -161,6 +162,7 @@ public class LuceneEventIndex implements EventIndex {
         maintenanceExecutor = Executors.newScheduledThreadPool(1, new NamedThreadFactory("Provenance Repository Maintenance"));
         maintenanceExecutor.scheduleWithFixedDelay(this::performMaintenance, 1, 1, TimeUnit.MINUTES);
         maintenanceExecutor.scheduleWithFixedDelay(this::purgeObsoleteQueries, 30, 30, TimeUnit.SECONDS);
+        maintenanceExecutor.scheduleWithFixedDelay(this::reportIndexLag, 1, 1, TimeUnit.MINUTES);
 
         cachedQueries.add(new LatestEventsQuery());
         cachedQueries.add(new LatestEventsPerProcessorQuery());
@@ -306,7 +308,10 @@ public class LuceneEventIndex implements EventIndex {
 
     @Override
     public long getMinimumEventIdToReindex(final String partitionName) {
-        return Math.max(0, getMaxEventId(partitionName) - EventIndexTask.MAX_DOCUMENTS_PER_THREAD * LuceneEventIndex.MAX_INDEX_THREADS);
+        // Events that were queued or being indexed when the repository was last shut down may not have been indexed, even though events with larger IDs were.
+        final long maxEventsNotIndexed = Math.max((long) EventIndexTask.MAX_DOCUMENTS_PER_THREAD * LuceneEventIndex.MAX_INDEX_THREADS,
+            (long) config.getIndexBatchSize() * config.getIndexThreadPoolSize() + config.getIndexQueueSize());
+        return Math.max(0, getMaxEventId(partitionName) - maxEventsNotIndexed);
     }
 
     protected IndexDirectoryManager getDirectoryManager() {
@@ -360,6 +365,12 @@ public class LuceneEventIndex implements EventIndex {
 
             try {
                 final IndexReader reader = searcher.getIndexSearcher().getIndexReader();
+                if (reader.maxDoc() == 0) {
+                    // The index was just created and nothing has been committed to it yet
+                    logger.debug("Index Directory {} does not contain any events yet, so will not consider it when determining max event ID", directory);
+                    continue;
+                }
+
                 final int maxDocId = reader.maxDoc() - 1;
                 final Document document = reader.document(maxDocId);
                 final long eventId = document.getField(SearchableFields.Identifier.getSearchableFieldName()).numericValue().longValue();
@@ -453,36 +464,98 @@ public class LuceneEventIndex implements EventIndex {
             cachedQuery.update(event, location);
         }
 
-        final Document document = eventConverter.convert(event, location);
-        if (document == null) {
-            logger.debug("Received Provenance Event {} to index but it contained no information that should be indexed, so skipping it", event.getEventId());
-        } else {
-            final StoredDocument doc = new StoredDocument(document, location);
-            boolean added = false;
-            while (!added && !closed) {
+        // The event is converted into a Lucene Document by the thread that indexes it, so that storing events is not slowed down by the conversion.
+        final StoredDocument doc = new StoredDocument(event, location, eventConverter);
+        boolean added = false;
+        while (!added && !closed) {
 
-                added = documentQueue.offer(doc);
-                if (!added) {
-                    final long start = System.nanoTime();
-                    try {
-                        added = documentQueue.offer(doc, 1, TimeUnit.SECONDS);
-                    } catch (final InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        logger.warn("Interrupted while attempting to enqueue Provenance Event for indexing; this event will not be indexed");
-                        return;
-                    }
-                    final long nanos = System.nanoTime() - start;
-                    queuePauseNanos.add(new TimestampedLong(nanos));
+            added = documentQueue.offer(doc);
+            if (!added) {
+                final long start = System.nanoTime();
+                try {
+                    added = documentQueue.offer(doc, 1, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted while attempting to enqueue Provenance Event for indexing; this event will not be indexed");
+                    return;
                 }
+                final long nanos = System.nanoTime() - start;
+                queuePauseNanos.add(new TimestampedLong(nanos));
+            }
 
-                if (added) {
-                    final long totalEventCount = eventCount.incrementAndGet();
-                    if (totalEventCount % 1_000_000 == 0 && logger.isDebugEnabled()) {
-                        incrementAndReportStats();
-                    }
+            if (added) {
+                final long totalEventCount = eventCount.incrementAndGet();
+                if (totalEventCount % 1_000_000 == 0 && logger.isDebugEnabled()) {
+                    incrementAndReportStats();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the events that have been stored but not yet indexed, including those that are currently being indexed
+     */
+    List<StoredDocument> getUnindexedDocuments() {
+        // The queue must be copied before the documents in flight, because the index tasks publish the documents that they take before taking them.
+        final List<StoredDocument> unindexedDocuments = new ArrayList<>(documentQueue);
+        synchronized (indexTasks) {
+            for (final EventIndexTask indexTask : indexTasks) {
+                unindexedDocuments.addAll(indexTask.getDocumentsInFlight());
+            }
+        }
+
+        return unindexedDocuments;
+    }
+
+    /**
+     * @return the number of events that have been stored but not yet indexed
+     */
+    int getUnindexedEventCount() {
+        int count = documentQueue.size();
+        synchronized (indexTasks) {
+            for (final EventIndexTask indexTask : indexTasks) {
+                count += indexTask.getDocumentsInFlight().size();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the number of milliseconds that the oldest event that has not yet been indexed has been waiting to be indexed, or 0 if all events have been indexed
+     */
+    long getIndexLagMillis() {
+        long oldestQueuedTimestamp = Long.MAX_VALUE;
+
+        final StoredDocument head = documentQueue.peek();
+        if (head != null) {
+            oldestQueuedTimestamp = head.getQueuedTimestamp();
+        }
+
+        synchronized (indexTasks) {
+            for (final EventIndexTask indexTask : indexTasks) {
+                for (final StoredDocument inFlight : indexTask.getDocumentsInFlight()) {
+                    oldestQueuedTimestamp = Math.min(oldestQueuedTimestamp, inFlight.getQueuedTimestamp());
                 }
             }
         }
+
+        return oldestQueuedTimestamp == Long.MAX_VALUE ? 0L : Math.max(0L, System.currentTimeMillis() - oldestQueuedTimestamp);
+    }
+
+    private void reportIndexLag() {
+        final int unindexedEventCount = getUnindexedEventCount();
+        if (unindexedEventCount == 0) {
+            return;
+        }
+
+        final long lagMillis = getIndexLagMillis();
+        if (lagMillis > TimeUnit.MINUTES.toMillis(1L)) {
+            logger.info("Indexing of Provenance Events is behind: {} events are waiting to be indexed, the oldest of which was stored {} millis ago. "
+                + "Queries will search these events without the index until they have been indexed.", unindexedEventCount, lagMillis);
+        } else {
+            logger.debug("{} Provenance Events are waiting to be indexed, the oldest of which was stored {} millis ago", unindexedEventCount, lagMillis);
+        }
     }
 
     private void incrementAndReportStats() {
@@ -546,13 +619,14 @@ public class LuceneEventIndex implements EventIndex {
             throw new IllegalArgumentException(String.format("Cannot compute lineage for more than %s FlowFiles. This lineage contains %s.", MAX_LINEAGE_UUIDS, flowFileUuids.size()));
         }
 
-        final List<File> indexDirs = directoryManager.getDirectories(startTimestamp, endTimestamp);
-        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, indexDirs.size(), user == null ? null : user.getIdentity());
+        final List<File> indexDirectories = directoryManager.getDirectories(startTimestamp, endTimestamp);
+        final List<StoredDocument> unindexedDocuments = getUnindexedDocuments();
+        final int querySteps = indexDirectories.size() + (unindexedDocuments.isEmpty() ? 0 : 1);
+        final AsyncLineageSubmission submission = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, querySteps, user == null ? null : user.getIdentity());
         lineageSubmissionMap.put(submission.getLineageIdentifier(), submission);
 
         final BooleanQuery lineageQuery = buildLineageQuery(flowFileUuids);
-        final List<File> indexDirectories = directoryManager.getDirectories(startTimestamp, endTimestamp);
-        if (indexDirectories.isEmpty()) {
+        if (querySteps == 0) {
             submission.getResult().update(Collections.emptyList(), 0L);
         } else {
             indexDirectories.sort(DirectoryUtils.OLDEST_INDEX_FIRST);
@@ -561,6 +635,11 @@ public class LuceneEventIndex implements EventIndex {
                 queryExecutor.submit(new QueryTask(lineageQuery, submission.getResult(), MAX_LINEAGE_NODES, indexManager, indexDir,
                     eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
             }
+
+            if (!unindexedDocuments.isEmpty()) {
+                queryExecutor.submit(new UnindexedEventQueryTask(lineageQuery, submission.getResult(), MAX_LINEAGE_NODES, unindexedDocuments, eventConverter,
+                    eventStore, eventAuthorizer, EventTransformer.PLACEHOLDER_TRANSFORMER));
+            }
         }
 
         // Some computations will complete very quickly. In this case, we don't want to wait
@@ -638,15 +717,25 @@ public class LuceneEventIndex implements EventIndex {
             query.getStartDate() == null ? null : query.getStartDate().getTime(),
             query.getEndDate() == null ? null : query.getEndDate().getTime());
 
-        final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, indexDirectories.size(), userId);
+        // Events that have not yet been indexed are searched separately, so that they are not missing from the results while indexing is behind.
+        final List<StoredDocument> unindexedDocuments = getUnindexedDocuments();
+        final int querySteps = indexDirectories.size() + (unindexedDocuments.isEmpty() ? 0 : 1);
+
+        final AsyncQuerySubmission submission = new AsyncQuerySubmission(query, querySteps, userId);
         querySubmissionMap.put(query.getIdentifier(), submission);
 
         final org.apache.lucene.search.Query luceneQuery = LuceneUtil.convertQuery(query);
-        logger.debug("Submitting query {} with identifier {} against {} index directories: {}", luceneQuery, query.getIdentifier(), indexDirectories.size(), indexDirectories);
+        logger.debug("Submitting query {} with identifier {} against {} index directories and {} unindexed events: {}", luceneQuery, query.getIdentifier(),
+            indexDirectories.size(), unindexedDocuments.size(), indexDirectories);
 
-        if (indexDirectories.isEmpty()) {
+        if (querySteps == 0) {
             submission.getResult().update(Collections.emptyList(), 0L);
         } else {
+            if (!unindexedDocuments.isEmpty()) {
+                queryExecutor.submit(new UnindexedEventQueryTask(luceneQuery, submission.getResult(), query.getMaxResults(), unindexedDocuments, eventConverter,
+                    eventStore, authorizer, EventTransformer.EMPTY_TRANSFORMER));
+            }
+
             indexDirectories.sort(DirectoryUtils.NEWEST_INDEX_FIRST);
 
             for (final File indexDir : indexDirectories) {
@@ -19,6 +19,7 @@ package org.apache.nifi.provenance.index.lucene;
 
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
@@ -48,6 +49,7 @@ import java.util.stream.Collectors;
 public class QueryTask implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(QueryTask.class);
     private static final Set<String> LUCENE_FIELDS_TO_LOAD = Collections.singleton(SearchableFields.Identifier.getSearchableFieldName());
+    private static final int EVENT_BATCH_SIZE = 1000;
 
     private final Query query;
     private final ProgressiveResult queryResult;
@@ -152,20 +154,13 @@ public class QueryTask implements Runnable {
                 return;
             }
 
-            final Tuple<List<ProvenanceEventRecord>, Long> eventsAndTotalHits = readDocuments(topDocs, indexReader);
+            final Tuple<Integer, Long> eventCountAndTotalHits = readDocuments(topDocs, indexReader);
+            queryResult.update(Collections.emptyList(), eventCountAndTotalHits.getValue());
 
-            if (eventsAndTotalHits == null) {
-                queryResult.update(Collections.emptyList(), 0L);
-                logger.info("Will not update query results for queried index {} for query {} because the maximum number of results have been reached already",
-                    indexDir, query);
-            } else {
-                queryResult.update(eventsAndTotalHits.getKey(), eventsAndTotalHits.getValue());
-
-                final long searchNanos = System.nanoTime() - startNanos;
-                final long millis = TimeUnit.NANOSECONDS.toMillis(searchNanos);
-                logger.info("Successfully queried index {} for query {}; retrieved {} events with a total of {} hits in {} millis",
-                    indexDir, query, eventsAndTotalHits.getKey().size(), eventsAndTotalHits.getValue(), millis);
-            }
+            final long searchNanos = System.nanoTime() - startNanos;
+            final long millis = TimeUnit.NANOSECONDS.toMillis(searchNanos);
+            logger.info("Successfully queried index {} for query {}; retrieved {} events with a total of {} hits in {} millis",
+                indexDir, query, eventCountAndTotalHits.getKey(), eventCountAndTotalHits.getValue(), millis);
         } catch (final Exception e) {
             logger.error("Failed to query events against index " + indexDir, e);
             queryResult.setError("Failed to complete query due to " + e);
@@ -174,14 +169,39 @@ public class QueryTask implements Runnable {
         }
     }
 
-    private Tuple<List<ProvenanceEventRecord>, Long> readDocuments(final TopDocs topDocs, final IndexReader indexReader) {
+    /**
+     * Reads the events for the given documents from the Event Store in batches, adding each batch to the query result as soon as it has been read,
+     * so that the most recent events are available to the client before all of the events have been read. Reading stops early once the query result
+     * is finished, such as when the maximum number of results has been obtained or the query has been canceled.
+     *
+     * @return the number of events that were read, along with the total number of hits
+     */
+    private Tuple<Integer, Long> readDocuments(final TopDocs topDocs, final IndexReader indexReader) {
         // If no topDocs is supplied, just provide a Tuple that has no records and a hit count of 0.
         if (topDocs == null || topDocs.totalHits.value == 0) {
-            return new Tuple<>(Collections.<ProvenanceEventRecord> emptyList(), 0L);
+            return new Tuple<>(0, 0L);
+        }
+
+        final ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        int eventCount = 0;
+        for (int batchStart = 0; batchStart < scoreDocs.length; batchStart += EVENT_BATCH_SIZE) {
+            if (queryResult.isFinished()) {
+                logger.debug("Will not read any more events from store for {} because the query has already finished", indexDir);
+                break;
+            }
+
+            final int batchEnd = Math.min(scoreDocs.length, batchStart + EVENT_BATCH_SIZE);
+            final List<ProvenanceEventRecord> events = readEvents(scoreDocs, batchStart, batchEnd, indexReader);
+            queryResult.addRecords(events);
+            eventCount += events.size();
         }
 
+        return new Tuple<>(eventCount, topDocs.totalHits.value);
+    }
+
+    private List<ProvenanceEventRecord> readEvents(final ScoreDoc[] scoreDocs, final int batchStart, final int batchEnd, final IndexReader indexReader) {
         final long start = System.nanoTime();
-        final List<Long> eventIds = Arrays.stream(topDocs.scoreDocs)
+        final List<Long> eventIds = Arrays.stream(scoreDocs, batchStart, batchEnd)
             .mapToInt(scoreDoc -> scoreDoc.doc)
             .mapToObj(docId -> {
                 try {
@@ -206,9 +226,7 @@ public class QueryTask implements Runnable {
 
         final long fetchEventNanos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - endConvert);
         logger.debug("Fetching {} events from Event Store took {} ms ({} events actually fetched)", eventIds.size(), fetchEventNanos, events.size());
-
-        final long totalHits = topDocs.totalHits.value;
-        return new Tuple<>(events, totalHits);
+        return events;
     }
 
 }
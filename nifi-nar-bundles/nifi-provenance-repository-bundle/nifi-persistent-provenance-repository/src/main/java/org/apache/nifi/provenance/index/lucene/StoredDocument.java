@@ -18,22 +18,61 @@
 package org.apache.nifi.provenance.index.lucene;
 
 import org.apache.lucene.document.Document;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.serialization.StorageSummary;
 
+/**
+ * A Provenance Event that has been stored and is waiting to be indexed. The Lucene Document for the event may be provided up front or,
+ * if the StoredDocument is created from the event itself, is not created until the event is indexed, so that the cost of converting
+ * the event is paid by the thread that indexes it rather than by the thread that stored it.
+ */
 public class StoredDocument {
-    private final Document document;
+    private final ProvenanceEventRecord event;
+    private final ConvertEventToLuceneDocument converter;
     private final StorageSummary storageSummary;
+    private final long queuedTimestamp = System.currentTimeMillis();
+    private Document document;
 
     public StoredDocument(final Document document, final StorageSummary summary) {
+        this.event = null;
+        this.converter = null;
         this.document = document;
         this.storageSummary = summary;
     }
 
+    public StoredDocument(final ProvenanceEventRecord event, final StorageSummary summary, final ConvertEventToLuceneDocument converter) {
+        this.event = event;
+        this.converter = converter;
+        this.storageSummary = summary;
+    }
+
+    /**
+     * @return the Lucene Document for the event, or <code>null</code> if the event contains no information that should be indexed. This method
+     *         is not thread-safe and must be called only by the thread that indexes the event.
+     */
     public Document getDocument() {
+        if (document == null && converter != null) {
+            document = converter.convert(event, storageSummary);
+        }
+
         return document;
     }
 
+    /**
+     * @return the event that was stored, or <code>null</code> if the StoredDocument was created from a Lucene Document
+     */
+    public ProvenanceEventRecord getEvent() {
+        return event;
+    }
+
     public StorageSummary getStorageSummary() {
         return storageSummary;
     }
+
+    /**
+     * @return the time at which the event was queued for indexing
+     */
+    public long getQueuedTimestamp() {
+        return queuedTimestamp;
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.provenance.index.lucene;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.nifi.provenance.ProgressiveResult;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.store.EventStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches the Provenance Events that have been stored but not yet indexed, so that a query does not miss the most recent events while
+ * indexing is behind. The events are indexed into a temporary, in-memory index, which is searched using the same Lucene Query that is used
+ * to search the on-disk indices, so that the events are matched exactly as they will be once they have been indexed.
+ */
+public class UnindexedEventQueryTask implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(UnindexedEventQueryTask.class);
+    private static final Set<String> LUCENE_FIELDS_TO_LOAD = Collections.singleton(SearchableFields.Identifier.getSearchableFieldName());
+
+    private final Query query;
+    private final ProgressiveResult queryResult;
+    private final int maxResults;
+    private final List<StoredDocument> unindexedDocuments;
+    private final ConvertEventToLuceneDocument eventConverter;
+    private final EventStore eventStore;
+    private final EventAuthorizer authorizer;
+    private final EventTransformer transformer;
+
+    public UnindexedEventQueryTask(final Query query, final ProgressiveResult result, final int maxResults, final List<StoredDocument> unindexedDocuments,
+                                   final ConvertEventToLuceneDocument eventConverter, final EventStore eventStore, final EventAuthorizer authorizer,
+                                   final EventTransformer unauthorizedTransformer) {
+        this.query = query;
+        this.queryResult = result;
+        this.maxResults = maxResults;
+        this.unindexedDocuments = unindexedDocuments;
+        this.eventConverter = eventConverter;
+        this.eventStore = eventStore;
+        this.authorizer = authorizer;
+        this.transformer = unauthorizedTransformer;
+    }
+
+    @Override
+    public void run() {
+        if (queryResult.getTotalHitCount() >= maxResults) {
+            logger.debug("Will not search unindexed events because maximum results have already been obtained");
+            queryResult.update(Collections.emptyList(), 0L);
+            return;
+        }
+
+        if (queryResult.isFinished()) {
+            logger.debug("Will not search unindexed events because the query is already finished");
+            return;
+        }
+
+        final long startNanos = System.nanoTime();
+        try (final ByteBuffersDirectory directory = new ByteBuffersDirectory()) {
+            try (final IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+                for (final StoredDocument storedDocument : unindexedDocuments) {
+                    final ProvenanceEventRecord event = storedDocument.getEvent();
+                    if (event == null) {
+                        continue;
+                    }
+
+                    // Convert the event rather than using the StoredDocument's Lucene Document, as that Document belongs to the thread that indexes the event.
+                    final Document document = eventConverter.convert(event, storedDocument.getStorageSummary());
+                    if (document != null) {
+                        indexWriter.addDocument(document);
+                    }
+                }
+            }
+
+            final List<Long> eventIds = new ArrayList<>();
+            final long totalHits;
+            try (final DirectoryReader indexReader = DirectoryReader.open(directory)) {
+                // Sort based on event id, descending. This gives us most recent events first, regardless of the order in which the events were indexed.
+                final Sort sort = new Sort(new SortField(SearchableFields.Identifier.getSearchableFieldName(), SortField.Type.LONG, true));
+                final TopDocs topDocs = new IndexSearcher(indexReader).search(query, maxResults, sort);
+                totalHits = topDocs.totalHits.value;
+
+                for (final ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    final Document document = indexReader.document(scoreDoc.doc, LUCENE_FIELDS_TO_LOAD);
+                    eventIds.add(document.getField(SearchableFields.Identifier.getSearchableFieldName()).numericValue().longValue());
+                }
+            }
+
+            // Add the events along with the hits, rather than through addRecords, so that the hits are counted even when the events bring the result
+            // to its maximum number of results and so finish it.
+            final List<ProvenanceEventRecord> events = eventIds.isEmpty() || queryResult.isFinished() ? Collections.emptyList()
+                : eventStore.getEvents(eventIds, authorizer, transformer);
+            queryResult.update(events, totalHits);
+
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            logger.debug("Searched {} unindexed events for query {}; found {} hits in {} millis", unindexedDocuments.size(), query, totalHits, millis);
+        } catch (final Exception e) {
+            logger.error("Failed to search unindexed events for query " + query, e);
+            queryResult.setError("Failed to complete query due to " + e);
+        }
+    }
+}
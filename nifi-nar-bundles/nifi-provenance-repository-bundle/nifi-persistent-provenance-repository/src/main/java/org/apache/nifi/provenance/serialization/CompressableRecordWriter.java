@@ -27,6 +27,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.nifi.provenance.AbstractRecordWriter;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.toc.BlockSummary;
 import org.apache.nifi.provenance.toc.TocWriter;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
 import org.apache.nifi.stream.io.GZIPOutputStream;
@@ -42,6 +43,7 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
     private final boolean compressed;
     private final int uncompressedBlockSize;
     private final AtomicLong idGenerator;
+    private final BlockSummary.Builder blockSummaryBuilder;
 
     private DataOutputStream out;
     private ByteCountingOutputStream byteCountingOut;
@@ -59,6 +61,7 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
         rawOutStream = new ByteCountingOutputStream(new BufferedOutputStream(fos));
         this.uncompressedBlockSize = uncompressedBlockSize;
         this.idGenerator = idGenerator;
+        this.blockSummaryBuilder = createBlockSummaryBuilder(writer);
     }
 
     public CompressableRecordWriter(final OutputStream out, final String storageLocation, final AtomicLong idGenerator, final TocWriter tocWriter, final boolean compressed,
@@ -70,6 +73,11 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
         this.uncompressedBlockSize = uncompressedBlockSize;
         this.rawOutStream = new ByteCountingOutputStream(new BufferedOutputStream(out));
         this.idGenerator = idGenerator;
+        this.blockSummaryBuilder = createBlockSummaryBuilder(tocWriter);
+    }
+
+    private static BlockSummary.Builder createBlockSummaryBuilder(final TocWriter tocWriter) {
+        return tocWriter != null && tocWriter.isBlockSummaryEnabled() ? new BlockSummary.Builder() : null;
     }
 
 
@@ -114,6 +122,9 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
             final long byteOffset = (byteCountingOut == null) ? rawOutStream.getBytesWritten() : byteCountingOut.getBytesWritten();
             final TocWriter tocWriter = getTocWriter();
 
+            // The summary of the block that is ending must be added before the next block is added to the Table of Contents.
+            writeBlockSummary();
+
             if (compressed) {
                 // because of the way that GZIPOutputStream works, we need to call close() on it in order for it
                 // to write its trailing bytes. But we don't want to close the underlying OutputStream, so we wrap
@@ -153,6 +164,27 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
         }
     }
 
+    /**
+     * Adds the given event to the summary of the current block, if the Table of Contents stores block summaries. Must be called
+     * after the event has been written.
+     *
+     * @param record the event that was written
+     */
+    protected synchronized void addToBlockSummary(final ProvenanceEventRecord record) {
+        if (blockSummaryBuilder != null) {
+            blockSummaryBuilder.addEvent(record);
+        }
+    }
+
+    private void writeBlockSummary() throws IOException {
+        if (blockSummaryBuilder == null || blockSummaryBuilder.isEmpty()) {
+            return;
+        }
+
+        getTocWriter().addBlockSummary(blockSummaryBuilder.build());
+        blockSummaryBuilder.reset();
+    }
+
     @Override
     public synchronized StorageSummary writeRecord(final ProvenanceEventRecord record) throws IOException {
         if (isDirty()) {
@@ -165,6 +197,7 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
 
             ensureStreamState(recordIdentifier, startBytes);
             writeRecord(record, recordIdentifier, out);
+            addToBlockSummary(record);
 
             recordCount++;
             final long bytesWritten = byteCountingOut.getBytesWritten();
@@ -179,6 +212,18 @@ public abstract class CompressableRecordWriter extends AbstractRecordWriter {
         }
     }
 
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            // Add the summary of the last block. If the writer has failed, the summary may not match the data that was written, so it is omitted.
+            if (!isClosed() && !isDirty()) {
+                writeBlockSummary();
+            }
+        } finally {
+            super.close();
+        }
+    }
+
     @Override
     public synchronized long getBytesWritten() {
         return byteCountingOut == null ? 0L : byteCountingOut.getBytesWritten();
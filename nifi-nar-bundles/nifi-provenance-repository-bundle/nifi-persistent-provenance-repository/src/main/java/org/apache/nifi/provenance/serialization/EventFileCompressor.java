@@ -18,6 +18,7 @@
 package org.apache.nifi.provenance.serialization;
 
 import org.apache.nifi.provenance.store.EventFileManager;
+import org.apache.nifi.provenance.toc.BlockSummary;
 import org.apache.nifi.provenance.toc.StandardTocReader;
 import org.apache.nifi.provenance.toc.StandardTocWriter;
 import org.apache.nifi.provenance.toc.TocReader;
@@ -111,7 +112,7 @@ public class EventFileCompressor implements Runnable {
                         outputFile = new File(uncompressedEventFile.getParentFile(), uncompressedEventFile.getName() + ".gz");
                         try {
                             tmpTocFile = new File(tocFile.getParentFile(), tocFile.getName() + ".tmp");
-                            tocWriter = new StandardTocWriter(tmpTocFile, true, false);
+                            tocWriter = new StandardTocWriter(tmpTocFile, true, false, tocReader.isBlockSummaryIncluded());
                             compress(uncompressedEventFile, tocReader, outputFile, tocWriter);
                             tocWriter.close();
                         } catch (final IOException ioe) {
@@ -187,6 +188,13 @@ public class EventFileCompressor implements Runnable {
                 }
 
                 tocWriter.addBlockOffset(blockStartOffset, firstEventId);
+
+                // Compression keeps the events in the same blocks, so the summary of each block still applies.
+                final BlockSummary blockSummary = tocReader.getBlockSummary(blockIndex);
+                if (blockSummary != null) {
+                    tocWriter.addBlockSummary(blockSummary);
+                }
+
                 blockIndex++;
             }
         }
@@ -34,11 +34,15 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -52,6 +56,7 @@ public abstract class PartitionedEventStore implements EventStore {
     private final RepositoryConfiguration repoConfig;
     private final EventReporter eventReporter;
     private ScheduledExecutorService maintenanceExecutor;
+    private ExecutorService partitionReadExecutor;
 
     public PartitionedEventStore(final RepositoryConfiguration config, final EventReporter eventReporter) {
         this.repoConfig = config;
@@ -65,6 +70,12 @@ public abstract class PartitionedEventStore implements EventStore {
         final long maintenanceMillis = repoConfig.getMaintenanceFrequency(TimeUnit.MILLISECONDS);
         maintenanceExecutor.scheduleWithFixedDelay(this::performMaintenance, maintenanceMillis, maintenanceMillis, TimeUnit.MILLISECONDS);
 
+        // Each partition typically lives on its own disk, so events are read from all of the partitions at once when fetching specific events.
+        final int partitionCount = getPartitions().size();
+        if (partitionCount > 1) {
+            partitionReadExecutor = Executors.newFixedThreadPool(partitionCount, new NamedThreadFactory("Provenance Partition Reader"));
+        }
+
         for (final EventStorePartition partition : getPartitions()) {
             partition.initialize();
         }
@@ -76,6 +87,10 @@ public abstract class PartitionedEventStore implements EventStore {
             maintenanceExecutor.shutdownNow();
         }
 
+        if (partitionReadExecutor != null) {
+            partitionReadExecutor.shutdownNow();
+        }
+
         IOException thrown = null;
 
         for (final EventStorePartition partition : getPartitions()) {
@@ -165,7 +180,64 @@ public abstract class PartitionedEventStore implements EventStore {
             return Collections.emptyList();
         }
 
-        return getEvents(eventIds.size(), authorizer, part -> part.createEventIterator(eventIds), transformer);
+        if (partitionReadExecutor == null) {
+            return getEvents(eventIds.size(), authorizer, part -> part.createEventIterator(eventIds), transformer);
+        }
+
+        return getEventsFromAllPartitions(eventIds, authorizer, transformer);
+    }
+
+    /**
+     * Reads the events with the given IDs from all partitions concurrently, rather than reading from one partition at a time. Because all of the
+     * requested events are returned, there is no limit to apply, so each partition can be read to its end independently of the others.
+     */
+    private List<ProvenanceEventRecord> getEventsFromAllPartitions(final List<Long> eventIds, final EventAuthorizer authorizer, final EventTransformer transformer)
+            throws IOException {
+        final EventAuthorizer nonNullAuthorizer = authorizer == null ? EventAuthorizer.GRANT_ALL : authorizer;
+
+        final List<Future<List<ProvenanceEventRecord>>> futures = new ArrayList<>();
+        for (final EventStorePartition partition : getPartitions()) {
+            futures.add(partitionReadExecutor.submit(() -> readAllEvents(partition.createEventIterator(eventIds), nonNullAuthorizer, transformer)));
+        }
+
+        final List<ProvenanceEventRecord> selectedEvents = new ArrayList<>();
+        try {
+            for (final Future<List<ProvenanceEventRecord>> future : futures) {
+                selectedEvents.addAll(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading Provenance Events from Event Store", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+
+            throw new IOException("Failed to read Provenance Events from Event Store", cause);
+        } finally {
+            for (final Future<List<ProvenanceEventRecord>> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        // Each partition provides its events in order of Event ID, but the events of the partitions interleave.
+        selectedEvents.sort(Comparator.comparingLong(ProvenanceEventRecord::getEventId));
+        return selectedEvents;
+    }
+
+    private List<ProvenanceEventRecord> readAllEvents(final EventIterator partitionIterator, final EventAuthorizer authorizer, final EventTransformer transformer)
+            throws IOException {
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+
+        try (final EventIterator iterator = new AuthorizingEventIterator(partitionIterator, authorizer, transformer)) {
+            Optional<ProvenanceEventRecord> option;
+            while ((option = iterator.nextEvent()).isPresent()) {
+                events.add(option.get());
+            }
+        }
+
+        return events;
     }
 
     private List<ProvenanceEventRecord> getEvents(final int maxRecords, final EventAuthorizer authorizer,
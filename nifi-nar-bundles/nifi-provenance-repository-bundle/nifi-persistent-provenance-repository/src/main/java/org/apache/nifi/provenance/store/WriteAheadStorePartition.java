@@ -726,7 +726,9 @@ public class WriteAheadStorePartition implements EventStorePartition {
             }
         }
 
-        final EventIterator rawEventIterator = new SequentialRecordReaderEventIterator(relevantEventFiles, recordReaderFactory, 0, Integer.MAX_VALUE);
+        // Blocks whose summary shows that none of their events fall within the time range are skipped without being read.
+        final EventIterator rawEventIterator = new SequentialRecordReaderEventIterator(relevantEventFiles, recordReaderFactory, 0, Integer.MAX_VALUE,
+            blockSummary -> blockSummary.mayContainEventTime(minTimestmap, maxTimestamp));
         return rawEventIterator.filter(event -> event.getEventTime() >= minTimestmap && event.getEventTime() <= maxTimestamp);
     }
 
@@ -25,25 +25,40 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.serialization.RecordReader;
 import org.apache.nifi.provenance.store.RecordReaderFactory;
+import org.apache.nifi.provenance.toc.BlockSummary;
+import org.apache.nifi.provenance.toc.TocReader;
 
 public class SequentialRecordReaderEventIterator implements EventIterator {
     private final Iterator<File> fileIterator;
     private final RecordReaderFactory readerFactory;
     private final long minimumEventId;
     private final int maxAttributeChars;
+    private final Predicate<BlockSummary> blockFilter;
 
     private boolean closed = false;
     private RecordReader reader;
+    private long nextBlockFirstEventId = Long.MIN_VALUE;
 
     public SequentialRecordReaderEventIterator(final List<File> filesToRead, final RecordReaderFactory readerFactory, final long minimumEventId, final int maxAttributeChars) {
+        this(filesToRead, readerFactory, minimumEventId, maxAttributeChars, null);
+    }
+
+    /**
+     * @param blockFilter determines, from the summary of a block in an Event File, whether or not the block may hold events of interest. Blocks that the filter
+     *            rejects are skipped without being read, while blocks that have no summary are always read. If <code>null</code>, all blocks are read.
+     */
+    public SequentialRecordReaderEventIterator(final List<File> filesToRead, final RecordReaderFactory readerFactory, final long minimumEventId, final int maxAttributeChars,
+                                               final Predicate<BlockSummary> blockFilter) {
         this.fileIterator = filesToRead.iterator();
         this.readerFactory = readerFactory;
         this.minimumEventId = minimumEventId;
         this.maxAttributeChars = maxAttributeChars;
+        this.blockFilter = blockFilter;
     }
 
     @Override
@@ -86,18 +101,56 @@ public class SequentialRecordReaderEventIterator implements EventIterator {
                 } else {
                     return Optional.empty();
                 }
-            } else {
-                return Optional.of(event);
             }
+
+            // Only check the block filter when the event is in a different block than the previous event
+            if (blockFilter != null && event.getEventId() >= nextBlockFirstEventId) {
+                final TocReader tocReader = reader.getTocReader();
+                final Integer blockIndex = tocReader == null ? null : tocReader.getBlockIndexForEventId(event.getEventId());
+
+                if (blockIndex != null) {
+                    final int acceptedBlockIndex = findAcceptedBlock(tocReader, blockIndex);
+                    if (acceptedBlockIndex < 0) {
+                        // None of the remaining blocks in this file can hold an event of interest.
+                        if (rotateReader()) {
+                            continue;
+                        } else {
+                            return Optional.empty();
+                        }
+                    }
+
+                    if (acceptedBlockIndex != blockIndex) {
+                        reader.skipToEvent(tocReader.getFirstEventIdForBlock(acceptedBlockIndex));
+                        continue;
+                    }
+
+                    final long followingBlockFirstEventId = tocReader.getFirstEventIdForBlock(blockIndex + 1);
+                    nextBlockFirstEventId = followingBlockFirstEventId < 0 ? Long.MAX_VALUE : followingBlockFirstEventId;
+                }
+            }
+
+            return Optional.of(event);
         }
     }
 
+    private int findAcceptedBlock(final TocReader tocReader, final int startBlockIndex) {
+        for (int blockIndex = startBlockIndex; tocReader.getBlockOffset(blockIndex) >= 0; blockIndex++) {
+            final BlockSummary summary = tocReader.getBlockSummary(blockIndex);
+            if (summary == null || blockFilter.test(summary)) {
+                return blockIndex;
+            }
+        }
+
+        return -1;
+    }
+
     private boolean rotateReader() throws IOException {
         final boolean readerExists = (reader != null);
         if (readerExists) {
             reader.close();
         }
 
+        nextBlockFirstEventId = Long.MIN_VALUE;
         boolean multipleReadersOpened = false;
         while (true) {
             if (!fileIterator.hasNext()) {
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.toc;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A summary of the Provenance Events that are stored in one block of an Event File. The summary holds the range of the events' times and is stored
+ * in the Table of Contents so that, when an Event File is scanned by time, a block whose events all fall outside of the time range of interest can
+ * be skipped without being read.
+ */
+public class BlockSummary {
+    private final long minEventTime;
+    private final long maxEventTime;
+
+    private BlockSummary(final long minEventTime, final long maxEventTime) {
+        this.minEventTime = minEventTime;
+        this.maxEventTime = maxEventTime;
+    }
+
+    public long getMinEventTime() {
+        return minEventTime;
+    }
+
+    public long getMaxEventTime() {
+        return maxEventTime;
+    }
+
+    /**
+     * @param minTimestamp the earliest event time of interest
+     * @param maxTimestamp the latest event time of interest
+     * @return <code>true</code> if the block may hold an event whose time falls within the given range, <code>false</code> if it does not
+     */
+    public boolean mayContainEventTime(final long minTimestamp, final long maxTimestamp) {
+        return maxEventTime >= minTimestamp && minEventTime <= maxTimestamp;
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        out.writeLong(minEventTime);
+        out.writeLong(maxEventTime);
+    }
+
+    public static BlockSummary readFrom(final DataInputStream in) throws IOException {
+        final long minEventTime = in.readLong();
+        final long maxEventTime = in.readLong();
+        return new BlockSummary(minEventTime, maxEventTime);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockSummary[minEventTime=" + minEventTime + ", maxEventTime=" + maxEventTime + "]";
+    }
+
+    /**
+     * Builds a summary of a block as the events of the block are written. This class is not thread-safe.
+     */
+    public static class Builder {
+        private long minEventTime = Long.MAX_VALUE;
+        private long maxEventTime = Long.MIN_VALUE;
+        private int eventCount = 0;
+
+        public Builder addEvent(final ProvenanceEventRecord event) {
+            final long eventTime = event.getEventTime();
+            minEventTime = Math.min(minEventTime, eventTime);
+            maxEventTime = Math.max(maxEventTime, eventTime);
+            eventCount++;
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return eventCount == 0;
+        }
+
+        public BlockSummary build() {
+            return new BlockSummary(minEventTime, maxEventTime);
+        }
+
+        /**
+         * Clears the builder so that it can be used to summarize the next block
+         */
+        public void reset() {
+            minEventTime = Long.MAX_VALUE;
+            maxEventTime = Long.MIN_VALUE;
+            eventCount = 0;
+        }
+    }
+}
@@ -18,11 +18,15 @@ package org.apache.nifi.provenance.toc;
 
 import org.apache.nifi.stream.io.StreamUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Standard implementation of TocReader.
@@ -35,11 +39,17 @@ import java.io.IOException;
  * byte 10-17: long: offset of block 1
  * ...
  * byte (N*8+2)-(N*8+9): long: offset of block N
+ *
+ * or, for version 3, which also holds a summary of each block, the format described by {@link StandardTocWriter}.
+ * Because a version 3 file holds entries of varying length, an entry at the end of the file that has not been
+ * completely written is ignored.
  */
 public class StandardTocReader implements TocReader {
     private final boolean compressed;
     private final long[] offsets;
     private final long[] firstEventIds;
+    private final BlockSummary[] blockSummaries;
+    private final boolean blockSummaryIncluded;
     private final File file;
 
     public StandardTocReader(final File file) throws IOException {
@@ -59,6 +69,7 @@ public class StandardTocReader implements TocReader {
 
             final int version = buffer[0];
             final int compressionFlag = buffer[1];
+            blockSummaryIncluded = version >= StandardTocWriter.BLOCK_SUMMARY_VERSION;
 
             if ( compressionFlag == 0 ) {
                 compressed = false;
@@ -69,6 +80,16 @@ public class StandardTocReader implements TocReader {
                     + "expected value of 0 or 1 but got " + compressionFlag);
             }
 
+            if (blockSummaryIncluded) {
+                final BlockEntries blockEntries = readBlockEntries(buffer);
+                offsets = blockEntries.offsets;
+                firstEventIds = blockEntries.firstEventIds;
+                blockSummaries = blockEntries.summaries;
+                return;
+            }
+
+            blockSummaries = new BlockSummary[0];
+
             final int blockInfoBytes;
             switch (version) {
                 case 1:
@@ -102,6 +123,61 @@ public class StandardTocReader implements TocReader {
         }
     }
 
+    private BlockEntries readBlockEntries(final byte[] buffer) throws IOException {
+        final List<Long> offsetList = new ArrayList<>();
+        final List<Long> firstEventIdList = new ArrayList<>();
+        final List<BlockSummary> summaryList = new ArrayList<>();
+
+        int index = 2;
+        while (index < buffer.length) {
+            final int entryType = buffer[index];
+            if (entryType == StandardTocWriter.BLOCK_ENTRY) {
+                if (index + 17 > buffer.length) {
+                    break;
+                }
+
+                offsetList.add(readLong(buffer, index + 1));
+                firstEventIdList.add(readLong(buffer, index + 9));
+                summaryList.add(null);
+                index += 17;
+            } else if (entryType == StandardTocWriter.BLOCK_SUMMARY_ENTRY) {
+                if (index + 5 > buffer.length) {
+                    break;
+                }
+
+                final int summaryLength = readInt(buffer, index + 1);
+                if (index + 5 + summaryLength > buffer.length) {
+                    break;
+                }
+
+                if (!summaryList.isEmpty()) {
+                    final DataInputStream summaryIn = new DataInputStream(new ByteArrayInputStream(buffer, index + 5, summaryLength));
+                    summaryList.set(summaryList.size() - 1, BlockSummary.readFrom(summaryIn));
+                }
+
+                index += 5 + summaryLength;
+            } else {
+                throw new IOException("Table of Contents file " + file + " appears to be corrupt: found unknown entry type " + entryType + " at byte offset " + index);
+            }
+        }
+
+        final BlockEntries blockEntries = new BlockEntries(offsetList.size());
+        for (int i = 0; i < offsetList.size(); i++) {
+            blockEntries.offsets[i] = offsetList.get(i);
+            blockEntries.firstEventIds[i] = firstEventIdList.get(i);
+            blockEntries.summaries[i] = summaryList.get(i);
+        }
+
+        return blockEntries;
+    }
+
+    private int readInt(final byte[] buffer, final int offset) {
+        return ((buffer[offset] & 0xFF) << 24) +
+            ((buffer[offset + 1] & 0xFF) << 16) +
+            ((buffer[offset + 2] & 0xFF) << 8) +
+            (buffer[offset + 3] & 0xFF);
+    }
+
     private long readLong(final byte[] buffer, final int offset) {
         return ((long) buffer[offset] << 56) +
             ((long) (buffer[offset + 1] & 0xFF) << 48) +
@@ -189,6 +265,34 @@ public class StandardTocReader implements TocReader {
         return firstEventIds.length - 1;
     }
 
+    private static class BlockEntries {
+        private final long[] offsets;
+        private final long[] firstEventIds;
+        private final BlockSummary[] summaries;
+
+        BlockEntries(final int blockCount) {
+            offsets = new long[blockCount];
+            firstEventIds = new long[blockCount];
+            summaries = new BlockSummary[blockCount];
+        }
+    }
+
+    @Override
+    public BlockSummary getBlockSummary(final int blockIndex) {
+        if (blockIndex < 0 || blockIndex >= blockSummaries.length) {
+            return null;
+        }
+
+        return blockSummaries[blockIndex];
+    }
+
+    /**
+     * @return <code>true</code> if the Table of Contents was written with a summary of each block, <code>false</code> otherwise
+     */
+    public boolean isBlockSummaryIncluded() {
+        return blockSummaryIncluded;
+    }
+
     @Override
     public String toString() {
         return "StandardTocReader[file=" + file + ", compressed=" + compressed + "]";
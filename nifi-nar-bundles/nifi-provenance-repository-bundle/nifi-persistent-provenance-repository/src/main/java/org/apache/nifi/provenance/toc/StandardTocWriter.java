@@ -17,6 +17,7 @@
 package org.apache.nifi.provenance.toc;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -36,15 +37,25 @@ import org.slf4j.LoggerFactory;
  * byte 10-17: long: offset of block 1
  * ...
  * byte (N*8+2)-(N*8+9): long: offset of block N
+ *
+ * When block summaries are enabled, version 3 of the format is written instead. After the same two header bytes, the file
+ * holds a sequence of entries, each of which begins with a byte that indicates its type:
+ * 1 -> block: long: offset of the block, long: ID of the first event in the block
+ * 2 -> block summary of the most recently added block: int: length of the summary, followed by the summary (see {@link BlockSummary})
  */
 public class StandardTocWriter implements TocWriter {
     private static final Logger logger = LoggerFactory.getLogger(StandardTocWriter.class);
 
     public static final byte VERSION = 2;
+    public static final byte BLOCK_SUMMARY_VERSION = 3;
+
+    static final int BLOCK_ENTRY = 1;
+    static final int BLOCK_SUMMARY_ENTRY = 2;
 
     private final File file;
     private final FileOutputStream fos;
     private final boolean alwaysSync;
+    private final boolean blockSummaryEnabled;
     private int index = -1;
 
     /**
@@ -54,6 +65,17 @@ public class StandardTocWriter implements TocWriter {
      * @throws IOException if unable to write header info to the specified file
      */
     public StandardTocWriter(final File file, final boolean compressionFlag, final boolean alwaysSync) throws IOException {
+        this(file, compressionFlag, alwaysSync, false);
+    }
+
+    /**
+     * Creates a StandardTocWriter that writes to the given file.
+     * @param file the file to write to
+     * @param compressionFlag whether or not the journal is compressed
+     * @param blockSummaryEnabled whether or not to store a summary of each block
+     * @throws IOException if unable to write header info to the specified file
+     */
+    public StandardTocWriter(final File file, final boolean compressionFlag, final boolean alwaysSync, final boolean blockSummaryEnabled) throws IOException {
         final File tocDir = file.getParentFile();
         if ( !tocDir.exists() ) {
             Files.createDirectories(tocDir.toPath());
@@ -62,9 +84,10 @@ public class StandardTocWriter implements TocWriter {
         this.file = file;
         fos = new FileOutputStream(file);
         this.alwaysSync = alwaysSync;
+        this.blockSummaryEnabled = blockSummaryEnabled;
 
         final byte[] header = new byte[2];
-        header[0] = VERSION;
+        header[0] = blockSummaryEnabled ? BLOCK_SUMMARY_VERSION : VERSION;
         header[1] = (byte) (compressionFlag ? 1 : 0);
         fos.write(header);
         fos.flush();
@@ -78,6 +101,9 @@ public class StandardTocWriter implements TocWriter {
     public void addBlockOffset(final long offset, final long firstEventId) throws IOException {
         final BufferedOutputStream bos = new BufferedOutputStream(fos);
         final DataOutputStream dos = new DataOutputStream(bos);
+        if (blockSummaryEnabled) {
+            dos.write(BLOCK_ENTRY);
+        }
         dos.writeLong(offset);
         dos.writeLong(firstEventId);
         dos.flush();
@@ -89,6 +115,32 @@ public class StandardTocWriter implements TocWriter {
         }
     }
 
+    @Override
+    public boolean isBlockSummaryEnabled() {
+        return blockSummaryEnabled;
+    }
+
+    @Override
+    public void addBlockSummary(final BlockSummary summary) throws IOException {
+        if (!blockSummaryEnabled || index < 0) {
+            return;
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        summary.writeTo(new DataOutputStream(baos));
+
+        final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+        dos.write(BLOCK_SUMMARY_ENTRY);
+        dos.writeInt(baos.size());
+        baos.writeTo(dos);
+        dos.flush();
+        logger.debug("Adding summary for block {}: {}", index, summary);
+
+        if ( alwaysSync ) {
+            sync();
+        }
+    }
+
     @Override
     public void sync() throws IOException {
         fos.getFD().sync();
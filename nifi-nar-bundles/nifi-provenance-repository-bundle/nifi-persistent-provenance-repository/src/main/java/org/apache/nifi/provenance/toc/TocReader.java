@@ -84,4 +84,15 @@ public interface TocReader extends Closeable {
      * the block index is not known
      */
     Integer getBlockIndexForEventId(long eventId);
+
+    /**
+     * Returns the summary of the events in the block with the given index. A block has no summary if the Table of Contents was written
+     * without block summaries, or if the block is the last block of an Event File that has not been completely written.
+     *
+     * @param blockIndex the index of the block
+     * @return the summary of the block, or <code>null</code> if no summary is known for the block
+     */
+    default BlockSummary getBlockSummary(int blockIndex) {
+        return null;
+    }
 }
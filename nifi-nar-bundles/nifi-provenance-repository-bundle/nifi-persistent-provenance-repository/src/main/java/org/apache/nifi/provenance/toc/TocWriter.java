@@ -35,6 +35,23 @@ public interface TocWriter extends Closeable {
      */
     void addBlockOffset(long offset, long firstEventId) throws IOException;
 
+    /**
+     * @return <code>true</code> if the Table of Contents stores a {@link BlockSummary} for each block, <code>false</code> otherwise
+     */
+    default boolean isBlockSummaryEnabled() {
+        return false;
+    }
+
+    /**
+     * Adds the summary of the current Block to the Table of Contents. Writers that do not store block summaries ignore the summary.
+     *
+     * @param summary the summary of the events in the current block
+     *
+     * @throws IOException if unable to persist the block summary
+     */
+    default void addBlockSummary(BlockSummary summary) throws IOException {
+    }
+
     /**
      * @return the index of the current Block
      */
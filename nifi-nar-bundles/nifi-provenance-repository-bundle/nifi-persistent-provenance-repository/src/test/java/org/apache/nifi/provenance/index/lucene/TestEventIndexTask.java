@@ -33,11 +33,17 @@ import org.mockito.Mockito;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestEventIndexTask {
 
@@ -138,4 +144,45 @@ public class TestEventIndexTask {
         Thread.sleep(100L);
         assertEquals(1, commitCount.get());
     }
+
+    @Test(timeout = 5000)
+    public void testDocumentsInFlightWhenTakenFromQueue() throws Exception {
+        final AtomicReference<EventIndexTask> taskReference = new AtomicReference<>();
+        final CompletableFuture<List<StoredDocument>> inFlightWhenDrained = new CompletableFuture<>();
+
+        // Record the documents in flight as soon as the task has taken documents from the queue, before it starts to index them
+        final BlockingQueue<StoredDocument> docQueue = new LinkedBlockingQueue<StoredDocument>() {
+            @Override
+            public int drainTo(final Collection<? super StoredDocument> destination, final int maxElements) {
+                final int drained = super.drainTo(destination, maxElements);
+                if (drained > 0) {
+                    inFlightWhenDrained.complete(taskReference.get().getDocumentsInFlight());
+                }
+                return drained;
+            }
+        };
+
+        final List<StoredDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            // Documents without a Lucene Document are not indexed, so no index is needed
+            final StorageSummary location = new StorageSummary(i, "0.0.prov", "1", 0, 1000L, 1000L);
+            documents.add(new StoredDocument(null, location));
+        }
+        docQueue.addAll(documents);
+
+        final EventIndexTask task = new EventIndexTask(docQueue, Mockito.mock(IndexManager.class), Mockito.mock(IndexDirectoryManager.class), 201, EventReporter.NO_OP);
+        taskReference.set(task);
+
+        final Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+
+        try {
+            assertEquals(documents, inFlightWhenDrained.get());
+        } finally {
+            task.shutdown().get();
+        }
+
+        assertTrue(task.getDocumentsInFlight().isEmpty());
+    }
 }
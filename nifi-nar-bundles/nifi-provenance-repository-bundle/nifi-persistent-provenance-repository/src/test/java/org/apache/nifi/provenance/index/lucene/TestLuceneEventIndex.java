@@ -25,6 +25,7 @@ import org.apache.nifi.provenance.RepositoryConfiguration;
 import org.apache.nifi.provenance.SearchableFields;
 import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.index.EventIndexWriter;
 import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.lineage.LineageNode;
 import org.apache.nifi.provenance.lineage.LineageNodeType;
@@ -52,6 +53,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -60,6 +62,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -120,6 +123,8 @@ public class TestLuceneEventIndex {
         assumeFalse(isWindowsEnvironment());
         final RepositoryConfiguration repoConfig = createConfig(1);
         repoConfig.setDesiredIndexSize(1L);
+        // Keep the number of events that may be queued for indexing small enough that the reindex window is bounded by the index threads
+        repoConfig.setIndexQueueSize(1000);
         final IndexManager indexManager = new StandardIndexManager(repoConfig);
 
         final ArrayListEventStore eventStore = new ArrayListEventStore();
@@ -537,6 +542,95 @@ public class TestLuceneEventIndex {
         assertEquals(event, matchingEvents.get(0));
     }
 
+    @Test(timeout = 60000)
+    public void testQueryMoreEventsThanMaxResults() throws InterruptedException {
+        assumeFalse(isWindowsEnvironment());
+        final RepositoryConfiguration repoConfig = createConfig();
+        repoConfig.setSearchableFields(Collections.singletonList(SearchableFields.ComponentID));
+        final IndexManager indexManager = new StandardIndexManager(repoConfig);
+
+        final LuceneEventIndex index = new LuceneEventIndex(repoConfig, indexManager, 2, EventReporter.NO_OP);
+
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+        for (int i = 0; i < 15; i++) {
+            final ProvenanceEventRecord event = createEvent(System.currentTimeMillis(), UUID.randomUUID().toString(), "component-1");
+            index.addEvent(event, new StorageSummary(event.getEventId(), "1.prov", "1", 1, 2L, 2L));
+            eventStore.addEvent(event);
+        }
+        index.initialize(eventStore);
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-1", null));
+        query.setMaxResults(10);
+
+        // We don't know how long it will take for the events to be indexed, so keep querying until
+        // we get the maximum number of results.
+        QueryResult result = null;
+        List<ProvenanceEventRecord> matchingEvents = Collections.emptyList();
+        while (matchingEvents.size() < 10) {
+            final QuerySubmission submission = index.submitQuery(query, EventAuthorizer.GRANT_ALL, "unit test user");
+            assertNotNull(submission);
+
+            result = submission.getResult();
+            assertNotNull(result);
+            result.awaitCompletion(4000, TimeUnit.MILLISECONDS);
+
+            assertTrue(result.isFinished());
+            assertNull(result.getError());
+
+            matchingEvents = result.getMatchingEvents();
+            assertNotNull(matchingEvents);
+            Thread.sleep(100L); // avoid crushing the CPU
+        }
+
+        assertEquals(10, matchingEvents.size());
+        assertEquals(10, result.getTotalHitCount());
+    }
+
+    @Test(timeout = 60000)
+    public void testQueryFindsEventsNotYetIndexed() throws InterruptedException, IOException {
+        final RepositoryConfiguration repoConfig = createConfig();
+
+        // Hold up indexing so that the events remain unindexed while we query.
+        final CountDownLatch indexingAllowed = new CountDownLatch(1);
+        final EventIndexWriter indexWriter = Mockito.mock(EventIndexWriter.class);
+        Mockito.when(indexWriter.index(Mockito.anyList(), Mockito.anyInt())).thenAnswer(invocation -> {
+            indexingAllowed.await();
+            return false;
+        });
+
+        final IndexManager indexManager = Mockito.mock(IndexManager.class);
+        Mockito.when(indexManager.borrowIndexWriter(Mockito.any(File.class))).thenReturn(indexWriter);
+        Mockito.when(indexManager.borrowIndexSearcher(Mockito.any(File.class))).thenThrow(new FileNotFoundException());
+
+        final LuceneEventIndex index = new LuceneEventIndex(repoConfig, indexManager, EventReporter.NO_OP);
+        try {
+            final ArrayListEventStore eventStore = new ArrayListEventStore();
+            index.initialize(eventStore);
+
+            final ProvenanceEventRecord event = createEvent();
+            final ProvenanceEventRecord otherEvent = createEvent();
+            eventStore.addEvent(event);
+            eventStore.addEvent(otherEvent);
+            index.addEvent(event, createStorageSummary(event.getEventId()));
+            index.addEvent(otherEvent, createStorageSummary(otherEvent.getEventId()));
+
+            final Query query = new Query(UUID.randomUUID().toString());
+            query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, event.getFlowFileUuid(), null));
+
+            final QueryResult result = index.submitQuery(query, EventAuthorizer.GRANT_ALL, "unit test user").getResult();
+            result.awaitCompletion(30, TimeUnit.SECONDS);
+
+            assertTrue(result.isFinished());
+            assertNull(result.getError());
+            assertEquals(Collections.singletonList(event), result.getMatchingEvents());
+            assertEquals(2, index.getUnindexedEventCount());
+        } finally {
+            indexingAllowed.countDown();
+            index.close();
+        }
+    }
+
     @Test(timeout = 5000)
     public void testQueryInverseSpecificField() throws InterruptedException, IOException {
         final List<SearchableField> searchableFields = new ArrayList<>();
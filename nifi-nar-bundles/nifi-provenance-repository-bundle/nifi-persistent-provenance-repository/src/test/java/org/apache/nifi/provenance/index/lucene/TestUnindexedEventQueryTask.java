@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.index.lucene;
+
+import org.apache.nifi.provenance.ProgressiveResult;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.authorization.EventAuthorizer;
+import org.apache.nifi.provenance.authorization.EventTransformer;
+import org.apache.nifi.provenance.lucene.LuceneUtil;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerms;
+import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.ArrayListEventStore;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestUnindexedEventQueryTask {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHitsCountedWhenMaxResultsReached() {
+        final ConvertEventToLuceneDocument converter = new ConvertEventToLuceneDocument(Collections.singletonList(SearchableFields.ComponentID), Collections.emptyList());
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        final List<StoredDocument> unindexedDocuments = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            final ProvenanceEventRecord event = createEvent(i);
+            for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : eventStore.addEvent(event).getStorageLocations().entrySet()) {
+                unindexedDocuments.add(new StoredDocument(entry.getKey(), entry.getValue(), converter));
+            }
+        }
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-1", null));
+
+        final ProgressiveResult result = Mockito.mock(ProgressiveResult.class);
+        final UnindexedEventQueryTask task = new UnindexedEventQueryTask(LuceneUtil.convertQuery(query), result, 10, unindexedDocuments, converter, eventStore,
+            EventAuthorizer.GRANT_ALL, EventTransformer.EMPTY_TRANSFORMER);
+        task.run();
+
+        // The events and all of the hits are added in a single update, so the hits are counted even though the events reach the maximum number of results
+        final ArgumentCaptor<Collection<ProvenanceEventRecord>> eventsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(result).update(eventsCaptor.capture(), Mockito.eq(15L));
+        Mockito.verify(result, Mockito.never()).addRecords(Mockito.anyCollection());
+        Mockito.verify(result, Mockito.never()).setError(Mockito.anyString());
+        assertEquals(10, eventsCaptor.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMostRecentEventsReturnedRegardlessOfDocumentOrder() {
+        final ConvertEventToLuceneDocument converter = new ConvertEventToLuceneDocument(Collections.singletonList(SearchableFields.ComponentID), Collections.emptyList());
+        final ArrayListEventStore eventStore = new ArrayListEventStore();
+
+        final List<StoredDocument> storedDocuments = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            final ProvenanceEventRecord event = createEvent(i);
+            for (final Map.Entry<ProvenanceEventRecord, StorageSummary> entry : eventStore.addEvent(event).getStorageLocations().entrySet()) {
+                storedDocuments.add(new StoredDocument(entry.getKey(), entry.getValue(), converter));
+            }
+        }
+
+        // The documents in flight are listed after those in the queue, so the most recent events need not be at the end of the list
+        final List<StoredDocument> unindexedDocuments = new ArrayList<>(storedDocuments.subList(10, 15));
+        unindexedDocuments.addAll(storedDocuments.subList(0, 10));
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-1", null));
+
+        final ProgressiveResult result = Mockito.mock(ProgressiveResult.class);
+        final UnindexedEventQueryTask task = new UnindexedEventQueryTask(LuceneUtil.convertQuery(query), result, 5, unindexedDocuments, converter, eventStore,
+            EventAuthorizer.GRANT_ALL, EventTransformer.EMPTY_TRANSFORMER);
+        task.run();
+
+        final ArgumentCaptor<Collection<ProvenanceEventRecord>> eventsCaptor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(result).update(eventsCaptor.capture(), Mockito.eq(15L));
+
+        final List<Long> eventIds = new ArrayList<>();
+        for (final ProvenanceEventRecord event : eventsCaptor.getValue()) {
+            eventIds.add(event.getEventId());
+        }
+        assertEquals(Arrays.asList(14L, 13L, 12L, 11L, 10L), eventIds);
+    }
+
+    private ProvenanceEventRecord createEvent(final long eventId) {
+        final long timestamp = System.currentTimeMillis();
+        return new StandardProvenanceEventRecord.Builder()
+            .setEventType(ProvenanceEventType.CONTENT_MODIFIED)
+            .setComponentId("component-1")
+            .setComponentType("unit test")
+            .setEventId(eventId)
+            .setEventTime(timestamp)
+            .setFlowFileEntryDate(timestamp)
+            .setFlowFileUUID(UUID.randomUUID().toString())
+            .setLineageStartDate(timestamp)
+            .setCurrentContentClaim("container", "section", "unit-test-id", 0L, 1024L)
+            .build();
+    }
+}
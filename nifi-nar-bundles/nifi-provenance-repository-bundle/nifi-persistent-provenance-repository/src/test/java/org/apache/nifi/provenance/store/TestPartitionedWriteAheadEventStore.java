@@ -392,6 +392,38 @@ public class TestPartitionedWriteAheadEventStore {
     }
 
 
+    @Test
+    public void testGetSpecificEventIdsFromManyPartitions() throws IOException {
+        final RepositoryConfiguration config = createConfig(4);
+        final PartitionedWriteAheadEventStore store = new PartitionedWriteAheadEventStore(config, writerFactory, readerFactory, EventReporter.NO_OP, new EventFileManager());
+        store.initialize();
+
+        // Add the events in batches so that each partition holds runs of consecutive Event IDs
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final List<ProvenanceEventRecord> batch = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                batch.add(createEvent());
+            }
+
+            store.addEvents(batch);
+            events.addAll(batch);
+        }
+
+        final List<Long> eventIds = new ArrayList<>();
+        final List<ProvenanceEventRecord> expectedEvents = new ArrayList<>();
+        for (int i = events.size() - 1; i >= 0; i -= 3) {
+            eventIds.add(Long.valueOf(i));
+            expectedEvents.add(0, events.get(i));
+        }
+
+        // Events are returned in order of Event ID, regardless of the order of the given IDs or of the partitions that they came from
+        final List<ProvenanceEventRecord> storedEvents = store.getEvents(eventIds, EventAuthorizer.GRANT_ALL, EventTransformer.EMPTY_TRANSFORMER);
+        assertEquals(expectedEvents, storedEvents);
+
+        store.close();
+    }
+
     @Test
     public void testWriteAfterRecoveringRepo() throws IOException {
         final RepositoryConfiguration config = createConfig();
@@ -22,10 +22,14 @@ import org.apache.nifi.provenance.EventIdFirstSchemaRecordWriter;
 import org.apache.nifi.provenance.IdentifierLookup;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.RepositoryConfiguration;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.apache.nifi.provenance.TestUtil;
 import org.apache.nifi.provenance.index.EventIndex;
 import org.apache.nifi.provenance.serialization.RecordReaders;
 import org.apache.nifi.provenance.serialization.StorageSummary;
+import org.apache.nifi.provenance.store.iterator.EventIterator;
+import org.apache.nifi.provenance.toc.BlockSummary;
+import org.apache.nifi.provenance.toc.StandardTocReader;
 import org.apache.nifi.provenance.toc.StandardTocWriter;
 import org.apache.nifi.provenance.toc.TocUtil;
 import org.apache.nifi.provenance.toc.TocWriter;
@@ -37,10 +41,12 @@ import org.mockito.stubbing.Answer;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -140,6 +146,62 @@ public class TestWriteAheadStorePartition {
         assertEquals(maxEventId, partition.getMaxEventId());
     }
 
+    @Test
+    public void testGetEventsByTimestampWithBlockSummaries() throws IOException {
+        final RepositoryConfiguration repoConfig = createConfig(1, "testGetEventsByTimestampWithBlockSummaries");
+
+        final String partitionName = repoConfig.getStorageDirectories().keySet().iterator().next();
+        final File storageDirectory = repoConfig.getStorageDirectories().values().iterator().next();
+
+        // Use small blocks so that the events are spread across many blocks
+        final RecordWriterFactory recordWriterFactory = (file, idGenerator, compressed, createToc) -> {
+            final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false, true) : null;
+            return new EventIdFirstSchemaRecordWriter(file, idGenerator, tocWriter, compressed, 1024, IdentifierLookup.EMPTY);
+        };
+
+        final RecordReaderFactory recordReaderFactory = RecordReaders::newRecordReader;
+
+        final WriteAheadStorePartition partition = new WriteAheadStorePartition(storageDirectory, partitionName, repoConfig, recordWriterFactory,
+            recordReaderFactory, new LinkedBlockingQueue<>(), new AtomicLong(0L), EventReporter.NO_OP, Mockito.mock(EventFileManager.class));
+
+        // Event times are stored as offsets from the time that the Event File was created, so they must be close to the current time
+        final long baseTime = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            final ProvenanceEventRecord event = new StandardProvenanceEventRecord.Builder()
+                .fromEvent(TestUtil.createEvent())
+                .setEventTime(baseTime + 1000L * (i + 1))
+                .build();
+            partition.addEvents(Collections.singleton(event));
+        }
+
+        final List<Long> eventTimes = new ArrayList<>();
+        try (final EventIterator iterator = partition.getEventsByTimestamp(baseTime + 40_500L, baseTime + 50_000L)) {
+            Optional<ProvenanceEventRecord> event;
+            while ((event = iterator.nextEvent()).isPresent()) {
+                eventTimes.add(event.get().getEventTime() - baseTime);
+            }
+        }
+
+        final List<Long> expectedEventTimes = new ArrayList<>();
+        for (long eventTime = 41_000L; eventTime <= 50_000L; eventTime += 1000L) {
+            expectedEventTimes.add(eventTime);
+        }
+        assertEquals(expectedEventTimes, eventTimes);
+
+        final File[] eventFiles = storageDirectory.listFiles(DirectoryUtils.EVENT_FILE_FILTER);
+        assertEquals(1, eventFiles.length);
+        try (final StandardTocReader tocReader = new StandardTocReader(TocUtil.getTocFile(eventFiles[0]))) {
+            assertTrue(tocReader.isBlockSummaryIncluded());
+            assertTrue(tocReader.getBlockIndex(tocReader.getLastBlockOffset()) > 10);
+
+            final BlockSummary firstBlockSummary = tocReader.getBlockSummary(0);
+            assertEquals(baseTime + 1000L, firstBlockSummary.getMinEventTime());
+            assertTrue(firstBlockSummary.getMaxEventTime() < baseTime + 40_500L);
+        }
+
+        partition.close();
+    }
+
     private RepositoryConfiguration createConfig(final int numStorageDirs, final String testName) {
         final RepositoryConfiguration config = new RepositoryConfiguration();
         final File storageDir = new File("target/storage/" + testName + "/" + UUID.randomUUID().toString());
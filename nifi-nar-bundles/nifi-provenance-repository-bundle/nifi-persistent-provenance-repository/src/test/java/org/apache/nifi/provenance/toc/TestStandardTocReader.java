@@ -18,6 +18,7 @@ package org.apache.nifi.provenance.toc;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.DataOutputStream;
@@ -27,6 +28,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.UUID;
 
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
 import org.junit.Test;
 
 public class TestStandardTocReader {
@@ -115,4 +119,61 @@ public class TestStandardTocReader {
             file.delete();
         }
     }
+
+    @Test
+    public void testBlockSummaries() throws IOException {
+        final File file = new File("target/" + UUID.randomUUID().toString());
+        try (final StandardTocWriter writer = new StandardTocWriter(file, false, false, true)) {
+            writer.addBlockOffset(0L, 0L);
+            writer.addBlockSummary(new BlockSummary.Builder()
+                .addEvent(createEvent(1000L, ProvenanceEventType.CREATE, "processor-1"))
+                .addEvent(createEvent(2000L, ProvenanceEventType.DROP, "processor-2"))
+                .build());
+
+            writer.addBlockOffset(4096L, 2L);
+            writer.addBlockSummary(new BlockSummary.Builder()
+                .addEvent(createEvent(3000L, ProvenanceEventType.ATTRIBUTES_MODIFIED, "processor-1"))
+                .build());
+
+            // The last block has no summary, as is the case while the block is still being written
+            writer.addBlockOffset(8192L, 100L);
+        }
+
+        // Append a partially written entry, as may be found while the Table of Contents is still being written
+        try (final OutputStream out = new FileOutputStream(file, true)) {
+            out.write(StandardTocWriter.BLOCK_ENTRY);
+            out.write(new byte[4]);
+        }
+
+        try (final StandardTocReader reader = new StandardTocReader(file)) {
+            assertTrue(reader.isBlockSummaryIncluded());
+            assertEquals(8192L, reader.getLastBlockOffset());
+            assertEquals(2, reader.getBlockIndexForEventId(150L).intValue());
+
+            final BlockSummary first = reader.getBlockSummary(0);
+            assertEquals(1000L, first.getMinEventTime());
+            assertEquals(2000L, first.getMaxEventTime());
+            assertTrue(first.mayContainEventTime(1500L, 1600L));
+            assertFalse(first.mayContainEventTime(2001L, 5000L));
+
+            final BlockSummary second = reader.getBlockSummary(1);
+            assertEquals(3000L, second.getMinEventTime());
+            assertEquals(3000L, second.getMaxEventTime());
+
+            assertNull(reader.getBlockSummary(2));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private ProvenanceEventRecord createEvent(final long eventTime, final ProvenanceEventType eventType, final String componentId) {
+        return new StandardProvenanceEventRecord.Builder()
+            .setEventTime(eventTime)
+            .setEventType(eventType)
+            .setComponentId(componentId)
+            .setComponentType("Unit Test")
+            .setFlowFileUUID(UUID.randomUUID().toString())
+            .setCurrentContentClaim(null, null, null, null, 0L)
+            .build();
+    }
 }
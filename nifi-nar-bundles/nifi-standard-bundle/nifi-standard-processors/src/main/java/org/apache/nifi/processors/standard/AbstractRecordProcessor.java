@@ -35,6 +35,7 @@ import org.apache.nifi.serialization.RecordSetWriter;
 import org.apache.nifi.serialization.RecordSetWriterFactory;
 import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 import java.io.IOException;
@@ -50,6 +51,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractRecordProcessor extends AbstractProcessor {
 
+    private static final int RECORD_BATCH_SIZE = 1000;
+
     static final PropertyDescriptor RECORD_READER = new PropertyDescriptor.Builder()
         .name("record-reader")
         .displayName("Record Reader")
@@ -124,7 +127,6 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
                 public void process(final InputStream in, final OutputStream out) throws IOException {
 
                     try (final RecordReader reader = readerFactory.createRecordReader(originalAttributes, in, original.getSize(), getLogger())) {
-
                         // Get the first record and process it before we create the Record Writer. We do this so that if the Processor
                         // updates the Record's schema, we can provide an updated schema to the Record Writer. If there are no records,
                         // then we can simply create the Writer with the Reader's schema and begin & end the Record Set.
@@ -144,6 +146,13 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
                             return;
                         }
 
+                        // A batch holds the values of the Reader's schema, so records are only copied in batches if the first record has that schema.
+                        // Otherwise, the records are written one at a time with a write schema that is derived from the first record.
+                        if (isBatchProcessingSupported() && firstRecord.getSchema().equals(reader.getSchema())) {
+                            writeBatches(firstRecord, reader, writerFactory, out, originalAttributes, attributes, recordCount);
+                            return;
+                        }
+
                         firstRecord = AbstractRecordProcessor.this.process(firstRecord, original, context, 1L);
 
                         final RecordSchema writeSchema = writerFactory.getSchema(originalAttributes, firstRecord.getSchema());
@@ -199,5 +208,43 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
         getLogger().info("Successfully converted {} records for {}", new Object[] {count, flowFile});
     }
 
+    /**
+     * Copies the given first record and all remaining records from the given reader to a writer created by the given factory, a batch of records
+     * at a time, so that Record Readers and Record Set Writers that support batches are able to read and write the records' values column by column.
+     * The first record must have the Reader's schema, which is the schema of the batches.
+     */
+    private void writeBatches(final Record firstRecord, final RecordReader reader, final RecordSetWriterFactory writerFactory, final OutputStream out,
+                              final Map<String, String> originalAttributes, final Map<String, String> attributes, final AtomicInteger recordCount)
+                              throws IOException, MalformedRecordException, SchemaNotFoundException {
+        final RecordBatch batch = new RecordBatch(reader.getSchema(), RECORD_BATCH_SIZE);
+        batch.addRecord(firstRecord);
+
+        final RecordSchema writeSchema = writerFactory.getSchema(originalAttributes, firstRecord.getSchema());
+        try (final RecordSetWriter writer = writerFactory.createWriter(getLogger(), writeSchema, out, originalAttributes)) {
+            writer.beginRecordSet();
+
+            while (!batch.isEmpty()) {
+                writer.write(batch);
+                reader.nextBatch(batch);
+            }
+
+            final WriteResult writeResult = writer.finishRecordSet();
+            attributes.put("record.count", String.valueOf(writeResult.getRecordCount()));
+            attributes.put(CoreAttributes.MIME_TYPE.key(), writer.getMimeType());
+            attributes.putAll(writeResult.getAttributes());
+            recordCount.set(writeResult.getRecordCount());
+        }
+    }
+
+    /**
+     * Indicates whether or not the Processor writes every record exactly as it was read, so that records can be copied from the Record Reader to
+     * the Record Set Writer in batches rather than being passed to {@link #process(Record, FlowFile, ProcessContext, long)} one at a time.
+     *
+     * @return <code>true</code> if records may be copied in batches, <code>false</code> otherwise
+     */
+    protected boolean isBatchProcessingSupported() {
+        return false;
+    }
+
     protected abstract Record process(Record record, FlowFile flowFile, ProcessContext context, long count);
 }
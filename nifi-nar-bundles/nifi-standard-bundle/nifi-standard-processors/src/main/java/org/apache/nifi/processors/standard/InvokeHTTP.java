@@ -70,6 +70,7 @@ import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.annotation.behavior.DynamicProperties;
 import org.apache.nifi.annotation.behavior.DynamicProperty;
+import org.apache.nifi.annotation.behavior.IOBound;
 import org.apache.nifi.annotation.behavior.InputRequirement;
 import org.apache.nifi.annotation.behavior.InputRequirement.Requirement;
 import org.apache.nifi.annotation.behavior.SupportsBatching;
@@ -110,6 +111,7 @@ import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 
 @SupportsBatching
 @Tags({"http", "https", "rest", "client"})
+@IOBound
 @InputRequirement(Requirement.INPUT_ALLOWED)
 @CapabilityDescription("可以与可配置的HTTP端点交互的HTTP客户端处理器。目的URL和HTTP方法是可配置的。FlowFile属性被转换为HTTP头，并且FlowFile内容被包含为请求的主体(如果HTTP方法是PUT, POST或PATCH)。")
 @WritesAttributes({
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.processors.standard;
 
+import org.apache.nifi.annotation.behavior.IOBound;
 import org.apache.nifi.annotation.behavior.InputRequirement;
 import org.apache.nifi.annotation.behavior.InputRequirement.Requirement;
 import org.apache.nifi.annotation.behavior.ReadsAttribute;
@@ -83,6 +84,7 @@ import static org.apache.nifi.processor.util.pattern.ExceptionHandler.createOnEr
 
 @SupportsBatching
 @SeeAlso(ConvertJSONToSQL.class)
+@IOBound
 @InputRequirement(Requirement.INPUT_REQUIRED)
 @Tags({"sql", "put", "rdbms", "database", "update", "insert", "relational"})
 @CapabilityDescription("执行SQL UPDATE或INSERT命令。传入流文件的内容应该是要执行的SQL命令。SQL命令可能会使用?为了逃避参数。在这种情况下，要使用的参数必须作为命名约定为sql.args.N的FlowFile属性存在。类型和sql.args.N。取值，其中N为正整数。sql.args.N。type应该是一个表示JDBC类型的数字。流文件的内容预计将采用UTF-8格式。")
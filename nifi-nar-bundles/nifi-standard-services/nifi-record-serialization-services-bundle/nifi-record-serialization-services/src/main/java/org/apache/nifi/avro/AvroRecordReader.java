@@ -20,14 +20,14 @@ package org.apache.nifi.avro;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordSchema;
 
 import com.google.common.base.Throwables;
 
 import java.io.IOException;
-import java.util.Map;
 
 public abstract class AvroRecordReader implements RecordReader {
 
@@ -42,8 +42,8 @@ public abstract class AvroRecordReader implements RecordReader {
             }
 
             final RecordSchema schema = getSchema();
-            final Map<String, Object> values = AvroTypeUtil.convertAvroRecordToMap(record, schema);
-            return new MapRecord(schema, values);
+            final Object[] values = AvroTypeUtil.convertAvroRecordToArray(record, schema);
+            return new ArrayRecord(schema, values);
         } catch (IOException e) {
             throw e;
         } catch (MalformedRecordException e) {
@@ -52,4 +52,29 @@ public abstract class AvroRecordReader implements RecordReader {
             throw new MalformedRecordException("Error while getting next record. Root cause: " + Throwables.getRootCause(e), e);
         }
     }
+
+    @Override
+    public int nextBatch(final RecordBatch batch, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        batch.clear();
+
+        try {
+            final RecordSchema schema = getSchema();
+            while (!batch.isFull()) {
+                final GenericRecord record = nextAvroRecord();
+                if (record == null) {
+                    break;
+                }
+
+                batch.addRow(AvroTypeUtil.convertAvroRecordToArray(record, schema), null, null);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (MalformedRecordException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MalformedRecordException("Error while getting next record. Root cause: " + Throwables.getRootCause(e), e);
+        }
+
+        return batch.size();
+    }
 }
@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,9 +37,10 @@ import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -49,6 +52,7 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
     private final CSVParser csvParser;
 
     private List<RecordField> recordFields;
+    private int[] schemaIndices;
 
     public CSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
                            final String dateFormat, final String timeFormat, final String timestampFormat, final String encoding) throws IOException {
@@ -78,48 +82,101 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
         try {
             final RecordSchema schema = getSchema();
 
-            final List<RecordField> recordFields = getRecordFields();
-            final int numFieldNames = recordFields.size();
             for (final CSVRecord csvRecord : csvParser) {
-                final Map<String, Object> values = new LinkedHashMap<>(recordFields.size() * 2);
-                for (int i = 0; i < csvRecord.size(); i++) {
-                    final String rawValue = csvRecord.get(i);
-
-                    final String rawFieldName;
-                    final DataType dataType;
-                    if (i >= numFieldNames) {
-                        if (!dropUnknownFields) {
-                            values.put("unknown_field_index_" + i, rawValue);
-                        }
-
-                        continue;
-                    } else {
-                        final RecordField recordField = recordFields.get(i);
-                        rawFieldName = recordField.getFieldName();
-                        dataType = recordField.getDataType();
-                    }
+                final Object[] values = new Object[schema.getFieldCount()];
+                final Map<String, Object> unknownValues = readValues(csvRecord, values, coerceTypes, dropUnknownFields);
+                return new ArrayRecord(schema, values, unknownValues, null, coerceTypes, dropUnknownFields);
+            }
+        } catch (Exception e) {
+            throw new MalformedRecordException("Error while getting next record. Root cause: " +  Throwables.getRootCause(e), e);
+        }
 
+        return null;
+    }
 
-                    final Object value;
-                    if (coerceTypes) {
-                        value = convert(rawValue, dataType, rawFieldName);
-                    } else {
-                        // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
-                        // dictate a field type. As a result, we will use the schema that we have to attempt to convert
-                        // the value into the desired type if it's a simple type.
-                        value = convertSimpleIfPossible(rawValue, dataType, rawFieldName);
-                    }
+    @Override
+    public int nextBatch(final RecordBatch batch, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        batch.clear();
 
-                    values.put(rawFieldName, value);
+        try {
+            // The values are parsed into the same array for every row and copied into the batch's column vectors
+            final Object[] values = new Object[getSchema().getFieldCount()];
+            final Iterator<CSVRecord> csvRecords = csvParser.iterator();
+            while (!batch.isFull() && csvRecords.hasNext()) {
+                final Map<String, Object> unknownValues = readValues(csvRecords.next(), values, coerceTypes, dropUnknownFields);
+                final int row = batch.addRow(values, unknownValues, null);
+                Arrays.fill(values, null);
+
+                if (coerceTypes) {
+                    batch.checkTypes(row);
                 }
-
-                return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
             }
         } catch (Exception e) {
             throw new MalformedRecordException("Error while getting next record. Root cause: " +  Throwables.getRootCause(e), e);
         }
 
-        return null;
+        return batch.size();
+    }
+
+    /**
+     * Parses the values of the given CSV Record into the given array, indexed by field position in the schema. Values of columns that are not
+     * in the schema are returned.
+     *
+     * @return the values of columns that are not in the schema, or <code>null</code> if there are none
+     */
+    private Map<String, Object> readValues(final CSVRecord csvRecord, final Object[] values, final boolean coerceTypes, final boolean dropUnknownFields) {
+        final List<RecordField> recordFields = getRecordFields();
+        final int numFieldNames = recordFields.size();
+
+        Map<String, Object> unknownValues = null;
+        for (int i = 0; i < csvRecord.size(); i++) {
+            final String rawValue = csvRecord.get(i);
+
+            final String rawFieldName;
+            final DataType dataType;
+            final int schemaIndex;
+            if (i >= numFieldNames) {
+                if (!dropUnknownFields) {
+                    if (unknownValues == null) {
+                        unknownValues = new LinkedHashMap<>();
+                    }
+                    unknownValues.put("unknown_field_index_" + i, rawValue);
+                }
+
+                continue;
+            } else {
+                schemaIndex = schemaIndices[i];
+                if (schemaIndex < 0 && dropUnknownFields) {
+                    continue;
+                }
+
+                final RecordField recordField = recordFields.get(i);
+                rawFieldName = recordField.getFieldName();
+                dataType = recordField.getDataType();
+            }
+
+
+            final Object value;
+            if (coerceTypes) {
+                value = convert(rawValue, dataType, rawFieldName);
+            } else {
+                // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
+                // dictate a field type. As a result, we will use the schema that we have to attempt to convert
+                // the value into the desired type if it's a simple type.
+                value = convertSimpleIfPossible(rawValue, dataType, rawFieldName);
+            }
+
+            if (schemaIndex >= 0) {
+                values[schemaIndex] = value == null ? ArrayRecord.NULL_VALUE : value;
+            } else {
+                if (unknownValues == null) {
+                    unknownValues = new LinkedHashMap<>();
+                }
+                unknownValues.put(rawFieldName, value);
+            }
+        }
+
+        return unknownValues;
     }
 
 
@@ -136,15 +193,19 @@ public class CSVRecordReader extends AbstractCSVRecordReader {
 
         final List<RecordField> fields = new ArrayList<>();
         final List<String> rawFieldNames = new ArrayList<>(sortedMap.values());
+        final int[] indices = new int[rawFieldNames.size()];
         for (final String rawFieldName : rawFieldNames) {
             final Optional<RecordField> option = schema.getField(rawFieldName);
             if (option.isPresent()) {
+                indices[fields.size()] = schema.getFieldIndex(option.get().getFieldName());
                 fields.add(option.get());
             } else {
+                indices[fields.size()] = -1;
                 fields.add(new RecordField(rawFieldName, RecordFieldType.STRING.getDataType()));
             }
         }
 
+        this.schemaIndices = indices;
         this.recordFields = fields;
         return fields;
     }
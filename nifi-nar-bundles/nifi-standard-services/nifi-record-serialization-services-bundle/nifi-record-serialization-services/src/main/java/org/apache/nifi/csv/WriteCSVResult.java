@@ -26,9 +26,11 @@ import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -172,6 +174,68 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
         return record.getAsString(recordField, getFormat(recordField));
     }
 
+    @Override
+    protected Map<String, String> writeBatch(final RecordBatch batch) throws IOException {
+        // If we are not writing an active record set, then we need to ensure that we write the
+        // schema information.
+        if (!isActiveRecordSet()) {
+            schemaWriter.writeHeader(recordSchema, getOutputStream());
+        }
+
+        includeHeaderIfNecessary(null, true);
+
+        // Convert the values one column at a time, so that the field's index and format are only determined once, and then print each row
+        final int size = batch.size();
+        final Object[][] columns = new Object[fieldValues.length][];
+        int i = 0;
+        for (final RecordField recordField : recordSchema.getFields()) {
+            columns[i++] = getFieldValues(batch, recordField);
+        }
+
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < columns.length; column++) {
+                fieldValues[column] = columns[column][row];
+            }
+
+            printer.printRecord(fieldValues);
+        }
+
+        return schemaWriter.getAttributes(recordSchema);
+    }
+
+    private Object[] getFieldValues(final RecordBatch batch, final RecordField recordField) {
+        final boolean numeric;
+        switch (recordField.getDataType().getFieldType()) {
+            case BIGINT:
+            case BYTE:
+            case DECIMAL:
+            case DOUBLE:
+            case FLOAT:
+            case LONG:
+            case INT:
+            case SHORT:
+                numeric = true;
+                break;
+            default:
+                numeric = false;
+                break;
+        }
+
+        final int fieldIndex = batch.getFieldIndex(recordField);
+        final String format = getFormat(recordField);
+        final Object[] values = new Object[batch.size()];
+        for (int row = 0; row < values.length; row++) {
+            final Object value = batch.getValue(row, fieldIndex, recordField);
+            if (value == null || (numeric && value instanceof Number)) {
+                values[row] = value;
+            } else {
+                values[row] = DataTypeUtils.toString(value, format);
+            }
+        }
+
+        return values;
+    }
+
     @Override
     public WriteResult writeRawRecord(final Record record) throws IOException {
         // If we are not writing an active record set, then we need to ensure that we write the
@@ -94,6 +94,10 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
         }
     }
 
+    protected ComponentLog getLogger() {
+        return logger;
+    }
+
     protected Supplier<DateFormat> getLazyDateFormat() {
         return LAZY_DATE_FORMAT;
     }
@@ -20,9 +20,10 @@ package org.apache.nifi.json;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -37,8 +38,10 @@ import org.codehaus.jackson.node.ArrayNode;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -84,13 +87,61 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
         return null;
     }
 
+    @Override
+    public int nextBatch(final RecordBatch batch, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        batch.clear();
+
+        // The values are read into the same array for every row and copied into the batch's column vectors
+        final Object[] values = new Object[schema.getFieldCount()];
+        while (!batch.isFull()) {
+            final JsonNode nextNode = getNextJsonNode();
+            if (nextNode == null) {
+                break;
+            }
+
+            try {
+                final Map<String, Object> unknownValues = readValues(nextNode, schema, null, coerceTypes, dropUnknownFields, values);
+                final Supplier<String> supplier = nextNode::toString;
+                batch.addRow(values, unknownValues, SerializedForm.of(supplier, "application/json"));
+            } catch (final MalformedRecordException mre) {
+                throw mre;
+            } catch (final Exception e) {
+                getLogger().debug("Failed to convert JSON Element {} into a Record object using schema {} due to {}", new Object[] {nextNode, schema, e.toString(), e});
+                throw new MalformedRecordException("Successfully parsed a JSON object from input but failed to convert into a Record object with the given schema", e);
+            }
+
+            Arrays.fill(values, null);
+        }
+
+        return batch.size();
+    }
+
     private Record convertJsonNodeToRecord(final JsonNode jsonNode, final RecordSchema schema, final String fieldNamePrefix,
             final boolean coerceTypes, final boolean dropUnknown) throws IOException, MalformedRecordException {
 
-        final Map<String, Object> values = new HashMap<>(schema.getFieldCount() * 2);
+        final Object[] values = new Object[schema.getFieldCount()];
+        final Map<String, Object> unknownValues = readValues(jsonNode, schema, fieldNamePrefix, coerceTypes, dropUnknown, values);
+
+        final Supplier<String> supplier = jsonNode::toString;
+        return new ArrayRecord(schema, values, unknownValues, SerializedForm.of(supplier, "application/json"), false, dropUnknown);
+    }
+
+    /**
+     * Reads the values of the given JSON node into the given array, indexed by field position in the schema. Values of fields that are not
+     * in the schema are returned.
+     *
+     * @return the values of fields that are not in the schema, or <code>null</code> if there are none
+     */
+    private Map<String, Object> readValues(final JsonNode jsonNode, final RecordSchema schema, final String fieldNamePrefix,
+            final boolean coerceTypes, final boolean dropUnknown, final Object[] values) throws IOException, MalformedRecordException {
+
+        // Values of fields that are in the schema are stored by the index of the field, all others by name
+        Map<String, Object> unknownValues = null;
 
         if (dropUnknown) {
+            int index = -1;
             for (final RecordField recordField : schema.getFields()) {
+                index++;
                 final JsonNode childNode = getChildNode(jsonNode, recordField);
                 if (childNode == null) {
                     continue;
@@ -107,7 +158,7 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
                     value = getRawNodeValue(childNode, recordField == null ? null : recordField.getDataType(), fieldName);
                 }
 
-                values.put(fieldName, value);
+                values[index] = value == null ? ArrayRecord.NULL_VALUE : value;
             }
         } else {
             final Iterator<String> fieldNames = jsonNode.getFieldNames();
@@ -115,7 +166,8 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
                 final String fieldName = fieldNames.next();
                 final JsonNode childNode = jsonNode.get(fieldName);
 
-                final RecordField recordField = schema.getField(fieldName).orElse(null);
+                final int index = schema.getFieldIndex(fieldName);
+                final RecordField recordField = index < 0 ? null : schema.getField(index);
 
                 final Object value;
                 if (coerceTypes && recordField != null) {
@@ -126,12 +178,19 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
                     value = getRawNodeValue(childNode, recordField == null ? null : recordField.getDataType(), fieldName);
                 }
 
-                values.put(fieldName, value);
+                if (recordField == null) {
+                    if (unknownValues == null) {
+                        unknownValues = new LinkedHashMap<>();
+                    }
+                    unknownValues.put(fieldName, value);
+                } else if (values[index] == null || fieldName.equals(recordField.getFieldName())) {
+                    // A value given by the field's name takes precedence over one given by any of its aliases
+                    values[index] = value == null ? ArrayRecord.NULL_VALUE : value;
+                }
             }
         }
 
-        final Supplier<String> supplier = jsonNode::toString;
-        return new MapRecord(schema, values, SerializedForm.of(supplier, "application/json"), false, dropUnknown);
+        return unknownValues;
     }
 
 
@@ -26,6 +26,7 @@ import org.apache.nifi.serialization.WriteResult;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -44,6 +45,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.text.DateFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -221,6 +223,66 @@ public class WriteJsonResult extends AbstractRecordSetWriter implements RecordSe
         }
     }
 
+    @Override
+    protected Map<String, String> writeBatch(final RecordBatch batch) throws IOException {
+        // If we are not writing an active record set, then we need to ensure that we write the
+        // schema information.
+        if (!isActiveRecordSet()) {
+            generator.flush();
+            schemaAccess.writeHeader(recordSchema, getOutputStream());
+        }
+
+        // Resolve each field of the write schema against the batch once rather than for every row
+        final List<RecordField> fields = recordSchema.getFields();
+        final int[] fieldIndices = new int[fields.size()];
+        for (int i = 0; i < fieldIndices.length; i++) {
+            fieldIndices[i] = batch.getFieldIndex(fields.get(i));
+        }
+
+        final boolean sameSchema = batch.getSchema().equals(recordSchema);
+        for (int row = 0; row < batch.size(); row++) {
+            if (sameSchema) {
+                final Optional<SerializedForm> serializedForm = batch.getSerializedForm(row);
+                if (serializedForm.isPresent() && serializedForm.get().getMimeType().equals(getMimeType())) {
+                    final Object serialized = serializedForm.get().getSerialized();
+                    if (serialized instanceof String) {
+                        generator.writeRawValue((String) serialized);
+                        continue;
+                    }
+                }
+            }
+
+            try {
+                generator.writeStartObject();
+
+                for (int i = 0; i < fieldIndices.length; i++) {
+                    final RecordField field = fields.get(i);
+                    final String fieldName = field.getFieldName();
+                    final Object value = batch.getValue(row, fieldIndices[i], field);
+                    if (value == null) {
+                        if (nullSuppression == NullSuppression.NEVER_SUPPRESS
+                            || (nullSuppression == NullSuppression.SUPPRESS_MISSING) && fieldIndices[i] >= 0 && batch.isPresent(row, fieldIndices[i])) {
+                            generator.writeNullField(fieldName);
+                        }
+
+                        continue;
+                    }
+
+                    generator.writeFieldName(fieldName);
+                    writeValue(generator, value, fieldName, field.getDataType());
+                }
+
+                generator.writeEndObject();
+            } catch (final Exception e) {
+                final Record record = batch.getRecord(row);
+                logger.error("Failed to write {} with schema {} as a JSON Object due to {}", new Object[] {record, record.getSchema(), e.toString(), e});
+                throw e;
+            }
+        }
+
+        return schemaAccess.getAttributes(recordSchema);
+    }
+
     private boolean isFieldPresent(final RecordField field, final Record record) {
         final Set<String> rawFieldNames = record.getRawFieldNames();
         if (rawFieldNames.contains(field.getFieldName())) {
@@ -29,6 +29,7 @@ import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.ListRecordSet;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -160,6 +161,41 @@ public abstract class TestWriteAvroResult {
         }
     }
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final Schema schema = new Schema.Parser().parse(new File("src/test/resources/avro/simple.avsc"));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("msg", RecordFieldType.STRING.getDataType()));
+        final RecordSchema recordSchema = new SimpleRecordSchema(fields);
+
+        final int recordCount = 3;
+        final RecordBatch batch = new RecordBatch(recordSchema, recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            batch.addRow(new Object[] {"nifi" + i}, null, null);
+        }
+
+        try (final RecordSetWriter writer = createWriter(schema, baos)) {
+            writer.beginRecordSet();
+            assertEquals(recordCount, writer.write(batch).getRecordCount());
+            verify(writer.finishRecordSet());
+        }
+
+        final byte[] data = baos.toByteArray();
+
+        try (final InputStream in = new ByteArrayInputStream(data)) {
+            final List<GenericRecord> avroRecords = readRecords(in, schema, recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                final GenericRecord avroRecord = avroRecords.get(i);
+
+                assertNotNull(avroRecord);
+                assertEquals("nifi" + i, avroRecord.get("msg").toString());
+            }
+        }
+    }
+
     @Test
     public void testDecimalType() throws IOException {
         final Object[][] decimals = new Object[][] {
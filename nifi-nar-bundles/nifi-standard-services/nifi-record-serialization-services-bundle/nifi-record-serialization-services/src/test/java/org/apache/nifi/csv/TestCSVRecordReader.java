@@ -24,6 +24,7 @@ import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -394,6 +395,29 @@ public class TestCSVRecordReader {
         }
     }
 
+    @Test
+    public void testNextBatch() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.replaceAll(f -> f.getFieldName().equals("balance") ? new RecordField("balance", doubleDataType) : f);
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        try (final InputStream fis = new FileInputStream(new File("src/test/resources/csv/multi-bank-account.csv"));
+            final CSVRecordReader reader = createReader(fis, schema, format)) {
+
+            final RecordBatch batch = new RecordBatch(schema, 1);
+            assertEquals(1, reader.nextBatch(batch));
+            final Object[] firstExpectedValues = new Object[] {"1", "John Doe", 4750.89D, "123 My Street", "My City", "MS", "11111", "USA"};
+            Assert.assertArrayEquals(firstExpectedValues, batch.getRecord(0).getValues());
+
+            assertEquals(1, reader.nextBatch(batch));
+            assertEquals("Jane Doe", batch.getValue(0, 1));
+            assertEquals(4820.09D, batch.getColumn(2)[0]);
+
+            assertEquals(0, reader.nextBatch(batch));
+        }
+    }
+
     @Test
     public void testExtraWhiteSpace() throws IOException, MalformedRecordException {
         final List<RecordField> fields = getDefaultFields();
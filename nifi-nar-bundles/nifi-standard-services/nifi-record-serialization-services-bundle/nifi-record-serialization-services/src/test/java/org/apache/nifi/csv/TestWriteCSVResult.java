@@ -24,6 +24,7 @@ import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -89,6 +90,31 @@ public class TestWriteCSVResult {
         assertEquals("name,age\nJohn Doe,30\n", output);
     }
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final List<RecordField> schemaFields = new ArrayList<>();
+        schemaFields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        schemaFields.add(new RecordField("age", RecordFieldType.INT.getDataType()));
+        schemaFields.add(new RecordField("country", RecordFieldType.STRING.getDataType(), "USA"));
+        final RecordSchema schema = new SimpleRecordSchema(schemaFields);
+
+        final RecordBatch batch = new RecordBatch(schema, 2);
+        batch.addRow(new Object[] {"John Doe", 30, null}, null, null);
+        batch.addRow(new Object[] {"Jane Doe", "31", "Canada"}, null, null);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final CSVFormat csvFormat = CSVFormat.DEFAULT.withQuoteMode(QuoteMode.NON_NUMERIC).withRecordSeparator("\n");
+        try (final WriteCSVResult result = new WriteCSVResult(csvFormat, schema, new SchemaNameAsAttribute(), baos,
+            RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), true, "UTF-8")) {
+            result.beginRecordSet();
+            assertEquals(2, result.write(batch).getRecordCount());
+            assertEquals(2, result.finishRecordSet().getRecordCount());
+        }
+
+        final String output = baos.toString();
+        assertEquals("\"name\",\"age\",\"country\"\n\"John Doe\",30,\"USA\"\n\"Jane Doe\",\"31\",\"Canada\"\n", output);
+    }
+
     @Test
     public void testDataTypes() throws IOException {
         final CSVFormat csvFormat = CSVFormat.DEFAULT.withQuoteMode(QuoteMode.ALL).withRecordSeparator("\n");
@@ -22,9 +22,11 @@ import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.record.NullSuppression;
 import org.apache.nifi.schema.access.SchemaNameAsAttribute;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordBatch;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -356,6 +358,31 @@ public class TestWriteJsonResult {
         assertEquals(expected, output);
     }
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final RecordBatch batch = new RecordBatch(schema, 4);
+        batch.addRow(new Object[] {1, "John Doe"}, null, null);
+        batch.addRow(new Object[] {2, ArrayRecord.NULL_VALUE}, null, null);
+        batch.addRow(new Object[] {3, null}, null, null);
+        batch.addRow(new Object[] {4, "Jane Doe"}, null, SerializedForm.of("{\"id\":4,\"name\":\"Serialized\"}", "application/json"));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final WriteJsonResult writer = new WriteJsonResult(Mockito.mock(ComponentLog.class), schema, new SchemaNameAsAttribute(), baos, false,
+                NullSuppression.SUPPRESS_MISSING, OutputGrouping.OUTPUT_ARRAY, null, null, null)) {
+            writer.beginRecordSet();
+            assertEquals(4, writer.write(batch).getRecordCount());
+            writer.finishRecordSet();
+        }
+
+        assertEquals("[{\"id\":1,\"name\":\"John Doe\"},{\"id\":2,\"name\":null},{\"id\":3},{\"id\":4,\"name\":\"Serialized\"}]",
+            new String(baos.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testNullSuppression() throws IOException {
         final List<RecordField> fields = new ArrayList<>();